@@ -4,13 +4,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import trunk.connector.Connector;
 import trunk.connector.nio.Http11NioProtocol;
+import trunk.connector.nio.SslConfig;
 import trunk.connector.protocol.ProtocolHandler;
+import trunk.connector.rpc.RpcNioProtocol;
 import trunk.container.ContextConfig;
 import trunk.container.StandardContext;
 
 import java.io.File;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Path;
 
 /**
  * Elephant 웹 서버의 실제 부팅 로직을 담당하는 클래스입니다.
@@ -19,8 +22,17 @@ import java.net.URL;
 public class WebServerLauncher {
     private static final Logger log = LoggerFactory.getLogger(WebServerLauncher.class);
     private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_SSL_PORT = 8443;
+    // 키스토어 경로가 지정되면 HTTPS 커넥터를 함께 시작한다
+    private static final String SSL_KEY_STORE_PROPERTY = "elephant.ssl.keyStore";
+    private static final String SSL_KEY_STORE_PASSWORD_PROPERTY = "elephant.ssl.keyStorePassword";
+    private static final String SSL_PORT_PROPERTY = "elephant.ssl.port";
+    // 포트가 지정되면 web.xml의 <rpc-handler>를 처리하는 바이너리 RPC 커넥터를 함께 시작한다
+    private static final String RPC_PORT_PROPERTY = "elephant.rpc.port";
 
     private Connector connector;
+    private Connector secureConnector;
+    private Connector rpcConnector;
 
     public void start() {
         try {
@@ -31,6 +43,9 @@ public class WebServerLauncher {
             this.connector.init();
             this.connector.start();
 
+            startSecureConnector(context);
+            startRpcConnector(context);
+
             logAsciiArt();
             log.info("Web Application Server started successfully on port {}.", DEFAULT_PORT);
 
@@ -69,6 +84,38 @@ public class WebServerLauncher {
         return context;
     }
 
+    /**
+     * {@value #SSL_KEY_STORE_PROPERTY} 시스템 프로퍼티가 지정된 경우 TLS를 종료하는 HTTPS 커넥터를 시작합니다.
+     */
+    private void startSecureConnector(StandardContext context) throws Exception {
+        String keyStore = System.getProperty(SSL_KEY_STORE_PROPERTY);
+        if (keyStore == null) {
+            return;
+        }
+        char[] password = System.getProperty(SSL_KEY_STORE_PASSWORD_PROPERTY, "").toCharArray();
+        int port = Integer.getInteger(SSL_PORT_PROPERTY, DEFAULT_SSL_PORT);
+
+        SslConfig sslConfig = SslConfig.fromKeyStore(Path.of(keyStore), password);
+        this.secureConnector = new Connector(new Http11NioProtocol(port, sslConfig), context);
+        this.secureConnector.init();
+        this.secureConnector.start();
+        log.info("HTTPS connector started on port {}.", port);
+    }
+
+    /**
+     * {@value #RPC_PORT_PROPERTY} 시스템 프로퍼티가 지정된 경우 바이너리 RPC 커넥터를 시작합니다.
+     */
+    private void startRpcConnector(StandardContext context) throws Exception {
+        Integer port = Integer.getInteger(RPC_PORT_PROPERTY);
+        if (port == null) {
+            return;
+        }
+        this.rpcConnector = new Connector(new RpcNioProtocol(port), context);
+        this.rpcConnector.init();
+        this.rpcConnector.start();
+        log.info("RPC connector started on port {}.", port);
+    }
+
     /**
      * 애플리케이션 종료 시 안전하게 서버 자원을 해제하기 위한 종료 Hook을 등록합니다.
      */
@@ -78,6 +125,12 @@ public class WebServerLauncher {
                 log.info("Shutting down the web application server...");
                 context.destroyAll();
                 connector.stop();
+                if (secureConnector != null) {
+                    secureConnector.stop();
+                }
+                if (rpcConnector != null) {
+                    rpcConnector.stop();
+                }
             } catch (Exception e) {
                 log.error("Error stopping Web Application Server", e);
             }
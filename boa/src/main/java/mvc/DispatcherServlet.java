@@ -6,11 +6,16 @@ import trunk.container.StandardContext;
 import trunk.container.StandardWrapper;
 import trunk.http11.request.HttpRequest;
 import trunk.http11.response.HttpResponse;
+import trunk.http11.response.PreEncodedResponse;
 import trunk.servlet.HttpServlet;
 
 import java.io.IOException;
+import java.util.Map;
 
 public class DispatcherServlet extends HttpServlet implements ServletContextAware {
+    private static final PreEncodedResponse NOT_FOUND =
+            PreEncodedResponse.of(404, Map.of("Content-Type", "text/plain"), "Not Found".getBytes());
+
     private final HandlerMapping handlerMapping = new HandlerMapping();
     private StandardContext context;
 
@@ -21,7 +26,7 @@ public class DispatcherServlet extends HttpServlet implements ServletContextAwar
 
     @Override
     public void service(HttpRequest request, HttpResponse response) {
-        Controller controller = handlerMapping.getController(request.getStartLine().getRequestUri());
+        Controller controller = handlerMapping.getController(request.getStartLine().getRequestTarget().getNormalizedPath());
 
         if (controller != null) {
             controller.service(request, response);
@@ -33,9 +38,7 @@ public class DispatcherServlet extends HttpServlet implements ServletContextAwar
                 if (wrapper != null) {
                     wrapper.service(request, response);
                 } else {
-                    response.setStatusCode(404);
-                    response.setHeader("Content-Type", "text/plain");
-                    response.setBody("Not Found".getBytes());
+                    response.setPreEncodedResponse(NOT_FOUND);
                 }
             } catch (IOException e) {
                 throw new RuntimeException(e);
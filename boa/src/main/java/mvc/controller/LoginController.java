@@ -4,11 +4,14 @@ import mvc.db.DataBase;
 import mvc.model.User;
 import trunk.http11.request.HttpRequest;
 import trunk.http11.response.HttpResponse;
+import trunk.http11.response.PreEncodedResponse;
 import trunk.http11.session.HttpSession;
 
 import java.util.Map;
 
 public class LoginController implements Controller {
+    private static final PreEncodedResponse REDIRECT_TO_INDEX = PreEncodedResponse.redirect("/index.html");
+    private static final PreEncodedResponse REDIRECT_TO_LOGIN_FAILED = PreEncodedResponse.redirect("/user/login_failed.html");
 
     @Override
     public void service(HttpRequest request, HttpResponse response) {
@@ -21,9 +24,9 @@ public class LoginController implements Controller {
         if (user != null && user.getPassword().equals(password)) {
             HttpSession session = request.getSession();
             session.setAttribute("user", user);
-            response.sendRedirect("/index.html");
+            response.setPreEncodedResponse(REDIRECT_TO_INDEX);
         } else {
-            response.sendRedirect("/user/login_failed.html");
+            response.setPreEncodedResponse(REDIRECT_TO_LOGIN_FAILED);
         }
     }
 }
\ No newline at end of file
@@ -4,10 +4,12 @@ import mvc.db.DataBase;
 import mvc.model.User;
 import trunk.http11.request.HttpRequest;
 import trunk.http11.response.HttpResponse;
+import trunk.http11.response.PreEncodedResponse;
 
 import java.util.Map;
 
 public class UserController implements Controller {
+    private static final PreEncodedResponse REDIRECT_TO_INDEX = PreEncodedResponse.redirect("/index.html");
 
     @Override
     public void service(HttpRequest request, HttpResponse response) {
@@ -20,6 +22,6 @@ public class UserController implements Controller {
         User user = new User(userId, password, name, email);
         DataBase.addUser(user);
 
-        response.sendRedirect("/index.html");
+        response.setPreEncodedResponse(REDIRECT_TO_INDEX);
     }
 }
@@ -4,20 +4,30 @@ import mvc.db.DataBase;
 import mvc.model.User;
 import trunk.http11.request.HttpRequest;
 import trunk.http11.response.HttpResponse;
+import trunk.http11.response.PreEncodedResponse;
 import trunk.http11.session.HttpSession;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.Collection;
 
 public class UserListController implements Controller {
+    private static final PreEncodedResponse REDIRECT_TO_LOGIN = PreEncodedResponse.redirect("/user/login.html");
 
     @Override
     public void service(HttpRequest request, HttpResponse response) {
         if (isLogined(request.getSession())) {
             response.setStatusCode(200);
             response.setHeader("Content-Type", "text/html");
-            response.setBody(createHtml().getBytes());
+            // 작은 목록은 Content-Length와 함께 한 번에, 큰 목록은 청크 단위로 전송된다
+            try (Writer writer = response.getWriter()) {
+                writeHtml(writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         } else {
-            response.sendRedirect("/user/login.html");
+            response.setPreEncodedResponse(REDIRECT_TO_LOGIN);
         }
     }
 
@@ -30,23 +40,21 @@ public class UserListController implements Controller {
         return true;
     }
 
-    private String createHtml() {
+    private void writeHtml(Writer writer) throws IOException {
         Collection<User> users = DataBase.findAll();
-        StringBuilder sb = new StringBuilder("<html><body>");
-        sb.append("<h1>User List</h1>");
-        sb.append("<table border='1'>");
-        sb.append("<tr><th>ID</th><th>Name</th><th>Email</th></tr>");
+        writer.write("<html><body>");
+        writer.write("<h1>User List</h1>");
+        writer.write("<table border='1'>");
+        writer.write("<tr><th>ID</th><th>Name</th><th>Email</th></tr>");
 
         for (User user : users) {
-            sb.append("<tr>");
-            sb.append("<td>").append(user.getUserId()).append("</td>");
-            sb.append("<td>").append(user.getName()).append("</td>");
-            sb.append("<td>").append(user.getEmail()).append("</td>");
-            sb.append("</tr>");
+            writer.write("<tr>");
+            writer.append("<td>").append(user.getUserId()).append("</td>");
+            writer.append("<td>").append(user.getName()).append("</td>");
+            writer.append("<td>").append(user.getEmail()).append("</td>");
+            writer.write("</tr>");
         }
-        sb.append("</table>");
-        sb.append("</body></html>");
-
-        return sb.toString();
+        writer.write("</table>");
+        writer.write("</body></html>");
     }
 }
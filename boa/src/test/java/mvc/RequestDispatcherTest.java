@@ -5,6 +5,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import trunk.http11.request.HttpRequest;
 import trunk.http11.request.HttpRequestStartLine;
+import trunk.http11.request.RequestTarget;
 import trunk.http11.response.HttpResponse;
 
 import static org.mockito.Mockito.*;
@@ -20,7 +21,7 @@ class DispatcherServletTest {
         HttpRequestStartLine mockStartLine = mock(HttpRequestStartLine.class);
 
         when(mockRequest.getStartLine()).thenReturn(mockStartLine);
-        when(mockRequest.getStartLine().getRequestUri()).thenReturn("/user/create");
+        when(mockRequest.getStartLine().getRequestTarget()).thenReturn(RequestTarget.parse("/user/create?from=form"));
         HttpResponse response = new HttpResponse();
 
         // when
@@ -0,0 +1,174 @@
+package trunk.connector.rpc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import trunk.connector.Connector;
+import trunk.connector.nio.Http11NioProtocol;
+import trunk.container.StandardContext;
+import trunk.http11.request.HttpRequest;
+import trunk.http11.response.HttpResponse;
+import trunk.servlet.HttpServlet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 작은 페이로드의 왕복 비용을 HTTP/1.1 커넥터와 바이너리 RPC 커넥터로 비교하는 벤치마크입니다.
+ * <p>
+ * 두 커넥터를 같은 프로세스에 띄우고, 스레드마다 keep-alive 커넥션 하나로 같은 크기의 페이로드를 에코합니다.
+ * 서버 측 작업은 동일하므로 차이는 프로토콜 파싱/인코딩과 헤더 처리 비용입니다.
+ * <pre>
+ * ./gradlew :trunk:jmh
+ * </pre>
+ *
+ * @author jungbin97
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RpcVsHttpBenchmark {
+    private static final int HTTP_PORT = 18080;
+    private static final int RPC_PORT = 19090;
+    private static final int ECHO_METHOD = 1;
+
+    public static class EchoServlet extends HttpServlet {
+        @Override
+        protected void doPost(HttpRequest request, HttpResponse response) {
+            response.setStatusCode(200);
+            response.setHeader("Content-Type", "application/octet-stream");
+            response.setBody(request.getBody().getBody().getBytes(StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Server {
+        Connector http;
+        Connector rpc;
+
+        @Setup(Level.Trial)
+        public void start() throws Exception {
+            StandardContext context = new StandardContext();
+            context.addChild("/echo", EchoServlet.class, 0);
+            context.addRpcHandler(ECHO_METHOD, payload -> payload);
+            context.loadOnStartup();
+
+            http = new Connector(new Http11NioProtocol(HTTP_PORT), context);
+            http.init();
+            http.start();
+            rpc = new Connector(new RpcNioProtocol(RPC_PORT), context);
+            rpc.init();
+            rpc.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws Exception {
+            http.stop();
+            rpc.stop();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        @Param({"32", "512"})
+        int payloadSize;
+
+        Socket httpSocket;
+        DataOutputStream httpOut;
+        DataInputStream httpIn;
+        byte[] httpRequest;
+
+        Socket rpcSocket;
+        DataOutputStream rpcOut;
+        DataInputStream rpcIn;
+        byte[] payload;
+        int requestId;
+
+        @Setup(Level.Trial)
+        public void connect(Server server) throws IOException {
+            payload = new byte[payloadSize];
+            String head = "POST /echo HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/octet-stream\r\n"
+                    + "Content-Length: " + payloadSize + "\r\n\r\n";
+            httpRequest = (head + new String(payload, StandardCharsets.ISO_8859_1)).getBytes(StandardCharsets.ISO_8859_1);
+
+            httpSocket = open(HTTP_PORT);
+            httpOut = new DataOutputStream(new BufferedOutputStream(httpSocket.getOutputStream()));
+            httpIn = new DataInputStream(new BufferedInputStream(httpSocket.getInputStream()));
+
+            rpcSocket = open(RPC_PORT);
+            rpcOut = new DataOutputStream(new BufferedOutputStream(rpcSocket.getOutputStream()));
+            rpcIn = new DataInputStream(new BufferedInputStream(rpcSocket.getInputStream()));
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            httpSocket.close();
+            rpcSocket.close();
+        }
+
+        private static Socket open(int port) throws IOException {
+            Socket socket = new Socket("127.0.0.1", port);
+            socket.setTcpNoDelay(true);
+            return socket;
+        }
+    }
+
+    @Benchmark
+    public byte[] http(Client client) throws IOException {
+        client.httpOut.write(client.httpRequest);
+        client.httpOut.flush();
+
+        // 헤더 끝(CRLF CRLF)까지 건너뛴 뒤 본문을 읽는다. 에코이므로 본문 길이는 요청과 같다.
+        DataInputStream in = client.httpIn;
+        int matched = 0;
+        while (matched < 4) {
+            int c = in.read();
+            if (c == -1) {
+                throw new EOFException();
+            }
+            if (c == ((matched % 2 == 0) ? '\r' : '\n')) {
+                matched++;
+            } else {
+                matched = (c == '\r') ? 1 : 0;
+            }
+        }
+        byte[] body = new byte[client.payloadSize];
+        in.readFully(body);
+        return body;
+    }
+
+    @Benchmark
+    public byte[] rpc(Client client) throws IOException {
+        int id = client.requestId++;
+        DataOutputStream out = client.rpcOut;
+        out.writeInt(RpcFrame.REQUEST_HEADER_SIZE + client.payload.length);
+        out.writeInt(id);
+        out.writeShort(ECHO_METHOD);
+        out.write(client.payload);
+        out.flush();
+
+        DataInputStream in = client.rpcIn;
+        int length = in.readInt();
+        int responseId = in.readInt();
+        int status = in.readUnsignedByte();
+        if (responseId != id || status != RpcFrame.STATUS_OK) {
+            throw new IOException("Unexpected RPC response: id=" + responseId + ", status=" + status);
+        }
+        byte[] body = new byte[length - RpcFrame.RESPONSE_HEADER_SIZE];
+        in.readFully(body);
+        return body;
+    }
+}
@@ -0,0 +1,102 @@
+package trunk.http11;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import trunk.http11.request.HttpRequest;
+import trunk.http11.request.RawRequestHead;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 브라우저가 보내는 형태의 GET 요청 하나를 파싱하는 비용을 측정하는 벤치마크입니다.
+ * <p>
+ * {@code head}는 {@link HttpRequestHeadParser}의 바이트 검색만, {@code nio}/{@code bio}는 요청 객체 생성까지 측정합니다.
+ * 헤더 크기는 실제 브라우저 요청의 범위(500~2000바이트)이며, 쿠키의 길이로 맞춥니다.
+ * 요청당 할당량은 GC 프로파일러의 {@code gc.alloc.rate.norm}으로 확인합니다.
+ * <pre>
+ * ./gradlew :trunk:jmhJar
+ * java -jar trunk/build/libs/trunk-jmh.jar RequestParserBenchmark -prof gc
+ * </pre>
+ *
+ * @author jungbin97
+ * @see HttpRequestHeadParser
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class RequestParserBenchmark {
+    private static final String BROWSER_HEADERS = "GET /css/styles.css?v=20240101 HTTP/1.1\r\n"
+            + "Host: localhost:8080\r\n"
+            + "Connection: keep-alive\r\n"
+            + "User-Agent: Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36\r\n"
+            + "Accept: text/css,*/*;q=0.1\r\n"
+            + "Sec-Fetch-Site: same-origin\r\n"
+            + "Sec-Fetch-Mode: no-cors\r\n"
+            + "Sec-Fetch-Dest: style\r\n"
+            + "Referer: http://localhost:8080/index.html\r\n"
+            + "Accept-Encoding: gzip, deflate, br, zstd\r\n"
+            + "Accept-Language: ko-KR,ko;q=0.9,en-US;q=0.8,en;q=0.7\r\n";
+
+    @Param({"500", "1000", "2000"})
+    int headerBytes;
+
+    byte[] request;
+    ByteBuffer buffer;
+    ByteBuffer headBuffer;
+    HttpRequestHeadParser headParser;
+    NioHttpRequestParser nioParser;
+    ByteArrayInputStream in;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        request = browserRequest(headerBytes);
+        buffer = ByteBuffer.allocate(8192);
+        headBuffer = ByteBuffer.wrap(request);
+        headParser = new HttpRequestHeadParser();
+        nioParser = new NioHttpRequestParser();
+        in = new ByteArrayInputStream(request);
+    }
+
+    /**
+     * 세션/분석 쿠키를 덧붙여 head 전체가 {@code size} 바이트가 되도록 만듭니다.
+     */
+    static byte[] browserRequest(int size) {
+        StringBuilder cookie = new StringBuilder("Cookie: JSESSIONID=5B7E1C0D3A2F4E6B8C9D0A1B2C3D4E5F");
+        for (int i = 0; BROWSER_HEADERS.length() + cookie.length() + 4 < size; i++) {
+            cookie.append("; _ga_").append(i).append("=GS1.1.1700000000.1.1.1700000300.0.0.0");
+        }
+        int overflow = BROWSER_HEADERS.length() + cookie.length() + 4 - size;
+        cookie.setLength(cookie.length() - Math.max(overflow, 0));
+        return (BROWSER_HEADERS + cookie + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    @Benchmark
+    public RawRequestHead head() throws IOException {
+        headBuffer.clear();
+        return headParser.parse(headBuffer);
+    }
+
+    @Benchmark
+    public HttpRequest nio() throws IOException {
+        // 커넥션 읽기 버퍼에 요청 하나가 도착한 상태
+        buffer.put(request);
+        return nioParser.parse(buffer);
+    }
+
+    @Benchmark
+    public HttpRequest bio() throws IOException {
+        in.reset();
+        return BioHttpRequestParser.parse(in);
+    }
+}
@@ -6,9 +6,12 @@ import trunk.container.Mapper;
 import trunk.container.StandardContext;
 import trunk.container.StandardWrapper;
 import trunk.http11.request.HttpRequest;
+import trunk.http11.request.RequestTarget;
 import trunk.http11.response.HttpResponse;
+import trunk.http11.response.PreEncodedResponse;
 
 import java.io.IOException;
+import java.util.Map;
 
 /**
  * Connector와 Container 사이를 연결하는 어댑터(Adapter)입니다.
@@ -25,6 +28,8 @@ import java.io.IOException;
  */
 public class CoyoteAdapter {
     private static final Logger log = LoggerFactory.getLogger(CoyoteAdapter.class);
+    private static final PreEncodedResponse BAD_REQUEST = PreEncodedResponse.of(400, Map.of(), "Bad Request".getBytes());
+    private static final PreEncodedResponse NOT_FOUND = PreEncodedResponse.of(404, Map.of(), "Not Found".getBytes());
 
     private final StandardContext context;
 
@@ -40,24 +45,31 @@ public class CoyoteAdapter {
     /**
      * HTTP 요청을 서블릿 컨테이너로 전달하여 처리합니다.
      * <p>
-     * {@link StandardContext}의 {@link Mapper}를 사용하여 요청 URI에 해당하는 서블릿({@link StandardWrapper})을 찾습니다.
-     * 매핑되는 서블릿이 없으면, 404 Not Found 응답을 설정합니다.
+     * {@link StandardContext}의 {@link Mapper}를 사용하여 정규화된 요청 경로({@link RequestTarget#getNormalizedPath()})에
+     * 해당하는 서블릿({@link StandardWrapper})을 찾습니다. 경로가 루트를 벗어나거나 인코딩이 잘못되었으면
+     * 서블릿을 호출하지 않고 400 Bad Request 응답을, 매핑되는 서블릿이 없으면 404 Not Found 응답을 설정합니다.
      *
      * @param request  처리할 HTTP 요청 객체
      * @param response 채워나갈 HTTP 응답 객체
      * @throws IOException 서블릿 처리 중 I/O 오류 발생 시
      */
     public void service(HttpRequest request, HttpResponse response) throws IOException {
-        // 요청 URI에 해당하는 서블릿을 찾기 위해 매핑을 확인
+        RequestTarget target = request.getStartLine().getRequestTarget();
+        if (!target.isValid()) {
+            response.setPreEncodedResponse(BAD_REQUEST);
+            log.warn("Rejected invalid request target: {}", target);
+            return;
+        }
+
+        // 요청 경로에 해당하는 서블릿을 찾기 위해 매핑을 확인
         Mapper mapper = context.getMapper();
-        StandardWrapper wrapper = mapper.getStandardWrapper(request.getStartLine().getRequestUri());
+        StandardWrapper wrapper = mapper.getStandardWrapper(target.getNormalizedPath());
 
         if (wrapper != null) {
             wrapper.service(request, response);
         } else {
-            response.setStatusCode(404);
-            response.setBody("Not Found".getBytes());
-            log.warn("No servlet found for URI: {}", request.getStartLine().getRequestUri());
+            response.setPreEncodedResponse(NOT_FOUND);
+            log.warn("No servlet found for URI: {}", target);
         }
     }
 }
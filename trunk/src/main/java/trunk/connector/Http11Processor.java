@@ -4,6 +4,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import trunk.container.StandardContext;
 import trunk.http11.request.HttpRequest;
+import trunk.http11.request.RejectReason;
+import trunk.http11.request.RequestRejectedException;
 import trunk.http11.response.HttpResponse;
 import trunk.http11.session.HttpSession;
 
@@ -38,8 +40,11 @@ public class Http11Processor {
      * 요청 처리의 전체 과정을 관장하는 메인 메서드입니다.
      * <p>
      * 1. {@link CoyoteAdapter#service(HttpRequest, HttpResponse)}를 호출하여 서블릿 실행을 위임합니다. <br>
-     * 2. 서블릿 실행이 끝난 후, {@link #handleSession(HttpRequest, HttpResponse)}을 호출하여 세션 관련 후처리를 수행합니다. <br>
+     * 2. 서블릿 실행이 끝난 후, {@link #handleSession(HttpRequest, HttpResponse)}을 호출하여 세션 관련 후처리를 수행합니다.
+     * 스트리밍 응답처럼 서블릿 실행 중에 헤더가 먼저 전송되는 경우에는 커밋 직전에 수행합니다. <br>
      * 3. 처리 과정 중 발생하는 모든 예외를 잡아 500 Internal Server Error 응답을 설정합니다.
+     * 서블릿이 본문을 읽다가 한도를 넘은 경우({@link RequestRejectedException})에는 해당 상태 코드로 응답합니다. <br>
+     * {@code HEAD} 요청이면 응답 본문을 생략하도록 표시하여, 서블릿이 {@code service}를 직접 구현한 경우에도 헤더만 전송되게 합니다.
      *
      * @param request  완전하게 파싱된 HTTP 요청 객체
      * @param response 서블릿 및 후처리기에서 채워나갈 HTTP 응답 객체
@@ -47,15 +52,42 @@ public class Http11Processor {
     public void process(HttpRequest request, HttpResponse response) {
         log.info("Http11Processor processing request");
         try {
+            // HEAD 응답은 서블릿 종류와 관계없이 본문을 보내지 않는다 (RFC 9110 9.3.2)
+            response.setBodySuppressed("HEAD".equals(request.getStartLine().getMethod()));
+            response.setCommitListener(() -> handleSession(request, response));
             adapter.service(request, response);
             handleSession(request, response);
+        } catch (RequestRejectedException e) {
+            log.warn("Request rejected while processing: {}", e.getMessage());
+            if (!response.isCommitted()) {
+                reject(e, response);
+            }
         } catch (Exception e) {
             log.error("Error processing request", e);
+            if (response.isCommitted()) {
+                return; // 이미 헤더가 전송되어 상태 코드를 바꿀 수 없음
+            }
             response.setStatusCode(500);
             response.setBody("Internal Server Error".getBytes());
         }
     }
 
+    /**
+     * 거부한 요청의 오류 응답을 설정하고, 거부 이유별 횟수를 기록합니다.
+     * 요청의 남은 바이트를 신뢰할 수 없으므로 {@code Connection: close}를 붙입니다.
+     *
+     * @param e        거부 이유를 담은 예외
+     * @param response 오류 응답을 채울 응답 객체
+     */
+    public static void reject(RequestRejectedException e, HttpResponse response) {
+        RejectReason reason = e.getReason();
+        reason.record();
+        response.setStatusCode(reason.getStatusCode());
+        response.setHeader("Connection", "close");
+        response.setHeader("Content-Type", "text/plain; charset=utf-8");
+        response.setBody(response.getStatusMessage().getBytes());
+    }
+
     /**
      * 세션 관련 후처리 로직을 수행합니다.
      * <p>
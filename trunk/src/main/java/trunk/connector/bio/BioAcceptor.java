@@ -3,6 +3,8 @@ package trunk.connector.bio;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import trunk.container.StandardContext;
+import trunk.http11.request.RequestLimits;
+import trunk.http11.response.CompressionConfig;
 
 import java.io.IOException;
 import java.net.ServerSocket;
@@ -15,11 +17,16 @@ public class BioAcceptor implements Runnable {
     private final ServerSocket serverSocket;
     private final ExecutorService executorService;
     private final StandardContext context;
+    private final RequestLimits limits;
+    private final CompressionConfig compressionConfig;
 
-    public BioAcceptor(ServerSocket serverSocket, ExecutorService executorService, StandardContext context) {
+    public BioAcceptor(ServerSocket serverSocket, ExecutorService executorService, StandardContext context,
+                       RequestLimits limits, CompressionConfig compressionConfig) {
         this.serverSocket = serverSocket;
         this.executorService = executorService;
         this.context = context;
+        this.limits = limits;
+        this.compressionConfig = compressionConfig;
     }
 
     @Override
@@ -27,7 +34,7 @@ public class BioAcceptor implements Runnable {
         while (!serverSocket.isClosed()) {
             try {
                 Socket socket = serverSocket.accept();
-                executorService.submit(new Http11BioProcessor(socket, context));
+                executorService.submit(new Http11BioProcessor(socket, context, limits, compressionConfig));
             } catch (IOException e) {
                 // 로그에 연결 수락 중 오류를 기록
                 log.error("Error accepting connection: {}", e.getMessage());
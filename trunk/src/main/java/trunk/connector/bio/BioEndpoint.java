@@ -19,7 +19,7 @@ public class BioEndpoint extends AbstractEndpoint {
 
     @Override
     protected void startInternal(StandardContext context) throws Exception {
-        Thread acceptor = new Thread(new BioAcceptor(serverSocket, executorService, context));
+        Thread acceptor = new Thread(new BioAcceptor(serverSocket, executorService, context, requestLimits, compressionConfig));
         acceptor.start();
     }
 
@@ -0,0 +1,43 @@
+package trunk.connector.bio;
+
+import trunk.http11.response.ResponseSender;
+import trunk.http11.response.ResponseSink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 스트리밍 응답의 데이터를 소켓 출력 스트림에 직접 쓰는 {@link ResponseSink} 구현체입니다.
+ * <p>
+ * BIO 방식에서는 소켓 쓰기 자체가 블로킹되므로, 느린 클라이언트에 대한 역압이 자연스럽게 적용됩니다.
+ *
+ * @author jungbin97
+ * @see Http11BioProcessor
+ */
+public class BioResponseSink implements ResponseSink {
+    private final OutputStream out;
+
+    public BioResponseSink(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(ByteBuffer buffer) throws IOException {
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+        } else {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            out.write(bytes);
+            ResponseSender.release(buffer);
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+}
@@ -6,9 +6,16 @@ import trunk.connector.Http11Processor;
 import trunk.container.StandardContext;
 import trunk.http11.BioHttpRequestParser;
 import trunk.http11.request.HttpRequest;
+import trunk.http11.request.ContinueSender;
+import trunk.http11.request.HttpHeader;
+import trunk.http11.request.HttpRequestBody;
+import trunk.http11.request.RequestLimits;
+import trunk.http11.request.RequestRejectedException;
+import trunk.http11.response.CompressionConfig;
 import trunk.http11.response.HttpResponse;
 import trunk.http11.response.ResponseSender;
 
+import java.io.BufferedInputStream;
 import java.io.DataOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -20,10 +27,15 @@ public class Http11BioProcessor implements Runnable {
 
     private final Socket socket;
     private final StandardContext standardContext;
+    private final RequestLimits limits;
+    private final CompressionConfig compressionConfig;
 
-    public Http11BioProcessor(Socket socket, StandardContext standardContext) {
+    public Http11BioProcessor(Socket socket, StandardContext standardContext, RequestLimits limits,
+                              CompressionConfig compressionConfig) {
         this.socket = socket;
         this.standardContext = standardContext;
+        this.limits = limits;
+        this.compressionConfig = compressionConfig;
     }
 
     @Override
@@ -31,32 +43,88 @@ public class Http11BioProcessor implements Runnable {
         log.debug("New Client Connect! Connected IP : {}, Port : {}", socket.getInetAddress(),
                 socket.getPort());
 
-        try (InputStream in = socket.getInputStream();
+        // 헤더는 바이트 단위로 읽고 본문은 같은 스트림에서 이어 읽으므로, 커넥션 전체에서 하나의 버퍼를 공유
+        try (InputStream in = new BufferedInputStream(socket.getInputStream());
              OutputStream out = socket.getOutputStream();
              DataOutputStream dos = new DataOutputStream(out)) {
 
+            // 커넥션 동안 프로세서, 응답 싱크, 요청/응답 객체를 하나씩 두고 요청마다 초기화하여 재사용
+            Http11Processor processor = new Http11Processor(standardContext);
+            BioResponseSink sink = new BioResponseSink(dos);
+            ContinueSender continueSender = () -> {
+                dos.write(ResponseSender.createContinueBuffer().array());
+                dos.flush();
+            };
+            HttpRequest recycledRequest = null;
+            HttpResponse recycledResponse = null;
+
             // keep alive 지원
             while (!socket.isClosed()) {
                 socket.setSoTimeout(1000); // 1초 타임아웃 설정
 
                 // HTTP 요청 파싱
-                HttpRequest request = BioHttpRequestParser.parse(in);
+                HttpRequest request;
+                try {
+                    request = BioHttpRequestParser.parse(in, continueSender, limits, recycledRequest);
+                } catch (RequestRejectedException e) {
+                    // 요청의 나머지를 읽지 않으므로 응답 후 커넥션을 닫는다
+                    log.debug("Rejected request: {}", e.getMessage());
+                    HttpResponse response = new HttpResponse();
+                    Http11Processor.reject(e, response);
+                    ResponseSender.sendResponseBIO(response, dos);
+                    break;
+                }
 
                 if (request == null) {
                     continue;
                 }
+                recycledRequest = null;
 
-                HttpResponse response = new HttpResponse();
+                HttpResponse response = recycledResponse != null ? recycledResponse : new HttpResponse();
+                recycledResponse = null;
+                if (request.acceptsChunkedResponse()) {
+                    // HTTP/1.0 응답은 스트리밍하지 않고 모아서 Content-Length와 함께 보낸다
+                    response.setResponseSink(sink);
+                }
+                response.setCompression(compressionConfig, request.getHeader(HttpHeader.ACCEPT_ENCODING));
+                // 스트리밍 응답은 서블릿 실행 중에 헤더가 전송되므로, Connection 헤더를 미리 설정
+                boolean keepAlive = request.isKeepAlive();
+                response.addHeader("Connection", keepAlive ? "keep-alive" : "close");
 
-                Http11Processor processor = new Http11Processor(standardContext);
                 processor.process(request, response);
 
-                if (request.isKeepAlive()) {
-                    response.addHeader("Connection", "keep-alive");
-                    ResponseSender.sendResponseBIO(response, dos);
-                } else {
-                    response.addHeader("Connection", "close");
+                response.finishStreaming();
+                response.compressBody();
+
+                if (response.getWebSocketEndpoint() != null) {
+                    // 블로킹 커넥터는 커넥션을 다른 프로토콜로 넘길 수 없으므로 전환을 거절한다
+                    response = new HttpResponse();
+                    response.setStatusCode(501);
+                    response.addHeader("Connection", keepAlive ? "keep-alive" : "close");
+                    response.setHeader("Content-Type", "text/plain");
+                    response.setBody("WebSocket requires the NIO connector".getBytes());
+                }
+
+                // 읽히지 않은 본문을 버려 다음 요청의 시작 위치를 맞춤. 버릴 수 없으면 응답 후 커넥션 종료
+                HttpRequestBody body = request.getBody();
+                if (!body.release()) {
+                    keepAlive = false;
+                    if (!response.isCommitted()) {
+                        response.setHeader("Connection", "close");
+                    }
+                }
+
+                if (!response.isCommitted()) {
                     ResponseSender.sendResponseBIO(response, dos);
+                }
+
+                // 블로킹 커넥터는 응답을 다 쓴 뒤에 돌아오므로, 전송이 끝난 객체를 바로 초기화한다
+                request.recycle();
+                response.recycle();
+                recycledRequest = request.isPoisoned() ? null : request;
+                recycledResponse = response.isPoisoned() ? null : response;
+
+                if (!keepAlive) {
                     break;
                 }
             }
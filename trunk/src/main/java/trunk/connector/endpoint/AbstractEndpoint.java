@@ -1,9 +1,27 @@
 package trunk.connector.endpoint;
 
 import trunk.container.StandardContext;
+import trunk.http11.request.RequestLimits;
+import trunk.http11.response.CompressionConfig;
 
 public abstract class AbstractEndpoint implements Endpoint {
     protected int port;
+    protected final RequestLimits requestLimits = new RequestLimits();
+    protected final CompressionConfig compressionConfig = new CompressionConfig();
+
+    /**
+     * 이 엔드포인트가 받는 요청의 크기 한도입니다. 서버를 시작하기 전에 값을 바꿔야 합니다.
+     */
+    public RequestLimits getRequestLimits() {
+        return requestLimits;
+    }
+
+    /**
+     * 이 엔드포인트가 보내는 응답의 압축 설정입니다. 서버를 시작하기 전에 값을 바꿔야 합니다.
+     */
+    public CompressionConfig getCompressionConfig() {
+        return compressionConfig;
+    }
 
     @Override
     public final void bind(int port) throws Exception {
@@ -0,0 +1,885 @@
+package trunk.connector.http2;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import trunk.connector.Http11Processor;
+import trunk.connector.http2.hpack.HeaderField;
+import trunk.connector.http2.hpack.HpackDecoder;
+import trunk.connector.http2.hpack.HpackEncoder;
+import trunk.connector.http2.hpack.HpackException;
+import trunk.connector.nio.NioSocketWrapper;
+import trunk.connector.nio.Poller;
+import trunk.connector.nio.UpgradeHandler;
+import trunk.container.StandardContext;
+import trunk.http11.request.HttpRequest;
+import trunk.http11.response.FileRegion;
+import trunk.http11.response.HttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static trunk.connector.http2.Http2Frame.*;
+
+/**
+ * 평문 HTTP/2(h2c) 커넥션 하나를 처리하는 프로토콜 핸들러입니다. (RFC 9113)
+ * <p>
+ * HTTP/1.1 커넥션에서 다음 두 가지 방법으로 시작되며, 이후 {@link NioSocketWrapper}의 {@link UpgradeHandler}로 등록되어
+ * 커넥션의 모든 읽기 이벤트를 처리합니다.
+ * <ul>
+ *     <li><b>Prior knowledge</b>: 클라이언트가 처음부터 HTTP/2 프리페이스({@code PRI * HTTP/2.0 ...})를 보낸 경우</li>
+ *     <li><b>Upgrade</b>: {@code Upgrade: h2c}와 {@code HTTP2-Settings} 헤더가 있는 HTTP/1.1 요청. {@code 101 Switching Protocols}로
+ *     응답한 뒤 원래 요청을 스트림 1의 요청으로 처리합니다.</li>
+ * </ul>
+ *
+ * <h2>스레드 모델</h2>
+ * <ul>
+ *     <li>프레임 읽기와 파싱, HPACK 디코딩은 {@link #onReadable()}을 실행하는 워커 스레드 하나가 순서대로 처리합니다.
+ *     Poller는 이 메서드가 다음 읽기를 요청하기 전까지 새 읽기 이벤트를 보내지 않습니다.</li>
+ *     <li>요청(END_STREAM)을 모두 받은 스트림은 워커 풀에 제출되어 기존 {@link Http11Processor} → CoyoteAdapter 파이프라인으로
+ *     처리되므로, 서블릿은 수정 없이 여러 스트림에서 동시에 실행됩니다.</li>
+ *     <li>응답 프레임은 쓰기 락 아래에서 커넥션의 쓰기 큐에 넣으며, HPACK 인코더의 동적 테이블 상태와 프레임 순서가 일치하도록
+ *     HEADERS/CONTINUATION 프레임은 인코딩과 함께 한 번에 넣습니다.</li>
+ * </ul>
+ *
+ * <h2>흐름 제어</h2>
+ * DATA 프레임은 커넥션과 스트림의 송신 윈도우를 모두 확보한 만큼만 보내며, 윈도우가 부족하면 피어의 WINDOW_UPDATE를 기다립니다.
+ * 수신 측은 소비한 양이 윈도우의 절반을 넘을 때마다 WINDOW_UPDATE를 모아서 보냅니다. 요청 본문은 {@code BodySpillBuffer}에
+ * 모으므로 큰 업로드도 메모리를 일정하게 사용합니다.
+ * <p>
+ * 스트리밍 응답({@link HttpResponse#getChunkedOutputStream()})은 청크 인코딩이 없는 HTTP/2에서는 스트림 단위로 모은 뒤
+ * DATA 프레임으로 나누어 전송합니다.
+ *
+ * @author jungbin97
+ * @see Http2Stream
+ * @see Http2Frame
+ * @see trunk.connector.nio.Http11NioProcessor
+ */
+public class Http2Connection implements UpgradeHandler {
+    private static final Logger log = LoggerFactory.getLogger(Http2Connection.class);
+
+    static final int MAX_CONCURRENT_STREAMS = 100;
+    static final int MAX_HEADER_LIST_SIZE = 16384;
+    private static final int HEADER_TABLE_SIZE = 4096;
+    private static final int MAX_HEADER_BLOCK_SIZE = 64 * 1024;
+    private static final int BODY_SPILL_THRESHOLD = 64 * 1024;
+    private static final int MAX_PENDING_WRITES = 16;
+    private static final long WRITE_TIMEOUT_MILLIS = 30_000;
+    // HTTP/1.1 요청 줄과 빈 줄("PRI * HTTP/2.0\r\n\r\n")은 HTTP/1.1 파서가 이미 읽었다
+    private static final int PRIOR_KNOWLEDGE_PREFACE_OFFSET = 18;
+    private static final Set<String> CONNECTION_HEADERS =
+            Set.of("connection", "keep-alive", "proxy-connection", "transfer-encoding", "upgrade");
+    private static final byte[] SWITCHING_PROTOCOLS =
+            "HTTP/1.1 101 Switching Protocols\r\nConnection: Upgrade\r\nUpgrade: h2c\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+    private static final int[][] LOCAL_SETTINGS = {
+            {SETTINGS_MAX_CONCURRENT_STREAMS, MAX_CONCURRENT_STREAMS},
+            {SETTINGS_ENABLE_PUSH, 0},
+            {SETTINGS_MAX_HEADER_LIST_SIZE, MAX_HEADER_LIST_SIZE}
+    };
+
+    private final NioSocketWrapper wrapper;
+    private final SelectionKey key;
+    private final Poller poller;
+    private final ExecutorService executor;
+    private final StandardContext context;
+
+    // ===== 읽기 측 상태: onReadable()을 실행하는 스레드만 접근 =====
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(HEADER_LENGTH + DEFAULT_MAX_FRAME_SIZE);
+    private final HpackDecoder decoder = new HpackDecoder(HEADER_TABLE_SIZE, MAX_HEADER_LIST_SIZE);
+    private int prefaceIndex;
+    private boolean settingsReceived;
+    private int lastStreamId;
+    private int connectionReceiveWindow = DEFAULT_WINDOW_SIZE;
+    private int connectionUnacknowledged;
+    private volatile boolean goAwayReceived;
+
+    // 조립 중인 헤더 블록 (HEADERS + CONTINUATION)
+    private ByteArrayOutputStream headerBlock;
+    private Http2Stream headerBlockStream;
+    private boolean headerBlockEndStream;
+    private boolean headerBlockTrailers;
+    private boolean headerBlockRefused;
+
+    private final Map<Integer, Http2Stream> streams = new ConcurrentHashMap<>();
+
+    // ===== 쓰기 측 상태 =====
+    private final Object writeLock = new Object();
+    private final HpackEncoder encoder = new HpackEncoder(HEADER_TABLE_SIZE); // writeLock으로 보호
+    private volatile int peerMaxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+
+    private final Object flowLock = new Object();
+    private int connectionSendWindow = DEFAULT_WINDOW_SIZE; // flowLock으로 보호
+    private int peerInitialWindowSize = DEFAULT_WINDOW_SIZE; // flowLock으로 보호
+
+    private volatile boolean closed;
+
+    /**
+     * @param wrapper  프로토콜을 전환할 커넥션
+     * @param key      이 커넥션의 SelectionKey
+     * @param poller   이 커넥션의 I/O 이벤트를 처리하는 Poller
+     * @param executor 스트림을 처리할 워커 풀
+     * @param context  요청을 전달할 서블릿 컨텍스트
+     */
+    public Http2Connection(NioSocketWrapper wrapper, SelectionKey key, Poller poller,
+                           ExecutorService executor, StandardContext context) {
+        this.wrapper = wrapper;
+        this.key = key;
+        this.poller = poller;
+        this.executor = executor;
+        this.context = context;
+    }
+
+    /**
+     * 프리페이스의 요청 줄로 HTTP/2를 시작한 커넥션을 전환합니다.
+     * <p>
+     * HTTP/1.1 파서가 프리페이스의 앞부분({@code PRI * HTTP/2.0\r\n\r\n})을 요청으로 읽은 직후 호출되며,
+     * 나머지 프리페이스({@code SM\r\n\r\n})부터 이어서 읽습니다.
+     */
+    public void startPriorKnowledge() {
+        prefaceIndex = PRIOR_KNOWLEDGE_PREFACE_OFFSET;
+        wrapper.upgrade(this);
+        writeFrame(Http2Frame.settings(LOCAL_SETTINGS));
+        start();
+    }
+
+    /**
+     * {@code Upgrade: h2c} 요청을 받은 커넥션을 전환합니다.
+     * <p>
+     * {@code 101 Switching Protocols}와 서버 SETTINGS를 보낸 뒤, 업그레이드 요청을 스트림 1의 요청으로 처리합니다.
+     * 클라이언트는 101 응답을 받은 뒤 프리페이스 전체를 보내야 합니다.
+     *
+     * @param request {@code HTTP2-Settings} 헤더를 가진, 본문이 없는 업그레이드 요청
+     */
+    public void startUpgrade(HttpRequest request) {
+        wrapper.upgrade(this);
+        try {
+            // HTTP2-Settings는 암묵적으로 확인되는 SETTINGS 프레임의 페이로드이다 (ACK를 보내지 않음)
+            byte[] payload = Base64.getUrlDecoder().decode(request.getHeader("HTTP2-Settings").trim());
+            if (payload.length % 6 != 0) {
+                throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "Invalid HTTP2-Settings");
+            }
+            applySettings(ByteBuffer.wrap(payload));
+        } catch (IllegalArgumentException | Http2Exception e) {
+            log.debug("Rejecting h2c upgrade: {}", e.getMessage());
+            wrapper.closeChannel();
+            return;
+        }
+
+        writeFrame(ByteBuffer.wrap(SWITCHING_PROTOCOLS.clone()));
+        writeFrame(Http2Frame.settings(LOCAL_SETTINGS));
+
+        Http2Stream stream;
+        synchronized (flowLock) {
+            stream = Http2Stream.upgraded(1, peerInitialWindowSize, request);
+        }
+        lastStreamId = 1;
+        streams.put(1, stream);
+        dispatch(stream);
+        start();
+    }
+
+    /**
+     * HTTP/1.1 파서가 남긴 바이트를 이어받아 처리하고 읽기를 시작합니다.
+     */
+    private void start() {
+        ByteBuffer leftover = wrapper.getReadBuffer();
+        leftover.flip();
+        readBuffer.put(leftover);
+        leftover.clear();
+        try {
+            processInput();
+            resumeReading();
+        } catch (Http2Exception e) {
+            connectionError(e);
+        }
+    }
+
+    @Override
+    public void onReadable() {
+        try {
+            int bytesRead = wrapper.read(readBuffer);
+            if (bytesRead == -1) {
+                wrapper.closeChannel();
+                return;
+            }
+            processInput();
+            resumeReading();
+        } catch (Http2Exception e) {
+            connectionError(e);
+        } catch (IOException e) {
+            log.debug("HTTP/2 connection closed: {}", e.getMessage());
+            wrapper.closeChannel();
+        }
+    }
+
+    @Override
+    public void onClose() {
+        closed = true;
+        synchronized (flowLock) {
+            flowLock.notifyAll(); // 윈도우를 기다리는 스트림을 깨워 실패를 알림
+        }
+        for (Http2Stream stream : streams.values()) {
+            stream.reset();
+            if (!stream.isDispatched()) {
+                stream.releaseBody();
+            }
+        }
+        streams.clear();
+    }
+
+    private void resumeReading() {
+        if (closed) {
+            return;
+        }
+        if (wrapper.hasBufferedInput()) {
+            // 이미 읽은 TLS 레코드에는 읽기 이벤트가 오지 않으므로 바로 이어서 처리한다
+            executor.submit(this::onReadable);
+        } else {
+            poller.requestSwitchToRead(key);
+        }
+    }
+
+    /* ======================== 프레임 읽기 ====================== */
+
+    /**
+     * 읽기 버퍼에 완전히 도착한 프레임들을 처리하고, 남은 조각은 다음 읽기를 위해 버퍼 앞으로 옮깁니다.
+     */
+    private void processInput() throws Http2Exception {
+        readBuffer.flip();
+        try {
+            while (prefaceIndex < CLIENT_PREFACE.length && readBuffer.hasRemaining()) {
+                if (readBuffer.get() != CLIENT_PREFACE[prefaceIndex++]) {
+                    throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "Invalid connection preface");
+                }
+            }
+            if (prefaceIndex < CLIENT_PREFACE.length) {
+                return;
+            }
+
+            while (!closed && readBuffer.remaining() >= HEADER_LENGTH) {
+                int pos = readBuffer.position();
+                int length = ((readBuffer.get(pos) & 0xFF) << 16)
+                        | ((readBuffer.get(pos + 1) & 0xFF) << 8)
+                        | (readBuffer.get(pos + 2) & 0xFF);
+                if (length > DEFAULT_MAX_FRAME_SIZE) {
+                    throw Http2Exception.connectionError(Http2Error.FRAME_SIZE_ERROR, "Frame too large: " + length);
+                }
+                if (readBuffer.remaining() < HEADER_LENGTH + length) {
+                    break; // 프레임이 아직 모두 도착하지 않음
+                }
+                int type = readBuffer.get(pos + 3) & 0xFF;
+                int flags = readBuffer.get(pos + 4) & 0xFF;
+                int streamId = readBuffer.getInt(pos + 5) & MAX_WINDOW_SIZE;
+
+                ByteBuffer payload = readBuffer.slice(pos + HEADER_LENGTH, length);
+                readBuffer.position(pos + HEADER_LENGTH + length);
+
+                try {
+                    handleFrame(type, flags, streamId, payload);
+                } catch (Http2Exception e) {
+                    if (e.isConnectionError()) {
+                        throw e;
+                    }
+                    resetStream(e.getStreamId(), e.getError());
+                }
+            }
+        } finally {
+            readBuffer.compact();
+        }
+    }
+
+    private void handleFrame(int type, int flags, int streamId, ByteBuffer payload) throws Http2Exception {
+        if (!settingsReceived && type != SETTINGS) {
+            throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "First frame must be SETTINGS");
+        }
+        if (headerBlock != null && type != CONTINUATION) {
+            throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "Expected CONTINUATION frame");
+        }
+
+        switch (type) {
+            case DATA -> onData(flags, streamId, payload);
+            case HEADERS -> onHeaders(flags, streamId, payload);
+            case PRIORITY -> onPriority(streamId, payload);
+            case RST_STREAM -> onRstStream(streamId, payload);
+            case SETTINGS -> onSettings(flags, streamId, payload);
+            case PUSH_PROMISE -> throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "Client sent PUSH_PROMISE");
+            case PING -> onPing(flags, streamId, payload);
+            case GOAWAY -> onGoAway(streamId, payload);
+            case WINDOW_UPDATE -> onWindowUpdate(streamId, payload);
+            case CONTINUATION -> onContinuation(flags, streamId, payload);
+            default -> { /* 알 수 없는 프레임 타입은 무시한다 (RFC 9113 5.5) */ }
+        }
+    }
+
+    private void onData(int flags, int streamId, ByteBuffer payload) throws Http2Exception {
+        if (streamId == 0) {
+            throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "DATA on stream 0");
+        }
+        // 흐름 제어는 패딩을 포함한 페이로드 전체 길이로 계산한다
+        int length = payload.remaining();
+        consumeConnectionWindow(length);
+        removePadding(flags, payload);
+
+        Http2Stream stream = streams.get(streamId);
+        if (stream == null) {
+            checkNotIdle(streamId);
+            throw Http2Exception.streamError(Http2Error.STREAM_CLOSED, streamId, "DATA on closed stream");
+        }
+        if (stream.isEndStreamReceived() || stream.isDispatched()) {
+            throw Http2Exception.streamError(Http2Error.STREAM_CLOSED, streamId, "DATA after END_STREAM");
+        }
+
+        boolean endStream = (flags & FLAG_END_STREAM) != 0;
+        if (endStream) {
+            stream.endStreamReceived();
+        }
+        int increment = stream.consumeReceiveWindow(length);
+        if (increment > 0) {
+            writeFrame(Http2Frame.windowUpdate(streamId, increment));
+        }
+
+        try {
+            stream.appendData(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining(),
+                    BODY_SPILL_THRESHOLD);
+        } catch (IOException e) {
+            throw Http2Exception.streamError(Http2Error.INTERNAL_ERROR, streamId, "Failed to buffer request body");
+        }
+        if (endStream) {
+            dispatch(stream);
+        }
+    }
+
+    private void consumeConnectionWindow(int length) throws Http2Exception {
+        if (length > connectionReceiveWindow) {
+            throw Http2Exception.connectionError(Http2Error.FLOW_CONTROL_ERROR, "Connection receive window exceeded");
+        }
+        connectionReceiveWindow -= length;
+        connectionUnacknowledged += length;
+        if (connectionUnacknowledged >= DEFAULT_WINDOW_SIZE / 2) {
+            writeFrame(Http2Frame.windowUpdate(0, connectionUnacknowledged));
+            connectionReceiveWindow += connectionUnacknowledged;
+            connectionUnacknowledged = 0;
+        }
+    }
+
+    private void onHeaders(int flags, int streamId, ByteBuffer payload) throws Http2Exception {
+        if (streamId == 0) {
+            throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "HEADERS on stream 0");
+        }
+        removePadding(flags, payload);
+        if ((flags & FLAG_PRIORITY) != 0) {
+            if (payload.remaining() < 5) {
+                throw Http2Exception.connectionError(Http2Error.FRAME_SIZE_ERROR, "HEADERS priority too short");
+            }
+            payload.position(payload.position() + 5); // 우선순위 정보는 사용하지 않음
+        }
+
+        boolean endStream = (flags & FLAG_END_STREAM) != 0;
+        Http2Stream stream = streams.get(streamId);
+        boolean trailers = false;
+        boolean refused = false;
+        if (stream != null) {
+            if (stream.isEndStreamReceived()) {
+                throw Http2Exception.connectionError(Http2Error.STREAM_CLOSED, "HEADERS after END_STREAM");
+            }
+            if (!endStream) {
+                throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "Trailers without END_STREAM");
+            }
+            trailers = true;
+        } else {
+            if (streamId <= lastStreamId) {
+                throw Http2Exception.connectionError(Http2Error.STREAM_CLOSED, "HEADERS on closed stream " + streamId);
+            }
+            if ((streamId & 1) == 0) {
+                throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "Even stream id from client: " + streamId);
+            }
+            lastStreamId = streamId;
+            synchronized (flowLock) {
+                stream = new Http2Stream(streamId, peerInitialWindowSize);
+            }
+            refused = streams.size() >= MAX_CONCURRENT_STREAMS;
+        }
+
+        headerBlock = new ByteArrayOutputStream();
+        headerBlockStream = stream;
+        headerBlockEndStream = endStream;
+        headerBlockTrailers = trailers;
+        headerBlockRefused = refused;
+        appendHeaderBlock(flags, payload);
+    }
+
+    private void onContinuation(int flags, int streamId, ByteBuffer payload) throws Http2Exception {
+        if (headerBlock == null || headerBlockStream.getId() != streamId) {
+            throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "Unexpected CONTINUATION frame");
+        }
+        appendHeaderBlock(flags, payload);
+    }
+
+    private void appendHeaderBlock(int flags, ByteBuffer payload) throws Http2Exception {
+        headerBlock.write(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining());
+        if (headerBlock.size() > MAX_HEADER_BLOCK_SIZE) {
+            throw Http2Exception.connectionError(Http2Error.ENHANCE_YOUR_CALM, "Header block too large");
+        }
+        if ((flags & FLAG_END_HEADERS) != 0) {
+            onHeaderBlockComplete();
+        }
+    }
+
+    private void onHeaderBlockComplete() throws Http2Exception {
+        Http2Stream stream = headerBlockStream;
+        byte[] block = headerBlock.toByteArray();
+        headerBlock = null;
+        headerBlockStream = null;
+
+        // 거절할 스트림의 헤더 블록도 디코딩해야 동적 테이블이 클라이언트와 어긋나지 않는다
+        List<HeaderField> fields;
+        try {
+            fields = decoder.decode(ByteBuffer.wrap(block));
+        } catch (HpackException e) {
+            throw Http2Exception.connectionError(Http2Error.COMPRESSION_ERROR, e.getMessage());
+        }
+
+        if (headerBlockRefused) {
+            throw Http2Exception.streamError(Http2Error.REFUSED_STREAM, stream.getId(), "Too many concurrent streams");
+        }
+        if (goAwayReceived) {
+            return;
+        }
+        if (!headerBlockTrailers) {
+            stream.setHeaders(fields);
+            streams.put(stream.getId(), stream);
+        }
+        // 트레일러는 서블릿 API로 전달할 방법이 없으므로 버린다
+        if (headerBlockEndStream) {
+            stream.endStreamReceived();
+            dispatch(stream);
+        }
+    }
+
+    private void onPriority(int streamId, ByteBuffer payload) throws Http2Exception {
+        if (streamId == 0) {
+            throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "PRIORITY on stream 0");
+        }
+        if (payload.remaining() != 5) {
+            throw Http2Exception.streamError(Http2Error.FRAME_SIZE_ERROR, streamId, "Invalid PRIORITY length");
+        }
+        // 우선순위 스케줄링은 하지 않음 (RFC 9113에서 폐기)
+    }
+
+    private void onRstStream(int streamId, ByteBuffer payload) throws Http2Exception {
+        if (streamId == 0) {
+            throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "RST_STREAM on stream 0");
+        }
+        if (payload.remaining() != 4) {
+            throw Http2Exception.connectionError(Http2Error.FRAME_SIZE_ERROR, "Invalid RST_STREAM length");
+        }
+        checkNotIdle(streamId);
+
+        Http2Stream stream = streams.remove(streamId);
+        if (stream != null) {
+            log.debug("Stream {} reset by peer: {}", streamId, Http2Error.of(payload.getInt()));
+            stream.reset();
+            if (!stream.isDispatched()) {
+                stream.releaseBody();
+            }
+            synchronized (flowLock) {
+                flowLock.notifyAll();
+            }
+        }
+    }
+
+    private void onSettings(int flags, int streamId, ByteBuffer payload) throws Http2Exception {
+        if (streamId != 0) {
+            throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "SETTINGS on stream " + streamId);
+        }
+        if ((flags & FLAG_ACK) != 0) {
+            if (payload.hasRemaining()) {
+                throw Http2Exception.connectionError(Http2Error.FRAME_SIZE_ERROR, "SETTINGS ACK with payload");
+            }
+            return;
+        }
+        if (payload.remaining() % 6 != 0) {
+            throw Http2Exception.connectionError(Http2Error.FRAME_SIZE_ERROR, "Invalid SETTINGS length");
+        }
+        applySettings(payload);
+        settingsReceived = true;
+        writeFrame(Http2Frame.settingsAck());
+    }
+
+    private void applySettings(ByteBuffer payload) throws Http2Exception {
+        while (payload.remaining() >= 6) {
+            int id = payload.getShort() & 0xFFFF;
+            long value = payload.getInt() & 0xFFFFFFFFL;
+            switch (id) {
+                case SETTINGS_HEADER_TABLE_SIZE -> {
+                    synchronized (writeLock) {
+                        encoder.setMaxTableSize((int) Math.min(value, HEADER_TABLE_SIZE));
+                    }
+                }
+                case SETTINGS_ENABLE_PUSH -> {
+                    if (value > 1) {
+                        throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "Invalid ENABLE_PUSH: " + value);
+                    }
+                }
+                case SETTINGS_INITIAL_WINDOW_SIZE -> {
+                    if (value > MAX_WINDOW_SIZE) {
+                        throw Http2Exception.connectionError(Http2Error.FLOW_CONTROL_ERROR, "Invalid INITIAL_WINDOW_SIZE: " + value);
+                    }
+                    updateInitialWindowSize((int) value);
+                }
+                case SETTINGS_MAX_FRAME_SIZE -> {
+                    if (value < DEFAULT_MAX_FRAME_SIZE || value > MAX_ALLOWED_FRAME_SIZE) {
+                        throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "Invalid MAX_FRAME_SIZE: " + value);
+                    }
+                    peerMaxFrameSize = (int) value;
+                }
+                default -> { /* MAX_CONCURRENT_STREAMS(서버 푸시 미사용), MAX_HEADER_LIST_SIZE, 알 수 없는 설정은 무시 */ }
+            }
+        }
+    }
+
+    /**
+     * 새 초기 윈도우 크기와의 차이만큼 열려 있는 모든 스트림의 송신 윈도우를 조정합니다. (RFC 9113 6.9.2)
+     */
+    private void updateInitialWindowSize(int newSize) throws Http2Exception {
+        synchronized (flowLock) {
+            int delta = newSize - peerInitialWindowSize;
+            for (Http2Stream stream : streams.values()) {
+                long window = (long) stream.sendWindow + delta;
+                if (window > MAX_WINDOW_SIZE) {
+                    throw Http2Exception.connectionError(Http2Error.FLOW_CONTROL_ERROR, "Stream window overflow");
+                }
+                stream.sendWindow = (int) window;
+            }
+            peerInitialWindowSize = newSize;
+            flowLock.notifyAll();
+        }
+    }
+
+    private void onPing(int flags, int streamId, ByteBuffer payload) throws Http2Exception {
+        if (streamId != 0) {
+            throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "PING on stream " + streamId);
+        }
+        if (payload.remaining() != 8) {
+            throw Http2Exception.connectionError(Http2Error.FRAME_SIZE_ERROR, "Invalid PING length");
+        }
+        if ((flags & FLAG_ACK) == 0) {
+            writeFrame(Http2Frame.pingAck(payload.getLong()));
+        }
+    }
+
+    private void onGoAway(int streamId, ByteBuffer payload) throws Http2Exception {
+        if (streamId != 0) {
+            throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "GOAWAY on stream " + streamId);
+        }
+        if (payload.remaining() < 8) {
+            throw Http2Exception.connectionError(Http2Error.FRAME_SIZE_ERROR, "Invalid GOAWAY length");
+        }
+        payload.getInt(); // 마지막 스트림 ID (서버 푸시를 하지 않으므로 사용하지 않음)
+        log.debug("GOAWAY received: {}", Http2Error.of(payload.getInt()));
+        goAwayReceived = true;
+        closeIfIdle();
+    }
+
+    private void onWindowUpdate(int streamId, ByteBuffer payload) throws Http2Exception {
+        if (payload.remaining() != 4) {
+            throw Http2Exception.connectionError(Http2Error.FRAME_SIZE_ERROR, "Invalid WINDOW_UPDATE length");
+        }
+        int increment = payload.getInt() & MAX_WINDOW_SIZE;
+        if (increment == 0) {
+            if (streamId == 0) {
+                throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "WINDOW_UPDATE with zero increment");
+            }
+            throw Http2Exception.streamError(Http2Error.PROTOCOL_ERROR, streamId, "WINDOW_UPDATE with zero increment");
+        }
+
+        synchronized (flowLock) {
+            if (streamId == 0) {
+                if ((long) connectionSendWindow + increment > MAX_WINDOW_SIZE) {
+                    throw Http2Exception.connectionError(Http2Error.FLOW_CONTROL_ERROR, "Connection window overflow");
+                }
+                connectionSendWindow += increment;
+            } else {
+                Http2Stream stream = streams.get(streamId);
+                if (stream == null) {
+                    checkNotIdle(streamId);
+                    return; // 이미 닫힌 스트림의 갱신은 무시
+                }
+                if ((long) stream.sendWindow + increment > MAX_WINDOW_SIZE) {
+                    throw Http2Exception.streamError(Http2Error.FLOW_CONTROL_ERROR, streamId, "Stream window overflow");
+                }
+                stream.sendWindow += increment;
+            }
+            flowLock.notifyAll();
+        }
+    }
+
+    private void removePadding(int flags, ByteBuffer payload) throws Http2Exception {
+        if ((flags & FLAG_PADDED) == 0) {
+            return;
+        }
+        if (!payload.hasRemaining()) {
+            throw Http2Exception.connectionError(Http2Error.FRAME_SIZE_ERROR, "Missing pad length");
+        }
+        int padLength = payload.get() & 0xFF;
+        if (padLength > payload.remaining()) {
+            throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "Padding exceeds payload");
+        }
+        payload.limit(payload.limit() - padLength);
+    }
+
+    private void checkNotIdle(int streamId) throws Http2Exception {
+        if (streamId > lastStreamId) {
+            throw Http2Exception.connectionError(Http2Error.PROTOCOL_ERROR, "Frame on idle stream " + streamId);
+        }
+    }
+
+    /* ======================== 스트림 처리 ====================== */
+
+    private void dispatch(Http2Stream stream) {
+        stream.dispatched();
+        try {
+            executor.submit(() -> processStream(stream));
+        } catch (RejectedExecutionException e) {
+            resetStream(stream.getId(), Http2Error.REFUSED_STREAM);
+            stream.releaseBody();
+        }
+    }
+
+    /**
+     * 워커 스레드에서 스트림 하나의 요청을 기존 파이프라인으로 처리하고 응답을 프레임으로 전송합니다.
+     */
+    private void processStream(Http2Stream stream) {
+        try {
+            HttpRequest request = stream.toHttpRequest();
+            HttpResponse response = new HttpResponse();
+            new Http11Processor(context).process(request, response);
+            // 커넥션 출구가 없는 응답이므로, 스트리밍 본문은 여기서 메모리 본문으로 확정된다
+            response.finishStreaming();
+            sendResponse(stream, response);
+        } catch (Http2Exception e) {
+            resetStream(stream.getId(), e.getError());
+        } catch (IOException e) {
+            if (!stream.isReset() && !closed) {
+                log.debug("Failed to send response on stream {}: {}", stream.getId(), e.getMessage());
+                resetStream(stream.getId(), Http2Error.INTERNAL_ERROR);
+            }
+        } finally {
+            stream.releaseBody();
+            streams.remove(stream.getId());
+            closeIfIdle();
+        }
+    }
+
+    private void sendResponse(Http2Stream stream, HttpResponse response) throws IOException {
+        Path file = response.getFileBody();
+        byte[] body = response.getBody();
+        long contentLength = (file != null) ? response.getFileBodyLength() : (body != null ? body.length : 0);
+
+        List<HeaderField> fields = new ArrayList<>();
+        int status = (response.getStatusCode() == 0) ? 200 : response.getStatusCode();
+        fields.add(new HeaderField(":status", String.valueOf(status)));
+        for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            // HTTP/2에서는 커넥션 관련 헤더가 금지된다 (RFC 9113 8.2.2)
+            if (CONNECTION_HEADERS.contains(name) || name.equals("content-length")) {
+                continue;
+            }
+            fields.add(new HeaderField(name, header.getValue()));
+        }
+        // 서블릿이 청크 전송을 직접 지정한 응답은 길이를 알 수 없다. 스트리밍 응답은 HEAD도 본문을 모으므로 길이를 안다
+        if (response.getHeader("Transfer-Encoding") == null) {
+            fields.add(new HeaderField("content-length", String.valueOf(contentLength)));
+        }
+
+        // HEAD 응답은 GET과 같은 content-length만 알리고 DATA 프레임 없이 스트림을 닫는다
+        boolean noData = contentLength == 0 || response.isBodySuppressed();
+        writeHeaders(stream.getId(), fields, noData);
+        if (noData) {
+            return;
+        }
+        if (file != null && response.getFileRegions() != null) {
+            sendFileRegions(stream, file, response.getFileRegions());
+        } else if (file != null) {
+            sendFile(stream, file, contentLength);
+        } else {
+            writeData(stream, body, 0, body.length, true);
+        }
+    }
+
+    private void sendFile(Http2Stream stream, Path file, long contentLength) throws IOException {
+        byte[] chunk = new byte[DEFAULT_MAX_FRAME_SIZE];
+        try (FileChannel channel = FileChannel.open(file)) {
+            sendFileRange(stream, file, channel, chunk, 0, contentLength, true);
+        }
+    }
+
+    /**
+     * 파일 구간들을 순서대로 DATA 프레임으로 전송합니다. 구간 앞의 바이트(multipart 파트 헤더 등)는 구간 앞에 보냅니다.
+     */
+    private void sendFileRegions(Http2Stream stream, Path file, List<FileRegion> regions) throws IOException {
+        byte[] chunk = new byte[DEFAULT_MAX_FRAME_SIZE];
+        try (FileChannel channel = FileChannel.open(file)) {
+            for (int i = 0; i < regions.size(); i++) {
+                FileRegion region = regions.get(i);
+                boolean last = i == regions.size() - 1;
+                byte[] prefix = region.prefix();
+                if (prefix != null && prefix.length > 0) {
+                    writeData(stream, prefix, 0, prefix.length, last && region.length() == 0);
+                }
+                sendFileRange(stream, file, channel, chunk, region.offset(), region.length(), last);
+            }
+        }
+    }
+
+    private void sendFileRange(Http2Stream stream, Path file, FileChannel channel, byte[] chunk,
+                               long position, long length, boolean endStream) throws IOException {
+        long remaining = length;
+        while (remaining > 0) {
+            ByteBuffer dst = ByteBuffer.wrap(chunk, 0, (int) Math.min(chunk.length, remaining));
+            while (dst.hasRemaining()) {
+                int read = channel.read(dst, position);
+                if (read == -1) {
+                    throw new IOException("File truncated while sending: " + file);
+                }
+                position += read;
+            }
+            remaining -= dst.position();
+            writeData(stream, chunk, 0, dst.position(), endStream && remaining == 0);
+        }
+    }
+
+    /**
+     * 흐름 제어 윈도우를 확보하면서 데이터를 DATA 프레임들로 나누어 전송합니다.
+     */
+    private void writeData(Http2Stream stream, byte[] data, int offset, int length, boolean endStream) throws IOException {
+        while (length > 0) {
+            int n = acquireSendWindow(stream, Math.min(length, peerMaxFrameSize));
+            // 소켓이 느리면 쓰기 큐가 줄어들 때까지 기다려 커넥션 당 메모리 사용량을 제한
+            wrapper.awaitWriteQueueBelow(MAX_PENDING_WRITES, WRITE_TIMEOUT_MILLIS);
+            length -= n;
+            writeFrame(Http2Frame.data(stream.getId(), data, offset, n, endStream && length == 0));
+            offset += n;
+        }
+    }
+
+    /**
+     * 커넥션과 스트림 송신 윈도우에서 최대 {@code wanted} 바이트를 확보합니다. 윈도우가 없으면 WINDOW_UPDATE를 기다립니다.
+     *
+     * @return 확보한 바이트 수 (1 이상)
+     */
+    private int acquireSendWindow(Http2Stream stream, int wanted) throws IOException {
+        long deadline = System.currentTimeMillis() + WRITE_TIMEOUT_MILLIS;
+        synchronized (flowLock) {
+            try {
+                while (true) {
+                    if (stream.isReset() || closed) {
+                        throw new IOException("Stream " + stream.getId() + " closed");
+                    }
+                    int n = Math.min(wanted, Math.min(connectionSendWindow, stream.sendWindow));
+                    if (n > 0) {
+                        connectionSendWindow -= n;
+                        stream.sendWindow -= n;
+                        return n;
+                    }
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new SocketTimeoutException("Flow control timeout: client is not reading the response");
+                    }
+                    flowLock.wait(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for flow control window", e);
+            }
+        }
+    }
+
+    /* ======================== 프레임 쓰기 ====================== */
+
+    /**
+     * 헤더 블록을 인코딩하여 HEADERS 프레임(과 필요하면 CONTINUATION 프레임들)으로 큐에 넣습니다.
+     */
+    private void writeHeaders(int streamId, List<HeaderField> fields, boolean endStream) {
+        synchronized (writeLock) {
+            byte[] block = encoder.encode(fields);
+            int maxFrameSize = peerMaxFrameSize;
+            int offset = 0;
+            boolean first = true;
+            do {
+                int n = Math.min(block.length - offset, maxFrameSize);
+                boolean last = (offset + n == block.length);
+                int flags = (last ? FLAG_END_HEADERS : 0) | (first && endStream ? FLAG_END_STREAM : 0);
+                ByteBuffer frame = Http2Frame.allocate(n, first ? HEADERS : CONTINUATION, flags, streamId)
+                        .put(block, offset, n)
+                        .flip();
+                wrapper.offerWrite(frame);
+                offset += n;
+                first = false;
+            } while (offset < block.length);
+        }
+        poller.requestSwitchToWrite(key);
+    }
+
+    private void writeFrame(ByteBuffer frame) {
+        synchronized (writeLock) {
+            wrapper.offerWrite(frame);
+        }
+        poller.requestSwitchToWrite(key);
+    }
+
+    private void resetStream(int streamId, Http2Error error) {
+        Http2Stream stream = streams.remove(streamId);
+        if (stream != null) {
+            stream.reset();
+            synchronized (flowLock) {
+                flowLock.notifyAll();
+            }
+        }
+        writeFrame(Http2Frame.rstStream(streamId, error));
+    }
+
+    /**
+     * GOAWAY를 보내고, 쓰기 큐를 비운 뒤 커넥션을 닫습니다.
+     */
+    private void connectionError(Http2Exception e) {
+        log.debug("HTTP/2 connection error {}: {}", e.getError(), e.getMessage());
+        if (closed) {
+            return;
+        }
+        writeFrame(Http2Frame.goAway(lastStreamId, e.getError(), e.getMessage()));
+        shutdown();
+    }
+
+    /**
+     * 피어가 GOAWAY를 보냈고 처리 중인 스트림이 없으면 커넥션을 닫습니다.
+     */
+    private void closeIfIdle() {
+        if (goAwayReceived && streams.isEmpty() && !closed) {
+            shutdown();
+        }
+    }
+
+    private void shutdown() {
+        closed = true;
+        synchronized (flowLock) {
+            flowLock.notifyAll();
+        }
+        wrapper.closeAfterWrite();
+        poller.requestSwitchToWrite(key);
+    }
+}
@@ -0,0 +1,47 @@
+package trunk.connector.http2;
+
+/**
+ * RST_STREAM, GOAWAY 프레임에 실리는 HTTP/2 오류 코드입니다. (RFC 9113 7절)
+ *
+ * @author jungbin97
+ * @see Http2Exception
+ */
+public enum Http2Error {
+    NO_ERROR(0x0),
+    PROTOCOL_ERROR(0x1),
+    INTERNAL_ERROR(0x2),
+    FLOW_CONTROL_ERROR(0x3),
+    SETTINGS_TIMEOUT(0x4),
+    STREAM_CLOSED(0x5),
+    FRAME_SIZE_ERROR(0x6),
+    REFUSED_STREAM(0x7),
+    CANCEL(0x8),
+    COMPRESSION_ERROR(0x9),
+    CONNECT_ERROR(0xa),
+    ENHANCE_YOUR_CALM(0xb),
+    INADEQUATE_SECURITY(0xc),
+    HTTP_1_1_REQUIRED(0xd);
+
+    private final int code;
+
+    Http2Error(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @param code 프레임에서 읽은 오류 코드
+     * @return 일치하는 오류, 알 수 없는 코드면 {@link #INTERNAL_ERROR} (RFC 9113 7절)
+     */
+    public static Http2Error of(int code) {
+        for (Http2Error error : values()) {
+            if (error.code == code) {
+                return error;
+            }
+        }
+        return INTERNAL_ERROR;
+    }
+}
@@ -0,0 +1,45 @@
+package trunk.connector.http2;
+
+import java.io.IOException;
+
+/**
+ * HTTP/2 프로토콜 위반을 나타내는 예외입니다.
+ * <p>
+ * 스트림 ID가 0이면 커넥션 오류로 GOAWAY를 보내고 커넥션을 닫으며,
+ * 그렇지 않으면 스트림 오류로 해당 스트림에만 RST_STREAM을 보냅니다. (RFC 9113 5.4절)
+ *
+ * @author jungbin97
+ * @see Http2Error
+ */
+public class Http2Exception extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final Http2Error error;
+    private final int streamId;
+
+    private Http2Exception(Http2Error error, int streamId, String message) {
+        super(message);
+        this.error = error;
+        this.streamId = streamId;
+    }
+
+    public static Http2Exception connectionError(Http2Error error, String message) {
+        return new Http2Exception(error, 0, message);
+    }
+
+    public static Http2Exception streamError(Http2Error error, int streamId, String message) {
+        return new Http2Exception(error, streamId, message);
+    }
+
+    public Http2Error getError() {
+        return error;
+    }
+
+    public int getStreamId() {
+        return streamId;
+    }
+
+    public boolean isConnectionError() {
+        return streamId == 0;
+    }
+}
@@ -0,0 +1,117 @@
+package trunk.connector.http2;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HTTP/2 프레임 타입/플래그 상수와 제어 프레임을 직렬화하는 유틸리티 클래스입니다. (RFC 9113 4, 6절)
+ * <p>
+ * 모든 프레임은 9바이트 헤더(길이 24비트, 타입 8비트, 플래그 8비트, 예약 1비트 + 스트림 ID 31비트)로 시작합니다.
+ * 이 클래스가 만드는 버퍼는 모두 읽기 준비(flip)된 상태로 반환되어, 바로 쓰기 큐에 넣을 수 있습니다.
+ *
+ * @author jungbin97
+ * @see Http2Connection
+ */
+public final class Http2Frame {
+    public static final int HEADER_LENGTH = 9;
+
+    public static final int DATA = 0x0;
+    public static final int HEADERS = 0x1;
+    public static final int PRIORITY = 0x2;
+    public static final int RST_STREAM = 0x3;
+    public static final int SETTINGS = 0x4;
+    public static final int PUSH_PROMISE = 0x5;
+    public static final int PING = 0x6;
+    public static final int GOAWAY = 0x7;
+    public static final int WINDOW_UPDATE = 0x8;
+    public static final int CONTINUATION = 0x9;
+
+    public static final int FLAG_END_STREAM = 0x1;
+    public static final int FLAG_ACK = 0x1;
+    public static final int FLAG_END_HEADERS = 0x4;
+    public static final int FLAG_PADDED = 0x8;
+    public static final int FLAG_PRIORITY = 0x20;
+
+    public static final int SETTINGS_HEADER_TABLE_SIZE = 0x1;
+    public static final int SETTINGS_ENABLE_PUSH = 0x2;
+    public static final int SETTINGS_MAX_CONCURRENT_STREAMS = 0x3;
+    public static final int SETTINGS_INITIAL_WINDOW_SIZE = 0x4;
+    public static final int SETTINGS_MAX_FRAME_SIZE = 0x5;
+    public static final int SETTINGS_MAX_HEADER_LIST_SIZE = 0x6;
+
+    public static final int DEFAULT_WINDOW_SIZE = 65535;
+    public static final int DEFAULT_MAX_FRAME_SIZE = 16384;
+    public static final int MAX_ALLOWED_FRAME_SIZE = 16777215;
+    public static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE;
+
+    /**
+     * 클라이언트가 커넥션 시작 시 보내는 24바이트 프리페이스
+     */
+    public static final byte[] CLIENT_PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    /**
+     * 이 클래스는 인스턴스화할 수 없습니다.
+     */
+    private Http2Frame() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 프레임 헤더를 쓰고 페이로드를 채울 수 있도록 위치시킨 버퍼를 반환합니다.
+     */
+    public static ByteBuffer allocate(int payloadLength, int type, int flags, int streamId) {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_LENGTH + payloadLength);
+        buf.put((byte) (payloadLength >>> 16))
+                .put((byte) (payloadLength >>> 8))
+                .put((byte) payloadLength)
+                .put((byte) type)
+                .put((byte) flags)
+                .putInt(streamId & MAX_WINDOW_SIZE);
+        return buf;
+    }
+
+    /**
+     * @param settings {@code [식별자, 값]} 쌍의 배열
+     */
+    public static ByteBuffer settings(int[][] settings) {
+        ByteBuffer buf = allocate(settings.length * 6, SETTINGS, 0, 0);
+        for (int[] setting : settings) {
+            buf.putShort((short) setting[0]).putInt(setting[1]);
+        }
+        return buf.flip();
+    }
+
+    public static ByteBuffer settingsAck() {
+        return allocate(0, SETTINGS, FLAG_ACK, 0).flip();
+    }
+
+    public static ByteBuffer pingAck(long opaqueData) {
+        return allocate(8, PING, FLAG_ACK, 0).putLong(opaqueData).flip();
+    }
+
+    public static ByteBuffer windowUpdate(int streamId, int increment) {
+        return allocate(4, WINDOW_UPDATE, 0, streamId).putInt(increment).flip();
+    }
+
+    public static ByteBuffer rstStream(int streamId, Http2Error error) {
+        return allocate(4, RST_STREAM, 0, streamId).putInt(error.getCode()).flip();
+    }
+
+    public static ByteBuffer goAway(int lastStreamId, Http2Error error, String debugData) {
+        byte[] debug = (debugData == null) ? new byte[0] : debugData.getBytes(StandardCharsets.UTF_8);
+        return allocate(8 + debug.length, GOAWAY, 0, 0)
+                .putInt(lastStreamId)
+                .putInt(error.getCode())
+                .put(debug)
+                .flip();
+    }
+
+    /**
+     * DATA 프레임을 만듭니다.
+     */
+    public static ByteBuffer data(int streamId, byte[] data, int offset, int length, boolean endStream) {
+        return allocate(length, DATA, endStream ? FLAG_END_STREAM : 0, streamId)
+                .put(data, offset, length)
+                .flip();
+    }
+}
@@ -0,0 +1,244 @@
+package trunk.connector.http2;
+
+import trunk.connector.http2.hpack.HeaderField;
+import trunk.http11.request.BodySpillBuffer;
+import trunk.http11.request.HttpHeader;
+import trunk.http11.request.HttpRequest;
+import trunk.http11.request.HttpRequestBody;
+import trunk.http11.request.HttpRequestHeader;
+import trunk.http11.request.HttpRequestStartLine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTTP/2 커넥션 위의 스트림 하나(요청-응답 교환 하나)의 상태를 보관합니다.
+ * <p>
+ * 요청 헤더와 본문을 모두 받으면 기존 HTTP/1.1 파이프라인이 그대로 처리할 수 있도록
+ * {@link #toHttpRequest()}로 {@link HttpRequest}를 만듭니다. 의사 헤더는 시작 줄로,
+ * {@code :authority}는 {@code Host} 헤더로 옮기고, 헤더 이름은 기존 서블릿이 조회하는 형태
+ * (예: {@code content-type} → {@code Content-Type})로 바꿉니다.
+ * <p>
+ * 송신 윈도우({@link #sendWindow})는 {@link Http2Connection}의 흐름 제어 락으로 보호됩니다.
+ *
+ * @author jungbin97
+ * @see Http2Connection
+ */
+class Http2Stream {
+    static final String HTTP_2_0 = "HTTP/2.0";
+
+    private final int id;
+    private List<HeaderField> headers;
+    private HttpRequest request;
+    private BodySpillBuffer body;
+    private InputStream spilledInput;
+
+    // 수신 측 상태는 읽기 워커 스레드만 변경한다
+    private boolean endStreamReceived;
+    private int receiveWindow = Http2Frame.DEFAULT_WINDOW_SIZE;
+    private int unacknowledgedBytes;
+
+    // 송신 측 상태는 흐름 제어 락으로 보호
+    int sendWindow;
+
+    private volatile boolean reset;
+    private volatile boolean dispatched;
+
+    Http2Stream(int id, int initialSendWindow) {
+        this.id = id;
+        this.sendWindow = initialSendWindow;
+    }
+
+    /**
+     * {@code Upgrade: h2c} 요청처럼 HTTP/1.1로 이미 파싱된 요청으로 스트림을 만듭니다.
+     * 요청을 모두 받은 상태(half-closed remote)로 시작합니다.
+     */
+    static Http2Stream upgraded(int id, int initialSendWindow, HttpRequest request) {
+        Http2Stream stream = new Http2Stream(id, initialSendWindow);
+        stream.request = request;
+        stream.endStreamReceived = true;
+        return stream;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    void setHeaders(List<HeaderField> headers) {
+        this.headers = headers;
+    }
+
+    boolean isEndStreamReceived() {
+        return endStreamReceived;
+    }
+
+    void endStreamReceived() {
+        this.endStreamReceived = true;
+    }
+
+    boolean isReset() {
+        return reset;
+    }
+
+    void reset() {
+        this.reset = true;
+    }
+
+    /**
+     * 수신한 DATA 프레임의 본문을 모읍니다.
+     *
+     * @param threshold 메모리에 둘 최대 크기. 넘는 부분은 임시 파일에 기록됩니다.
+     */
+    void appendData(byte[] data, int offset, int length, int threshold) throws IOException {
+        if (body == null) {
+            body = new BodySpillBuffer(threshold);
+        }
+        body.write(data, offset, length);
+    }
+
+    /**
+     * DATA 프레임 수신으로 수신 윈도우를 소비하고, 윈도우 갱신을 보내야 하면 갱신할 크기를 반환합니다.
+     * 갱신은 윈도우의 절반 이상이 소비되었을 때 한 번에 모아서 보냅니다.
+     *
+     * @param length 패딩을 포함한 DATA 프레임 페이로드 길이
+     * @return 보낼 WINDOW_UPDATE 증가량, 아직 보낼 필요가 없으면 0
+     * @throws Http2Exception 피어가 광고한 윈도우를 넘겨 보낸 경우 (스트림 오류)
+     */
+    int consumeReceiveWindow(int length) throws Http2Exception {
+        if (length > receiveWindow) {
+            throw Http2Exception.streamError(Http2Error.FLOW_CONTROL_ERROR, id, "Stream receive window exceeded");
+        }
+        receiveWindow -= length;
+        unacknowledgedBytes += length;
+        if (endStreamReceived || unacknowledgedBytes < Http2Frame.DEFAULT_WINDOW_SIZE / 2) {
+            return 0;
+        }
+        int increment = unacknowledgedBytes;
+        receiveWindow += increment;
+        unacknowledgedBytes = 0;
+        return increment;
+    }
+
+    boolean isDispatched() {
+        return dispatched;
+    }
+
+    void dispatched() {
+        this.dispatched = true;
+    }
+
+    /**
+     * 받은 헤더와 본문으로 기존 파이프라인에 전달할 요청을 만듭니다.
+     *
+     * @throws Http2Exception 필수 의사 헤더가 없거나 형식이 잘못된 경우 (스트림 오류)
+     */
+    HttpRequest toHttpRequest() throws IOException {
+        if (request != null) {
+            return request;
+        }
+
+        String method = null;
+        String path = null;
+        String authority = null;
+        Map<String, String> headersMap = new HashMap<>();
+        boolean regularSeen = false;
+        for (HeaderField field : headers) {
+            String name = field.name();
+            if (name.startsWith(":")) {
+                if (regularSeen) {
+                    throw malformed("Pseudo-header after regular header");
+                }
+                switch (name) {
+                    case ":method" -> method = field.value();
+                    case ":path" -> path = field.value();
+                    case ":authority" -> authority = field.value();
+                    case ":scheme" -> { /* 커넥터가 결정하므로 무시 */ }
+                    default -> throw malformed("Unknown pseudo-header: " + name);
+                }
+                continue;
+            }
+            regularSeen = true;
+            if (!name.equals(name.toLowerCase())) {
+                throw malformed("Uppercase header name: " + name);
+            }
+            String canonical = canonicalize(name);
+            // 여러 개로 나뉘어 온 쿠키는 HTTP/1.1 형태로 합친다 (RFC 9113 8.2.3)
+            headersMap.merge(canonical, field.value(), (a, b) -> canonical.equals("Cookie") ? a + "; " + b : a + ", " + b);
+        }
+        if (method == null || path == null || path.isEmpty()) {
+            throw malformed("Missing :method or :path");
+        }
+        if (authority != null) {
+            headersMap.putIfAbsent("Host", authority);
+        }
+
+        HttpRequestStartLine startLine = new HttpRequestStartLine(method, path, HTTP_2_0);
+
+        HttpRequestBody requestBody;
+        if (body != null) {
+            body.close();
+        }
+        if (body == null) {
+            requestBody = new HttpRequestBody(new byte[0]);
+        } else if (!body.isSpilled()) {
+            requestBody = new HttpRequestBody(body.toByteArray());
+            body.delete();
+        } else {
+            // 디스크에 기록된 큰 본문은 임시 파일에서 스트리밍으로 읽는다 (임시 파일은 releaseBody()에서 정리)
+            spilledInput = body.openInputStream();
+            requestBody = HttpRequestBody.streaming(spilledInput, false, body.size(), null);
+        }
+
+        request = new HttpRequest(startLine, new HttpRequestHeader(headersMap), requestBody);
+        return request;
+    }
+
+    /**
+     * 요청 본문과 임시 파일을 정리합니다. 여러 번 호출해도 안전합니다.
+     */
+    void releaseBody() {
+        try {
+            // 본문은 이미 모두 수신되었으므로 남은 부분을 읽어 버릴 필요 없이 임시 파일 스트림부터 닫는다
+            if (spilledInput != null) {
+                spilledInput.close();
+            }
+            if (request != null && request.getBody() != null) {
+                request.getBody().release();
+            }
+        } catch (IOException ignore) {
+            // 닫힌 임시 파일 스트림을 버리려다 발생하는 오류는 무시 (파트 정리는 그 전에 끝난다)
+        }
+        try {
+            if (body != null) {
+                body.delete();
+            }
+        } catch (IOException ignore) {
+            // Ignore
+        }
+    }
+
+    private Http2Exception malformed(String message) {
+        return Http2Exception.streamError(Http2Error.PROTOCOL_ERROR, id, message);
+    }
+
+    /**
+     * {@code content-type} → {@code Content-Type}
+     */
+    static String canonicalize(String name) {
+        HttpHeader known = HttpHeader.lookup(name);
+        if (known != null) {
+            return known.getName(); // 자주 쓰이는 이름은 새 문자열을 만들지 않는다
+        }
+        StringBuilder sb = new StringBuilder(name.length());
+        boolean upper = true;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            sb.append(upper ? Character.toUpperCase(c) : c);
+            upper = (c == '-');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package trunk.connector.http2.hpack;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * HPACK 동적 테이블(RFC 7541 2.3.2)입니다.
+ * <p>
+ * 가장 최근에 추가된 엔트리가 가장 작은 인덱스를 가지며, 테이블 크기가 최대 크기를 넘으면
+ * 가장 오래된 엔트리부터 제거됩니다. 인코더와 디코더가 각각 하나씩 가지며, 스레드 안전하지 않습니다.
+ *
+ * @author jungbin97
+ */
+final class DynamicTable {
+    private final Deque<HeaderField> entries = new ArrayDeque<>();
+    private int size = 0;
+    private int maxSize;
+
+    DynamicTable(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    int length() {
+        return entries.size();
+    }
+
+    int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @param index 동적 테이블 내 1부터 시작하는 인덱스 (정적 테이블 길이를 뺀 값)
+     */
+    HeaderField get(int index) {
+        Iterator<HeaderField> it = entries.iterator();
+        for (int i = 1; i < index; i++) {
+            it.next();
+        }
+        return it.next();
+    }
+
+    void add(HeaderField field) {
+        int fieldSize = field.size();
+        if (fieldSize > maxSize) {
+            // 엔트리가 테이블보다 크면 테이블을 비우기만 한다 (RFC 7541 4.4)
+            entries.clear();
+            size = 0;
+            return;
+        }
+        evictUntil(maxSize - fieldSize);
+        entries.addFirst(field);
+        size += fieldSize;
+    }
+
+    void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        evictUntil(maxSize);
+    }
+
+    /**
+     * @return 이름과 값이 모두 일치하는 동적 테이블 내 인덱스, 없으면 0
+     */
+    int indexOf(String name, String value) {
+        int i = 1;
+        for (HeaderField field : entries) {
+            if (field.name().equals(name) && field.value().equals(value)) {
+                return i;
+            }
+            i++;
+        }
+        return 0;
+    }
+
+    /**
+     * @return 이름이 일치하는 동적 테이블 내 인덱스, 없으면 0
+     */
+    int indexOfName(String name) {
+        int i = 1;
+        for (HeaderField field : entries) {
+            if (field.name().equals(name)) {
+                return i;
+            }
+            i++;
+        }
+        return 0;
+    }
+
+    private void evictUntil(int targetSize) {
+        while (size > targetSize && !entries.isEmpty()) {
+            size -= entries.removeLast().size();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package trunk.connector.http2.hpack;
+
+/**
+ * HPACK으로 인코딩/디코딩되는 헤더 필드 하나(이름, 값)입니다. HTTP/2에서 이름은 항상 소문자입니다.
+ *
+ * @param name  헤더 이름 (의사 헤더는 {@code :method}처럼 콜론으로 시작)
+ * @param value 헤더 값
+ * @author jungbin97
+ */
+public record HeaderField(String name, String value) {
+
+    /**
+     * RFC 7541 4.1에 정의된 동적 테이블에서의 엔트리 크기 (이름 길이 + 값 길이 + 32)
+     */
+    int size() {
+        return name.length() + value.length() + 32;
+    }
+}
@@ -0,0 +1,147 @@
+package trunk.connector.http2.hpack;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HTTP/2 헤더 블록을 헤더 필드 목록으로 디코딩하는 HPACK(RFC 7541) 디코더입니다.
+ * <p>
+ * 커넥션마다 하나씩 존재하며, 피어의 인코더와 동기화된 동적 테이블을 유지하므로
+ * 헤더 블록은 수신한 순서대로 디코딩해야 합니다. 스레드 안전하지 않습니다.
+ *
+ * <h2>지원하는 표현</h2>
+ * <ul>
+ *     <li>인덱스 헤더 필드 ({@code 1xxxxxxx})</li>
+ *     <li>증분 인덱싱 리터럴 ({@code 01xxxxxx})</li>
+ *     <li>동적 테이블 크기 갱신 ({@code 001xxxxx})</li>
+ *     <li>인덱싱 없는 리터럴 ({@code 0000xxxx}), 인덱싱 금지 리터럴 ({@code 0001xxxx})</li>
+ * </ul>
+ *
+ * @author jungbin97
+ * @see HpackEncoder
+ */
+public class HpackDecoder {
+    private final DynamicTable dynamicTable;
+    private final int maxTableSize;
+    private final int maxHeaderListSize;
+
+    /**
+     * @param maxTableSize      SETTINGS_HEADER_TABLE_SIZE로 광고한 동적 테이블 최대 크기
+     * @param maxHeaderListSize 헤더 블록 하나의 최대 크기 (RFC 7541 크기 계산 기준)
+     */
+    public HpackDecoder(int maxTableSize, int maxHeaderListSize) {
+        this.dynamicTable = new DynamicTable(maxTableSize);
+        this.maxTableSize = maxTableSize;
+        this.maxHeaderListSize = maxHeaderListSize;
+    }
+
+    /**
+     * 헤더 블록 전체(HEADERS + CONTINUATION 조각을 이어붙인 것)를 디코딩합니다.
+     *
+     * @param block 헤더 블록
+     * @return 블록에 나타난 순서대로의 헤더 필드 목록
+     * @throws HpackException 블록 형식이 잘못되었거나 크기 제한을 넘는 경우
+     */
+    public List<HeaderField> decode(ByteBuffer block) throws HpackException {
+        List<HeaderField> fields = new ArrayList<>();
+        int listSize = 0;
+        boolean fieldSeen = false;
+
+        while (block.hasRemaining()) {
+            int b = block.get(block.position()) & 0xFF;
+            HeaderField field;
+            if ((b & 0x80) != 0) {
+                // 인덱스 헤더 필드
+                field = lookup(decodeInteger(block, 7));
+            } else if ((b & 0x40) != 0) {
+                // 증분 인덱싱 리터럴
+                field = decodeLiteral(block, 6);
+                dynamicTable.add(field);
+            } else if ((b & 0x20) != 0) {
+                // 동적 테이블 크기 갱신은 헤더 블록의 맨 앞에서만 허용
+                if (fieldSeen) {
+                    throw new HpackException("Dynamic table size update after header field");
+                }
+                int size = decodeInteger(block, 5);
+                if (size > maxTableSize) {
+                    throw new HpackException("Dynamic table size update exceeds limit: " + size);
+                }
+                dynamicTable.setMaxSize(size);
+                continue;
+            } else {
+                // 인덱싱 없는 리터럴 / 인덱싱 금지 리터럴
+                field = decodeLiteral(block, 4);
+            }
+
+            fieldSeen = true;
+            listSize += field.size();
+            if (listSize > maxHeaderListSize) {
+                throw new HpackException("Header list too large");
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    private HeaderField decodeLiteral(ByteBuffer block, int prefixBits) throws HpackException {
+        int nameIndex = decodeInteger(block, prefixBits);
+        String name = (nameIndex == 0) ? decodeString(block) : lookup(nameIndex).name();
+        String value = decodeString(block);
+        return new HeaderField(name, value);
+    }
+
+    private HeaderField lookup(int index) throws HpackException {
+        if (index <= 0) {
+            throw new HpackException("Invalid header index: " + index);
+        }
+        if (index <= StaticTable.LENGTH) {
+            return StaticTable.get(index);
+        }
+        int dynamicIndex = index - StaticTable.LENGTH;
+        if (dynamicIndex > dynamicTable.length()) {
+            throw new HpackException("Header index out of range: " + index);
+        }
+        return dynamicTable.get(dynamicIndex);
+    }
+
+    private String decodeString(ByteBuffer block) throws HpackException {
+        if (!block.hasRemaining()) {
+            throw new HpackException("Truncated string literal");
+        }
+        boolean huffman = (block.get(block.position()) & 0x80) != 0;
+        int length = decodeInteger(block, 7);
+        if (length > block.remaining()) {
+            throw new HpackException("String literal exceeds header block");
+        }
+        byte[] bytes = new byte[length];
+        block.get(bytes);
+        return huffman ? Huffman.decode(bytes, 0, length) : new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * RFC 7541 5.1의 N비트 접두사 정수를 디코딩합니다.
+     */
+    static int decodeInteger(ByteBuffer block, int prefixBits) throws HpackException {
+        int mask = (1 << prefixBits) - 1;
+        int value = block.get() & mask;
+        if (value < mask) {
+            return value;
+        }
+        int shift = 0;
+        int b;
+        do {
+            if (!block.hasRemaining()) {
+                throw new HpackException("Truncated integer");
+            }
+            b = block.get() & 0xFF;
+            value += (b & 0x7F) << shift;
+            shift += 7;
+            if (shift > 28 || value < 0) {
+                throw new HpackException("Integer overflow");
+            }
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
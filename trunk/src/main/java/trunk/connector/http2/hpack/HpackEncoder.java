@@ -0,0 +1,122 @@
+package trunk.connector.http2.hpack;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 헤더 필드 목록을 HTTP/2 헤더 블록으로 인코딩하는 HPACK(RFC 7541) 인코더입니다.
+ * <p>
+ * 정적/동적 테이블에 같은 필드가 있으면 인덱스 하나로 보내고, 반복될 가능성이 높은 필드(예: {@code content-type})는
+ * 증분 인덱싱으로 동적 테이블에 추가해 다음 응답부터 1바이트로 보냅니다. 값이 매번 바뀌는 필드는 테이블을 오염시키지
+ * 않도록 인덱싱하지 않으며, 쿠키처럼 민감한 값은 인덱싱 금지로 보냅니다. 문자열은 허프만 인코딩이 더 짧을 때만 사용합니다.
+ * <p>
+ * 피어의 디코더와 동적 테이블 상태를 공유하므로, 인코딩한 순서대로 헤더 블록이 전송되어야 합니다. 스레드 안전하지 않습니다.
+ *
+ * @author jungbin97
+ * @see HpackDecoder
+ */
+public class HpackEncoder {
+    private static final Set<String> NOT_INDEXED = Set.of(
+            "content-length", "date", "etag", "last-modified", "location", "content-range", ":path");
+    private static final Set<String> SENSITIVE = Set.of("set-cookie", "cookie", "authorization", "proxy-authorization");
+
+    private final DynamicTable dynamicTable;
+    private int pendingSizeUpdate = -1;
+
+    public HpackEncoder(int maxTableSize) {
+        this.dynamicTable = new DynamicTable(maxTableSize);
+    }
+
+    /**
+     * 피어가 SETTINGS_HEADER_TABLE_SIZE로 알린 값에 맞춰 동적 테이블 크기를 바꿉니다.
+     * 변경 사실은 다음 헤더 블록의 맨 앞에 크기 갱신 명령으로 전달됩니다.
+     */
+    public void setMaxTableSize(int maxTableSize) {
+        if (maxTableSize != dynamicTable.maxSize()) {
+            dynamicTable.setMaxSize(maxTableSize);
+            pendingSizeUpdate = maxTableSize;
+        }
+    }
+
+    /**
+     * @param fields 이름이 소문자인 헤더 필드 목록. 의사 헤더가 앞에 와야 합니다.
+     * @return 인코딩된 헤더 블록
+     */
+    public byte[] encode(List<HeaderField> fields) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (pendingSizeUpdate >= 0) {
+            encodeInteger(out, 0x20, 5, pendingSizeUpdate);
+            pendingSizeUpdate = -1;
+        }
+
+        for (HeaderField field : fields) {
+            String name = field.name();
+            String value = field.value();
+
+            int index = StaticTable.indexOf(name, value);
+            if (index == 0) {
+                int dynamicIndex = dynamicTable.indexOf(name, value);
+                index = (dynamicIndex == 0) ? 0 : StaticTable.LENGTH + dynamicIndex;
+            }
+            if (index != 0 && !SENSITIVE.contains(name)) {
+                encodeInteger(out, 0x80, 7, index);
+                continue;
+            }
+
+            int nameIndex = StaticTable.indexOfName(name);
+            if (nameIndex == 0) {
+                int dynamicIndex = dynamicTable.indexOfName(name);
+                nameIndex = (dynamicIndex == 0) ? 0 : StaticTable.LENGTH + dynamicIndex;
+            }
+
+            if (SENSITIVE.contains(name)) {
+                encodeInteger(out, 0x10, 4, nameIndex);
+            } else if (NOT_INDEXED.contains(name) || field.size() > dynamicTable.maxSize() / 2) {
+                encodeInteger(out, 0x00, 4, nameIndex);
+            } else {
+                encodeInteger(out, 0x40, 6, nameIndex);
+                dynamicTable.add(field);
+            }
+            if (nameIndex == 0) {
+                encodeString(out, name);
+            }
+            encodeString(out, value);
+        }
+        return out.toByteArray();
+    }
+
+    private static void encodeString(ByteArrayOutputStream out, String value) {
+        int huffmanLength = Huffman.encodedLength(value);
+        if (huffmanLength < value.length()) {
+            encodeInteger(out, 0x80, 7, huffmanLength);
+            Huffman.encode(value, out);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+            encodeInteger(out, 0x00, 7, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * RFC 7541 5.1의 N비트 접두사 정수를 인코딩합니다.
+     *
+     * @param flags      접두사 앞의 상위 비트(표현 종류)
+     * @param prefixBits 접두사 비트 수
+     */
+    static void encodeInteger(ByteArrayOutputStream out, int flags, int prefixBits, int value) {
+        int max = (1 << prefixBits) - 1;
+        if (value < max) {
+            out.write(flags | value);
+            return;
+        }
+        out.write(flags | max);
+        value -= max;
+        while (value >= 0x80) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
@@ -0,0 +1,17 @@
+package trunk.connector.http2.hpack;
+
+import java.io.IOException;
+
+/**
+ * 헤더 블록을 디코딩할 수 없을 때 발생하는 예외입니다.
+ * HTTP/2 커넥션은 이 예외를 {@code COMPRESSION_ERROR} 커넥션 오류로 처리해야 합니다.
+ *
+ * @author jungbin97
+ */
+public class HpackException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public HpackException(String message) {
+        super(message);
+    }
+}
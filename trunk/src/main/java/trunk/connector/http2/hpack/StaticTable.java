@@ -0,0 +1,111 @@
+package trunk.connector.http2.hpack;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RFC 7541 Appendix A에 정의된 HPACK 정적 테이블입니다. 인덱스는 1부터 시작합니다.
+ *
+ * @author jungbin97
+ */
+final class StaticTable {
+    static final List<HeaderField> ENTRIES = List.of(
+            new HeaderField(":authority", ""),
+            new HeaderField(":method", "GET"),
+            new HeaderField(":method", "POST"),
+            new HeaderField(":path", "/"),
+            new HeaderField(":path", "/index.html"),
+            new HeaderField(":scheme", "http"),
+            new HeaderField(":scheme", "https"),
+            new HeaderField(":status", "200"),
+            new HeaderField(":status", "204"),
+            new HeaderField(":status", "206"),
+            new HeaderField(":status", "304"),
+            new HeaderField(":status", "400"),
+            new HeaderField(":status", "404"),
+            new HeaderField(":status", "500"),
+            new HeaderField("accept-charset", ""),
+            new HeaderField("accept-encoding", "gzip, deflate"),
+            new HeaderField("accept-language", ""),
+            new HeaderField("accept-ranges", ""),
+            new HeaderField("accept", ""),
+            new HeaderField("access-control-allow-origin", ""),
+            new HeaderField("age", ""),
+            new HeaderField("allow", ""),
+            new HeaderField("authorization", ""),
+            new HeaderField("cache-control", ""),
+            new HeaderField("content-disposition", ""),
+            new HeaderField("content-encoding", ""),
+            new HeaderField("content-language", ""),
+            new HeaderField("content-length", ""),
+            new HeaderField("content-location", ""),
+            new HeaderField("content-range", ""),
+            new HeaderField("content-type", ""),
+            new HeaderField("cookie", ""),
+            new HeaderField("date", ""),
+            new HeaderField("etag", ""),
+            new HeaderField("expect", ""),
+            new HeaderField("expires", ""),
+            new HeaderField("from", ""),
+            new HeaderField("host", ""),
+            new HeaderField("if-match", ""),
+            new HeaderField("if-modified-since", ""),
+            new HeaderField("if-none-match", ""),
+            new HeaderField("if-range", ""),
+            new HeaderField("if-unmodified-since", ""),
+            new HeaderField("last-modified", ""),
+            new HeaderField("link", ""),
+            new HeaderField("location", ""),
+            new HeaderField("max-forwards", ""),
+            new HeaderField("proxy-authenticate", ""),
+            new HeaderField("proxy-authorization", ""),
+            new HeaderField("range", ""),
+            new HeaderField("referer", ""),
+            new HeaderField("refresh", ""),
+            new HeaderField("retry-after", ""),
+            new HeaderField("server", ""),
+            new HeaderField("set-cookie", ""),
+            new HeaderField("strict-transport-security", ""),
+            new HeaderField("transfer-encoding", ""),
+            new HeaderField("user-agent", ""),
+            new HeaderField("vary", ""),
+            new HeaderField("via", ""),
+            new HeaderField("www-authenticate", ""));
+
+    static final int LENGTH = ENTRIES.size();
+
+    // 인코더 조회용: 이름 -> 첫 인덱스, "이름\0값" -> 인덱스
+    private static final Map<String, Integer> NAME_INDEX = new HashMap<>();
+    private static final Map<String, Integer> FIELD_INDEX = new HashMap<>();
+
+    static {
+        for (int i = LENGTH; i >= 1; i--) {
+            HeaderField field = ENTRIES.get(i - 1);
+            NAME_INDEX.put(field.name(), i);
+            FIELD_INDEX.put(field.name() + '\0' + field.value(), i);
+        }
+    }
+
+    private StaticTable() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static HeaderField get(int index) {
+        return ENTRIES.get(index - 1);
+    }
+
+    /**
+     * @return 이름과 값이 모두 일치하는 인덱스, 없으면 0
+     */
+    static int indexOf(String name, String value) {
+        return FIELD_INDEX.getOrDefault(name + '\0' + value, 0);
+    }
+
+    /**
+     * @return 이름이 일치하는 인덱스, 없으면 0
+     */
+    static int indexOfName(String name) {
+        return NAME_INDEX.getOrDefault(name, 0);
+    }
+}
@@ -1,6 +1,8 @@
 package trunk.connector.nio;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.SocketChannel;
 
@@ -13,26 +15,49 @@ import java.nio.channels.SocketChannel;
  * <p>
  * 네트워크 버퍼의 상태에 따라 {@link #write(SocketChannel)} 메서드가 여러 번 호출될 수 있으며,
  * 호출될 때마다 중단된 지점부터 전송을 재개합니다.
+ * <p>
+ * TLS 커넥션에서는 커널이 암호화를 할 수 없으므로 Zero-Copy 전송 대신 {@link #write(SecureNioChannel)}로
+ * 파일을 청크 단위로 읽어 암호화한 뒤 전송합니다.
+ * <p>
+ * {@code 206 Partial Content} 응답은 파일의 일부 구간만 전송합니다. 한 파일의 여러 구간을 보낼 때는 구간마다 이벤트를 만들어
+ * 하나의 채널을 공유하고, 마지막 이벤트만 채널을 닫습니다.
  *
  * @author jungbin97
  * @see NioSocketWrapper
  * @see Poller
  */
 public class FileSendEvent {
+    static final int TLS_CHUNK_SIZE = 16 * 1024; // TLS 레코드 평문 최대 크기
+
     private final FileChannel fileChannel;
+    private final boolean closeChannel;
+    private ByteBuffer chunk; // TLS 전송 시 파일에서 읽었지만 아직 암호화하지 않은 바이트 (읽기 모드)
     private long writePosition;
-    private final long length;
+    private final long endPosition;
 
     /**
-     * 지정된 {@link FileChannel}로 새로운 파일 전송 이벤트를 생성합니다.
+     * 지정된 {@link FileChannel}로 파일 전체를 전송하는 이벤트를 생성합니다. 전송이 끝나면 채널을 닫습니다.
      *
      * @param fileChannel 전송할 파일에 대한 채널
      * @throws IOException 파일 크기를 얻는 중 오류가 발생할 경우
      */
     public FileSendEvent(FileChannel fileChannel) throws IOException {
+        this(fileChannel, 0, fileChannel.size(), true);
+    }
+
+    /**
+     * 파일의 {@code [position, position + length)} 구간을 전송하는 이벤트를 생성합니다.
+     *
+     * @param fileChannel  전송할 파일에 대한 채널
+     * @param position     전송을 시작할 파일 위치
+     * @param length       전송할 바이트 수
+     * @param closeChannel 전송이 끝나면 채널을 닫을지 여부. 같은 채널을 쓰는 뒤의 이벤트가 있으면 {@code false}
+     */
+    public FileSendEvent(FileChannel fileChannel, long position, long length, boolean closeChannel) {
         this.fileChannel = fileChannel;
-        this.writePosition = 0;
-        this.length = fileChannel.size();
+        this.closeChannel = closeChannel;
+        this.writePosition = position;
+        this.endPosition = position + length;
     }
 
     /**
@@ -47,17 +72,58 @@ public class FileSendEvent {
      * @throws IOException I/O 에러 발생 시
      */
     public boolean write(SocketChannel socketChannel) throws IOException {
-        long written = fileChannel.transferTo(writePosition, length - writePosition, socketChannel);
+        long written = fileChannel.transferTo(writePosition, endPosition - writePosition, socketChannel);
         writePosition += written;
-        return writePosition >= length;
+        return writePosition >= endPosition;
+    }
+
+    /**
+     * TLS 커넥션에서 호출되어 파일을 청크 단위로 읽고 암호화하여 전송합니다.
+     * <p>
+     * 소켓이 더 받지 못하면 읽어둔 청크와 진행 상황({@code writePosition})을 유지한 채 {@code false}를 반환합니다.
+     *
+     * @param secureChannel 데이터를 암호화하여 쓸 TLS 채널
+     * @return 파일 전송이 완료되었으면 {@code true}, 아직 보낼 데이터가 남아있으면 {@code false}
+     * @throws IOException I/O 에러 발생 시
+     */
+    public boolean write(SecureNioChannel secureChannel) throws IOException {
+        if (chunk == null) {
+            chunk = ByteBuffer.allocate(TLS_CHUNK_SIZE).flip();
+        }
+        while (true) {
+            if (!secureChannel.flush()) {
+                return false;
+            }
+            if (!chunk.hasRemaining()) {
+                if (writePosition >= endPosition) {
+                    return true;
+                }
+                chunk.clear();
+                if (endPosition - writePosition < chunk.capacity()) {
+                    chunk.limit((int) (endPosition - writePosition));
+                }
+                int read = fileChannel.read(chunk, writePosition);
+                if (read == -1) {
+                    throw new EOFException("File truncated during transfer");
+                }
+                writePosition += read;
+                chunk.flip();
+            }
+            if (secureChannel.write(chunk) == 0 && chunk.hasRemaining()) {
+                return false;
+            }
+        }
     }
 
     /**
      * 파일 전송 작업이 모두 완료된 후, 열려 있던 {@link FileChannel} 리소스를 안전하게 해제합니다.
+     * 채널을 뒤의 이벤트와 공유하면 닫지 않습니다.
      *
      * @throws IOException I/O 에러 발생 시
      */
     public void close() throws IOException {
-        fileChannel.close();
+        if (closeChannel) {
+            fileChannel.close();
+        }
     }
 }
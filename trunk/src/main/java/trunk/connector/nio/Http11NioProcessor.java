@@ -3,10 +3,17 @@ package trunk.connector.nio;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import trunk.connector.Http11Processor;
+import trunk.connector.http2.Http2Connection;
+import trunk.connector.websocket.WebSocketConnection;
 import trunk.container.StandardContext;
 import trunk.http11.NioHttpRequestParser;
+import trunk.http11.request.HttpHeader;
 import trunk.http11.request.HttpRequest;
+import trunk.http11.request.HttpRequestBody;
+import trunk.http11.request.RequestRejectedException;
+import trunk.http11.response.FileRegion;
 import trunk.http11.response.HttpResponse;
+import trunk.http11.response.PreEncodedResponse;
 import trunk.http11.response.ResponseSender;
 
 import java.io.FileInputStream;
@@ -15,18 +22,32 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * NIO 기반의 HTTP 요청을 처리하는 {@link Runnable} task 클래스 입니다.
  * <p>
  * 이 클래스는 {@link NioEndpoint}의 워커 스레드 풀에 의해 실행되며, 하나의 인스턴스는
- * 하나의 클라이언트 연결에 대한 요청-응답 사이클을 처리합니다.
+ * 하나의 클라이언트 연결에 대한 요청-응답 사이클을 처리합니다. 인스턴스는 {@link NioSocketWrapper}가 보관하여 커넥션의
+ * 모든 I/O 이벤트에 재사용하며, {@link Http11Processor}, {@link NioResponseSink}, {@link HttpResponse}도 커넥션 동안 하나씩만 만듭니다.
  * <h2>주요 흐름</h2>
  * <ol>
- * <li>소켓 채널로부터 데이터를 읽고 {@link NioHttpRequestParser}를 통해 HTTP 요청 객체로 파싱합니다.</li>
- * <li>완성된 요청을 {@link Http11Processor}에 전달하여 서블릿 비즈니스 로직을 실행하고 {@link HttpResponse}를 생성합니다.</li>
- * <li>생성된 {@code HttpResponse}가 파일 본문({@link Path})을 가졌는지 확인하여, Zero-Copy 방식 또는 메모리 버퍼 방식으로 응답을 보낼지 결정합니다.</li>
- * <li>결정된 방식에 따라 쓰기 작업(들)을 {@link NioSocketWrapper}의 쓰기 큐에 등록하고, {@link Poller}에게 쓰기 이벤트 처리를 요청합니다.</li>
+ * <li>TLS 커넥션이면 핸드셰이크를 먼저 진행합니다. 소켓을 기다려야 하면 워커 스레드를 반환하고, 다음 I/O 이벤트에서 이어갑니다.</li>
+ * <li>소켓 채널로부터 데이터를 읽고 커넥션 단위의 {@link NioHttpRequestParser}를 통해 HTTP 요청 객체로 파싱합니다.
+ * 파서는 {@link NioSocketWrapper}가 보관하므로, 요청이 여러 번의 읽기 이벤트에 나뉘어 도착해도 상태가 유지됩니다.
+ * 형식이 잘못되었거나 {@link trunk.http11.request.RequestLimits}의 한도를 넘은 요청은 오류 응답을 보낸 뒤 커넥션을 닫습니다.</li>
+ * <li>요청이 HTTP/2 프리페이스이거나 {@code Upgrade: h2c} 요청이면, 커넥션을 {@link Http2Connection}으로 전환하고 종료합니다.</li>
+ * <li>완성된 요청을 {@link Http11Processor}에 전달하여 서블릿 비즈니스 로직을 실행하고 {@link HttpResponse}를 생성합니다.
+ * 서블릿이 스트리밍 응답을 사용하면, 생성되는 청크는 {@link NioResponseSink}를 통해 곧바로 쓰기 큐로 전달됩니다.</li>
+ * <li>서블릿이 비동기 처리를 시작했으면({@link HttpRequest#startAsync()}) 응답을 보내지 않고 워커 스레드를 반환합니다.
+ * 이후 단계는 {@link NioAsyncContext#complete()}를 호출한 스레드에서 이어집니다.</li>
+ * <li>서블릿이 WebSocket 핸드셰이크를 수락했으면, {@code 101} 응답을 보내고 커넥션을 {@link WebSocketConnection}으로 전환합니다.</li>
+ * <li>서블릿이 읽지 않고 남긴 요청 본문을 버려 다음 요청의 시작 위치를 맞춥니다. 버릴 수 없으면 응답 후 커넥션을 닫습니다.</li>
+ * <li>생성된 {@code HttpResponse}가 파일 본문({@link Path})을 가졌는지 확인하여, Zero-Copy 방식 또는 메모리 버퍼 방식으로 응답을 보낼지 결정합니다.
+ * {@code HEAD} 응답은 파일을 열지 않고 헤더만 메모리 버퍼로 보냅니다.</li>
+ * <li>응답을 전송할 쓰기 작업(들)을 만든 뒤 요청과 응답 객체를 초기화하여 다음 요청에 돌려놓고({@link trunk.http11.Recycling}),
+ * 쓰기 작업을 {@link NioSocketWrapper}의 쓰기 큐에 등록하여 {@link Poller}에게 쓰기 이벤트 처리를 요청합니다.
+ * 쓰기 큐에 등록하는 순간 다음 요청의 처리가 시작될 수 있으므로, 초기화는 반드시 등록 전에 합니다.</li>
  * </ol>
  *
  * @author jungbin97
@@ -37,11 +58,13 @@ import java.nio.file.Path;
 public class Http11NioProcessor implements Runnable {
     private static final Logger log = LoggerFactory.getLogger(Http11NioProcessor.class);
 
-    private final NioHttpRequestParser nioParser = new NioHttpRequestParser();
     private final NioSocketWrapper wrapper;
     private final StandardContext context;
     private final SelectionKey key;
     private final Poller poller;
+    private final Http11Processor processor;
+    private final NioResponseSink sink;
+    private HttpResponse recycledResponse;
 
     /**
      * 요청 처리에 필요한 모든 컴포넌트를 주입받아 새로운 Processor를 생성합니다.
@@ -56,47 +79,211 @@ public class Http11NioProcessor implements Runnable {
         this.context = context;
         this.key = key;
         this.poller = poller;
+        this.processor = new Http11Processor(context);
+        this.sink = new NioResponseSink(wrapper, key, poller);
     }
 
     @Override
     public void run() {
         try {
+            if (!wrapper.handshake(key)) {
+                return; // TLS 핸드셰이크 진행 중
+            }
             ByteBuffer buffer = wrapper.buffer;
 
-            int bytesRead = wrapper.channel.read(buffer);
+            int bytesRead = wrapper.read(buffer);
             if (bytesRead == -1) {
                 wrapper.closeChannel();
                 return;
             }
 
-            HttpRequest request = nioParser.parse(buffer);
+            HttpRequest request = wrapper.getRequestParser(key).parse(buffer);
             if (request == null) {
-                poller.requestSwitchToRead(key);
+                wrapper.resumeReading(key);
                 return; // 요청 누적 중
             }
 
-            HttpResponse response = new HttpResponse();
-            new Http11Processor(context).process(request, response);
+            if (request.isHttp2Preface()) {
+                new Http2Connection(wrapper, key, poller, poller.getWorkerPool(), context).startPriorKnowledge();
+                return;
+            }
+            if (isH2cUpgrade(request)) {
+                new Http2Connection(wrapper, key, poller, poller.getWorkerPool(), context).startUpgrade(request);
+                return;
+            }
+
+            HttpResponse response = takeResponse();
+            if (request.acceptsChunkedResponse()) {
+                // HTTP/1.0 응답은 스트리밍하지 않고 모아서 Content-Length와 함께 보낸다
+                response.setResponseSink(sink);
+            }
+            response.setCompression(wrapper.getCompressionConfig(), request.getHeader(HttpHeader.ACCEPT_ENCODING));
+            request.setAsyncContextFactory(() ->
+                    new NioAsyncContext(request, response, wrapper, key, poller, () -> completeAsync(request, response)));
 
-            if (response.hasFileBody()) {
-                sendResponseWithZeroCopy(response);
-            } else {
-                sendResponseFromBuffer(response);
+            wrapper.setProcessing(true);
+            processor.process(request, response);
+            if (request.isAsyncStarted()) {
+                // 워커 스레드를 반환한다. 응답은 AsyncContext.complete()를 호출한 스레드에서 마무리된다
+                ((NioAsyncContext) request.getAsyncContext()).dispatchReturned();
+                return;
             }
+            finishResponse(request, response);
+        } catch (RequestRejectedException e) {
+            rejectRequest(e);
+        } catch (IOException e) {
+            wrapper.closeChannel();
+        }
+    }
+
+    /**
+     * 파싱 중에 거부한 요청에 오류 응답을 보내고, 전송이 끝나면 커넥션을 닫습니다. 요청의 나머지 바이트는 읽지 않습니다.
+     */
+    private void rejectRequest(RequestRejectedException e) {
+        log.debug("Rejected request: {}", e.getMessage());
+        HttpResponse response = takeResponse();
+        Http11Processor.reject(e, response);
+        try {
+            wrapper.closeAfterWrite();
+            sendResponseFromBuffer(null, response);
+        } catch (IOException ex) {
+            wrapper.closeChannel();
+        }
+    }
+
+    /**
+     * 비동기 요청이 완료되었을 때 {@link NioAsyncContext#complete()}를 호출한 스레드에서 실행됩니다.
+     */
+    private void completeAsync(HttpRequest request, HttpResponse response) {
+        try {
+            finishResponse(request, response);
         } catch (IOException e) {
             wrapper.closeChannel();
         }
     }
 
+    /**
+     * 서블릿 실행이 끝난 응답을 마무리하여 쓰기 큐에 등록합니다.
+     * <p>
+     * 스트리밍 응답의 마지막 청크를 보내고, 읽히지 않은 요청 본문을 버린 뒤, 응답 방식에 맞게 쓰기 작업을 등록합니다.
+     */
+    private void finishResponse(HttpRequest request, HttpResponse response) throws IOException {
+        boolean reusable;
+        try {
+            // 서블릿이 닫지 않은 스트리밍 응답의 마지막 청크 전송, writer에 남은 문자 반영
+            response.finishStreaming();
+            response.compressBody();
+            reusable = releaseRequestBody(request);
+        } finally {
+            wrapper.setProcessing(false);
+        }
+
+        if (reusable && response.getWebSocketEndpoint() != null && !response.isCommitted()) {
+            upgradeToWebSocket(request, response);
+            return;
+        }
+
+        if (!reusable) {
+            wrapper.closeAfterWrite();
+            if (!response.isCommitted()) {
+                response.setHeader("Connection", "close");
+            }
+        }
+
+        if (response.isCommitted()) {
+            recycle(request, response);
+            // 처리 완료 상태에서 쓰기 이벤트를 다시 요청하여, 남은 큐가 비워진 뒤 읽기 모드로 전환되도록 한다.
+            poller.requestSwitchToWrite(key);
+        } else if (response.hasFileBody() && !response.isBodySuppressed()) {
+            sendResponseWithZeroCopy(request, response);
+        } else {
+            sendResponseFromBuffer(request, response);
+        }
+    }
+
+    /**
+     * 이전 요청에서 초기화해 둔 응답 객체를 꺼냅니다. 없거나 오염 모드로 표시되었으면 새로 만듭니다.
+     */
+    private HttpResponse takeResponse() {
+        HttpResponse response = recycledResponse;
+        recycledResponse = null;
+        return response != null ? response : new HttpResponse();
+    }
+
+    /**
+     * 처리가 끝난 요청과 응답을 초기화하여 다음 요청에 돌려놓습니다. 응답을 쓰기 큐에 등록하기 전에 호출해야 합니다.
+     *
+     * @param request 파서가 반환한 요청. 파싱 중에 거부되어 요청이 없으면 {@code null}
+     */
+    private void recycle(HttpRequest request, HttpResponse response) {
+        if (request != null) {
+            wrapper.getRequestParser(key).recycle(request);
+        }
+        response.recycle();
+        if (!response.isPoisoned()) {
+            recycledResponse = response;
+        }
+    }
+
+    /**
+     * 본문이 없는 {@code Upgrade: h2c} 요청만 전환합니다. 본문이 있는 요청은 HTTP/1.1로 처리합니다.
+     */
+    private boolean isH2cUpgrade(HttpRequest request) {
+        if (!request.isUpgradeRequest("h2c") || request.getHeader("HTTP2-Settings") == null) {
+            return false;
+        }
+        String contentLength = request.getHeader(HttpHeader.CONTENT_LENGTH);
+        return request.getHeader("Transfer-Encoding") == null && (contentLength == null || contentLength.trim().equals("0"));
+    }
+
+    /**
+     * {@code 101 Switching Protocols} 응답을 쓰기 큐에 넣고 커넥션을 WebSocket 핸들러로 전환합니다.
+     * 1xx 응답에는 본문이 없으므로 {@code Content-Length}를 붙이지 않고 헤더만 보냅니다.
+     */
+    private void upgradeToWebSocket(HttpRequest request, HttpResponse response) {
+        ByteBuffer header = ResponseSender.createHeaderBuffer(response);
+        WebSocketConnection connection = new WebSocketConnection(wrapper, key, poller, response.getWebSocketEndpoint(),
+                request.getStartLine().getRequestUri());
+        recycle(request, response);
+        wrapper.offerWrite(header);
+        connection.start();
+    }
+
+    /**
+     * 서블릿이 읽지 않은 요청 본문을 버리고 임시 파일을 정리합니다.
+     *
+     * @return 같은 커넥션에서 다음 요청을 읽을 수 있으면 {@code true}
+     */
+    private boolean releaseRequestBody(HttpRequest request) throws IOException {
+        HttpRequestBody body = request.getBody();
+        return body == null || body.release();
+    }
+
     /**
      * 메모리 버퍼로부터 응답을 전송하기 위해 쓰기 task를 큐에 등록합니다. (동적 콘텐츠용)
+     * {@link HttpResponse#getOutputStream()}으로 쓴 본문은 모은 버퍼들을, 미리 인코딩한 응답은 공유 버퍼의 뷰를 그대로 등록합니다.
      *
+     * @param request  응답을 마친 요청. 거부한 요청이면 {@code null}
      * @param response 전송할 HttpResponse 객체
      * @throws IOException I/O 오류 발생 시
      */
-    private void sendResponseFromBuffer(HttpResponse response) throws IOException {
-        ByteBuffer responseBuffer = ResponseSender.sendResponseNIO(response);
-        wrapper.writeQueue.offer(responseBuffer);
+    private void sendResponseFromBuffer(HttpRequest request, HttpResponse response) throws IOException {
+        PreEncodedResponse preEncoded = response.getPreEncodedResponse();
+        if (preEncoded != null) {
+            // 공유 버퍼의 뷰와 요청별 헤더를 한 번의 gathering write로 전송
+            ByteBuffer[] buffers = ResponseSender.createPreEncodedResponse(response, preEncoded);
+            recycle(request, response);
+            wrapper.writeQueue.offer(buffers);
+        } else if (response.hasBufferedBody()) {
+            // getOutputStream()으로 모은 풀 버퍼를 복사하지 않고 헤더 뒤에 그대로 등록
+            List<ByteBuffer> buffers = ResponseSender.createBufferedResponse(response);
+            recycle(request, response);
+            wrapper.writeQueue.addAll(buffers);
+        } else {
+            ByteBuffer responseBuffer = ResponseSender.sendResponseNIO(response);
+            recycle(request, response);
+            wrapper.writeQueue.offer(responseBuffer);
+        }
         // 쓰기 큐에 응답 버퍼 추가 후, poller에게 WRITE 요청
         poller.requestSwitchToWrite(key);
     }
@@ -105,20 +292,52 @@ public class Http11NioProcessor implements Runnable {
      * Zero-Copy 방식으로 응답을 전송하기 위해 쓰기 task들을 큐에 등록합니다. (정적 파일용)
      * <p>
      * 이 메서드는 헤더 전송 작업과 파일 전송 작업을 각각 큐에 등록하고,
-     * 실제 I/O는 Poller 스레드에게 위임합니다.
+     * 실제 I/O는 Poller 스레드에게 위임합니다. 파일 구간이 설정된 응답({@code 206 Partial Content})은 구간마다
+     * 앞에 붙은 바이트와 파일 전송 작업을 차례로 등록하며, 모든 구간이 하나의 파일 채널을 공유합니다.
      *
+     * @param request  응답을 마친 요청
      * @param response 전송할 HttpResponse 객체 (파일 본문을 포함해야 함)
      * @throws IOException I/O 오류 발생 시
      */
-    private void sendResponseWithZeroCopy(HttpResponse response) throws IOException {
+    private void sendResponseWithZeroCopy(HttpRequest request, HttpResponse response) throws IOException {
         ByteBuffer headerBuffer = ResponseSender.createHeaderBuffer(response);
+        Path filePath = response.getFileBody();
+        List<FileRegion> regions = response.getFileRegions();
+        recycle(request, response);
         wrapper.writeQueue.offer(headerBuffer);
 
         // 파일 전송 작업을 큐에 추가
-        Path filePath = response.getFileBody();
         FileChannel fileChannel = new FileInputStream(filePath.toFile()).getChannel();
-        wrapper.writeQueue.offer(new FileSendEvent(fileChannel));
+        if (regions == null) {
+            wrapper.writeQueue.offer(new FileSendEvent(fileChannel));
+        } else {
+            offerFileRegions(fileChannel, regions);
+        }
 
         poller.requestSwitchToWrite(key);
     }
+
+    /**
+     * 파일 구간들의 전송 작업을 순서대로 큐에 등록합니다. 채널은 마지막 파일 전송 작업이 닫습니다.
+     */
+    private void offerFileRegions(FileChannel fileChannel, List<FileRegion> regions) throws IOException {
+        int last = -1;
+        for (int i = 0; i < regions.size(); i++) {
+            if (regions.get(i).length() > 0) {
+                last = i;
+            }
+        }
+        if (last < 0) {
+            fileChannel.close();
+        }
+        for (int i = 0; i < regions.size(); i++) {
+            FileRegion region = regions.get(i);
+            if (region.prefix() != null) {
+                wrapper.writeQueue.offer(ByteBuffer.wrap(region.prefix()));
+            }
+            if (region.length() > 0) {
+                wrapper.writeQueue.offer(new FileSendEvent(fileChannel, region.offset(), region.length(), i == last));
+            }
+        }
+    }
 }
@@ -32,6 +32,17 @@ public class Http11NioProtocol extends AbstractProtocol {
         this.endpoint = new NioEndpoint();
     }
 
+    /**
+     * 지정된 포트에서 TLS(HTTPS)를 종료하는 NIO 기반 HTTP/1.1 프로토콜 핸들러를 생성합니다.
+     *
+     * @param port      서버가 리스닝할 포트 번호
+     * @param sslConfig 서버 인증서와 세션 캐시 설정
+     */
+    public Http11NioProtocol(int port, SslConfig sslConfig) {
+        super(port);
+        this.endpoint = new NioEndpoint(sslConfig);
+    }
+
     /**
      * 프로토콜 핸들러 레벨의 추가적인 초기화 작업을 수행합니다.
      * <p>
@@ -0,0 +1,220 @@
+package trunk.connector.nio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import trunk.http11.async.AsyncContext;
+import trunk.http11.async.AsyncInputStream;
+import trunk.http11.async.AsyncListener;
+import trunk.http11.async.AsyncOutputStream;
+import trunk.http11.request.HttpRequest;
+import trunk.http11.response.HttpResponse;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * NIO 커넥터의 {@link AsyncContext} 구현체입니다.
+ * <p>
+ * 서블릿이 {@code service}에서 반환하기 전에 {@link #complete()}가 호출될 수도 있으므로, 응답 마무리는
+ * "서블릿 반환"과 "완료" 두 사건이 모두 일어난 시점에 한 번만 실행됩니다. 마무리 작업은 두 사건 중 나중에
+ * 일어난 쪽의 스레드에서 실행됩니다.
+ * <p>
+ * 타임아웃은 별도 타이머 스레드 없이 {@link Poller#schedule(Runnable, long)}으로 예약되며, 만료되면 워커 스레드에서
+ * 리스너를 호출합니다. 따라서 응답을 기다리는 비동기 요청은 워커 스레드를 전혀 점유하지 않습니다.
+ * <p>
+ * 비차단 본문 I/O는 {@link NioAsyncInputStream}과 {@link NioAsyncOutputStream}이 담당하며, 두 스트림의 리스너에서
+ * 오류가 발생하면 {@link #completeWithError()}로 요청을 마무리합니다.
+ *
+ * @author jungbin97
+ * @see Http11NioProcessor
+ * @see Poller#schedule(Runnable, long)
+ */
+public class NioAsyncContext implements AsyncContext {
+    private static final Logger log = LoggerFactory.getLogger(NioAsyncContext.class);
+
+    private final HttpRequest request;
+    private final HttpResponse response;
+    private final NioSocketWrapper wrapper;
+    private final SelectionKey key;
+    private final Poller poller;
+    private final Runnable completion;
+    private final List<AsyncListener> listeners = new CopyOnWriteArrayList<>();
+
+    // 아래 상태는 this로 보호
+    private long timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+    private Poller.Timeout timeout;
+    private boolean dispatchReturned = false;
+    private boolean completed = false;
+    private NioAsyncInputStream inputStream;
+    private NioAsyncOutputStream outputStream;
+
+    /**
+     * @param request    비동기로 처리할 요청
+     * @param response   나중에 완료할 응답
+     * @param wrapper    요청을 받은 커넥션
+     * @param key        이 커넥션의 SelectionKey
+     * @param poller     타임아웃을 예약하고 워커 풀을 제공하는 Poller
+     * @param completion 응답을 마무리하여 쓰기 큐에 등록하는 작업
+     */
+    public NioAsyncContext(HttpRequest request, HttpResponse response, NioSocketWrapper wrapper, SelectionKey key,
+                           Poller poller, Runnable completion) {
+        this.request = request;
+        this.response = response;
+        this.wrapper = wrapper;
+        this.key = key;
+        this.poller = poller;
+        this.completion = completion;
+    }
+
+    @Override
+    public HttpRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public HttpResponse getResponse() {
+        return response;
+    }
+
+    @Override
+    public void complete() {
+        synchronized (this) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            cancelTimeout();
+            if (!dispatchReturned) {
+                return; // 서블릿이 반환할 때 마무리한다
+            }
+        }
+        finish();
+    }
+
+    @Override
+    public synchronized boolean isCompleted() {
+        return completed;
+    }
+
+    @Override
+    public synchronized void setTimeout(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        if (dispatchReturned && !completed) {
+            scheduleTimeout();
+        }
+    }
+
+    @Override
+    public synchronized long getTimeout() {
+        return timeoutMillis;
+    }
+
+    @Override
+    public void addListener(AsyncListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void start(Runnable task) {
+        poller.getWorkerPool().submit(task);
+    }
+
+    @Override
+    public synchronized AsyncInputStream getInputStream() {
+        if (inputStream == null) {
+            inputStream = new NioAsyncInputStream(wrapper, key, this, request.getBody());
+        }
+        return inputStream;
+    }
+
+    @Override
+    public synchronized AsyncOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new NioAsyncOutputStream(wrapper, key, poller, response, this);
+        }
+        return outputStream;
+    }
+
+    /**
+     * 비차단 I/O 리스너에서 오류가 발생했을 때 호출됩니다. 아직 커밋되지 않은 응답은 {@code 500}으로 바꾸고,
+     * 응답 후 커넥션을 닫도록 표시한 뒤 완료합니다.
+     */
+    void completeWithError() {
+        if (isCompleted()) {
+            return;
+        }
+        sendError("Async I/O failed");
+        wrapper.closeAfterWrite();
+        complete();
+    }
+
+    /**
+     * 서블릿이 {@code service}에서 반환했을 때 {@link Http11NioProcessor}가 호출합니다.
+     * 이미 완료되었으면 바로 응답을 마무리하고, 아니면 타임아웃을 예약합니다.
+     */
+    void dispatchReturned() {
+        synchronized (this) {
+            dispatchReturned = true;
+            if (!completed) {
+                scheduleTimeout();
+                return;
+            }
+        }
+        finish();
+    }
+
+    private void scheduleTimeout() {
+        cancelTimeout();
+        if (timeoutMillis > 0) {
+            timeout = poller.schedule(this::onTimeout, timeoutMillis);
+        }
+    }
+
+    private void cancelTimeout() {
+        if (timeout != null) {
+            timeout.cancel();
+            timeout = null;
+        }
+    }
+
+    private void onTimeout() {
+        if (isCompleted()) {
+            return;
+        }
+        for (AsyncListener listener : listeners) {
+            try {
+                listener.onTimeout(this);
+            } catch (RuntimeException e) {
+                log.error("Async listener error on timeout", e);
+            }
+        }
+        if (!isCompleted()) {
+            // 리스너가 완료하지 않은 요청은 오류 응답으로 완료한다
+            sendError("Async request timed out");
+            complete();
+        }
+    }
+
+    private void sendError(String message) {
+        if (!response.isCommitted()) {
+            response.setStatusCode(500);
+            response.setHeader("Content-Type", "text/plain");
+            response.setBody(message.getBytes());
+        }
+    }
+
+    private void finish() {
+        // 완료된 요청의 콜백이 같은 커넥션의 다음 요청 이벤트를 가로채지 않도록 취소한다
+        wrapper.clearCallbacks();
+        for (AsyncListener listener : listeners) {
+            try {
+                listener.onComplete(this);
+            } catch (RuntimeException e) {
+                log.error("Async listener error on complete", e);
+            }
+        }
+        completion.run();
+    }
+}
@@ -0,0 +1,145 @@
+package trunk.connector.nio;
+
+import trunk.http11.async.AsyncInputStream;
+import trunk.http11.async.ReadListener;
+import trunk.http11.request.HttpRequestBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+
+/**
+ * NIO 커넥터의 비차단 요청 본문 스트림입니다.
+ * <p>
+ * 읽기는 기존 본문 스트림({@code Content-Length}/{@code chunked} 디코딩)을 그대로 거칩니다. {@link #isReady()}는
+ * 커넥션의 읽기 버퍼에 남은 바이트가 있거나 채널에서 블로킹 없이 읽을 수 있을 때만 {@code true}를 반환하며,
+ * 그렇지 않으면 {@link NioSocketWrapper#notifyWhenReadable(SelectionKey, Runnable)}으로 읽기 이벤트를 기다립니다.
+ * 이벤트가 오면 {@link Poller}가 대기 중인 스레드 없이 곧바로 리스너 호출을 워커 스레드 풀에 제출합니다.
+ * <p>
+ * {@code chunked} 본문의 청크 헤더가 두 TCP 세그먼트에 걸쳐 도착하면, 헤더의 나머지를 읽는 동안에만 잠시 블로킹할 수 있습니다.
+ *
+ * @author jungbin97
+ * @see NioAsyncContext#getInputStream()
+ * @see ReadListener
+ */
+public class NioAsyncInputStream extends AsyncInputStream {
+    private final NioSocketWrapper wrapper;
+    private final SelectionKey key;
+    private final NioAsyncContext asyncContext;
+    private final HttpRequestBody body;
+    private final InputStream in;
+
+    private volatile ReadListener listener;
+    private volatile boolean finished = false;
+    private boolean allDataReadNotified = false; // 콜백은 한 번에 하나씩 실행된다
+
+    NioAsyncInputStream(NioSocketWrapper wrapper, SelectionKey key, NioAsyncContext asyncContext, HttpRequestBody body) {
+        this.wrapper = wrapper;
+        this.key = key;
+        this.asyncContext = asyncContext;
+        this.body = body;
+        this.in = (body == null) ? InputStream.nullInputStream() : body.getInputStream();
+    }
+
+    @Override
+    public boolean isReady() {
+        if (finished || body == null || body.isConsumed()) {
+            return true; // 다음 read는 커넥션을 읽지 않는다
+        }
+        ByteBuffer buffer = wrapper.buffer;
+        if (buffer.position() > 0) {
+            return true;
+        }
+        try {
+            if (wrapper.read(buffer) != 0) {
+                return true; // EOF나 오류는 다음 read에서 전달된다
+            }
+        } catch (IOException e) {
+            return true;
+        }
+        if (listener != null) {
+            wrapper.notifyWhenReadable(key, this::dispatch);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public void setReadListener(ReadListener listener) {
+        if (this.listener != null) {
+            throw new IllegalStateException("ReadListener already set");
+        }
+        this.listener = listener;
+        asyncContext.start(() -> {
+            try {
+                if (body != null) {
+                    body.sendContinueIfNeeded();
+                }
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            dispatch();
+        });
+    }
+
+    /**
+     * {@link #isReady()}가 {@code true}를 반환한 직후에 호출해야 합니다. 그렇지 않으면 데이터가 도착할 때까지 블로킹할 수 있습니다.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n == -1) {
+            finished = true;
+        }
+        return n;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int n = read(single, 0, 1);
+        return (n == -1) ? -1 : (single[0] & 0xFF);
+    }
+
+    @Override
+    public int available() throws IOException {
+        return in.available();
+    }
+
+    /**
+     * 워커 스레드에서 리스너를 호출합니다. 읽을 데이터가 없으면 {@link #isReady()}가 다음 읽기 이벤트를 등록합니다.
+     */
+    void dispatch() {
+        if (asyncContext.isCompleted()) {
+            return;
+        }
+        try {
+            if (!wrapper.getChannel().isOpen()) {
+                throw new IOException("Connection closed while reading request body");
+            }
+            if (!finished && isReady()) {
+                listener.onDataAvailable();
+            }
+            if (finished && !allDataReadNotified) {
+                allDataReadNotified = true;
+                listener.onAllDataRead();
+            }
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    private void fail(Throwable t) {
+        try {
+            listener.onError(t);
+        } finally {
+            asyncContext.completeWithError();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package trunk.connector.nio;
+
+import trunk.http11.async.AsyncOutputStream;
+import trunk.http11.async.WriteListener;
+import trunk.http11.response.HttpResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.SelectionKey;
+
+/**
+ * NIO 커넥터의 비차단 응답 본문 스트림입니다.
+ * <p>
+ * 응답을 비차단 모드의 {@link NioResponseSink}로 커밋하므로 쓰기는 쓰기 큐에 등록만 하고 즉시 반환합니다.
+ * 메모리 사용량은 {@link #isReady()}가 지킵니다. 쓰기 큐에 {@value NioResponseSink#MAX_PENDING_WRITES}개를 넘는
+ * 작업이 쌓이면 {@code false}를 반환하고, {@link Poller}가 큐를 비워 한도 아래로 내려가면
+ * {@link WriteListener#onWritePossible()}을 워커 스레드에서 호출합니다.
+ *
+ * @author jungbin97
+ * @see NioAsyncContext#getOutputStream()
+ * @see NioSocketWrapper#isWritable(int, Runnable)
+ */
+public class NioAsyncOutputStream extends AsyncOutputStream {
+    private final NioSocketWrapper wrapper;
+    private final NioAsyncContext asyncContext;
+    private final OutputStream out;
+
+    private volatile WriteListener listener;
+
+    NioAsyncOutputStream(NioSocketWrapper wrapper, SelectionKey key, Poller poller, HttpResponse response,
+                         NioAsyncContext asyncContext) throws IOException {
+        if (response.isCommitted()) {
+            throw new IllegalStateException("Response already committed in blocking mode");
+        }
+        this.wrapper = wrapper;
+        this.asyncContext = asyncContext;
+        response.setResponseSink(new NioResponseSink(wrapper, key, poller, true));
+        this.out = response.getChunkedOutputStream();
+    }
+
+    @Override
+    public boolean isReady() {
+        return wrapper.isWritable(NioResponseSink.MAX_PENDING_WRITES, listener == null ? null : this::dispatch);
+    }
+
+    @Override
+    public int getPendingWrites() {
+        return wrapper.writeQueue.size();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener listener) {
+        if (this.listener != null) {
+            throw new IllegalStateException("WriteListener already set");
+        }
+        this.listener = listener;
+        asyncContext.start(this::dispatch);
+    }
+
+    /**
+     * {@link #isReady()}가 {@code true}를 반환한 직후에 호출해야 합니다. 한 번의 호출로 쓴 데이터는 한도와 무관하게 큐에 등록됩니다.
+     */
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * 워커 스레드에서 리스너를 호출합니다. 쓸 수 없으면 {@link #isReady()}가 다음 쓰기 가능 알림을 등록합니다.
+     */
+    void dispatch() {
+        if (asyncContext.isCompleted()) {
+            return;
+        }
+        try {
+            if (!wrapper.getChannel().isOpen()) {
+                throw new IOException("Connection closed while writing response");
+            }
+            if (isReady()) {
+                listener.onWritePossible();
+            }
+        } catch (Throwable t) {
+            try {
+                listener.onError(t);
+            } finally {
+                asyncContext.completeWithError();
+            }
+        }
+    }
+}
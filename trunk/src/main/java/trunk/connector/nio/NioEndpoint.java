@@ -4,9 +4,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import trunk.connector.endpoint.AbstractEndpoint;
 import trunk.container.StandardContext;
+import trunk.util.ByteBufferPool;
 
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.util.concurrent.ExecutorService;
@@ -24,6 +28,10 @@ import java.util.concurrent.Executors;
  * 모든 연결의 I/O 이벤트를 감지하고 분배하는 역할.</li>
  * <li><b>Worker Pool</b>: 수락된 요청의 실제 비즈니스 로직을 처리하는 스레드 풀.</li>
  * </ul>
+ * {@link SslConfig}가 설정되면 모든 커넥션에서 TLS를 종료합니다. 커넥션마다 {@link SecureNioChannel}이 붙으며,
+ * 암호화된 레코드를 담는 버퍼는 엔드포인트가 공유하는 {@link ByteBufferPool}에서 빌려 씁니다.
+ * <p>
+ * {@link UpgradeHandlerFactory}가 설정되면 HTTP/1.1 대신 그 팩토리가 만든 핸들러로 모든 커넥션을 처리합니다.
  *
  * @author jungbin97
  * @see AbstractEndpoint
@@ -32,6 +40,7 @@ import java.util.concurrent.Executors;
  * */
 public class NioEndpoint extends AbstractEndpoint {
     private static final Logger log = LoggerFactory.getLogger(NioEndpoint.class);
+    private static final int SSL_BUFFER_POOL_SIZE = 500;
 
     private ServerSocketChannel serverSocketChannel;
     private final ExecutorService workerPool = Executors.newFixedThreadPool(200);
@@ -40,13 +49,52 @@ public class NioEndpoint extends AbstractEndpoint {
     private NioAcceptor acceptor;
     private Poller poller;
 
+    private SslConfig sslConfig;
+    private ByteBufferPool sslBufferPool;
+    private final UpgradeHandlerFactory connectionHandlerFactory;
+
+    /**
+     * 평문(HTTP) 엔드포인트를 생성합니다.
+     */
+    public NioEndpoint() {
+        this(null);
+    }
+
+    /**
+     * @param sslConfig TLS 설정. {@code null}이면 평문 엔드포인트
+     */
+    public NioEndpoint(SslConfig sslConfig) {
+        this(sslConfig, null);
+    }
+
+    /**
+     * HTTP/1.1 이외의 프로토콜을 처리하는 엔드포인트를 생성합니다.
+     *
+     * @param sslConfig                TLS 설정. {@code null}이면 평문 엔드포인트
+     * @param connectionHandlerFactory 커넥션마다 프로토콜 핸들러를 만드는 팩토리. {@code null}이면 HTTP/1.1
+     * @throws IllegalArgumentException TLS와 팩토리를 함께 설정한 경우. TLS 핸드셰이크는 HTTP/1.1 프로세서에서만 진행됩니다.
+     */
+    public NioEndpoint(SslConfig sslConfig, UpgradeHandlerFactory connectionHandlerFactory) {
+        if (sslConfig != null && connectionHandlerFactory != null) {
+            throw new IllegalArgumentException("TLS is not supported for custom connection handlers");
+        }
+        this.connectionHandlerFactory = connectionHandlerFactory;
+        this.sslConfig = sslConfig;
+        if (sslConfig != null) {
+            // 네트워크 레코드와 복호화된 평문을 같은 풀에서 빌리므로, 둘 중 큰 크기로 맞춘다
+            SSLSession session = sslConfig.createEngine().getSession();
+            int bufferSize = Math.max(session.getPacketBufferSize(), session.getApplicationBufferSize());
+            this.sslBufferPool = new ByteBufferPool(bufferSize, SSL_BUFFER_POOL_SIZE);
+        }
+    }
+
     @Override
     protected void bindInternal() throws Exception {
         serverSocketChannel = ServerSocketChannel.open();
         serverSocketChannel.configureBlocking(true); // 블로킹 모드로 설정
         serverSocketChannel.bind(new InetSocketAddress(port));
 
-        log.info("NioEndpoint bind to port {}", port);
+        log.info("NioEndpoint bind to port {}{}", port, sslConfig != null ? " (TLS)" : "");
     }
 
     @Override
@@ -97,6 +145,37 @@ public class NioEndpoint extends AbstractEndpoint {
         }
     }
 
+    /**
+     * 새 커넥션을 위한 TLS 채널을 생성합니다. Poller 스레드에서 소켓을 등록할 때 호출됩니다.
+     *
+     * @param channel 새로 수락된 소켓 채널
+     * @return TLS 채널. TLS가 설정되지 않은 엔드포인트면 {@code null}
+     * @throws IOException 핸드셰이크를 시작할 수 없는 경우
+     */
+    public SecureNioChannel createSecureChannel(SocketChannel channel) throws IOException {
+        if (sslConfig == null) {
+            return null;
+        }
+        SSLEngine engine = sslConfig.createEngine();
+        return new SecureNioChannel(channel, engine, sslBufferPool);
+    }
+
+    /**
+     * 새 커넥션의 프로토콜 핸들러를 생성합니다. Poller 스레드에서 소켓을 등록할 때 호출됩니다.
+     *
+     * @return 핸들러. HTTP/1.1 엔드포인트면 {@code null}
+     */
+    public UpgradeHandler createConnectionHandler(NioSocketWrapper wrapper, SelectionKey key, Poller poller) {
+        if (connectionHandlerFactory == null) {
+            return null;
+        }
+        return connectionHandlerFactory.create(wrapper, key, poller);
+    }
+
+    public boolean isSecure() {
+        return sslConfig != null;
+    }
+
     /**
      * 지정된 소켓 채널을 닫습니다.
      * @param channel 닫을 소켓 채널
@@ -0,0 +1,67 @@
+package trunk.connector.nio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+
+/**
+ * 워커 스레드가 NIO 커넥션에서 요청 본문을 블로킹 방식으로 읽을 수 있게 해주는 입력 스트림입니다.
+ * <p>
+ * 먼저 {@link NioSocketWrapper}의 읽기 버퍼에 남아 있는 바이트(파서가 헤더 뒤에 남긴 본문)를 반환하고,
+ * 버퍼가 비면 채널에서 직접 읽습니다. 채널에 읽을 데이터가 없으면 {@link Poller}에 읽기 관심사를 등록하고,
+ * 데이터가 도착해 Poller가 깨워줄 때까지 대기합니다. 따라서 워커 스레드는 바쁜 대기(busy-wait) 없이
+ * 클라이언트의 전송 속도에 맞춰 본문을 소비합니다.
+ *
+ * @author jungbin97
+ * @see NioSocketWrapper#awaitReadable(SelectionKey, long)
+ */
+public class NioInputStream extends InputStream {
+    private static final long READ_TIMEOUT_MILLIS = 20_000;
+
+    private final NioSocketWrapper wrapper;
+    private final SelectionKey key;
+
+    public NioInputStream(NioSocketWrapper wrapper, SelectionKey key) {
+        this.wrapper = wrapper;
+        this.key = key;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int n = read(single, 0, 1);
+        return (n == -1) ? -1 : (single[0] & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        // 읽기 버퍼는 항상 쓰기 모드(compact 이후)로 유지되며, [0, position) 구간이 아직 소비되지 않은 데이터
+        ByteBuffer buffer = wrapper.buffer;
+        while (true) {
+            if (buffer.position() > 0) {
+                buffer.flip();
+                int n = Math.min(len, buffer.remaining());
+                buffer.get(b, off, n);
+                buffer.compact();
+                return n;
+            }
+
+            int read = wrapper.read(buffer);
+            if (read == -1) {
+                return -1;
+            }
+            if (read == 0) {
+                wrapper.awaitReadable(key, READ_TIMEOUT_MILLIS);
+            }
+        }
+    }
+
+    @Override
+    public int available() {
+        return wrapper.buffer.position();
+    }
+}
@@ -0,0 +1,59 @@
+package trunk.connector.nio;
+
+import trunk.http11.response.ResponseSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+
+/**
+ * 스트리밍 응답의 데이터를 {@link NioSocketWrapper}의 쓰기 큐로 흘려보내는 {@link ResponseSink} 구현체입니다.
+ * <p>
+ * 워커 스레드가 생산한 버퍼를 쓰기 큐에 등록하고 {@link Poller}에게 쓰기 이벤트를 요청합니다.
+ * 실제 소켓 쓰기는 기존과 동일하게 Poller 스레드가 수행합니다.
+ * 쓰기 큐에 {@value #MAX_PENDING_WRITES}개를 넘는 작업이 쌓이면(느린 클라이언트) 큐가 비워질 때까지
+ * 워커 스레드를 대기시켜, 커넥션 당 메모리 사용량을 청크 몇 개 분량으로 제한합니다.
+ * <p>
+ * 비차단 모드에서는 대기하지 않습니다. 생산자가 {@link NioAsyncOutputStream#isReady()}로 쓰기 가능 여부를 먼저 확인하여
+ * 같은 한도를 지킵니다.
+ *
+ * @author jungbin97
+ * @see NioSocketWrapper#awaitWriteQueueBelow(int, long)
+ * @see Http11NioProcessor
+ */
+public class NioResponseSink implements ResponseSink {
+    static final int MAX_PENDING_WRITES = 4;
+    private static final long WRITE_TIMEOUT_MILLIS = 30_000;
+
+    private final NioSocketWrapper wrapper;
+    private final SelectionKey key;
+    private final Poller poller;
+    private final boolean nonBlocking;
+
+    public NioResponseSink(NioSocketWrapper wrapper, SelectionKey key, Poller poller) {
+        this(wrapper, key, poller, false);
+    }
+
+    public NioResponseSink(NioSocketWrapper wrapper, SelectionKey key, Poller poller, boolean nonBlocking) {
+        this.wrapper = wrapper;
+        this.key = key;
+        this.poller = poller;
+        this.nonBlocking = nonBlocking;
+    }
+
+    @Override
+    public void write(ByteBuffer buffer) throws IOException {
+        wrapper.writeQueue.offer(buffer);
+        poller.requestSwitchToWrite(key);
+        if (nonBlocking) {
+            return;
+        }
+        // 느린 소켓이면 큐가 비워질 때까지 생산자를 대기시킨다.
+        wrapper.awaitWriteQueueBelow(MAX_PENDING_WRITES, WRITE_TIMEOUT_MILLIS);
+    }
+
+    @Override
+    public void close() {
+        // 마지막 청크는 write()로 이미 큐에 등록되었으며, 읽기 모드 전환은 Http11NioProcessor가 처리한다.
+    }
+}
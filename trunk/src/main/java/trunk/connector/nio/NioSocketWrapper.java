@@ -2,8 +2,13 @@ package trunk.connector.nio;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import trunk.container.StandardContext;
+import trunk.http11.NioHttpRequestParser;
+import trunk.http11.response.CompressionConfig;
+import trunk.http11.response.ResponseSender;
 
 import java.io.IOException;
+import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
@@ -18,8 +23,14 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  * <h2>주요 책임</h2>
  * <ul>
  * <li>읽기용 {@link ByteBuffer}를 관리합니다.</li>
- * <li>비동기 쓰기 작업을 위한 작업 큐({@code writeQueue})를 관리합니다. 이 큐에는 {@link ByteBuffer}나 {@link FileSendEvent} 등 다양한 쓰기 이벤트가 저장될 수 있습니다.</li>
+ * <li>비동기 쓰기 작업을 위한 작업 큐({@code writeQueue})를 관리합니다. 이 큐에는 {@link ByteBuffer}, 한 번에 전송할 {@code ByteBuffer[]}, {@link FileSendEvent} 등 다양한 쓰기 이벤트가 저장될 수 있습니다.</li>
  * <li>{@link Poller}에 의해 호출되는 비동기 쓰기 처리 로직({@link #processWriteQueue(SelectionKey)})을 제공합니다.</li>
+ * <li>스트리밍 응답을 생산하는 워커 스레드가 쓰기 큐가 비워질 때까지 기다리는 역압(backpressure) 대기를 제공합니다.</li>
+ * <li>여러 번의 읽기 이벤트에 걸쳐 요청 파싱 상태를 유지하도록, 커넥션 단위의 {@link NioHttpRequestParser}를 보관합니다.</li>
+ * <li>스트리밍 요청 본문을 읽는 워커 스레드가 소켓에 데이터가 도착할 때까지 기다리는 읽기 대기를 제공합니다.</li>
+ * <li>비차단 I/O를 위해, 스레드를 대기시키는 대신 읽기/쓰기가 가능해지면 워커 스레드에서 실행할 콜백을 등록할 수 있습니다.</li>
+ * <li>HTTP/2 등 다른 프로토콜로 전환된 커넥션의 {@link UpgradeHandler}를 보관합니다.</li>
+ * <li>TLS 커넥션이면 모든 읽기/쓰기를 {@link SecureNioChannel}을 거쳐 암호화/복호화합니다.</li>
  * </ul>
  *
  * @author jungbin97
@@ -30,11 +41,41 @@ public class NioSocketWrapper {
     private static final Logger log = LoggerFactory.getLogger(NioSocketWrapper.class);
 
     final SocketChannel channel;
+    private final SecureNioChannel secureChannel; // 평문 커넥션이면 null
     final ByteBuffer buffer = ByteBuffer.allocate(8192); // 8KB 버퍼, 읽기용
     final Queue<Object> writeQueue = new ConcurrentLinkedQueue<>(); // 쓰기용 버퍼 큐
     private final NioEndpoint endpoint;
     private final Poller poller;
 
+    /**
+     * 워커 스레드가 현재 요청을 처리(응답을 생산) 중인지 여부.
+     * 처리 중에는 쓰기 큐가 비워지더라도 다음 요청을 받기 위한 읽기 모드로 전환하지 않습니다.
+     */
+    private volatile boolean processing = false;
+
+    private final Object writeLock = new Object();
+    private int writeWaiters = 0; // writeLock으로 보호
+    private Runnable writeCallback; // writeLock으로 보호
+    private int writeCallbackThreshold; // writeLock으로 보호
+
+    private final Object readLock = new Object();
+    private boolean readWaiting = false; // readLock으로 보호
+    private Runnable readCallback; // readLock으로 보호
+
+    /**
+     * 쓰기 큐를 모두 비운 뒤 커넥션을 닫아야 하는지 여부 (Connection: close, 읽히지 않은 대용량 본문 등)
+     */
+    private volatile boolean closeAfterWrite = false;
+
+    /**
+     * 프로토콜이 전환된 커넥션의 읽기 이벤트 처리기. {@code null}이면 HTTP/1.1 커넥션
+     */
+    private volatile UpgradeHandler upgradeHandler;
+
+    // 워커 스레드 사이의 전달은 워커 풀 제출과 Poller의 관심사 변경을 통해 순서가 보장된다
+    private NioHttpRequestParser requestParser;
+    private Http11NioProcessor processor;
+
     /**
      * 지정된 소켓 채널과 상위 컴포넌트들로 NioSocketWrapper를 생성합니다.
      *
@@ -43,11 +84,91 @@ public class NioSocketWrapper {
      * @param poller   이 래퍼의 I/O 이벤트를 처리할 Poller
      */
     public NioSocketWrapper(SocketChannel channel, NioEndpoint endpoint, Poller poller) {
+        this(channel, null, endpoint, poller);
+    }
+
+    /**
+     * TLS 커넥션을 위한 NioSocketWrapper를 생성합니다.
+     *
+     * @param channel       이 래퍼가 관리할 소켓 채널
+     * @param secureChannel 소켓 채널 위의 TLS 채널. 평문 커넥션이면 {@code null}
+     * @param endpoint      이 래퍼를 관리하는 엔드포인트
+     * @param poller        이 래퍼의 I/O 이벤트를 처리할 Poller
+     */
+    public NioSocketWrapper(SocketChannel channel, SecureNioChannel secureChannel, NioEndpoint endpoint, Poller poller) {
         this.channel = channel;
+        this.secureChannel = secureChannel;
         this.endpoint = endpoint;
         this.poller = poller;
     }
 
+    /**
+     * 소켓에서 데이터를 읽습니다. TLS 커넥션이면 복호화된 평문을 읽습니다.
+     *
+     * @param dst 데이터를 받을 버퍼 (쓰기 모드)
+     * @return 읽은 바이트 수. 읽을 데이터가 없으면 {@code 0}, 연결이 끝났으면 {@code -1}
+     * @throws IOException I/O 오류 또는 TLS 레코드 복호화에 실패한 경우
+     */
+    public int read(ByteBuffer dst) throws IOException {
+        if (secureChannel != null) {
+            return secureChannel.read(dst);
+        }
+        return channel.read(dst);
+    }
+
+    /**
+     * TLS 핸드셰이크를 가능한 만큼 진행합니다. 워커 스레드에서 호출되며, 평문 커넥션이면 즉시 {@code true}를 반환합니다.
+     * <p>
+     * 소켓을 기다려야 하면 필요한 관심사를 Poller에 요청하고 {@code false}를 반환합니다. 다음 이벤트에서 새 프로세서가
+     * 이 메서드를 다시 호출하여 핸드셰이크를 이어갑니다.
+     *
+     * @param key 이 소켓 채널에 대한 SelectionKey
+     * @return 핸드셰이크가 끝나 요청을 읽을 수 있으면 {@code true}
+     * @throws IOException 핸드셰이크에 실패한 경우
+     */
+    public boolean handshake(SelectionKey key) throws IOException {
+        if (secureChannel == null || secureChannel.isHandshakeComplete()) {
+            return true;
+        }
+        int interest = secureChannel.handshake();
+        if (interest == SelectionKey.OP_WRITE) {
+            poller.requestSwitchToWrite(key);
+        } else if (interest == SelectionKey.OP_READ) {
+            poller.requestSwitchToRead(key);
+        }
+        return interest == 0;
+    }
+
+    public boolean isSecure() {
+        return secureChannel != null;
+    }
+
+    /**
+     * 소켓 읽기 이벤트 없이 {@link #read(ByteBuffer)}로 더 읽을 데이터가 있는지 확인합니다.
+     * <p>
+     * TLS 커넥션은 소켓에서 이미 읽었지만 아직 전달하지 않은 레코드를 내부에 보관할 수 있습니다. 이 데이터에는 읽기 이벤트가
+     * 다시 발생하지 않으므로, 읽기 관심사를 등록하기 전에 이 메서드로 확인하여 바로 다시 처리해야 합니다.
+     *
+     * @return 소켓을 기다리지 않고 읽을 수 있는 데이터가 남아 있으면 {@code true}. 평문 커넥션이면 항상 {@code false}
+     */
+    public boolean hasBufferedInput() {
+        return secureChannel != null && secureChannel.hasBufferedInput();
+    }
+
+    /**
+     * 다음 요청을 읽을 차례가 되었을 때 호출합니다. 읽을 데이터가 이미 남아 있으면 곧바로 프로세서를 제출하고,
+     * 아니면 Poller에 읽기 관심사를 요청합니다.
+     *
+     * @param key 이 소켓 채널에 대한 SelectionKey
+     */
+    void resumeReading(SelectionKey key) {
+        if (hasBufferedInput()) {
+            poller.processSocket(this, key);
+        } else {
+            poller.requestSwitchToRead(key);
+        }
+    }
+
     /**
      * Poller에 의해 {@link SelectionKey#OP_WRITE} 이벤트가 발생했을 때 호출되어 쓰기 큐를 처리합니다.
      * <p>
@@ -60,14 +181,28 @@ public class NioSocketWrapper {
      */
     public void processWriteQueue(SelectionKey key) {
         try {
+            if (secureChannel != null && !secureChannel.flush()) {
+                // 핸드셰이크 메시지 등 이미 암호화된 레코드가 먼저 나가야 한다
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                return;
+            }
+            if (secureChannel != null && !secureChannel.isHandshakeComplete()) {
+                // 핸드셰이크 메시지를 모두 보냈으니, 다음 단계는 워커 스레드에서 이어간다
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                poller.processSocket(this, key);
+                return;
+            }
             while (!writeQueue.isEmpty()) {
                 Object event = writeQueue.peek();
                 boolean completed;
 
                 if (event instanceof ByteBuffer) {
                     completed = writeByteBuffer((ByteBuffer) event);
+                } else if (event instanceof ByteBuffer[]) {
+                    completed = writeByteBuffers((ByteBuffer[]) event);
                 } else if (event instanceof FileSendEvent) {
-                    completed = ((FileSendEvent) event).write(channel);
+                    FileSendEvent fileEvent = (FileSendEvent) event;
+                    completed = secureChannel != null ? fileEvent.write(secureChannel) : fileEvent.write(channel);
                 } else {
                     // 알수 없는 타입의 이벤트가 큐에 있다면 로그를 남기고 제거
                     writeQueue.poll();
@@ -80,7 +215,14 @@ public class NioSocketWrapper {
                     Object completedEvent = writeQueue.poll();
                     if (completedEvent instanceof FileSendEvent) {
                         ((FileSendEvent) completedEvent).close(); // FileChannel 리소스 해제
+                    } else if (completedEvent instanceof ByteBuffer[]) {
+                        for (ByteBuffer buffer : (ByteBuffer[]) completedEvent) {
+                            ResponseSender.release(buffer);
+                        }
+                    } else {
+                        ResponseSender.release((ByteBuffer) completedEvent); // 풀에서 빌린 응답 버퍼 반납
                     }
+                    signalWritable();
                 } else {
                     // 작업이 다 끝나지 않았으면, OP_WRITE를 유지하고 다음 기회를 기다림
                     key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
@@ -90,7 +232,19 @@ public class NioSocketWrapper {
 
             // 모든 쓰기 작업이 완료되면, 다시 읽기 모드로 전환
             key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
-            poller.requestSwitchToRead(key);
+            if (processing) {
+                // 스트리밍 응답이 아직 생산 중이므로, 다음 청크가 큐에 들어올 때까지 읽기 전환을 보류
+                return;
+            }
+            if (closeAfterWrite) {
+                closeChannel();
+                return;
+            }
+            if (upgradeHandler != null) {
+                // 전환된 프로토콜은 읽기와 쓰기가 독립적이므로, 읽기 전환은 핸들러가 직접 요청한다
+                return;
+            }
+            resumeReading(key);
         } catch (IOException e) {
             log.error("Error during processing write queue", e);
             closeChannel();
@@ -111,13 +265,314 @@ public class NioSocketWrapper {
                     ((FileSendEvent) event).close();
                 }
             }
-            channel.close();
+            if (secureChannel != null) {
+                secureChannel.close();
+            } else {
+                channel.close();
+            }
         } catch (IOException ignore) {
             // Ignore
+        } finally {
+            signalWritable(); // 역압 대기 중인 워커 스레드를 깨워 실패를 알림
+            signalReadable();
+            UpgradeHandler handler = upgradeHandler;
+            if (handler != null) {
+                handler.onClose();
+            }
+        }
+    }
+
+    /**
+     * 이 커넥션을 다른 프로토콜로 전환합니다. 이후의 읽기 이벤트는 {@link Http11NioProcessor} 대신 핸들러로 전달됩니다.
+     *
+     * @param handler 전환된 프로토콜의 읽기 이벤트 처리기
+     */
+    public void upgrade(UpgradeHandler handler) {
+        this.upgradeHandler = handler;
+    }
+
+    /**
+     * @return 프로토콜이 전환된 경우 그 처리기, HTTP/1.1 커넥션이면 {@code null}
+     */
+    public UpgradeHandler getUpgradeHandler() {
+        return upgradeHandler;
+    }
+
+    public SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * 읽기 버퍼를 반환합니다. 버퍼는 쓰기 모드이며, {@code position}까지 아직 처리되지 않은 바이트가 들어 있습니다.
+     */
+    public ByteBuffer getReadBuffer() {
+        return buffer;
+    }
+
+    /**
+     * 쓰기 큐에 버퍼를 추가합니다. 전송하려면 {@link Poller#requestSwitchToWrite(SelectionKey)}를 호출해야 합니다.
+     *
+     * @param buf 읽기 준비(flip)된 버퍼
+     */
+    public void offerWrite(ByteBuffer buf) {
+        writeQueue.offer(buf);
+    }
+
+    /**
+     * 이 커넥션의 I/O 이벤트를 처리할 프로세서를 반환합니다. 처음 호출될 때 생성되며, 커넥션이 유지되는 동안 재사용됩니다.
+     * 커넥션의 이벤트는 한 번에 하나씩만 처리되므로 여러 워커 스레드가 동시에 실행하지 않습니다.
+     *
+     * @param context 서블릿 컨테이너의 컨텍스트
+     * @param key     이 소켓 채널에 대한 SelectionKey
+     * @param poller  이 커넥션을 감시하는 Poller
+     */
+    Http11NioProcessor getProcessor(StandardContext context, SelectionKey key, Poller poller) {
+        if (processor == null) {
+            processor = new Http11NioProcessor(this, context, key, poller);
         }
+        return processor;
+    }
+
+    /**
+     * 이 커넥션의 요청 파서를 반환합니다. 처음 호출될 때 생성되며, 커넥션이 유지되는 동안 재사용됩니다.
+     *
+     * @param key 이 소켓 채널에 대한 SelectionKey
+     * @return 이 커넥션 전용 요청 파서
+     */
+    public NioHttpRequestParser getRequestParser(SelectionKey key) {
+        if (requestParser == null) {
+            requestParser = new NioHttpRequestParser(new NioInputStream(this, key), () -> {
+                writeQueue.offer(ResponseSender.createContinueBuffer());
+                poller.requestSwitchToWrite(key);
+            }, endpoint.getRequestLimits());
+        }
+        return requestParser;
+    }
+
+    /**
+     * @return 엔드포인트의 응답 압축 설정
+     */
+    public CompressionConfig getCompressionConfig() {
+        return endpoint.getCompressionConfig();
+    }
+
+    /**
+     * 쓰기 큐가 모두 전송된 뒤 읽기 모드로 전환하지 않고 커넥션을 닫도록 표시합니다.
+     */
+    public void closeAfterWrite() {
+        this.closeAfterWrite = true;
+    }
+
+    /**
+     * 워커 스레드의 요청 처리 상태를 설정합니다.
+     * 처리를 마친 후에는 반드시 {@link Poller#requestSwitchToWrite(SelectionKey)}를 호출하여
+     * 남은 쓰기 작업의 마무리와 읽기 모드 전환이 이루어지도록 해야 합니다.
+     *
+     * @param processing 응답을 생산 중이면 {@code true}
+     */
+    public void setProcessing(boolean processing) {
+        this.processing = processing;
+    }
+
+    /**
+     * 쓰기 큐에 대기 중인 작업 수가 {@code maxPending} 이하로 줄어들 때까지 호출 스레드를 대기시킵니다.
+     * <p>
+     * 스트리밍 응답을 생산하는 워커 스레드가 호출하며, 소켓이 느린 경우 생산 속도를 소켓의 전송 속도에
+     * 맞추어 커넥션 당 메모리 사용량을 제한합니다.
+     *
+     * @param maxPending    허용할 최대 대기 작업 수
+     * @param timeoutMillis 최대 대기 시간(밀리초)
+     * @throws IOException 커넥션이 닫혔거나 대기 시간이 초과된 경우
+     */
+    public void awaitWriteQueueBelow(int maxPending, long timeoutMillis) throws IOException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (writeLock) {
+            writeWaiters++;
+            try {
+                while (writeQueue.size() > maxPending) {
+                    if (!channel.isOpen()) {
+                        throw new IOException("Connection closed while writing response");
+                    }
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new SocketTimeoutException("Write timeout: client is not reading the response");
+                    }
+                    writeLock.wait(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for write queue", e);
+            } finally {
+                writeWaiters--;
+            }
+        }
+    }
+
+    /**
+     * 소켓에 읽을 데이터가 도착할 때까지 호출 스레드를 대기시킵니다.
+     * <p>
+     * 스트리밍 요청 본문을 읽는 워커 스레드가 호출합니다. Poller에 읽기 관심사를 등록한 뒤 대기하며,
+     * Poller는 읽기 이벤트가 발생하면 새 프로세서를 실행하는 대신 {@link #signalReadable()}로 이 스레드를 깨웁니다.
+     *
+     * @param key           이 소켓 채널에 대한 SelectionKey
+     * @param timeoutMillis 최대 대기 시간(밀리초)
+     * @throws IOException 커넥션이 닫혔거나 대기 시간이 초과된 경우
+     */
+    public void awaitReadable(SelectionKey key, long timeoutMillis) throws IOException {
+        if (hasBufferedInput()) {
+            return; // 이미 읽은 TLS 레코드에는 읽기 이벤트가 오지 않는다
+        }
+        synchronized (readLock) {
+            readWaiting = true;
+        }
+        poller.requestSwitchToRead(key);
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (readLock) {
+            try {
+                while (readWaiting) {
+                    if (!channel.isOpen()) {
+                        throw new IOException("Connection closed while reading request body");
+                    }
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new SocketTimeoutException("Read timeout: client stopped sending the request body");
+                    }
+                    readLock.wait(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for request body", e);
+            } finally {
+                readWaiting = false;
+            }
+        }
+    }
+
+    /**
+     * 소켓에 읽을 데이터가 도착하면 워커 스레드에서 {@code callback}을 실행하도록 등록합니다.
+     * <p>
+     * {@link #awaitReadable(SelectionKey, long)}의 비차단 버전입니다. 호출 스레드는 대기하지 않고 바로 반환하며,
+     * 커넥션이 닫힌 경우에도 콜백이 실행되므로 콜백에서 커넥션 상태를 확인해야 합니다.
+     *
+     * @param key      이 소켓 채널에 대한 SelectionKey
+     * @param callback 읽기 이벤트가 발생했을 때 한 번 실행할 작업
+     */
+    public void notifyWhenReadable(SelectionKey key, Runnable callback) {
+        if (hasBufferedInput()) {
+            poller.getWorkerPool().submit(callback); // 이미 읽은 TLS 레코드에는 읽기 이벤트가 오지 않는다
+            return;
+        }
+        synchronized (readLock) {
+            readCallback = callback;
+        }
+        poller.requestSwitchToRead(key);
+    }
+
+    /**
+     * 쓰기 큐에 대기 중인 작업 수가 {@code maxPending} 이하인지 확인합니다.
+     * <p>
+     * {@link #awaitWriteQueueBelow(int, long)}의 비차단 버전입니다. 초과했으면 대기하지 않고 {@code false}를 반환하며,
+     * 큐가 {@code maxPending} 이하로 줄어들거나 커넥션이 닫히면 워커 스레드에서 {@code callback}을 실행합니다.
+     *
+     * @param maxPending 허용할 최대 대기 작업 수
+     * @param callback   쓸 수 있게 되었을 때 한 번 실행할 작업. {@code null}이면 등록하지 않음
+     * @return 지금 쓸 수 있으면 {@code true}
+     */
+    public boolean isWritable(int maxPending, Runnable callback) {
+        synchronized (writeLock) {
+            if (writeQueue.size() <= maxPending) {
+                return true;
+            }
+            if (callback != null) {
+                writeCallback = callback;
+                writeCallbackThreshold = maxPending;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 등록된 읽기/쓰기 콜백을 취소합니다. 비동기 요청이 완료되어 커넥션이 다음 요청으로 넘어갈 때 호출합니다.
+     */
+    void clearCallbacks() {
+        synchronized (readLock) {
+            readCallback = null;
+        }
+        synchronized (writeLock) {
+            writeCallback = null;
+        }
+    }
+
+    /**
+     * 읽기 대기 중인 워커 스레드가 있으면 깨우고, 등록된 읽기 콜백이 있으면 워커 스레드 풀에 제출합니다.
+     * Poller가 읽기 이벤트를 받았을 때 호출합니다.
+     *
+     * @return 대기 중인 스레드나 콜백이 있어 이벤트를 넘겼으면 {@code true}, 새 요청으로 처리해야 하면 {@code false}
+     */
+    public boolean signalReadable() {
+        synchronized (readLock) {
+            if (readCallback != null) {
+                Runnable callback = readCallback;
+                readCallback = null;
+                poller.getWorkerPool().submit(callback);
+                return true;
+            }
+            if (!readWaiting) {
+                return false;
+            }
+            readWaiting = false;
+            readLock.notifyAll();
+            return true;
+        }
+    }
+
+    private void signalWritable() {
+        synchronized (writeLock) {
+            if (writeWaiters > 0) {
+                writeLock.notifyAll();
+            }
+            if (writeCallback != null && (writeQueue.size() <= writeCallbackThreshold || !channel.isOpen())) {
+                Runnable callback = writeCallback;
+                writeCallback = null;
+                poller.getWorkerPool().submit(callback);
+            }
+        }
+    }
+
+    /**
+     * 여러 버퍼를 한 번의 gathering write로 전송합니다. TLS 커넥션은 버퍼마다 차례로 암호화합니다.
+     *
+     * @return 모든 버퍼를 전송했으면 {@code true}
+     */
+    private boolean writeByteBuffers(ByteBuffer[] buffers) throws IOException {
+        if (secureChannel != null) {
+            for (ByteBuffer buffer : buffers) {
+                if (!writeByteBuffer(buffer)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        channel.write(buffers);
+        for (ByteBuffer buffer : buffers) {
+            if (buffer.hasRemaining()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private boolean writeByteBuffer(ByteBuffer buf) throws IOException {
+        if (secureChannel != null) {
+            // 한 번의 wrap은 레코드 하나(최대 16KB)만 소비하므로 소켓이 받아주는 동안 반복
+            while (buf.hasRemaining() && secureChannel.write(buf) > 0) {
+                if (!secureChannel.flush()) {
+                    return false;
+                }
+            }
+            return !buf.hasRemaining() && secureChannel.flush();
+        }
         channel.write(buf);
         return !buf.hasRemaining();
     }
@@ -13,6 +13,7 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.PriorityBlockingQueue;
 
 /**
  * {@link Selector}를 중심으로 한 I/O 이벤트 루프를 실행하는 {@link Runnable}입니다.
@@ -23,9 +24,12 @@ import java.util.concurrent.ExecutorService;
  * <ol>
  * <li>{@link Selector#select()}를 호출하여 I/O 준비가 된 채널들을 기다립니다.</li>
  * <li>READ 이벤트가 발생하면, 실제 데이터 읽기와 처리를 워커 스레드 풀({@code workerPool})의
- * {@link Http11NioProcessor} 태스크로 위임합니다.</li>
+ * {@link Http11NioProcessor} 태스크로 위임합니다. 단, 워커 스레드가 요청 본문을 읽으며 대기 중이면
+ * 새 태스크를 만들지 않고 대기 중인 스레드를 깨우고, 비차단 읽기 콜백이 등록되어 있으면 그 콜백을 실행합니다. HTTP/2처럼 프로토콜이 전환된 커넥션은 {@link UpgradeHandler}로 전달합니다.</li>
  * <li>WRITE 이벤트가 발생하면, {@link NioSocketWrapper}의 쓰기 큐에 있는 데이터를 직접 소켓에 씁니다.</li>
  * <li>외부 스레드로부터의 채널 등록 및 관심사 변경 요청을 동기화 큐를 통해 처리합니다.</li>
+ * <li>비동기 요청의 타임아웃처럼 예약된 작업의 만료 시각까지만 {@link Selector#select(long)}로 대기하고,
+ * 만료된 작업을 워커 스레드 풀에 제출합니다. 타이머를 위한 별도 스레드는 없습니다.</li>
  * </ol>
  *
  * @author jungbin97
@@ -41,6 +45,7 @@ public class Poller implements Runnable {
     private final Queue<PollerEvent> pollerEventQueue = new ConcurrentLinkedQueue<>();
     private final Queue<SelectionKey> toRead  = new ConcurrentLinkedQueue<>();
     private final Queue<SelectionKey> toWrite = new ConcurrentLinkedQueue<>();
+    private final PriorityBlockingQueue<Timeout> timeouts = new PriorityBlockingQueue<>();
     private final ExecutorService workerPool;
     private final StandardContext context;
 
@@ -91,10 +96,17 @@ public class Poller implements Runnable {
                 processEventQueue();
                 // 읽기/쓰기 큐를 처리하여 관심사 변경
                 processSwitchQueues();
-                // 블로킹 대기
-                selector.select();
+                // 블로킹 대기 (예약된 타임아웃이 있으면 가장 가까운 만료 시각까지)
+                long timeoutMillis = nextTimeoutMillis();
+                if (timeoutMillis > 0) {
+                    selector.select(timeoutMillis);
+                } else {
+                    selector.select();
+                }
                 // 이벤트 키 처리
                 dispatchSelectedKeys();
+                // 만료된 타임아웃 처리
+                processTimeouts();
             } catch (Exception ioe) {
                 log.error("Poller error", ioe);
             }
@@ -128,7 +140,14 @@ public class Poller implements Runnable {
             try {
                 if (key.isReadable()) {
                     key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
-                    workerPool.submit(new Http11NioProcessor(wrapper, context, key, this));
+                    if (!wrapper.signalReadable()) {
+                        UpgradeHandler handler = wrapper.getUpgradeHandler();
+                        if (handler != null) {
+                            workerPool.submit(handler::onReadable);
+                        } else {
+                            processSocket(wrapper, key);
+                        }
+                    }
                 }
 
                 if (key.isWritable()) {
@@ -144,7 +163,13 @@ public class Poller implements Runnable {
         SelectionKey key;
         while ((key = toRead.poll())  != null) {
             if (key.isValid()) {
-                key.interestOps((key.interestOps() & ~SelectionKey.OP_WRITE) | SelectionKey.OP_READ);
+                int ops = key.interestOps() | SelectionKey.OP_READ;
+                // 본문을 읽는 도중 보낸 100 Continue처럼 아직 전송 중인 쓰기가 있으면 OP_WRITE를 유지
+                NioSocketWrapper wrapper = (NioSocketWrapper) key.attachment();
+                if (wrapper == null || wrapper.writeQueue.isEmpty()) {
+                    ops &= ~SelectionKey.OP_WRITE;
+                }
+                key.interestOps(ops);
             }
         }
 
@@ -155,6 +180,43 @@ public class Poller implements Runnable {
         }
     }
 
+    /**
+     * @return 가장 가까운 타임아웃까지 남은 시간(밀리초). 예약된 타임아웃이 없으면 {@code 0}
+     */
+    private long nextTimeoutMillis() {
+        Timeout next = timeouts.peek();
+        if (next == null) {
+            return 0;
+        }
+        return Math.max(1, next.deadline - System.currentTimeMillis());
+    }
+
+    private void processTimeouts() {
+        long now = System.currentTimeMillis();
+        Timeout next;
+        while ((next = timeouts.peek()) != null && next.deadline <= now) {
+            timeouts.poll();
+            if (!next.cancelled) {
+                // 타임아웃 처리는 애플리케이션 코드를 실행하므로 Poller 스레드에서 직접 실행하지 않는다
+                workerPool.submit(next.task);
+            }
+        }
+    }
+
+    /**
+     * 지정된 시간이 지난 뒤 워커 스레드에서 실행할 작업을 예약합니다. 어느 스레드에서 호출해도 안전합니다.
+     *
+     * @param task        실행할 작업
+     * @param delayMillis 지연 시간(밀리초)
+     * @return 예약을 취소할 수 있는 핸들
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        Timeout timeout = new Timeout(System.currentTimeMillis() + delayMillis, task);
+        timeouts.offer(timeout);
+        selector.wakeup(); // 새 타임아웃이 더 가까울 수 있으므로 대기 시간을 다시 계산
+        return timeout;
+    }
+
     /**
      * 외부 스레드에서 특정 채널의 관심사를 READ로 변경하도록 스레드 안전하게 요청합니다.
      * @param key 관심사를 변경할 채널의 SelectionKey
@@ -173,6 +235,49 @@ public class Poller implements Runnable {
         selector.wakeup();
     }
 
+    /**
+     * 커넥션의 다음 요청(또는 TLS 핸드셰이크의 다음 단계)을 처리할 프로세서를 워커 스레드 풀에 제출합니다.
+     *
+     * @param wrapper 처리할 커넥션
+     * @param key     이 커넥션의 SelectionKey
+     */
+    void processSocket(NioSocketWrapper wrapper, SelectionKey key) {
+        workerPool.submit(wrapper.getProcessor(context, key, this));
+    }
+
+    /**
+     * @return 요청 처리 태스크를 실행하는 워커 스레드 풀
+     */
+    public ExecutorService getWorkerPool() {
+        return workerPool;
+    }
+
+    /**
+     * {@link #schedule(Runnable, long)}로 예약된 작업입니다.
+     */
+    public static final class Timeout implements Comparable<Timeout> {
+        private final long deadline;
+        private final Runnable task;
+        private volatile boolean cancelled = false;
+
+        private Timeout(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        /**
+         * 예약을 취소합니다. 이미 실행된 경우에는 아무 일도 하지 않습니다.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public int compareTo(Timeout other) {
+            return Long.compare(deadline, other.deadline);
+        }
+    }
+
     /* ============= PollerEvnet 계층 ================ */
     private interface PollerEvent {
         void execute(Selector selector) throws IOException;
@@ -192,8 +297,14 @@ public class Poller implements Runnable {
         @Override
         public void execute(Selector selector) throws IOException {
             // channel 캡슐화
-            NioSocketWrapper wrapper = new NioSocketWrapper(channel, endpoint, poller);
-            channel.register(selector, SelectionKey.OP_READ, wrapper);
+            // TLS 엔드포인트면 SSLEngine을 붙인다. 핸드셰이크는 첫 읽기 이벤트부터 워커 스레드에서 진행된다
+            NioSocketWrapper wrapper = new NioSocketWrapper(channel, endpoint.createSecureChannel(channel), endpoint, poller);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ, wrapper);
+            // HTTP/1.1 이외의 프로토콜 엔드포인트면 첫 읽기 이벤트부터 프로토콜 핸들러가 처리한다
+            UpgradeHandler handler = endpoint.createConnectionHandler(wrapper, key, poller);
+            if (handler != null) {
+                wrapper.upgrade(handler);
+            }
         }
     }
 }
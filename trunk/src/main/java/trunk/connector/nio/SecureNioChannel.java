@@ -0,0 +1,321 @@
+package trunk.connector.nio;
+
+import trunk.util.ByteBufferPool;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * {@link SSLEngine}으로 논블로킹 {@link SocketChannel} 위에서 TLS를 종료(termination)하는 채널입니다.
+ * <p>
+ * 소켓에서 읽은 암호화된 레코드를 {@code unwrap}하여 평문을 돌려주고, 평문을 {@code wrap}하여 소켓에 씁니다.
+ * 세 개의 내부 버퍼를 사용합니다.
+ * <ul>
+ * <li>{@code netIn}: 소켓에서 읽었지만 아직 복호화하지 않은 레코드 (쓰기 모드)</li>
+ * <li>{@code appIn}: 복호화했지만 아직 호출자에게 전달하지 않은 평문 (쓰기 모드)</li>
+ * <li>{@code netOut}: 암호화했지만 아직 소켓에 쓰지 못한 레코드 (읽기 모드)</li>
+ * </ul>
+ * 버퍼는 {@link ByteBufferPool}에서 필요할 때 빌리고 비는 즉시 반납하므로, 유휴 keep-alive 커넥션은 버퍼를 점유하지 않습니다.
+ *
+ * <h2>스레드 모델</h2>
+ * 핸드셰이크({@link #handshake()})와 읽기({@link #read(ByteBuffer)})는 한 번에 하나의 워커 스레드에서만 호출됩니다.
+ * 핸드셰이크의 위임 작업(delegated task)도 그 워커 스레드에서 실행되므로 Poller 스레드는 암호 연산으로 막히지 않습니다.
+ * 쓰기({@link #write(ByteBuffer)}, {@link #flush()})는 Poller 스레드에서, 핸드셰이크 메시지의 {@code wrap}은 워커
+ * 스레드에서 일어날 수 있으므로 {@code netOut}을 다루는 메서드는 모두 동기화됩니다.
+ *
+ * @author jungbin97
+ * @see SslConfig
+ * @see NioSocketWrapper
+ */
+public class SecureNioChannel {
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final SocketChannel channel;
+    private final SSLEngine engine;
+    private final ByteBufferPool bufferPool;
+
+    private ByteBuffer netIn;
+    private ByteBuffer appIn;
+    private ByteBuffer netOut; // netOut을 다루는 코드는 this로 동기화
+
+    private volatile boolean handshakeComplete = false;
+    private boolean needMoreInput = false;
+
+    /**
+     * @param channel    논블로킹 소켓 채널
+     * @param engine     서버 모드로 설정된 SSLEngine
+     * @param bufferPool 네트워크/평문 버퍼를 빌려올 풀. 버퍼 크기는 TLS 레코드 최대 크기 이상이어야 합니다.
+     * @throws SSLException 핸드셰이크를 시작할 수 없는 경우
+     */
+    public SecureNioChannel(SocketChannel channel, SSLEngine engine, ByteBufferPool bufferPool) throws SSLException {
+        this.channel = channel;
+        this.engine = engine;
+        this.bufferPool = bufferPool;
+        engine.beginHandshake();
+    }
+
+    /**
+     * 가능한 만큼 핸드셰이크를 진행합니다. 소켓을 기다려야 하면 블로킹하지 않고 필요한 관심사를 반환합니다.
+     *
+     * @return 핸드셰이크가 끝났으면 {@code 0}, 아니면 기다려야 할 {@link SelectionKey#OP_READ} 또는 {@link SelectionKey#OP_WRITE}
+     * @throws IOException 핸드셰이크가 실패했거나 도중에 연결이 끊긴 경우
+     */
+    public int handshake() throws IOException {
+        while (!handshakeComplete) {
+            if (!flush()) {
+                return SelectionKey.OP_WRITE;
+            }
+            HandshakeStatus status = engine.getHandshakeStatus();
+            switch (status) {
+                case NOT_HANDSHAKING, FINISHED -> handshakeComplete = true;
+                case NEED_TASK -> runDelegatedTasks();
+                case NEED_WRAP -> wrapHandshake();
+                case NEED_UNWRAP, NEED_UNWRAP_AGAIN -> {
+                    if (!unwrapHandshake()) {
+                        return SelectionKey.OP_READ;
+                    }
+                }
+            }
+        }
+        // 마지막 핸드셰이크 메시지까지 소켓에 써야 완료
+        if (!flush()) {
+            return SelectionKey.OP_WRITE;
+        }
+        releaseInbound();
+        return 0;
+    }
+
+    public boolean isHandshakeComplete() {
+        return handshakeComplete;
+    }
+
+    /**
+     * 복호화된 평문을 {@code dst}에 읽어들입니다. 소켓에 읽을 데이터가 없으면 블로킹하지 않고 {@code 0}을 반환합니다.
+     * <p>
+     * 한 번의 소켓 읽기에 여러 TLS 레코드가 함께 도착할 수 있으므로, {@code netIn}에 완전한 레코드가 남아 있지 않거나
+     * {@code dst}가 가득 찰 때까지 복호화를 반복합니다. 이미 소켓에서 읽은 레코드에는 읽기 이벤트가 다시 발생하지 않기
+     * 때문입니다. {@code dst}가 가득 차서 남은 데이터는 {@link #hasBufferedInput()}으로 확인할 수 있습니다.
+     *
+     * @param dst 평문을 받을 버퍼 (쓰기 모드)
+     * @return 읽은 바이트 수. 소켓에 데이터가 없으면 {@code 0}, 연결이 끝났으면 {@code -1}
+     * @throws IOException 레코드 복호화에 실패한 경우
+     */
+    public int read(ByteBuffer dst) throws IOException {
+        int total = 0;
+        while (dst.hasRemaining()) {
+            if (appIn != null && appIn.position() > 0) {
+                total += drainApplicationData(dst);
+                continue;
+            }
+            if (netIn == null) {
+                netIn = bufferPool.acquire();
+            }
+            if (netIn.position() == 0 || needMoreInput) {
+                int read = channel.read(netIn);
+                if (read <= 0) {
+                    releaseInbound();
+                    return total > 0 ? total : read;
+                }
+                needMoreInput = false;
+            }
+
+            if (appIn == null) {
+                appIn = bufferPool.acquire();
+            }
+            netIn.flip();
+            SSLEngineResult result = engine.unwrap(netIn, appIn);
+            netIn.compact();
+
+            switch (result.getStatus()) {
+                case OK -> handlePostHandshake(result.getHandshakeStatus());
+                case BUFFER_UNDERFLOW -> {
+                    if (!netIn.hasRemaining()) {
+                        throw new SSLException("TLS record exceeds network buffer size");
+                    }
+                    needMoreInput = true; // 레코드가 아직 다 도착하지 않음
+                }
+                case BUFFER_OVERFLOW -> throw new SSLException("Application buffer overflow");
+                case CLOSED -> {
+                    // close_notify 수신. 앞서 복호화한 평문을 먼저 전달하고, 다음 호출에서 -1을 반환한다
+                    releaseInbound();
+                    return total > 0 ? total : -1;
+                }
+            }
+        }
+        releaseInbound();
+        return total;
+    }
+
+    /**
+     * 평문을 암호화하여 소켓에 씁니다. 이전에 암호화한 레코드가 아직 전송되지 않았으면 아무것도 소비하지 않습니다.
+     *
+     * @param src 보낼 평문 (읽기 모드)
+     * @return 소비한 평문 바이트 수
+     * @throws IOException 엔진이 닫혔거나 소켓 쓰기에 실패한 경우
+     */
+    public synchronized int write(ByteBuffer src) throws IOException {
+        if (!flush()) {
+            return 0;
+        }
+        netOut = bufferPool.acquire();
+        SSLEngineResult result = engine.wrap(src, netOut);
+        netOut.flip();
+        if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+            throw new SSLException("SSLEngine is closed");
+        }
+        flush();
+        return result.bytesConsumed();
+    }
+
+    /**
+     * 암호화되어 대기 중인 레코드를 소켓에 씁니다.
+     *
+     * @return 대기 중인 레코드를 모두 썼으면 {@code true}
+     */
+    public synchronized boolean flush() throws IOException {
+        if (netOut == null) {
+            return true;
+        }
+        channel.write(netOut);
+        if (netOut.hasRemaining()) {
+            return false;
+        }
+        bufferPool.release(netOut);
+        netOut = null;
+        return true;
+    }
+
+    /**
+     * {@code close_notify}를 보내고(가능한 경우) 소켓 채널을 닫습니다.
+     */
+    public void close() throws IOException {
+        try {
+            synchronized (this) {
+                engine.closeOutbound();
+                if (flush()) {
+                    netOut = bufferPool.acquire();
+                    engine.wrap(EMPTY, netOut);
+                    netOut.flip();
+                    flush();
+                }
+            }
+        } catch (IOException ignore) {
+            // 이미 끊긴 연결에는 close_notify를 보낼 수 없다
+        } finally {
+            channel.close();
+            synchronized (this) {
+                // 입력 버퍼는 읽는 중인 워커 스레드가 있을 수 있으므로 반납하지 않고 GC에 맡긴다
+                bufferPool.release(netOut);
+                netOut = null;
+            }
+        }
+    }
+
+    /**
+     * 소켓 읽기 없이 {@link #read(ByteBuffer)}가 평문을 더 돌려줄 수 있는지 확인합니다.
+     * <p>
+     * 이 데이터에는 소켓 읽기 이벤트가 다시 발생하지 않으므로, 호출자는 읽기 관심사를 등록하는 대신 바로 다시 읽어야 합니다.
+     * 아직 다 도착하지 않은 레코드 조각만 남아 있으면 소켓을 기다려야 하므로 {@code false}를 반환합니다.
+     *
+     * @return 복호화했지만 전달하지 않은 평문이나, 복호화하지 않은 완전한 레코드가 남아 있으면 {@code true}
+     */
+    public boolean hasBufferedInput() {
+        return (appIn != null && appIn.position() > 0) || (netIn != null && netIn.position() > 0 && !needMoreInput);
+    }
+
+    private boolean unwrapHandshake() throws IOException {
+        if (netIn == null) {
+            netIn = bufferPool.acquire();
+        }
+        if (appIn == null) {
+            appIn = bufferPool.acquire();
+        }
+        netIn.flip();
+        SSLEngineResult result = engine.unwrap(netIn, appIn);
+        netIn.compact();
+
+        switch (result.getStatus()) {
+            case OK -> {
+                return true;
+            }
+            case BUFFER_UNDERFLOW -> {
+                if (!netIn.hasRemaining()) {
+                    throw new SSLException("TLS record exceeds network buffer size");
+                }
+                int read = channel.read(netIn);
+                if (read == -1) {
+                    throw new EOFException("Connection closed during TLS handshake");
+                }
+                return read > 0;
+            }
+            default -> throw new SSLException("Unexpected unwrap status during handshake: " + result.getStatus());
+        }
+    }
+
+    private synchronized void wrapHandshake() throws IOException {
+        netOut = bufferPool.acquire();
+        SSLEngineResult result = engine.wrap(EMPTY, netOut);
+        netOut.flip();
+        if (result.getStatus() != SSLEngineResult.Status.OK) {
+            throw new SSLException("Unexpected wrap status during handshake: " + result.getStatus());
+        }
+    }
+
+    /**
+     * 핸드셰이크 이후에 도착한 메시지(TLS 1.3 KeyUpdate 등)가 요구하는 작업을 처리합니다.
+     */
+    private void handlePostHandshake(HandshakeStatus status) throws IOException {
+        while (status == HandshakeStatus.NEED_TASK) {
+            runDelegatedTasks();
+            status = engine.getHandshakeStatus();
+        }
+        if (status == HandshakeStatus.NEED_WRAP) {
+            synchronized (this) {
+                if (flush()) {
+                    wrapHandshake();
+                    flush();
+                }
+            }
+        }
+    }
+
+    private void runDelegatedTasks() {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+
+    private int drainApplicationData(ByteBuffer dst) {
+        appIn.flip();
+        int n = Math.min(appIn.remaining(), dst.remaining());
+        ByteBuffer slice = appIn.slice();
+        slice.limit(n);
+        dst.put(slice);
+        appIn.position(appIn.position() + n);
+        appIn.compact();
+        releaseInbound();
+        return n;
+    }
+
+    /**
+     * 비어 있는 입력 버퍼를 풀에 반납합니다.
+     */
+    private void releaseInbound() {
+        if (appIn != null && appIn.position() == 0) {
+            bufferPool.release(appIn);
+            appIn = null;
+        }
+        if (netIn != null && netIn.position() == 0) {
+            bufferPool.release(netIn);
+            netIn = null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package trunk.connector.nio;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSessionContext;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Arrays;
+
+/**
+ * NIO 커넥터의 TLS 설정입니다. 서버 인증서를 담은 {@link SSLContext}와 세션 재개 캐시를 관리합니다.
+ * <p>
+ * 세션 재개(resumption)를 위해 서버 세션 캐시의 크기와 유효 시간을 제한합니다. 재접속한 클라이언트가 캐시된 세션으로
+ * 핸드셰이크하면 인증서 교환과 키 합의 연산을 건너뛰므로 핸드셰이크 비용이 크게 줄어듭니다. 캐시가 가득 차면
+ * 오래된 세션부터 제거되므로 접속자 수와 무관하게 메모리 사용량이 제한됩니다.
+ *
+ * @author jungbin97
+ * @see SecureNioChannel
+ * @see NioEndpoint
+ */
+public class SslConfig {
+    public static final int DEFAULT_SESSION_CACHE_SIZE = 10_000;
+    public static final int DEFAULT_SESSION_TIMEOUT_SECONDS = 3_600;
+    private static final String[] PREFERRED_PROTOCOLS = {"TLSv1.3", "TLSv1.2"};
+
+    private final SSLContext sslContext;
+    private final String[] protocols;
+
+    /**
+     * @param sslContext         서버 인증서로 초기화된 SSLContext
+     * @param sessionCacheSize   서버 세션 캐시에 보관할 최대 세션 수
+     * @param sessionTimeoutSecs 캐시된 세션의 유효 시간(초)
+     */
+    public SslConfig(SSLContext sslContext, int sessionCacheSize, int sessionTimeoutSecs) {
+        this.sslContext = sslContext;
+        SSLSessionContext sessions = sslContext.getServerSessionContext();
+        sessions.setSessionCacheSize(sessionCacheSize);
+        sessions.setSessionTimeout(sessionTimeoutSecs);
+
+        String[] supported = sslContext.getSupportedSSLParameters().getProtocols();
+        this.protocols = Arrays.stream(PREFERRED_PROTOCOLS)
+                .filter(p -> Arrays.asList(supported).contains(p))
+                .toArray(String[]::new);
+    }
+
+    /**
+     * 키스토어 파일(PKCS12, JKS)로 기본 세션 캐시 설정의 TLS 설정을 생성합니다.
+     *
+     * @param keyStore 서버 개인키와 인증서 체인을 담은 키스토어 파일
+     * @param password 키스토어와 개인키의 비밀번호
+     * @throws IOException              키스토어를 읽을 수 없는 경우
+     * @throws GeneralSecurityException 키스토어 형식이나 비밀번호가 올바르지 않은 경우
+     */
+    public static SslConfig fromKeyStore(Path keyStore, char[] password) throws IOException, GeneralSecurityException {
+        KeyStore ks = KeyStore.getInstance(keyStore.toFile(), password);
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(ks, password);
+
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(kmf.getKeyManagers(), null, null);
+        return new SslConfig(context, DEFAULT_SESSION_CACHE_SIZE, DEFAULT_SESSION_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * 새 커넥션을 위한 서버 모드 {@link SSLEngine}을 생성합니다.
+     */
+    public SSLEngine createEngine() {
+        SSLEngine engine = sslContext.createSSLEngine();
+        engine.setUseClientMode(false);
+        if (protocols.length > 0) {
+            engine.setEnabledProtocols(protocols);
+        }
+        return engine;
+    }
+
+    public SSLContext getSslContext() {
+        return sslContext;
+    }
+}
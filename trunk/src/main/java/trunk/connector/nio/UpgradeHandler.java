@@ -0,0 +1,25 @@
+package trunk.connector.nio;
+
+/**
+ * HTTP/1.1 이외의 프로토콜로 전환(업그레이드)된 커넥션의 읽기 이벤트를 처리하는 핸들러입니다.
+ * <p>
+ * {@link NioSocketWrapper#upgrade(UpgradeHandler)}로 등록되면, {@link Poller}는 이후의 읽기 이벤트를
+ * {@link Http11NioProcessor} 대신 이 핸들러에게 전달합니다. 또한 쓰기 큐가 비워져도 HTTP/1.1의
+ * 요청-응답 순서에 맞춘 읽기 전환을 하지 않으므로, 핸들러가 직접 {@link Poller#requestSwitchToRead}로
+ * 다음 읽기 이벤트를 요청해야 합니다.
+ *
+ * @author jungbin97
+ * @see NioSocketWrapper
+ * @see trunk.connector.http2.Http2Connection
+ */
+public interface UpgradeHandler {
+    /**
+     * 소켓에 읽을 데이터가 있을 때 워커 스레드에서 호출됩니다. 한 커넥션에 대해 동시에 두 번 호출되지 않습니다.
+     */
+    void onReadable();
+
+    /**
+     * 커넥션이 닫힐 때 호출됩니다. 대기 중인 작업을 깨우고 리소스를 정리해야 합니다.
+     */
+    void onClose();
+}
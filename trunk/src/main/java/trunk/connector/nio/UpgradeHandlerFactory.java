@@ -0,0 +1,23 @@
+package trunk.connector.nio;
+
+import java.nio.channels.SelectionKey;
+
+/**
+ * HTTP/1.1 대신 처음부터 다른 프로토콜을 사용하는 엔드포인트에서, 수락한 커넥션마다 {@link UpgradeHandler}를 생성합니다.
+ * <p>
+ * {@link NioEndpoint}에 설정되면 {@link Poller}가 커넥션을 등록하는 즉시 생성된 핸들러로 커넥션을 전환하므로,
+ * 이후의 모든 읽기 이벤트는 {@link Http11NioProcessor}를 거치지 않고 핸들러로 전달됩니다.
+ *
+ * @author jungbin97
+ * @see NioEndpoint#NioEndpoint(SslConfig, UpgradeHandlerFactory)
+ */
+@FunctionalInterface
+public interface UpgradeHandlerFactory {
+    /**
+     * @param wrapper 새로 등록된 커넥션
+     * @param key     이 커넥션의 SelectionKey
+     * @param poller  이 커넥션의 I/O 이벤트를 처리할 Poller
+     * @return 커넥션의 읽기 이벤트를 처리할 핸들러
+     */
+    UpgradeHandler create(NioSocketWrapper wrapper, SelectionKey key, Poller poller);
+}
@@ -2,6 +2,8 @@ package trunk.connector.protocol;
 
 import trunk.connector.endpoint.AbstractEndpoint;
 import trunk.container.StandardContext;
+import trunk.http11.request.RequestLimits;
+import trunk.http11.response.CompressionConfig;
 
 /**
  * AbstractProtocol은 ProtocolHandler의 기본 구현을 제공합니다.
@@ -24,6 +26,20 @@ public abstract class AbstractProtocol implements ProtocolHandler {
         this.context = context;
     }
 
+    /**
+     * @return 엔드포인트가 받는 요청의 크기 한도. {@link #initProtocol()} 전에 설정해야 합니다.
+     */
+    public RequestLimits getRequestLimits() {
+        return endpoint.getRequestLimits();
+    }
+
+    /**
+     * @return 엔드포인트가 보내는 응답의 압축 설정. {@link #initProtocol()} 전에 설정해야 합니다.
+     */
+    public CompressionConfig getCompressionConfig() {
+        return endpoint.getCompressionConfig();
+    }
+
     @Override
     public final void initProtocol() throws Exception {
         endpoint.bind(port);
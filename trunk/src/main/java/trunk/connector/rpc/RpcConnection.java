@@ -0,0 +1,223 @@
+package trunk.connector.rpc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import trunk.connector.nio.NioSocketWrapper;
+import trunk.connector.nio.Poller;
+import trunk.connector.nio.UpgradeHandler;
+import trunk.container.StandardContext;
+import trunk.rpc.RpcHandler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 바이너리 RPC 프로토콜을 사용하는 하나의 커넥션을 처리하는 핸들러입니다.
+ * <p>
+ * {@link RpcNioProtocol}의 엔드포인트는 커넥션을 수락하자마자 이 핸들러를 붙이므로, HTTP/1.1 파싱을 전혀 거치지 않고
+ * 기존 {@link Poller}/{@link NioSocketWrapper} 이벤트 루프 위에서 동작합니다.
+ *
+ * <h2>처리 흐름</h2>
+ * <ol>
+ * <li>읽기 이벤트가 오면 커넥션의 읽기 버퍼에서 도착한 프레임({@link RpcFrame})을 모두 파싱합니다.
+ * 읽기 버퍼보다 큰 페이로드는 여러 번의 읽기에 걸쳐 모읍니다.</li>
+ * <li>완성된 요청마다 {@link StandardContext}에 등록된 {@link RpcHandler}를 워커 스레드에서 실행합니다.
+ * 한 커넥션의 요청들이 동시에 처리되며, 응답은 처리가 끝난 순서대로 쓰기 큐에 들어갑니다.</li>
+ * <li>등록되지 않은 메서드 ID나 핸들러 예외는 해당 요청에 대한 오류 상태 응답으로 돌려주고 커넥션은 유지합니다.
+ * 워커 스레드 풀이 요청을 받지 못하면(포화, 종료 중) 실행하지 않고 {@link RpcFrame#STATUS_BUSY}로 응답합니다.
+ * 프레임 길이가 잘못되면 프레임 경계를 잃으므로 커넥션을 닫습니다.</li>
+ * </ol>
+ *
+ * <h2>역압</h2>
+ * 처리 중인 요청이 {@value #MAX_IN_FLIGHT}개에 이르면 읽기를 멈추고, 요청이 끝나 여유가 생기면 다시 읽습니다.
+ * 응답을 읽지 않는 클라이언트 때문에 쓰기 큐가 {@value #MAX_PENDING_WRITES}개를 넘어도 큐가 줄어들 때까지 읽지 않습니다.
+ *
+ * @author jungbin97
+ * @see RpcFrame
+ * @see RpcNioProtocol
+ */
+public class RpcConnection implements UpgradeHandler {
+    private static final Logger log = LoggerFactory.getLogger(RpcConnection.class);
+    private static final byte[] EMPTY = new byte[0];
+    private static final byte[] BUSY_MESSAGE = "Server busy".getBytes(StandardCharsets.UTF_8);
+
+    static final int MAX_IN_FLIGHT = 128;
+    static final int MAX_PENDING_WRITES = 64;
+
+    private final NioSocketWrapper wrapper;
+    private final SelectionKey key;
+    private final Poller poller;
+    private final ExecutorService executor;
+    private final StandardContext context;
+    private final int maxFrameSize;
+
+    // 읽기 상태: onReadable은 한 커넥션에 대해 동시에 호출되지 않으므로 동기화하지 않는다
+    private final ByteBuffer readBuffer;
+    private int requestId;
+    private int methodId;
+    private byte[] payload; // 모으는 중인 요청이 없으면 null
+    private int payloadRead;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean readSuspended = new AtomicBoolean(false);
+    private volatile boolean closed = false;
+
+    public RpcConnection(NioSocketWrapper wrapper, SelectionKey key, Poller poller, ExecutorService executor,
+                         StandardContext context) {
+        this(wrapper, key, poller, executor, context, RpcFrame.DEFAULT_MAX_FRAME_SIZE);
+    }
+
+    /**
+     * @param wrapper      이 핸들러가 처리할 커넥션
+     * @param key          이 커넥션의 SelectionKey
+     * @param poller       커넥션의 I/O 이벤트를 처리하는 Poller
+     * @param executor     RPC 핸들러를 실행할 워커 스레드 풀
+     * @param context      메서드 ID별 핸들러가 등록된 컨텍스트
+     * @param maxFrameSize 허용할 최대 프레임 길이(바이트)
+     */
+    public RpcConnection(NioSocketWrapper wrapper, SelectionKey key, Poller poller, ExecutorService executor,
+                         StandardContext context, int maxFrameSize) {
+        this.wrapper = wrapper;
+        this.key = key;
+        this.poller = poller;
+        this.executor = executor;
+        this.context = context;
+        this.maxFrameSize = maxFrameSize;
+        this.readBuffer = wrapper.getReadBuffer();
+    }
+
+    @Override
+    public void onReadable() {
+        try {
+            while (true) {
+                int n = wrapper.read(readBuffer);
+                if (n == -1) {
+                    wrapper.closeChannel();
+                    return;
+                }
+                if (!parseFrames()) {
+                    suspendReading();
+                    return;
+                }
+                if (n == 0) {
+                    break;
+                }
+            }
+            if (!wrapper.isWritable(MAX_PENDING_WRITES, this::onReadable)) {
+                return; // 쓰기 큐가 줄어들면 다시 호출된다
+            }
+            poller.requestSwitchToRead(key);
+        } catch (IOException e) {
+            log.debug("RPC connection error: {}", e.getMessage());
+            wrapper.closeChannel();
+        }
+    }
+
+    @Override
+    public void onClose() {
+        closed = true;
+    }
+
+    /**
+     * 읽기 버퍼에 도착한 프레임을 모두 파싱하여 요청을 실행합니다.
+     *
+     * @return 처리 중인 요청이 한도에 이르러 파싱을 멈췄으면 {@code false}
+     * @throws IOException 프레임 길이가 잘못된 경우
+     */
+    private boolean parseFrames() throws IOException {
+        readBuffer.flip();
+        try {
+            while (true) {
+                if (payload == null) {
+                    if (inFlight.get() >= MAX_IN_FLIGHT) {
+                        return false;
+                    }
+                    if (readBuffer.remaining() < RpcFrame.LENGTH_FIELD_SIZE + RpcFrame.REQUEST_HEADER_SIZE) {
+                        return true;
+                    }
+                    int length = readBuffer.getInt();
+                    if (length < RpcFrame.REQUEST_HEADER_SIZE || length > maxFrameSize) {
+                        throw new IOException("Invalid RPC frame length: " + length);
+                    }
+                    requestId = readBuffer.getInt();
+                    methodId = readBuffer.getShort() & 0xFFFF;
+                    payload = new byte[length - RpcFrame.REQUEST_HEADER_SIZE];
+                    payloadRead = 0;
+                }
+
+                int n = Math.min(readBuffer.remaining(), payload.length - payloadRead);
+                readBuffer.get(payload, payloadRead, n);
+                payloadRead += n;
+                if (payloadRead < payload.length) {
+                    return true; // 페이로드의 나머지는 다음 읽기에서
+                }
+                dispatch(requestId, methodId, payload);
+                payload = null;
+            }
+        } finally {
+            readBuffer.compact();
+        }
+    }
+
+    private void dispatch(int requestId, int methodId, byte[] payload) {
+        inFlight.incrementAndGet();
+        try {
+            executor.submit(() -> invoke(requestId, methodId, payload));
+        } catch (RejectedExecutionException e) {
+            // 실행되지 않은 요청만 거절하고, 같은 커넥션의 다른 요청과 읽기는 계속한다
+            inFlight.decrementAndGet();
+            log.debug("RPC request rejected by worker pool: method={}", methodId);
+            respond(RpcFrame.response(requestId, RpcFrame.STATUS_BUSY, BUSY_MESSAGE));
+        }
+    }
+
+    private void invoke(int requestId, int methodId, byte[] payload) {
+        try {
+            respond(handle(requestId, methodId, payload));
+        } finally {
+            if (inFlight.decrementAndGet() < MAX_IN_FLIGHT && readSuspended.compareAndSet(true, false)) {
+                executor.submit(this::onReadable);
+            }
+        }
+    }
+
+    private ByteBuffer handle(int requestId, int methodId, byte[] payload) {
+        RpcHandler handler = context.getRpcHandler(methodId);
+        if (handler == null) {
+            return RpcFrame.response(requestId, RpcFrame.STATUS_UNKNOWN_METHOD,
+                    ("Unknown method: " + methodId).getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            byte[] result = handler.handle(payload);
+            return RpcFrame.response(requestId, RpcFrame.STATUS_OK, result == null ? EMPTY : result);
+        } catch (Exception e) {
+            log.warn("RPC handler error: method={}", methodId, e);
+            return RpcFrame.response(requestId, RpcFrame.STATUS_HANDLER_ERROR,
+                    String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void respond(ByteBuffer response) {
+        if (!closed) {
+            wrapper.offerWrite(response);
+            poller.requestSwitchToWrite(key);
+        }
+    }
+
+    /**
+     * 읽기를 멈춥니다. 처리 중인 요청이 끝나 여유가 생기면 {@link #invoke}가 읽기를 재개합니다.
+     */
+    private void suspendReading() {
+        readSuspended.set(true);
+        // 표시하기 전에 요청이 모두 끝났다면 재개해 줄 스레드가 없으므로 직접 재개한다
+        if (inFlight.get() < MAX_IN_FLIGHT && readSuspended.compareAndSet(true, false)) {
+            executor.submit(this::onReadable);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package trunk.connector.rpc;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 길이 접두(length-prefixed) 바이너리 RPC 프로토콜의 프레임 형식을 정의하는 유틸리티 클래스입니다.
+ * <pre>
+ * 요청: | length (4) | request id (4) | method id (2) | payload |
+ * 응답: | length (4) | request id (4) | status (1)    | payload |
+ * </pre>
+ * 모든 정수는 빅엔디언이며, {@code length}는 길이 필드 자신을 제외한 프레임의 바이트 수입니다.
+ * 요청 ID는 클라이언트가 정하고 서버는 응답에 같은 ID를 그대로 실어 보냅니다. 따라서 클라이언트는 한 커넥션에서
+ * 여러 요청을 응답을 기다리지 않고 보낼 수 있고, 서버는 처리가 끝난 순서대로 응답합니다.
+ *
+ * @author jungbin97
+ * @see RpcConnection
+ */
+public final class RpcFrame {
+    public static final int LENGTH_FIELD_SIZE = 4;
+    public static final int REQUEST_HEADER_SIZE = 6;  // request id + method id
+    public static final int RESPONSE_HEADER_SIZE = 5; // request id + status
+    public static final int DEFAULT_MAX_FRAME_SIZE = 1024 * 1024;
+
+    public static final int STATUS_OK = 0;
+    public static final int STATUS_UNKNOWN_METHOD = 1;
+    public static final int STATUS_HANDLER_ERROR = 2;
+    public static final int STATUS_BUSY = 3; // 워커 풀이 요청을 받지 못함. 실행되지 않았으므로 다시 보내도 안전하다
+
+    private RpcFrame() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 요청 프레임을 인코딩합니다.
+     *
+     * @return 읽기 준비(flip)된 버퍼
+     */
+    public static ByteBuffer request(int requestId, int methodId, byte[] payload) {
+        ByteBuffer buf = ByteBuffer.allocate(LENGTH_FIELD_SIZE + REQUEST_HEADER_SIZE + payload.length);
+        buf.putInt(REQUEST_HEADER_SIZE + payload.length)
+                .putInt(requestId)
+                .putShort((short) methodId)
+                .put(payload);
+        return buf.flip();
+    }
+
+    /**
+     * 응답 프레임을 인코딩합니다.
+     *
+     * @return 읽기 준비(flip)된 버퍼
+     */
+    public static ByteBuffer response(int requestId, int status, byte[] payload) {
+        ByteBuffer buf = ByteBuffer.allocate(LENGTH_FIELD_SIZE + RESPONSE_HEADER_SIZE + payload.length);
+        buf.putInt(RESPONSE_HEADER_SIZE + payload.length)
+                .putInt(requestId)
+                .put((byte) status)
+                .put(payload);
+        return buf.flip();
+    }
+}
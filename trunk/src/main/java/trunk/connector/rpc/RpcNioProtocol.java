@@ -0,0 +1,49 @@
+package trunk.connector.rpc;
+
+import trunk.connector.nio.NioEndpoint;
+import trunk.connector.protocol.AbstractProtocol;
+
+/**
+ * 길이 접두 바이너리 RPC 프로토콜을 NIO 방식으로 처리하는 {@link trunk.connector.protocol.ProtocolHandler} 구현체입니다.
+ * <p>
+ * HTTP 커넥터와 같은 {@link NioEndpoint}를 별도 포트로 띄우되, 수락한 모든 커넥션에 {@link RpcConnection}을 붙여
+ * HTTP/1.1 텍스트 파싱과 헤더 처리 없이 프레임 단위로 요청을 처리합니다. 요청은 {@link trunk.container.StandardContext}에
+ * 메서드 ID별로 등록된 {@link trunk.rpc.RpcHandler}로 라우팅됩니다.
+ *
+ * @author jungbin97
+ * @see RpcConnection
+ * @see RpcFrame
+ */
+public class RpcNioProtocol extends AbstractProtocol {
+
+    /**
+     * 지정된 포트에서 RPC 프로토콜 핸들러를 생성합니다.
+     *
+     * @param port 서버가 리스닝할 포트 번호
+     */
+    public RpcNioProtocol(int port) {
+        super(port);
+        this.endpoint = new NioEndpoint(null, (wrapper, key, poller) ->
+                new RpcConnection(wrapper, key, poller, poller.getWorkerPool(), context));
+    }
+
+    @Override
+    protected void initInternal() throws Exception {
+
+    }
+
+    @Override
+    protected void startInternal() throws Exception {
+
+    }
+
+    @Override
+    protected void stopInternal() throws Exception {
+
+    }
+
+    @Override
+    protected void destroyInternal() throws Exception {
+
+    }
+}
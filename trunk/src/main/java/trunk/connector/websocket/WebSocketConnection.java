@@ -0,0 +1,454 @@
+package trunk.connector.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import trunk.connector.nio.NioSocketWrapper;
+import trunk.connector.nio.Poller;
+import trunk.connector.nio.UpgradeHandler;
+import trunk.websocket.WebSocketEndpoint;
+import trunk.websocket.WebSocketSession;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * HTTP/1.1 업그레이드 이후 하나의 WebSocket 커넥션을 처리하는 핸들러입니다. (RFC 6455)
+ * <p>
+ * {@link trunk.servlet.WebSocketServlet}이 핸드셰이크를 수락하면 {@link trunk.connector.nio.Http11NioProcessor}가
+ * {@code 101 Switching Protocols} 응답을 쓰기 큐에 넣은 뒤 이 핸들러로 커넥션을 전환합니다.
+ *
+ * <h2>스레드 모델</h2>
+ * 메시지를 기다리는 커넥션은 Selector 키 하나만 차지하며 워커 스레드를 점유하지 않습니다. 소켓에 데이터가 도착하면
+ * {@link trunk.connector.nio.Poller}가 {@link #onReadable()}을 워커 스레드에 제출하고, 이 메서드는 커넥션의 읽기 버퍼를
+ * 그대로 사용하여 도착한 프레임을 모두 파싱한 뒤 다음 읽기 이벤트를 요청하고 반환합니다.
+ * <ul>
+ * <li>프레임 헤더 검증: 예약 비트, 클라이언트 마스킹, 제어 프레임 크기/조각화, 조각난 메시지의 opcode 순서</li>
+ * <li>페이로드는 읽기 버퍼에서 조각 단위로 마스킹을 해제하여 메시지 버퍼에 모읍니다. 최대 크기를 넘으면 {@code 1009}로 닫습니다.</li>
+ * <li>Ping에는 같은 페이로드의 Pong으로 응답하며, 조각난 메시지 사이에 끼어든 제어 프레임도 처리합니다.</li>
+ * <li>텍스트 메시지는 완성된 뒤 엄격한 UTF-8 검증을 거쳐 전달하며, 잘못된 인코딩은 {@code 1007}로 닫습니다.</li>
+ * </ul>
+ *
+ * <h2>송신과 역압</h2>
+ * 보내는 프레임은 커넥션의 쓰기 큐에 들어가 Poller 스레드가 전송합니다. 데이터 프레임은 큐에 대기 중인 작업이
+ * {@value #MAX_PENDING_WRITES}개를 넘으면 큐가 줄어들 때까지 호출 스레드를 대기시켜, 느린 클라이언트가 서버 메모리를
+ * 무한정 차지하지 못하게 합니다. Pong과 Close 같은 제어 프레임은 대기 없이 큐에 넣습니다.
+ *
+ * @author jungbin97
+ * @see WebSocketFrame
+ * @see UpgradeHandler
+ */
+public class WebSocketConnection implements UpgradeHandler, WebSocketSession {
+    private static final Logger log = LoggerFactory.getLogger(WebSocketConnection.class);
+
+    public static final int DEFAULT_MAX_MESSAGE_SIZE = 1024 * 1024;
+    static final int MAX_PENDING_WRITES = 16;
+    /**
+     * 메시지 버퍼의 초기 크기. 프레임 헤더의 길이만으로 버퍼를 크게 잡지 않고, 페이로드가 실제로 도착하는 만큼 늘린다.
+     */
+    private static final int INITIAL_MESSAGE_CAPACITY = 1024;
+    private static final long WRITE_TIMEOUT_MILLIS = 30_000;
+
+    private final NioSocketWrapper wrapper;
+    private final SelectionKey key;
+    private final Poller poller;
+    private final WebSocketEndpoint endpoint;
+    private final String requestUri;
+    private final int maxMessageSize;
+
+    // 읽기 상태: onReadable은 한 커넥션에 대해 동시에 호출되지 않으므로 동기화하지 않는다
+    private final ByteBuffer readBuffer;
+    private final byte[] scratch;
+    private boolean frameHeaderParsed = false;
+    private boolean fin;
+    private int opcode;
+    private long payloadLength;
+    private long payloadRead;
+    private final byte[] mask = new byte[4];
+    private final byte[] controlPayload = new byte[WebSocketFrame.MAX_CONTROL_PAYLOAD];
+    private int messageOpcode = WebSocketFrame.CONTINUATION; // 조립 중인 메시지가 없으면 CONTINUATION
+    private ByteArrayOutputStream message;
+
+    private final Object sendLock = new Object();
+    private boolean closeSent = false; // sendLock으로 보호
+    private volatile boolean closeReceived = false;
+    private final AtomicBoolean closeNotified = new AtomicBoolean(false);
+
+    /**
+     * @param wrapper    전환할 커넥션
+     * @param key        이 커넥션의 SelectionKey
+     * @param poller     이 커넥션의 I/O 이벤트를 처리하는 Poller
+     * @param endpoint   메시지를 받을 애플리케이션 처리기
+     * @param requestUri 핸드셰이크 요청의 URI
+     */
+    public WebSocketConnection(NioSocketWrapper wrapper, SelectionKey key, Poller poller,
+                               WebSocketEndpoint endpoint, String requestUri) {
+        this(wrapper, key, poller, endpoint, requestUri, DEFAULT_MAX_MESSAGE_SIZE);
+    }
+
+    WebSocketConnection(NioSocketWrapper wrapper, SelectionKey key, Poller poller,
+                        WebSocketEndpoint endpoint, String requestUri, int maxMessageSize) {
+        this.wrapper = wrapper;
+        this.key = key;
+        this.poller = poller;
+        this.endpoint = endpoint;
+        this.requestUri = requestUri;
+        this.maxMessageSize = maxMessageSize;
+        this.readBuffer = wrapper.getReadBuffer();
+        this.scratch = new byte[readBuffer.capacity()];
+    }
+
+    /**
+     * 커넥션을 이 핸들러로 전환하고 {@link WebSocketEndpoint#onOpen(WebSocketSession)}을 호출합니다.
+     * {@code 101} 응답이 이미 쓰기 큐에 들어 있어야 합니다.
+     */
+    public void start() {
+        // 쓰기 큐가 비워졌을 때 HTTP/1.1 읽기로 되돌아가지 않도록, 응답을 내보내기 전에 전환한다
+        wrapper.upgrade(this);
+        poller.requestSwitchToWrite(key);
+        try {
+            endpoint.onOpen(this);
+            // 클라이언트가 101 응답 직후 보낸 프레임이 읽기 버퍼에 남아 있을 수 있다
+            processInput();
+            resumeReading();
+        } catch (WebSocketException e) {
+            fail(e.getCloseCode(), e.getMessage());
+        } catch (IOException e) {
+            log.debug("WebSocket connection closed: {}", e.getMessage());
+            wrapper.closeChannel();
+        } catch (RuntimeException e) {
+            onEndpointError(e);
+        }
+    }
+
+    @Override
+    public void onReadable() {
+        try {
+            int read;
+            // TLS 커넥션은 복호화된 데이터가 소켓 이벤트 없이 남아 있을 수 있으므로 더 읽을 것이 없을 때까지 반복
+            while ((read = wrapper.read(readBuffer)) > 0) {
+                processInput();
+            }
+            if (read == -1) {
+                wrapper.closeChannel();
+                return;
+            }
+            resumeReading();
+        } catch (WebSocketException e) {
+            fail(e.getCloseCode(), e.getMessage());
+        } catch (IOException e) {
+            log.debug("WebSocket connection closed: {}", e.getMessage());
+            wrapper.closeChannel();
+        } catch (RuntimeException e) {
+            onEndpointError(e);
+        }
+    }
+
+    @Override
+    public void onClose() {
+        message = null;
+        notifyClose(CLOSED_ABNORMALLY, "");
+    }
+
+    /* ======================== 수신 ====================== */
+
+    private void resumeReading() {
+        if (!closeReceived) {
+            poller.requestSwitchToRead(key);
+        }
+    }
+
+    /**
+     * 읽기 버퍼에 도착한 프레임을 가능한 만큼 처리합니다. 완성되지 않은 프레임 헤더만 버퍼에 남습니다.
+     */
+    private void processInput() throws IOException {
+        readBuffer.flip();
+        try {
+            while (!closeReceived) {
+                if (!frameHeaderParsed && !parseFrameHeader()) {
+                    break;
+                }
+                if (!readPayload()) {
+                    break;
+                }
+                frameHeaderParsed = false;
+                onFrame();
+            }
+        } finally {
+            readBuffer.compact();
+        }
+    }
+
+    /**
+     * @return 헤더 전체가 도착하여 파싱했으면 {@code true}
+     */
+    private boolean parseFrameHeader() throws WebSocketException {
+        int available = readBuffer.remaining();
+        if (available < 2) {
+            return false;
+        }
+        int start = readBuffer.position();
+        int b0 = readBuffer.get(start) & 0xFF;
+        int b1 = readBuffer.get(start + 1) & 0xFF;
+        int lengthCode = b1 & 0x7F;
+        int headerLength = 2 + (lengthCode == 126 ? 2 : lengthCode == 127 ? 8 : 0) + ((b1 & WebSocketFrame.FLAG_MASKED) != 0 ? 4 : 0);
+        if (available < headerLength) {
+            return false;
+        }
+
+        if ((b0 & WebSocketFrame.RSV_MASK) != 0) {
+            throw new WebSocketException(PROTOCOL_ERROR, "Reserved bits set without a negotiated extension");
+        }
+        if ((b1 & WebSocketFrame.FLAG_MASKED) == 0) {
+            throw new WebSocketException(PROTOCOL_ERROR, "Client frame is not masked");
+        }
+        readBuffer.position(start + 2);
+        fin = (b0 & WebSocketFrame.FLAG_FIN) != 0;
+        opcode = b0 & WebSocketFrame.OPCODE_MASK;
+        if (lengthCode == 126) {
+            payloadLength = readBuffer.getShort() & 0xFFFF;
+        } else if (lengthCode == 127) {
+            payloadLength = readBuffer.getLong();
+            if (payloadLength < 0) {
+                throw new WebSocketException(PROTOCOL_ERROR, "Invalid payload length");
+            }
+        } else {
+            payloadLength = lengthCode;
+        }
+        readBuffer.get(mask);
+        payloadRead = 0;
+
+        validateFrame();
+        frameHeaderParsed = true;
+        return true;
+    }
+
+    private void validateFrame() throws WebSocketException {
+        if (WebSocketFrame.isControl(opcode)) {
+            if (opcode != WebSocketFrame.CLOSE && opcode != WebSocketFrame.PING && opcode != WebSocketFrame.PONG) {
+                throw new WebSocketException(PROTOCOL_ERROR, "Unknown opcode: " + opcode);
+            }
+            if (!fin) {
+                throw new WebSocketException(PROTOCOL_ERROR, "Fragmented control frame");
+            }
+            if (payloadLength > WebSocketFrame.MAX_CONTROL_PAYLOAD) {
+                throw new WebSocketException(PROTOCOL_ERROR, "Control frame payload too large: " + payloadLength);
+            }
+            return;
+        }
+
+        if (opcode == WebSocketFrame.CONTINUATION) {
+            if (messageOpcode == WebSocketFrame.CONTINUATION) {
+                throw new WebSocketException(PROTOCOL_ERROR, "Continuation frame without a message");
+            }
+        } else if (opcode == WebSocketFrame.TEXT || opcode == WebSocketFrame.BINARY) {
+            if (messageOpcode != WebSocketFrame.CONTINUATION) {
+                throw new WebSocketException(PROTOCOL_ERROR, "Expected continuation frame");
+            }
+            messageOpcode = opcode;
+            message = new ByteArrayOutputStream((int) Math.min(payloadLength, INITIAL_MESSAGE_CAPACITY));
+        } else {
+            throw new WebSocketException(PROTOCOL_ERROR, "Unknown opcode: " + opcode);
+        }
+        if (message.size() + payloadLength > maxMessageSize) {
+            throw new WebSocketException(MESSAGE_TOO_BIG, "Message exceeds " + maxMessageSize + " bytes");
+        }
+    }
+
+    /**
+     * 읽기 버퍼에 있는 만큼 현재 프레임의 페이로드를 마스킹 해제하여 모읍니다.
+     *
+     * @return 페이로드를 모두 읽었으면 {@code true}
+     */
+    private boolean readPayload() {
+        int n = (int) Math.min(readBuffer.remaining(), payloadLength - payloadRead);
+        if (n > 0) {
+            readBuffer.get(scratch, 0, n);
+            WebSocketFrame.unmask(scratch, 0, n, mask, payloadRead);
+            if (WebSocketFrame.isControl(opcode)) {
+                System.arraycopy(scratch, 0, controlPayload, (int) payloadRead, n);
+            } else {
+                message.write(scratch, 0, n);
+            }
+            payloadRead += n;
+        }
+        return payloadRead == payloadLength;
+    }
+
+    private void onFrame() throws IOException {
+        switch (opcode) {
+            case WebSocketFrame.PING -> sendControl(WebSocketFrame.PONG, controlPayload, (int) payloadLength);
+            case WebSocketFrame.PONG -> {
+                // 요청하지 않은 Pong은 단방향 하트비트로 무시한다
+            }
+            case WebSocketFrame.CLOSE -> onCloseFrame((int) payloadLength);
+            default -> {
+                if (fin) {
+                    deliverMessage();
+                }
+            }
+        }
+    }
+
+    private void deliverMessage() throws WebSocketException {
+        byte[] data = message.toByteArray();
+        int type = messageOpcode;
+        // 큰 메시지를 받은 뒤에도 버퍼를 계속 쥐고 있지 않도록 다음 메시지에서 새로 만든다
+        message = null;
+        messageOpcode = WebSocketFrame.CONTINUATION;
+
+        if (type == WebSocketFrame.TEXT) {
+            endpoint.onText(this, decodeUtf8(data, 0, data.length));
+        } else {
+            endpoint.onBinary(this, data);
+        }
+    }
+
+    private void onCloseFrame(int length) throws IOException {
+        int code = NO_STATUS_RECEIVED;
+        String reason = "";
+        if (length == 1) {
+            throw new WebSocketException(PROTOCOL_ERROR, "Close frame payload of 1 byte");
+        }
+        if (length >= 2) {
+            code = ((controlPayload[0] & 0xFF) << 8) | (controlPayload[1] & 0xFF);
+            if (!WebSocketFrame.isValidCloseCode(code)) {
+                throw new WebSocketException(PROTOCOL_ERROR, "Invalid close code: " + code);
+            }
+            reason = decodeUtf8(controlPayload, 2, length - 2);
+        }
+
+        closeReceived = true;
+        // 닫기 핸드셰이크를 시작한 쪽이 아니면 받은 상태 코드로 응답한 뒤, 서버가 먼저 TCP 연결을 닫는다
+        sendCloseFrame(code, "");
+        wrapper.closeAfterWrite();
+        poller.requestSwitchToWrite(key);
+        notifyClose(code, reason);
+    }
+
+    private static String decodeUtf8(byte[] data, int offset, int length) throws WebSocketException {
+        try {
+            CharBuffer chars = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(data, offset, length));
+            return chars.toString();
+        } catch (CharacterCodingException e) {
+            throw new WebSocketException(INVALID_PAYLOAD, "Invalid UTF-8 in text payload");
+        }
+    }
+
+    /**
+     * 프로토콜 오류로 커넥션을 닫습니다. Close 프레임을 보낸 뒤 응답을 기다리지 않고 소켓을 닫습니다.
+     */
+    private void fail(int code, String reason) {
+        log.debug("WebSocket protocol error ({}): {}", code, reason);
+        closeReceived = true; // 이후 도착하는 프레임은 처리하지 않는다
+        sendCloseFrame(code, "");
+        wrapper.closeAfterWrite();
+        poller.requestSwitchToWrite(key);
+        notifyClose(code, reason);
+    }
+
+    private void onEndpointError(RuntimeException e) {
+        log.error("WebSocket endpoint error", e);
+        try {
+            endpoint.onError(this, e);
+        } catch (RuntimeException ignore) {
+            // 오류 콜백의 예외는 무시하고 커넥션을 닫는다
+        }
+        fail(INTERNAL_ERROR, "Endpoint error");
+    }
+
+    private void notifyClose(int code, String reason) {
+        if (closeNotified.compareAndSet(false, true)) {
+            try {
+                endpoint.onClose(this, code, reason);
+            } catch (RuntimeException e) {
+                log.error("WebSocket endpoint error on close", e);
+            }
+        }
+    }
+
+    /* ======================== 송신 ====================== */
+
+    @Override
+    public void sendText(String text) throws IOException {
+        sendData(WebSocketFrame.TEXT, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void sendBinary(byte[] data) throws IOException {
+        sendData(WebSocketFrame.BINARY, data);
+    }
+
+    @Override
+    public void sendPing(byte[] payload) throws IOException {
+        if (payload.length > WebSocketFrame.MAX_CONTROL_PAYLOAD) {
+            throw new IllegalArgumentException("Ping payload too large: " + payload.length);
+        }
+        sendControl(WebSocketFrame.PING, payload, payload.length);
+    }
+
+    @Override
+    public void close(int code, String reason) throws IOException {
+        if (!WebSocketFrame.isValidCloseCode(code)) {
+            throw new IllegalArgumentException("Invalid close code: " + code);
+        }
+        sendCloseFrame(code, reason);
+        poller.requestSwitchToWrite(key);
+    }
+
+    @Override
+    public boolean isOpen() {
+        synchronized (sendLock) {
+            return !closeSent && wrapper.getChannel().isOpen();
+        }
+    }
+
+    @Override
+    public String getRequestUri() {
+        return requestUri;
+    }
+
+    private void sendData(int type, byte[] payload) throws IOException {
+        // 느린 클라이언트: 쓰기 큐가 줄어들 때까지 생산자를 대기시킨다
+        wrapper.awaitWriteQueueBelow(MAX_PENDING_WRITES, WRITE_TIMEOUT_MILLIS);
+        enqueue(WebSocketFrame.encode(type, payload));
+    }
+
+    private void sendControl(int type, byte[] payload, int length) throws IOException {
+        byte[] copy = new byte[length];
+        System.arraycopy(payload, 0, copy, 0, length);
+        enqueue(WebSocketFrame.encode(type, copy));
+    }
+
+    private void enqueue(ByteBuffer frame) throws IOException {
+        synchronized (sendLock) {
+            if (closeSent || !wrapper.getChannel().isOpen()) {
+                throw new IOException("WebSocket is closed");
+            }
+            wrapper.offerWrite(frame);
+        }
+        poller.requestSwitchToWrite(key);
+    }
+
+    /**
+     * Close 프레임을 한 번만 쓰기 큐에 넣습니다. 이후의 데이터 프레임 전송은 거부됩니다.
+     */
+    private void sendCloseFrame(int code, String reason) {
+        synchronized (sendLock) {
+            if (closeSent) {
+                return;
+            }
+            closeSent = true;
+            wrapper.offerWrite(WebSocketFrame.close(code, reason));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package trunk.connector.websocket;
+
+import java.io.IOException;
+
+/**
+ * 클라이언트가 WebSocket 프로토콜을 위반했음을 나타내는 예외입니다.
+ * <p>
+ * 예외가 발생하면 {@link #getCloseCode()}의 상태 코드로 Close 프레임을 보내고 커넥션을 닫습니다.
+ *
+ * @author jungbin97
+ * @see WebSocketConnection
+ */
+public class WebSocketException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int closeCode;
+
+    public WebSocketException(int closeCode, String message) {
+        super(message);
+        this.closeCode = closeCode;
+    }
+
+    public int getCloseCode() {
+        return closeCode;
+    }
+}
@@ -0,0 +1,104 @@
+package trunk.connector.websocket;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * WebSocket 프레임 opcode 상수와 서버 프레임을 직렬화하는 유틸리티 클래스입니다. (RFC 6455 5절)
+ * <p>
+ * 프레임은 FIN/RSV/opcode 1바이트, MASK 비트와 7비트 길이 1바이트로 시작하며, 길이가 126이면 16비트,
+ * 127이면 64비트 확장 길이가 이어집니다. 서버가 보내는 프레임은 마스킹하지 않고, 클라이언트가 보내는 프레임은
+ * 반드시 4바이트 마스킹 키로 마스킹되어야 합니다.
+ * 이 클래스가 만드는 버퍼는 모두 읽기 준비(flip)된 상태로 반환되어, 바로 쓰기 큐에 넣을 수 있습니다.
+ *
+ * @author jungbin97
+ * @see WebSocketConnection
+ */
+public final class WebSocketFrame {
+    public static final int CONTINUATION = 0x0;
+    public static final int TEXT = 0x1;
+    public static final int BINARY = 0x2;
+    public static final int CLOSE = 0x8;
+    public static final int PING = 0x9;
+    public static final int PONG = 0xA;
+
+    public static final int FLAG_FIN = 0x80;
+    public static final int RSV_MASK = 0x70;
+    public static final int OPCODE_MASK = 0x0F;
+    public static final int FLAG_MASKED = 0x80;
+
+    public static final int MAX_CONTROL_PAYLOAD = 125;
+
+    /**
+     * 이 클래스는 인스턴스화할 수 없습니다.
+     */
+    private WebSocketFrame() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static boolean isControl(int opcode) {
+        return (opcode & 0x8) != 0;
+    }
+
+    /**
+     * 페이로드 하나로 이루어진(FIN) 서버 프레임을 만듭니다.
+     */
+    public static ByteBuffer encode(int opcode, byte[] payload) {
+        int length = payload.length;
+        int headerLength = length <= 125 ? 2 : length <= 0xFFFF ? 4 : 10;
+        ByteBuffer buf = ByteBuffer.allocate(headerLength + length);
+        buf.put((byte) (FLAG_FIN | opcode));
+        if (length <= 125) {
+            buf.put((byte) length);
+        } else if (length <= 0xFFFF) {
+            buf.put((byte) 126).putShort((short) length);
+        } else {
+            buf.put((byte) 127).putLong(length);
+        }
+        return buf.put(payload).flip();
+    }
+
+    /**
+     * Close 프레임을 만듭니다. 상태 코드가 {@code 1005}(수신된 상태 코드 없음)이면 빈 페이로드로 보냅니다.
+     */
+    public static ByteBuffer close(int code, String reason) {
+        if (code == 1005) {
+            return encode(CLOSE, new byte[0]);
+        }
+        byte[] reasonBytes = (reason == null) ? new byte[0] : reason.getBytes(StandardCharsets.UTF_8);
+        if (reasonBytes.length > MAX_CONTROL_PAYLOAD - 2) {
+            throw new IllegalArgumentException("Close reason too long: " + reasonBytes.length + " bytes");
+        }
+        return encode(CLOSE, ByteBuffer.allocate(2 + reasonBytes.length)
+                .putShort((short) code)
+                .put(reasonBytes)
+                .array());
+    }
+
+    /**
+     * 클라이언트 페이로드의 마스킹을 제자리에서 해제합니다.
+     *
+     * @param data        마스킹된 페이로드 조각
+     * @param offset      조각의 시작 위치
+     * @param length      조각의 길이
+     * @param mask        프레임의 4바이트 마스킹 키
+     * @param frameOffset 이 조각이 프레임 페이로드에서 시작하는 위치
+     */
+    public static void unmask(byte[] data, int offset, int length, byte[] mask, long frameOffset) {
+        int m = (int) (frameOffset & 3);
+        for (int i = offset; i < offset + length; i++) {
+            data[i] ^= mask[m];
+            m = (m + 1) & 3;
+        }
+    }
+
+    /**
+     * Close 프레임으로 보낼 수 있는 상태 코드인지 확인합니다. (RFC 6455 7.4절)
+     */
+    public static boolean isValidCloseCode(int code) {
+        if (code >= 3000 && code <= 4999) {
+            return true;
+        }
+        return code >= 1000 && code <= 1011 && code != 1004 && code != 1005 && code != 1006;
+    }
+}
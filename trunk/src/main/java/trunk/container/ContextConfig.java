@@ -4,6 +4,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
+import trunk.rpc.RpcHandler;
 import trunk.servlet.HttpServlet;
 import trunk.servlet.Servlet;
 
@@ -20,7 +21,8 @@ import java.util.Map;
  * 웹 애플리케이션의 web.xml를 파싱하여 서블릿 정보를 {@link StandardContext}에 등록하는 역할을 담당합니다.
  * <p>
  * 서버 시작 시점에 `web.xml`을 읽어 그 안에 정의된 서블릿과 URL 매핑 규칙을 해석하고, 컨테이너인
- * {@code StandardContext}에 해당 정보를 추가합니다.
+ * {@code StandardContext}에 해당 정보를 추가합니다. {@code <rpc-handler>} 요소는 바이너리 RPC 메서드 ID와
+ * {@link RpcHandler} 구현 클래스를 연결합니다.
  *
  * @author jungbin97
  * @see StandardContext
@@ -32,6 +34,9 @@ public class ContextConfig {
     private static final String LOAD_ON_STARTUP = "load-on-startup";
     private static final String URL_PATTERN = "url-pattern";
     private static final String SERVLET_MAPPING = "servlet-mapping";
+    private static final String RPC_HANDLER = "rpc-handler";
+    private static final String METHOD_ID = "method-id";
+    private static final String HANDLER_CLASS = "handler-class";
 
     private final StandardContext standardContext;
 
@@ -93,7 +98,18 @@ public class ContextConfig {
                 }
             }
 
-        } catch (ParserConfigurationException | SAXException | IOException | ClassNotFoundException e) {
+            NodeList rpcNodes = document.getElementsByTagName(RPC_HANDLER);
+            for (int i = 0; i < rpcNodes.getLength(); i++) {
+                Element rpcElement = (Element) rpcNodes.item(i);
+                int methodId = Integer.parseInt(rpcElement.getElementsByTagName(METHOD_ID).item(0).getTextContent().trim());
+                String handlerClass = rpcElement.getElementsByTagName(HANDLER_CLASS).item(0).getTextContent().trim();
+
+                RpcHandler handler = Class.forName(handlerClass).asSubclass(RpcHandler.class)
+                        .getDeclaredConstructor().newInstance();
+                standardContext.addRpcHandler(methodId, handler);
+            }
+
+        } catch (ParserConfigurationException | SAXException | IOException | ReflectiveOperationException e) {
             throw new RuntimeException("Failed to parse web.xml", e);
         }
 
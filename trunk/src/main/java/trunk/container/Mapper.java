@@ -1,6 +1,9 @@
 package trunk.container;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -14,7 +17,10 @@ import java.util.Map;
  * <li>기본 서블릿 매칭 (Default Servlet Match)</li>
  * </ol>
  * 이 클래스는 생성 시점에 서블릿 매핑 정보를 내부적으로 파싱하여,
- * 런타임 시 빠른 조회가 가능하도록 구조화합니다.
+ * 런타임 시 빠른 조회가 가능하도록 구조화합니다. 접두사는 긴 순서로 정렬한 배열에, 확장자는 배열에 보관하여
+ * 조회 중에는 부분 문자열이나 반복자를 만들지 않습니다.
+ * <p>
+ * 조회에는 {@link trunk.http11.request.RequestTarget#getNormalizedPath()}처럼 쿼리 스트링이 없고 정규화된 경로를 사용해야 합니다.
  *
  * @author jungbin97
  * @see StandardWrapper
@@ -22,8 +28,11 @@ import java.util.Map;
  */
 public class Mapper {
     private final Map<String, StandardWrapper> exactMappings;
-    private final Map<String, StandardWrapper> prefixMappings;
-    private final Map<String, StandardWrapper> extensionMappings;
+    // 가장 긴 접두사가 먼저 오도록 정렬
+    private final String[] prefixes;
+    private final StandardWrapper[] prefixWrappers;
+    private final String[] extensions;
+    private final StandardWrapper[] extensionWrappers;
     private StandardWrapper defaultMatch;
 
     /**
@@ -32,16 +41,32 @@ public class Mapper {
      */
     public Mapper(Map<String, StandardWrapper> servletMappings) {
         this.exactMappings = new HashMap<>();
-        this.prefixMappings = new HashMap<>();
-        this.extensionMappings = new HashMap<>();
-        initalizeMappings(servletMappings);
+        List<Map.Entry<String, StandardWrapper>> prefixMappings = new ArrayList<>();
+        List<Map.Entry<String, StandardWrapper>> extensionMappings = new ArrayList<>();
+        initalizeMappings(servletMappings, prefixMappings, extensionMappings);
+
+        prefixMappings.sort(Comparator.comparingInt((Map.Entry<String, StandardWrapper> entry) -> entry.getKey().length()).reversed());
+        this.prefixes = new String[prefixMappings.size()];
+        this.prefixWrappers = new StandardWrapper[prefixMappings.size()];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = prefixMappings.get(i).getKey();
+            prefixWrappers[i] = prefixMappings.get(i).getValue();
+        }
+        this.extensions = new String[extensionMappings.size()];
+        this.extensionWrappers = new StandardWrapper[extensionMappings.size()];
+        for (int i = 0; i < extensions.length; i++) {
+            extensions[i] = extensionMappings.get(i).getKey();
+            extensionWrappers[i] = extensionMappings.get(i).getValue();
+        }
     }
 
     /**
-     * 서블릿 매핑 정보를 파싱하여 각 매칭 유형에 따라 내부 맵에 저장합니다.
+     * 서블릿 매핑 정보를 파싱하여 각 매칭 유형에 따라 분류합니다.
      * @param servletMappings 원본 서블릿 매핑 정보
      */
-    private void initalizeMappings(Map<String, StandardWrapper> servletMappings) {
+    private void initalizeMappings(Map<String, StandardWrapper> servletMappings,
+                                   List<Map.Entry<String, StandardWrapper>> prefixMappings,
+                                   List<Map.Entry<String, StandardWrapper>> extensionMappings) {
         for (Map.Entry<String, StandardWrapper> entry : servletMappings.entrySet()) {
             String pattern = entry.getKey();
             StandardWrapper wrapper = entry.getValue();
@@ -50,10 +75,10 @@ public class Mapper {
                 defaultMatch = wrapper;
             } else if (pattern.endsWith("/*")) {
                 String prefix = pattern.substring(0, pattern.length() - 2);
-                prefixMappings.put(prefix, wrapper);
+                prefixMappings.add(Map.entry(prefix, wrapper));
             } else if (pattern.startsWith("*.")) {
                 String extension = pattern.substring(2);
-                extensionMappings.put(extension, wrapper);
+                extensionMappings.add(Map.entry(extension, wrapper));
             } else {
                 exactMappings.put(pattern, wrapper);
             }
@@ -61,38 +86,37 @@ public class Mapper {
     }
 
     /**
-     * 주어진 URI에 가장 적합한 서블릿 래퍼({@link StandardWrapper})를 찾아서 반환합니다.
+     * 주어진 경로에 가장 적합한 서블릿 래퍼({@link StandardWrapper})를 찾아서 반환합니다.
      * 매핑 우선순위(정확, 접두사, 확장자, 기본)에 따라 일치하는 첫 번째 서블릿을 반환합니다.
      *
-     * @param uri 처리할 요청의 URI
+     * @param path 처리할 요청의 정규화된 경로 (쿼리 스트링 제외)
      * @return 매핑된 {@code StandardWrapper}. 일치하는 서블릿이 없을 경우 기본 서블릿 래퍼를 반환하며,
      * 기본 서블릿조차 없으면 {@code null}을 반환할 수 있습니다.
      */
-    public StandardWrapper getStandardWrapper(String uri) {
+    public StandardWrapper getStandardWrapper(String path) {
         // 1. Exact match
-        if (exactMappings.containsKey(uri)) return exactMappings.get(uri);
+        StandardWrapper exactMatch = exactMappings.get(path);
+        if (exactMatch != null) return exactMatch;
 
         // 2. Prefix match (가장 긴 prefix 우선)
-        StandardWrapper prefixMatch = null;
-        int longest = -1;
-        for (Map.Entry<String, StandardWrapper> entry : prefixMappings.entrySet()) {
-            String prefix = entry.getKey();
-            if (uri.startsWith(prefix) && prefix.length() > longest) {
-                prefixMatch = entry.getValue();
-                longest = prefix.length();
+        for (int i = 0; i < prefixes.length; i++) {
+            if (path.startsWith(prefixes[i])) {
+                return prefixWrappers[i];
             }
         }
-        if (prefixMatch != null) return prefixMatch;
 
-        // 3. Extension Match (*.jsp, 등등)
-        int lastDotIndex = uri.lastIndexOf('.');
-        if (lastDotIndex != -1) {
-            String extension = uri.substring(lastDotIndex + 1);
-            if (extensionMappings.containsKey(extension)) {
-                return extensionMappings.get(extension);
+        // 3. Extension Match (*.jsp, 등등) - 마지막 세그먼트의 확장자만 비교한다
+        int lastDotIndex = path.lastIndexOf('.');
+        if (lastDotIndex > path.lastIndexOf('/')) {
+            int extensionLength = path.length() - lastDotIndex - 1;
+            for (int i = 0; i < extensions.length; i++) {
+                String extension = extensions[i];
+                if (extension.length() == extensionLength && path.regionMatches(lastDotIndex + 1, extension, 0, extensionLength)) {
+                    return extensionWrappers[i];
+                }
             }
         }
 
         return defaultMatch;
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,8 @@ package trunk.container;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import trunk.http11.request.RequestTarget;
+import trunk.rpc.RpcHandler;
 import trunk.servlet.Servlet;
 
 import java.io.File;
@@ -18,6 +20,7 @@ import java.util.*;
  * <li>서버 시작 시 `load-on-startup` 값이 0 이상인 서블릿을 미리 로드(Eager Loading)합니다.</li>
  * <li>서버 종료 시 등록된 모든 서블릿의 `destroy` 메서드를 호출하여 리소스를 해제합니다.</li>
  * <li>URL 패턴과 서블릿을 매핑하는 {@link Mapper}를 생성하고 관리합니다.</li>
+ * <li>바이너리 RPC 커넥터가 라우팅할 메서드 ID별 {@link RpcHandler}를 관리합니다.</li>
  * </ul>
  *
  * @author jungbin97
@@ -29,6 +32,7 @@ public class StandardContext {
     private static final Logger log = LoggerFactory.getLogger(StandardContext.class);
     private final Map<String, StandardWrapper> children = new HashMap<>();
     private final List<StandardWrapper> loadOnStartupWrappers = new ArrayList<>();
+    private final Map<Integer, RpcHandler> rpcHandlers = new HashMap<>();
     private Mapper mapper;
     private String docBase;
 
@@ -51,6 +55,28 @@ public class StandardContext {
         }
     }
 
+    /**
+     * 바이너리 RPC 메서드 ID에 핸들러를 등록합니다. 커넥터를 시작하기 전에 호출해야 합니다.
+     *
+     * @param methodId 메서드 ID (0 ~ 65535)
+     * @param handler  이 메서드의 요청을 처리할 핸들러
+     * @throws IllegalArgumentException 메서드 ID가 범위를 벗어난 경우
+     */
+    public void addRpcHandler(int methodId, RpcHandler handler) {
+        if (methodId < 0 || methodId > 0xFFFF) {
+            throw new IllegalArgumentException("RPC method id out of range: " + methodId);
+        }
+        rpcHandlers.put(methodId, handler);
+    }
+
+    /**
+     * @param methodId 메서드 ID
+     * @return 등록된 핸들러, 없으면 {@code null}
+     */
+    public RpcHandler getRpcHandler(int methodId) {
+        return rpcHandlers.get(methodId);
+    }
+
     /**
      * `load-on-startup` 값이 0 또는 양수인 서블릿들을 즉시 로드하고,
      * 모든 서블릿 정보가 등록된 후 {@link Mapper}를 초기화합니다.
@@ -103,16 +129,21 @@ public class StandardContext {
     /**
      * 주어진 경로에 대한 실제 파일 시스템 경로를 반환합니다.
      * <p>
-     * 이 메서드는 보안을 위해 상위 디렉토리로 이동하는 것을 방지할 수 있습니다.
+     * 경로를 {@link RequestTarget#normalize(String)}로 정리한 뒤 docBase에 붙이므로,
+     * {@code ..}로 docBase 밖을 가리키는 경로는 파일 시스템에 닿기 전에 거부됩니다.
      *
-     * @param path 요청된 리소스의 경로
-     * @return 해당 경로의 절대 파일 시스템 경로, 또는 docBase가 설정되지 않았거나 path가 null인 경우 null
+     * @param path 요청된 리소스의 디코딩된 경로
+     * @return 해당 경로의 절대 파일 시스템 경로, 또는 docBase가 설정되지 않았거나 path가 null이거나 docBase를 벗어나는 경우 null
      */
     public String getRealPath(String path) {
         if (docBase == null || path == null) {
             return null;
         }
-        File file = new File(docBase, path);
+        String normalized = RequestTarget.normalize(path);
+        if (normalized == null) {
+            return null;
+        }
+        File file = new File(docBase, normalized);
         return file.getAbsolutePath();
     }
 }
@@ -2,20 +2,21 @@ package trunk.http11;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import trunk.http11.request.ContinueSender;
+import trunk.http11.request.HttpHeader;
 import trunk.http11.request.HttpRequest;
 import trunk.http11.request.HttpRequestBody;
 import trunk.http11.request.HttpRequestHeader;
 import trunk.http11.request.HttpRequestStartLine;
-import trunk.util.HttpRequestUtils;
-import trunk.util.IOUtils;
+import trunk.http11.request.RawRequestHead;
+import trunk.http11.request.RejectReason;
+import trunk.http11.request.RequestLimits;
+import trunk.http11.request.RequestRejectedException;
 
-import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
 
 /**
  * {@code HttpRequestParser}는 HTTP 요청(InputStream)을 분석하여 {@link HttpRequest} 객체로 변환하는 유틸리티 클래스입니다.
@@ -25,24 +26,33 @@ import java.util.Map;
  *     <li>요청 시작줄 (HTTP Method, URI, Version)</li>
  *     <li>요청 헤더</li>
  *     <li>요청 바디</li>
- *     <li>쿼리 파라미터 (GET, POST 공통)</li>
  * </ul>
+ * 쿼리 파라미터, 폼 파라미터, 쿠키는 파서가 만들지 않고 {@link HttpRequest}가 처음 조회될 때 파싱합니다.
  *
  * <h2>동작 방식</h2>
  * <ol>
- *     <li>입력 스트림에서 요청 시작 줄을 읽고, {@link HttpRequestStartLine} 객체를 생성합니다.</li>
- *     <li>이후 헤더 라인을 순차적으로 읽어 {@link HttpRequestHeader}로 구성합니다.</li>
- *     <li>헤더에 {@code Content-Length}가 있는 경우, 바디를 해당 길이만큼 읽습니다.</li>
- *     <li>헤더의 {@code Content-Type}이 {@code application/x-www-form-urlencoded}일 경우, 바디 내용을 파싱하여 쿼리 파라미터로 추가합니다.</li>
- *     <li>파싱 결과를 바탕으로 최종적으로 {@link HttpRequest} 객체를 생성하여 반환합니다.</li>
+ *     <li>입력 스트림에서 읽은 바이트를 NIO 커넥터와 같은 {@link HttpRequestHeadParser}로 파싱하여
+ *     {@link HttpRequestStartLine}과 {@link HttpRequestHeader}를 구성합니다.</li>
+ *     <li>헤더에 {@code Content-Length}가 있는 경우, 바디를 해당 길이만큼 읽습니다.
+ *     단, 본문이 {@value #MAX_BUFFERED_BODY_SIZE} 바이트를 넘거나 {@code Transfer-Encoding: chunked}이거나
+ *     {@code Expect: 100-continue} 요청이면 본문을 읽지 않고 스트리밍 본문으로 넘깁니다.</li>
+ *     <li>파싱 결과를 {@link HttpRequest} 객체에 채워 반환합니다. 커넥터가 응답을 마친 요청을 넘기면 새로 만들지 않고 그 객체를 재사용합니다.</li>
  * </ol>
  *
  * <h3>예외 처리</h3>
- * 다음과 같은 경우 {@link IOException}을 발생시킵니다:
+ * 다음과 같은 경우 {@link RequestRejectedException}을 발생시킵니다:
  * <ul>
- *     <li>요청 라인이 null이거나 비어있는 경우</li>
+ *     <li>시작 줄 형식이 잘못된 경우</li>
  *     <li>헤더 형식이 잘못된 경우 (콜론 누락, 이름에 공백 포함 등)</li>
+ *     <li>시작 줄, 헤더 수, head 크기, {@code Content-Length}가 {@link RequestLimits}의 한도를 넘는 경우.
+ *     head는 한도와 관계없이 {@value HttpRequestHeadParser#DEFAULT_MAX_HEAD_SIZE} 바이트 버퍼를 넘을 수 없습니다.</li>
  * </ul>
+ * head 도중에 스트림이 끝나면 {@link EOFException}을 발생시킵니다.
+ * 요청 앞의 빈 줄만 있고 스트림이 끝나면 {@code null}을 반환합니다.
+ * <p>
+ * 헤더 직후의 본문 바이트를 소비하지 않도록, {@link InputStream#mark(int)}를 지원하는 스트림은 한 번에 읽은 뒤
+ * head 길이만큼만 소비한 위치로 되돌리고, 지원하지 않는 스트림은 한 바이트씩 읽습니다.
+ * 소켓 스트림을 넘길 때는 {@link java.io.BufferedInputStream}으로 감싸야 합니다.
  *
  * @see HttpRequest
  * @see HttpRequestStartLine
@@ -52,119 +62,146 @@ import java.util.Map;
  */
 public class BioHttpRequestParser {
     private static final Logger log = LoggerFactory.getLogger(BioHttpRequestParser.class);
-    private static final String CONTENT_LENGTH = "Content-Length";
-    private static final String CONTENT_TYPE = "Content-Type";
-    private static final String X_WWW_FORM_URLENCODED = "application/x-www-form-urlencoded";
+    private static final String HUNDRED_CONTINUE = "100-continue";
+    static final int MAX_BUFFERED_BODY_SIZE = 64 * 1024;
+
+    // 커넥션마다 스레드 하나를 쓰므로, head 버퍼와 파서를 스레드 단위로 재사용한다
+    private static final ThreadLocal<HeadReader> HEAD_READERS = ThreadLocal.withInitial(HeadReader::new);
 
     private BioHttpRequestParser() {
         throw new IllegalStateException("Utility class");
     }
 
-    public static HttpRequest parse(InputStream in) throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.ISO_8859_1));
-
-        // Start Line 파싱
-        HttpRequestStartLine startLine = parseStartLine(reader);
-        if (startLine == null) {
-            return null; // 빈 요청일 경우
-        }
-
-        // Header 파싱
-        Map<String, String> headersMap = parseHeaders(reader);
-        HttpRequestHeader headers = new HttpRequestHeader(headersMap);
-
-        // Body 파싱
-        String body = parseBody(reader, headersMap);
-
-        // 쿼리 파라미터 파싱
-        Map<String, String> queryParameters = parseQueryParameters(startLine.getRequestUri(), body, headersMap);
+    private static final RequestLimits DEFAULT_LIMITS = new RequestLimits();
 
-        HttpRequestBody requestBody = new HttpRequestBody(body);
-        HttpRequest request = new HttpRequest(startLine, headers, requestBody, queryParameters);
+    public static HttpRequest parse(InputStream in) throws IOException {
+        return parse(in, null);
+    }
 
-        log.debug("Parsed request: {}", startLine);
-        return request;
+    /**
+     * @param in             요청을 읽을 입력 스트림. 스트리밍 본문은 이 스트림에서 이어서 읽습니다.
+     * @param continueSender {@code Expect: 100-continue} 요청에 중간 응답을 보내는 방법. {@code null}이면 100-continue를 무시합니다.
+     */
+    public static HttpRequest parse(InputStream in, ContinueSender continueSender) throws IOException {
+        return parse(in, continueSender, DEFAULT_LIMITS);
     }
 
     /**
-     * HTTP 요청 시작줄을 파싱합니다.
+     * @param in             요청을 읽을 입력 스트림. 스트리밍 본문은 이 스트림에서 이어서 읽습니다.
+     * @param continueSender {@code Expect: 100-continue} 요청에 중간 응답을 보내는 방법. {@code null}이면 100-continue를 무시합니다.
+     * @param limits         요청 크기 한도
      */
-    private static HttpRequestStartLine parseStartLine(BufferedReader reader) throws IOException {
-        String line = reader.readLine();
-        if (line == null || line.isBlank()) {
-            return null; // 요청이 없거나 비어있는 경우
-        }
-        String[] tokens = line.split(" ");
-        if (tokens.length != 3) {
-            throw new IOException("Invalid request start line: " + line);
-        }
-        return new HttpRequestStartLine(tokens[0], tokens[1], tokens[2]);
+    public static HttpRequest parse(InputStream in, ContinueSender continueSender, RequestLimits limits) throws IOException {
+        return parse(in, continueSender, limits, null);
     }
 
     /**
-     * HTTP 헤더들을 파싱합니다.
+     * 응답을 마친 요청 객체를 재사용하여 다음 요청을 읽습니다.
+     *
+     * @param recycled {@link HttpRequest#recycle()}로 초기화한, 다시 쓸 수 있는 요청. {@code null}이면 새로 만듭니다.
+     * @return 새 요청의 값을 채운 {@code recycled} 또는 새 요청. 스트림이 끝났으면 {@code null}
      */
-    private static Map<String, String> parseHeaders(BufferedReader reader) throws IOException {
-        Map<String, String> headers = new HashMap<>();
-        String headerLine;
-        while ((headerLine = reader.readLine()) != null && !headerLine.isEmpty()) {
-            int colonIndex = headerLine.indexOf(":");
-            if (colonIndex <= 0 || colonIndex == headerLine.length() - 1) {
-                throw new IOException("Invalid header format: " + headerLine);
-            }
+    public static HttpRequest parse(InputStream in, ContinueSender continueSender, RequestLimits limits,
+                                    HttpRequest recycled) throws IOException {
+        // Start Line, Header 파싱
+        RawRequestHead head = HEAD_READERS.get().read(in, limits);
+        if (head == null) {
+            return null; // 빈 요청일 경우
+        }
+        HttpRequest request = recycled != null ? recycled : new HttpRequest();
+        request.setHead(head);
+        request.setMaxParameterCount(limits.getMaxParameterCount());
 
-            String headerName = headerLine.substring(0, colonIndex).trim();
-            String headerValue = headerLine.substring(colonIndex + 1).trim();
+        // Body 파싱. 쿼리/폼 파라미터와 쿠키는 HttpRequest가 처음 조회될 때 파싱한다
+        parseBody(in, head, continueSender, limits, request.getBody());
 
-            if (headerName.contains(" ")) { // 헤더 이름에 공백이 있으면 유효하지 않음
-                throw new IOException("Invalid HTTP header name contains space: " + headerName);
-            }
-            headers.put(headerName, headerValue);
-        }
-        return headers;
+        log.debug("Parsed request: {}", request.getStartLine());
+        return request;
     }
 
     /**
-     * HTTP 요청 바디를 파싱합니다. Content-Length 헤더를 기반으로 읽습니다.
+     * HTTP 요청 바디를 파싱합니다. Content-Length 또는 Transfer-Encoding 헤더를 기반으로 읽습니다.
      */
-    private static String parseBody(BufferedReader reader, Map<String, String> headers) throws IOException {
-        if (!headers.containsKey(CONTENT_LENGTH)) {
-            return null;
+    private static void parseBody(InputStream in, RawRequestHead head, ContinueSender continueSender,
+                                  RequestLimits limits, HttpRequestBody body) throws IOException {
+        boolean chunked = head.isChunked();
+        long contentLength = chunked ? 0 : head.getContentLength();
+        if (!chunked && contentLength <= 0) {
+            body.setBytes(null);
+            return;
         }
-
-        String contentLengthValue = headers.get(CONTENT_LENGTH);
-        int contentLength = 0;
-        try {
-            contentLength = (contentLengthValue != null) ? Integer.parseInt(contentLengthValue) : 0;
-        } catch (NumberFormatException e) {
-            log.warn("Invalid Content-Length header value: {}", contentLengthValue);
-            return null;
+        if (contentLength > limits.getMaxBodySize()) {
+            throw new RequestRejectedException(RejectReason.BODY_TOO_LARGE,
+                    "Request body too large (" + contentLength + " > " + limits.getMaxBodySize() + " bytes)");
         }
 
-
-        if (contentLength > 0) {
-            // IOUtils.readData는 BufferedReader에서 정확히 contentLength 만큼 읽어옵니다.
-            return IOUtils.readData(reader, contentLength);
+        boolean expectContinue = continueSender != null
+                && HUNDRED_CONTINUE.equalsIgnoreCase(head.getHeader(HttpHeader.EXPECT))
+                && "HTTP/1.1".equals(head.getHttpVersion());
+        if (chunked || expectContinue || contentLength > MAX_BUFFERED_BODY_SIZE) {
+            body.setStreaming(in, chunked, contentLength, expectContinue ? continueSender : null,
+                    limits.getMaxBodySize());
+            return;
         }
-        return null;
+
+        // 작은 본문은 정확히 contentLength 만큼 읽어 메모리에 보관
+        body.setBytes(in.readNBytes((int) contentLength));
     }
 
     /**
-     * 요청 URI와 바디에서 쿼리 파라미터를 파싱합니다.
+     * 입력 스트림에서 head를 읽는 스레드 단위의 버퍼와 파서입니다. 파서는 한도 설정이 바뀔 때 다시 만듭니다.
      */
-    private static Map<String, String> parseQueryParameters(String requestUri, String body, Map<String, String> headers) {
-        Map<String, String> queryParameters = new HashMap<>();
-
-        int queryIndex = requestUri.indexOf("?");
-        if (queryIndex != -1) {
-            String queryString = requestUri.substring(queryIndex + 1);
-            queryParameters.putAll(HttpRequestUtils.parseQueryString(queryString));
-        }
+    private static final class HeadReader {
+        private final ByteBuffer buffer = ByteBuffer.allocate(HttpRequestHeadParser.DEFAULT_MAX_HEAD_SIZE);
+        private HttpRequestHeadParser parser;
+        private RequestLimits parserLimits;
+
+        RawRequestHead read(InputStream in, RequestLimits limits) throws IOException {
+            if (parserLimits != limits) {
+                parser = new HttpRequestHeadParser(limits);
+                parserLimits = limits;
+            }
+            buffer.clear();
+            parser.reset();
+            boolean bulk = in.markSupported();
+            if (bulk) {
+                in.mark(buffer.capacity());
+            }
 
-        if (body != null && X_WWW_FORM_URLENCODED.equals(headers.get(CONTENT_TYPE))) {
-            queryParameters.putAll(HttpRequestUtils.parseQueryString(body));
+            while (buffer.hasRemaining()) {
+                int n;
+                if (bulk) {
+                    n = in.read(buffer.array(), buffer.position(), buffer.remaining());
+                } else {
+                    int b = in.read();
+                    n = (b == -1) ? -1 : 1;
+                    if (b != -1) {
+                        buffer.array()[buffer.position()] = (byte) b;
+                    }
+                }
+                if (n == -1) {
+                    if (parser.hasStarted()) {
+                        throw new EOFException("Unexpected end of stream while reading request head");
+                    }
+                    return null;
+                }
+                buffer.position(buffer.position() + n);
+
+                buffer.flip();
+                RawRequestHead head = parser.parse(buffer);
+                if (head != null) {
+                    if (bulk) {
+                        // head 뒤에 함께 읽은 본문 바이트를 스트림에 되돌린다
+                        in.reset();
+                        in.skipNBytes(buffer.position());
+                    }
+                    return head;
+                }
+                // head가 완성되기 전에는 버퍼의 position이 움직이지 않으므로, 이어서 채운다
+                buffer.position(buffer.limit());
+                buffer.limit(buffer.capacity());
+            }
+            throw parser.headTooLarge(buffer.capacity());
         }
-
-        return queryParameters;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,432 @@
+package trunk.http11;
+
+import trunk.http11.request.HttpHeader;
+import trunk.http11.request.RawRequestHead;
+import trunk.http11.request.RejectReason;
+import trunk.http11.request.RequestLimits;
+import trunk.http11.request.RequestRejectedException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * HTTP/1.1 요청의 시작 줄과 헤더(head)를 {@link ByteBuffer}의 바이트 위에서 직접 파싱하는 상태 머신입니다.
+ * <p>
+ * 바이트를 문자로 바꾸거나 줄 단위 문자열을 만들지 않고, 각 토큰의 시작/끝 위치만 기록합니다.
+ * head가 끝나면 그 바이트를 한 번 복사하여 {@link RawRequestHead}로 반환하며, 문자열은 값을 조회할 때 만들어집니다.
+ * 헤더 이름은 줄을 읽는 즉시 {@link HttpHeader} 목록과 비교하여 알려진 헤더의 순번을 함께 기록합니다.
+ * 파싱 도중에는 객체를 할당하지 않습니다.
+ * <p>
+ * head는 여러 번의 읽기에 나뉘어 도착할 수 있습니다. head가 완성되기 전까지 버퍼의 position은 움직이지 않으며,
+ * 호출자는 head의 첫 바이트가 다음 호출의 position에 오도록 버퍼를 유지해야 합니다({@link ByteBuffer#compact()}).
+ * 파서는 이미 검사한 위치를 기억하므로 같은 바이트를 다시 검사하지 않습니다.
+ * <p>
+ * 요청 대상, 헤더 이름, 헤더 값처럼 긴 토큰은 {@link ByteBuffer#getLong(int)}으로 8바이트씩 읽어
+ * 구분자(SP, 콜론, LF)와 허용되지 않는 바이트를 한 번에 찾습니다. 줄 끝의 CR과 head 끝의 빈 줄(CRLFCRLF)은
+ * LF를 찾은 뒤 확인하므로 따로 검색하지 않습니다.
+ * head가 완성되면 position은 head 바로 다음(본문 또는 다음 요청의 시작)으로 이동합니다.
+ *
+ * <h2>검증</h2>
+ * <ul>
+ * <li>시작 줄은 {@code 메서드 SP 대상 SP HTTP/x.y} 형식이어야 합니다.</li>
+ * <li>헤더 이름은 비어 있지 않아야 하며 공백, 제어 문자, non-ASCII 문자를 포함할 수 없습니다.
+ * 따라서 이름과 콜론 사이의 공백이나 obs-fold(줄 접기)는 거부됩니다.</li>
+ * <li>줄 끝은 CRLF이며, {@link trunk.util.IOUtils#readLine}과 같이 LF만 있는 줄도 허용합니다.</li>
+ * <li>요청 앞의 빈 줄은 무시합니다 (RFC 9112 2.2).</li>
+ * </ul>
+ * 형식 오류는 {@link RejectReason#MALFORMED} 이유의 {@link RequestRejectedException}으로 알립니다.
+ *
+ * <h2>크기 제한</h2>
+ * 시작 줄 길이, 헤더 수, head 전체 크기는 {@link RequestLimits}로 제한합니다. 헤더 수는 헤더를 추가할 때,
+ * 길이는 head가 완성되거나 바이트가 더 필요해 반환할 때 확인하므로, 한도를 넘는 head는 끝까지 기다리지 않고 거부됩니다.
+ *
+ * @author jungbin97
+ * @see NioHttpRequestParser
+ * @see BioHttpRequestParser
+ */
+public final class HttpRequestHeadParser {
+    /**
+     * 기본 head 최대 크기. 커넥션 읽기 버퍼 크기와 같습니다.
+     */
+    public static final int DEFAULT_MAX_HEAD_SIZE = RequestLimits.DEFAULT_MAX_HEAD_SIZE;
+
+    private static final byte SP = ' ';
+    private static final byte HT = '\t';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte COLON = ':';
+
+    // RFC 9110 5.6.2 token 문자
+    private static final boolean[] TCHAR = new boolean[256];
+
+    static {
+        for (int c = '0'; c <= '9'; c++) TCHAR[c] = true;
+        for (int c = 'A'; c <= 'Z'; c++) TCHAR[c] = true;
+        for (int c = 'a'; c <= 'z'; c++) TCHAR[c] = true;
+        for (char c : "!#$%&'*+-.^_`|~".toCharArray()) TCHAR[c] = true;
+    }
+
+    private enum State {
+        REQUEST_LINE_START,
+        METHOD,
+        TARGET,
+        VERSION,
+        HEADER_LINE_START,
+        HEADERS_END,
+        HEADER_NAME,
+        HEADER_VALUE
+    }
+
+    private State state = State.REQUEST_LINE_START;
+    // 아래 위치는 모두 호출 시점 버퍼 position 기준의 상대 위치
+    private int pos;
+    private int start;
+    private int lineStart;
+    private int nameEnd;
+    private final int[] requestLine = new int[5];
+    private int[] headers = new int[RawRequestHead.HEADER_FIELDS * 16];
+    private int headerCount;
+    private boolean bigEndian;
+    private final RequestLimits limits;
+
+    /**
+     * 기본 한도로 파서를 생성합니다.
+     */
+    public HttpRequestHeadParser() {
+        this(new RequestLimits());
+    }
+
+    /**
+     * @param limits 시작 줄 길이, 헤더 수, head 크기의 한도
+     */
+    public HttpRequestHeadParser(RequestLimits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * 버퍼의 position부터 limit까지의 바이트로 파싱을 진행합니다.
+     *
+     * @param buffer 읽기 모드(flip)의 버퍼. position은 head의 첫 바이트(또는 요청 앞의 빈 줄)여야 합니다.
+     * @return head가 완성되면 그 내용, 아직 바이트가 더 필요하면 {@code null}
+     * @throws RequestRejectedException 요청 형식이 잘못되었거나 {@link RequestLimits}의 한도를 넘은 경우
+     */
+    public RawRequestHead parse(ByteBuffer buffer) throws RequestRejectedException {
+        int base = buffer.position();
+        int limit = buffer.limit() - base;
+
+        bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+
+        while (pos < limit) {
+            switch (state) {
+                case REQUEST_LINE_START -> {
+                    byte b = buffer.get(base + pos);
+                    if (b == CR || b == LF) {
+                        start = ++pos; // 요청 앞의 빈 줄
+                    } else {
+                        state = State.METHOD;
+                    }
+                }
+                case METHOD -> {
+                    byte b = buffer.get(base + pos);
+                    if (b == SP && pos > start) {
+                        requestLine[0] = pos - start;
+                        requestLine[1] = ++pos - start;
+                        state = State.TARGET;
+                    } else if (TCHAR[b & 0xFF]) {
+                        pos++;
+                    } else {
+                        throw invalidStartLine();
+                    }
+                }
+                case TARGET -> {
+                    pos = skipTarget(buffer, base + pos, base + limit) - base;
+                    if (pos == limit) {
+                        continue;
+                    }
+                    byte b = buffer.get(base + pos);
+                    if (b == SP && pos - start > requestLine[1]) {
+                        requestLine[2] = pos - start;
+                        requestLine[3] = ++pos - start;
+                        state = State.VERSION;
+                    } else if ((b & 0xFF) > SP && b != 0x7F) {
+                        pos++;
+                    } else {
+                        throw invalidStartLine();
+                    }
+                }
+                case VERSION -> {
+                    if (buffer.get(base + pos) == LF) {
+                        int end = pos - start;
+                        if (end > requestLine[3] && buffer.get(base + pos - 1) == CR) {
+                            end--;
+                        }
+                        requestLine[4] = end;
+                        if (end > limits.getMaxRequestLineSize()) {
+                            throw requestLineTooLong();
+                        }
+                        checkVersion(buffer, base + start);
+                        pos++;
+                        state = State.HEADER_LINE_START;
+                    } else {
+                        pos++;
+                    }
+                }
+                case HEADER_LINE_START -> {
+                    byte b = buffer.get(base + pos);
+                    if (b == CR) {
+                        pos++;
+                        state = State.HEADERS_END;
+                    } else if (b == LF) {
+                        return complete(buffer, base, ++pos);
+                    } else {
+                        lineStart = pos;
+                        state = State.HEADER_NAME;
+                    }
+                }
+                case HEADERS_END -> {
+                    if (buffer.get(base + pos) != LF) {
+                        throw malformed("Invalid end of request headers");
+                    }
+                    return complete(buffer, base, ++pos);
+                }
+                case HEADER_NAME -> {
+                    pos = skipHeaderName(buffer, base + pos, base + limit) - base;
+                    if (pos == limit) {
+                        continue;
+                    }
+                    byte b = buffer.get(base + pos);
+                    if (b == COLON && pos > lineStart) {
+                        nameEnd = pos++;
+                        state = State.HEADER_VALUE;
+                    } else if ((b & 0xFF) > SP && (b & 0xFF) < 0x7F) {
+                        pos++;
+                    } else {
+                        throw malformed("Invalid header name in line starting at offset " + (lineStart - start));
+                    }
+                }
+                case HEADER_VALUE -> {
+                    pos = skipHeaderValue(buffer, base + pos, base + limit) - base;
+                    if (pos == limit) {
+                        continue;
+                    }
+                    if (buffer.get(base + pos) == LF) {
+                        addHeader(buffer, base);
+                        pos++;
+                        state = State.HEADER_LINE_START;
+                    } else {
+                        pos++;
+                    }
+                }
+            }
+        }
+        checkSize(pos - start);
+        return null;
+    }
+
+    /**
+     * 버퍼가 가득 찼는데도 head가 끝나지 않았을 때, 읽고 있던 부분에 맞는 거부 이유로 예외를 만듭니다.
+     *
+     * @param capacity head를 담을 수 있는 버퍼 크기
+     */
+    RequestRejectedException headTooLarge(int capacity) {
+        if (isReadingRequestLine()) {
+            return requestLineTooLong();
+        }
+        return new RequestRejectedException(RejectReason.HEAD_TOO_LARGE, "Request header too large (max " + capacity + " bytes)");
+    }
+
+    /**
+     * @return 요청 앞의 빈 줄이 아닌 바이트를 하나라도 읽었으면 {@code true}
+     */
+    public boolean hasStarted() {
+        return state != State.REQUEST_LINE_START;
+    }
+
+    /**
+     * 진행 중인 파싱을 버리고 다음 요청을 처음부터 파싱할 수 있도록 초기화합니다.
+     * head를 반환할 때는 자동으로 초기화되며, 형식 오류 이후에 파서를 재사용하려면 호출해야 합니다.
+     */
+    public void reset() {
+        state = State.REQUEST_LINE_START;
+        pos = 0;
+        start = 0;
+        lineStart = 0;
+        nameEnd = 0;
+        headerCount = 0;
+    }
+
+    /*
+     * 구분자 검색은 8바이트를 한 번에 읽어(getLong) 비트 연산으로 처리한다 (SWAR, SIMD within a register).
+     * 아래 마스크는 조건을 만족하는 바이트의 최상위 비트(0x80)만 켜며, 바이트 사이에 올림/빌림이 전파되지 않으므로
+     * 첫 번째로 켜진 비트가 곧 첫 번째로 조건을 만족하는 바이트이다. 8바이트가 남지 않은 끝부분은 호출한 쪽에서 한 바이트씩 처리한다.
+     */
+
+    private static final long LOW_7_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    /**
+     * 요청 대상에 허용되는 바이트를 건너뛰고, 공백/제어 문자({@code < 0x21})나 DEL의 위치를 반환합니다.
+     */
+    private int skipTarget(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        while (i + Long.BYTES <= to) {
+            long word = buffer.getLong(i);
+            long found = lessThan(word, SP + 1) | equalTo(word, 0x7F);
+            if (found != 0) {
+                return i + firstByte(found);
+            }
+            i += Long.BYTES;
+        }
+        return i;
+    }
+
+    /**
+     * 헤더 이름에 허용되는 바이트를 건너뛰고, 콜론이나 허용되지 않는 바이트(공백, 제어 문자, DEL, non-ASCII)의 위치를 반환합니다.
+     */
+    private int skipHeaderName(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        while (i + Long.BYTES <= to) {
+            long word = buffer.getLong(i);
+            long found = equalTo(word, COLON) | lessThan(word, SP + 1) | equalTo(word, 0x7F) | (word & HIGH_BITS);
+            if (found != 0) {
+                return i + firstByte(found);
+            }
+            i += Long.BYTES;
+        }
+        return i;
+    }
+
+    /**
+     * 헤더 값을 건너뛰고 줄 끝(LF)의 위치를 반환합니다.
+     */
+    private int skipHeaderValue(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        while (i + Long.BYTES <= to) {
+            long found = equalTo(buffer.getLong(i), LF);
+            if (found != 0) {
+                return i + firstByte(found);
+            }
+            i += Long.BYTES;
+        }
+        return i;
+    }
+
+    /**
+     * @return {@code value}와 같은 바이트의 최상위 비트만 켠 마스크
+     */
+    static long equalTo(long word, int value) {
+        long x = word ^ (0x0101010101010101L * (value & 0xFF));
+        // 0인 바이트만 최상위 비트가 꺼진 채로 남는다
+        return ~(((x & LOW_7_BITS) + LOW_7_BITS) | x | LOW_7_BITS);
+    }
+
+    /**
+     * @param bound 1 이상 0x80 이하
+     * @return {@code bound}보다 작은 바이트의 최상위 비트만 켠 마스크. 0x80 이상의 바이트는 포함하지 않습니다.
+     */
+    static long lessThan(long word, int bound) {
+        // 최상위 비트가 꺼진 바이트 b에 (0x80 - bound)를 더하면, b >= bound일 때만 최상위 비트가 켜진다
+        return ~(((word & LOW_7_BITS) + 0x0101010101010101L * (0x80 - bound)) | word) & HIGH_BITS;
+    }
+
+    /**
+     * @return 마스크에서 처음 켜진 바이트가 메모리상 몇 번째 바이트인지
+     */
+    private int firstByte(long found) {
+        return (bigEndian ? Long.numberOfLeadingZeros(found) : Long.numberOfTrailingZeros(found)) >>> 3;
+    }
+
+    private void addHeader(ByteBuffer buffer, int base) throws RequestRejectedException {
+        if (headerCount == limits.getMaxHeaderCount()) {
+            throw new RequestRejectedException(RejectReason.TOO_MANY_HEADERS,
+                    "Too many request headers (max " + limits.getMaxHeaderCount() + ")");
+        }
+        // 값 앞뒤의 공백(OWS)과 줄 끝의 CR은 값에 포함하지 않는다
+        int valueStart = nameEnd + 1;
+        int valueEnd = pos;
+        while (valueStart < valueEnd && isWhitespace(buffer.get(base + valueStart))) {
+            valueStart++;
+        }
+        if (valueEnd > valueStart && buffer.get(base + valueEnd - 1) == CR) {
+            valueEnd--;
+        }
+        while (valueEnd > valueStart && isWhitespace(buffer.get(base + valueEnd - 1))) {
+            valueEnd--;
+        }
+
+        int i = headerCount * RawRequestHead.HEADER_FIELDS;
+        if (i + RawRequestHead.HEADER_FIELDS > headers.length) {
+            headers = Arrays.copyOf(headers, headers.length * 2);
+        }
+        HttpHeader known = HttpHeader.lookup(buffer, base + lineStart, base + nameEnd);
+        headers[i] = lineStart - start;
+        headers[i + 1] = nameEnd - start;
+        headers[i + 2] = valueStart - start;
+        headers[i + 3] = valueEnd - start;
+        headers[i + 4] = known == null ? -1 : known.ordinal();
+        headerCount++;
+    }
+
+    private RawRequestHead complete(ByteBuffer buffer, int base, int end) throws RequestRejectedException {
+        checkSize(end - start);
+        byte[] bytes = new byte[end - start];
+        buffer.get(base + start, bytes);
+        buffer.position(base + end);
+        RawRequestHead head = new RawRequestHead(bytes, requestLine.clone(),
+                Arrays.copyOf(headers, headerCount * RawRequestHead.HEADER_FIELDS), headerCount);
+        reset();
+        return head;
+    }
+
+    /**
+     * 버전이 {@code HTTP/DIGIT.DIGIT} 형식인지 확인합니다.
+     */
+    private void checkVersion(ByteBuffer buffer, int offset) throws RequestRejectedException {
+        int from = offset + requestLine[3];
+        if (requestLine[4] - requestLine[3] != 8
+                || buffer.get(from) != 'H' || buffer.get(from + 1) != 'T' || buffer.get(from + 2) != 'T'
+                || buffer.get(from + 3) != 'P' || buffer.get(from + 4) != '/' || !isDigit(buffer.get(from + 5))
+                || buffer.get(from + 6) != '.' || !isDigit(buffer.get(from + 7))) {
+            throw invalidStartLine();
+        }
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == SP || b == HT;
+    }
+
+    /**
+     * @param read 지금까지 읽은 head의 바이트 수 (요청 앞의 빈 줄 제외)
+     */
+    private void checkSize(int read) throws RequestRejectedException {
+        if (isReadingRequestLine() && read > limits.getMaxRequestLineSize()) {
+            throw requestLineTooLong();
+        }
+        if (read > limits.getMaxHeadSize()) {
+            throw new RequestRejectedException(RejectReason.HEAD_TOO_LARGE,
+                    "Request header too large (max " + limits.getMaxHeadSize() + " bytes)");
+        }
+    }
+
+    private boolean isReadingRequestLine() {
+        return state == State.METHOD || state == State.TARGET || state == State.VERSION;
+    }
+
+    private RequestRejectedException requestLineTooLong() {
+        return new RequestRejectedException(RejectReason.REQUEST_LINE_TOO_LONG,
+                "Request line too long (max " + limits.getMaxRequestLineSize() + " bytes)");
+    }
+
+    private static RequestRejectedException malformed(String message) {
+        return new RequestRejectedException(RejectReason.MALFORMED, message);
+    }
+
+    private static RequestRejectedException invalidStartLine() {
+        return malformed("Invalid request start line");
+    }
+}
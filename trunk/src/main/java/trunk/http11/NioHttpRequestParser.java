@@ -2,58 +2,104 @@ package trunk.http11;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import trunk.http11.request.ContinueSender;
+import trunk.http11.request.HttpHeader;
 import trunk.http11.request.HttpRequest;
 import trunk.http11.request.HttpRequestBody;
-import trunk.http11.request.HttpRequestHeader;
-import trunk.http11.request.HttpRequestStartLine;
-import trunk.util.HttpRequestUtils;
+import trunk.http11.request.RawRequestHead;
+import trunk.http11.request.RejectReason;
+import trunk.http11.request.RequestLimits;
+import trunk.http11.request.RequestRejectedException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 /**
  * 논블로킹(Non-blocking) 방식으로 들어오는 HTTP 요청을 파싱하는 상태 기반(stateful) 파서입니다.
  * <p>
  * 이 클래스는 요청 데이터가 여러 개의 {@link ByteBuffer} 조각으로 나뉘어 도착하는 NIO 환경의
  * 특성을 처리하기 위해, 내부적으로 파싱의 진행 상태를 계속 유지합니다.
+ * 시작 줄과 헤더는 {@link HttpRequestHeadParser}가 버퍼의 바이트 위에서 직접 파싱하며, head가 완성될 때까지
+ * 버퍼에서 소비하지 않습니다. 따라서 head는 커넥션 읽기 버퍼 크기를 넘을 수 없습니다.
  * {@link trunk.connector.nio.Http11NioProcessor}에 의해 반복적으로 호출되며,
  * 완전한 HTTP 요청 하나가 파싱될 때까지 상태를 축적합니다.
+ * 요청 하나를 반환하면 상태를 초기화하므로, 한 커넥션에서 같은 인스턴스로 다음 요청을 이어서 파싱할 수 있습니다.
+ * 커넥터가 응답을 마친 요청을 {@link #recycle(HttpRequest)}로 돌려주면, 다음 요청은 새 객체를 만들지 않고 그 객체에 채웁니다.
  *
  * <h2>내부 상태 머신</h2>
  * <ol>
- * <li>{@code START_LINE}: 요청의 시작 줄을 파싱합니다.</li>
- * <li>{@code HEADERS}: 헤더 부분을 파싱합니다.</li>
- * <li>{@code BODY}: Content-Length 만큼의 본문을 파싱합니다.</li>
+ * <li>{@code HEAD}: 요청의 시작 줄과 헤더를 파싱합니다.</li>
+ * <li>{@code BODY}: Content-Length 만큼의 본문을 바이트 배열에 모읍니다.</li>
  * <li>{@code COMPLETE}: 하나의 완전한 요청 파싱이 완료된 상태입니다.</li>
  * </ol>
  *
+ * <h2>스트리밍 본문</h2>
+ * 본문이 {@value #MAX_BUFFERED_BODY_SIZE} 바이트를 넘거나, {@code Transfer-Encoding: chunked}이거나,
+ * {@code Expect: 100-continue} 요청이면 본문을 모으지 않고 헤더 직후에 요청을 반환합니다.
+ * 본문 바이트는 버퍼에 그대로 남겨 두며, 서블릿이 생성자로 전달받은 커넥션 입력 스트림을 통해 직접 읽습니다.
+ *
+ * <h2>크기 제한</h2>
+ * head는 {@link RequestLimits}의 한도와 버퍼 크기 중 작은 쪽을 넘을 수 없으며, {@code Content-Length}가
+ * 본문 한도를 넘으면 본문을 읽기 전에 거부합니다. chunked 본문은 서블릿이 읽는 도중에 확인합니다.
+ * 한도를 넘으면 {@link RequestRejectedException}이 발생합니다.
+ *
  * @author jungbin97
  * @see trunk.connector.nio.Http11NioProcessor
  */
 public class NioHttpRequestParser {
     private static final Logger log = LoggerFactory.getLogger(NioHttpRequestParser.class);
-    private static final String CONTENT_LENGTH = "Content-Length";
-    private static final String CONTENT_TYPE = "Content-Type";
-    private static final String X_WWW_FORM_URLENCODED = "application/x-www-form-urlencoded";
+    private static final String HUNDRED_CONTINUE = "100-continue";
+    static final int MAX_BUFFERED_BODY_SIZE = 64 * 1024;
+    private static final byte[] EMPTY_BODY = new byte[0];
 
     private enum State {
-        START_LINE,
-        HEADERS,
+        HEAD,
         BODY,
         COMPLETE
     }
-    private State state = State.START_LINE;
-
-    private final StringBuilder currentLine = new StringBuilder();
-    private final List<String> headerLines = new ArrayList<>();
-    private String requestLine;
-    private int contentLength = 0;
+    private State state = State.HEAD;
+
+    private final HttpRequestHeadParser headParser;
+    private RawRequestHead head;
+    private long contentLength = 0;
+    private boolean chunked = false;
+    private boolean expectContinue = false;
+    private boolean streamingBody = false;
+    private byte[] body;
     private int bodyRead = 0;
-    private final StringBuilder bodyBuilder = new StringBuilder();
+
+    private final InputStream connectionInput;
+    private final ContinueSender continueSender;
+    private final RequestLimits limits;
+    private HttpRequest recycledRequest;
+
+    /**
+     * 커넥션이 없는 파서를 생성합니다. 모든 본문을 메모리에 모으며, chunked 본문은 처리할 수 없습니다.
+     */
+    public NioHttpRequestParser() {
+        this(null, null);
+    }
+
+    /**
+     * @param connectionInput 스트리밍 본문을 읽을 커넥션 입력 스트림. {@link #parse(ByteBuffer)}에 전달되는 버퍼에 남은 바이트부터 읽어야 합니다.
+     * @param continueSender  {@code Expect: 100-continue} 요청에 중간 응답을 보내는 방법
+     */
+    public NioHttpRequestParser(InputStream connectionInput, ContinueSender continueSender) {
+        this(connectionInput, continueSender, new RequestLimits());
+    }
+
+    /**
+     * @param connectionInput 스트리밍 본문을 읽을 커넥션 입력 스트림
+     * @param continueSender  {@code Expect: 100-continue} 요청에 중간 응답을 보내는 방법
+     * @param limits          요청 크기 한도
+     */
+    public NioHttpRequestParser(InputStream connectionInput, ContinueSender continueSender, RequestLimits limits) {
+        this.connectionInput = connectionInput;
+        this.continueSender = continueSender;
+        this.limits = limits;
+        this.headParser = new HttpRequestHeadParser(limits);
+    }
 
     /**
      * 주어진 {@link ByteBuffer}로부터 데이터를 읽어 파싱을 진행합니다.
@@ -64,104 +110,139 @@ public class NioHttpRequestParser {
      *
      * @param buffer 소켓 채널에서 읽어온 데이터가 담긴 ByteBuffer
      * @return 파싱이 완료된 {@code HttpRequest} 객체, 또는 아직 미완성일 경우 {@code null}
-     * @throws IOException 요청 형식이 잘못된 경우
+     * @throws RequestRejectedException 요청 형식이 잘못되었거나, head가 버퍼보다 크거나, 한도를 넘은 경우
      */
     public HttpRequest parse(ByteBuffer buffer) throws IOException {
-        // buffer 8kb
         buffer.flip();
-        while (buffer.hasRemaining()) {
-            byte b = buffer.get(); // 버퍼에서 바이트 읽기
-            char c = (char) (b & 0xFF); // 바이트를 char로 변환
-            currentLine.append(c);
-
-            if (state == State.START_LINE || state == State.HEADERS) {
-                // 현재 줄이 CRLF로 끝나는지 확인
-                if (currentLine.length() >= 2 && currentLine.charAt(currentLine.length() - 2) == '\r' && currentLine.charAt(currentLine.length() - 1) == '\n') {
-                    String line = currentLine.substring(0, currentLine.length() - 2);
-                    currentLine.setLength(0); // 현재 줄 초기화
-
-                    if (state == State.START_LINE) {
-                        requestLine = line;
-                        state = State.HEADERS;
-                    } else {
-                        if (line.isEmpty()) { // header 끝 도달
-                            extractContentLength();
-                            if (contentLength > 0) {
-                                state = State.BODY; // body 읽기 상태로 전환
-                            } else {
-                                state = State.COMPLETE; // body가 없음, 요청 완료
-                            }
-                        } else {
-                            headerLines.add(line);
-                        }
+        try {
+            if (state == State.HEAD) {
+                head = headParser.parse(buffer);
+                if (head == null) {
+                    if (buffer.remaining() == buffer.capacity()) {
+                        // 버퍼가 가득 찼는데도 head가 끝나지 않음
+                        throw headParser.headTooLarge(buffer.capacity());
                     }
+                    return null; // head 누적 중 (버퍼에 그대로 남겨 둔다)
                 }
-            } else if (state == State.BODY) {
-                bodyBuilder.append(c);
-                bodyRead++;
-                if (bodyRead == contentLength) {
+                onHeadersComplete();
+            }
+            if (state == State.BODY) {
+                // 본문은 남은 길이만큼 한 번에 복사
+                int n = Math.min(buffer.remaining(), body.length - bodyRead);
+                buffer.get(body, bodyRead, n);
+                bodyRead += n;
+                if (bodyRead == body.length) {
                     state = State.COMPLETE; // body 읽기 완료
                 }
             }
+        } finally {
+            // 읽기 모드 에서 쓰기 모드로 전환, 위치 남은 바이트로 설정
+            // 요청이 끝난 뒤의 바이트(스트리밍 본문, 파이프라이닝된 다음 요청)는 버퍼에 그대로 남는다.
+            buffer.compact();
         }
-        buffer.compact();  // 읽기 모드 에서 쓰기 모드로 전환, 위치 남은 바이트로 설정
 
         if (state == State.COMPLETE) {
-            return buildRequest();
+            try {
+                return buildRequest();
+            } finally {
+                reset();
+            }
         }
 
         return null;
     }
 
     /**
-     * 파싱된 헤더 목록에서 Content-Length 값을 추출하여 필드에 저장합니다.
+     * 응답을 마친 요청을 초기화하여 다음 요청에 다시 사용하도록 보관합니다.
+     * 오염 모드({@link Recycling#isPoisonEnabled()})에서는 보관하지 않고, 다음 요청에 새 객체를 만듭니다.
+     *
+     * @param request 이 파서가 반환했고 처리가 모두 끝난 요청
      */
-    private void extractContentLength() {
-        for (String header : headerLines) {
-            if (header.toLowerCase().startsWith(CONTENT_LENGTH.toLowerCase() + ":")) {
-                String value = header.split(":", 2)[1].trim();
-                contentLength = Integer.parseInt(value);
-            }
+    public void recycle(HttpRequest request) {
+        request.recycle();
+        if (!request.isPoisoned()) {
+            recycledRequest = request;
         }
     }
 
     /**
-     * 파싱이 완료된 후, 지금까지 수집된 상태 정보들로 {@link HttpRequest} 객체를 조립합니다.
-     *
-     * @return 완성된 {@code HttpRequest} 객체
-     * @throws IOException 요청 시작 줄 형식이 잘못된 경우
+     * 헤더를 모두 읽은 시점에 본문 전송 방식을 확인하고, 본문을 모을지 스트리밍할지 결정합니다.
      */
-    private HttpRequest buildRequest() throws IOException {
-        String[] tokens = requestLine.split(" ");
-        if (tokens.length != 3) throw new IOException("Invalid request start line");
-
-        HttpRequestStartLine startLine = new HttpRequestStartLine(tokens[0], tokens[1], tokens[2]);
-
-        Map<String, String> headersMap = new HashMap<>();
-        for (String header : headerLines) {
-            int colon = header.indexOf(":");
-            headersMap.put(header.substring(0, colon).trim(), header.substring(colon + 1).trim());
+    private void onHeadersComplete() throws IOException {
+        extractFraming();
+        if (contentLength > limits.getMaxBodySize()) {
+            throw new RequestRejectedException(RejectReason.BODY_TOO_LARGE,
+                    "Request body too large (" + contentLength + " > " + limits.getMaxBodySize() + " bytes)");
         }
-        HttpRequestHeader headers = new HttpRequestHeader(headersMap);
-
-        // Query 파라미터 병합
-        Map<String, String> queryParameters = new HashMap<>();
-        int idx = startLine.getRequestUri().indexOf('?');
-        if (idx != -1) {
-            String query = startLine.getRequestUri().substring(idx + 1);
-            queryParameters.putAll(HttpRequestUtils.parseQueryString(query));
+        boolean hasBody = chunked || contentLength > 0;
+        if (!hasBody) {
+            state = State.COMPLETE; // body가 없음, 요청 완료
+            return;
         }
 
-        // Body 파라미터 병합 (application/x-www-form-urlencoded 일 경우)
-        String body = bodyBuilder.toString();
-        if (headersMap.containsKey(CONTENT_TYPE)
-                && headersMap.get(CONTENT_TYPE).equalsIgnoreCase(X_WWW_FORM_URLENCODED)) {
-            queryParameters.putAll(HttpRequestUtils.parseQueryString(body));
+        if (connectionInput != null && (chunked || expectContinue || contentLength > MAX_BUFFERED_BODY_SIZE)) {
+            streamingBody = true;
+            state = State.COMPLETE; // 본문은 서블릿이 커넥션에서 직접 읽는다
+            return;
         }
+        if (chunked) {
+            throw new IOException("Chunked request body requires a connection input");
+        }
+
+        body = new byte[Math.toIntExact(contentLength)];
+        state = State.BODY; // body 읽기 상태로 전환
+    }
+
+    /**
+     * head에서 Content-Length, Transfer-Encoding, Expect 값을 추출하여 필드에 저장합니다.
+     * 헤더 이름은 바이트 단위로 비교하므로 헤더마다 문자열을 만들지 않습니다.
+     *
+     * @throws RequestRejectedException 본문 길이를 모호하게 만드는 헤더 조합인 경우 ({@link RawRequestHead#isChunked()})
+     */
+    private void extractFraming() throws IOException {
+        chunked = head.isChunked();
+        contentLength = chunked ? 0 : Math.max(0, head.getContentLength());
+        // 100-continue는 HTTP/1.1 요청에서만 의미가 있다
+        expectContinue = HUNDRED_CONTINUE.equalsIgnoreCase(head.getHeader(HttpHeader.EXPECT))
+                && "HTTP/1.1".equals(head.getHttpVersion());
+    }
 
-        HttpRequestBody requestBody = new HttpRequestBody(body);
+    /**
+     * 다음 요청을 파싱할 수 있도록 상태를 초기화합니다.
+     */
+    private void reset() {
+        state = State.HEAD;
+        head = null;
+        contentLength = 0;
+        chunked = false;
+        expectContinue = false;
+        streamingBody = false;
+        body = null;
+        bodyRead = 0;
+    }
+
+    /**
+     * 파싱이 완료된 후, 지금까지 수집된 상태 정보들로 {@link HttpRequest} 객체를 조립합니다.
+     *
+     * @return 완성된 {@code HttpRequest} 객체
+     */
+    private HttpRequest buildRequest() {
+        HttpRequest request = recycledRequest != null ? recycledRequest : new HttpRequest();
+        recycledRequest = null;
+        request.setHead(head);
+        request.setMaxParameterCount(limits.getMaxParameterCount());
+
+        // 쿼리/폼 파라미터와 쿠키는 HttpRequest가 처음 조회될 때 파싱한다
+        HttpRequestBody requestBody = request.getBody();
+        if (streamingBody) {
+            requestBody.setStreaming(connectionInput, chunked, contentLength,
+                    expectContinue ? continueSender : null, limits.getMaxBodySize());
+            log.debug("Parsed request: {} (streaming body)", request.getStartLine());
+            return request;
+        }
 
-        log.info("Parsed request: {}", startLine);
-        return new HttpRequest(startLine, headers, requestBody, queryParameters);
+        requestBody.setBytes(body != null ? body : EMPTY_BODY);
+        log.debug("Parsed request: {}", request.getStartLine());
+        return request;
     }
 }
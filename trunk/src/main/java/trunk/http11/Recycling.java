@@ -0,0 +1,37 @@
+package trunk.http11;
+
+/**
+ * 커넥션이 요청마다 다시 쓰는 요청/응답 객체의 재사용 설정입니다.
+ * <p>
+ * 커넥터는 응답을 마친 {@link trunk.http11.request.HttpRequest}와 {@link trunk.http11.response.HttpResponse}를
+ * {@code recycle()}로 초기화하여 같은 커넥션의 다음 요청에 다시 사용합니다. 서블릿이 응답이 끝난 뒤에도 객체를 붙잡고
+ * 사용하면(비동기 작업이 {@code complete()} 뒤에 응답을 쓰는 경우 등) 다른 요청의 데이터를 읽거나 덮어쓰게 됩니다.
+ * <p>
+ * 오염(poison) 모드를 켜면 재사용된 객체는 다시 쓰이지 않고 표시만 남으며, 이후의 호출은 {@link IllegalStateException}으로
+ * 실패합니다. 커넥터는 다음 요청에 새 객체를 만듭니다. 재사용 이후의 잘못된 사용을 찾기 위한 디버그 설정이며,
+ * 시스템 프로퍼티 {@value #POISON_PROPERTY}로 켤 수 있습니다.
+ *
+ * @author jungbin97
+ * @see trunk.http11.request.HttpRequest#recycle()
+ * @see trunk.http11.response.HttpResponse#recycle()
+ */
+public final class Recycling {
+    public static final String POISON_PROPERTY = "elephant.recycle.poison";
+
+    private static volatile boolean poison = Boolean.getBoolean(POISON_PROPERTY);
+
+    private Recycling() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return 재사용한 객체를 오염시켜 이후의 사용을 실패시키면 {@code true}
+     */
+    public static boolean isPoisonEnabled() {
+        return poison;
+    }
+
+    public static void setPoisonEnabled(boolean poison) {
+        Recycling.poison = poison;
+    }
+}
@@ -0,0 +1,69 @@
+package trunk.http11.async;
+
+import trunk.http11.request.HttpRequest;
+import trunk.http11.response.HttpResponse;
+
+import java.io.IOException;
+
+/**
+ * {@link HttpRequest#startAsync()}로 시작된 비동기 요청 처리의 실행 맥락입니다.
+ * <p>
+ * 서블릿이 {@code startAsync()}를 호출한 뒤 {@code service}에서 반환하면, 커넥터는 응답을 보내지 않고 워커 스레드만
+ * 반환합니다. 이후 어느 스레드에서든 응답을 채운 뒤 {@link #complete()}를 호출하면 그 시점에 응답이 전송됩니다.
+ * 스트리밍 응답({@link HttpResponse#getChunkedOutputStream()})을 사용하면 {@code complete()} 전에도 본문을 보낼 수 있습니다.
+ * <p>
+ * {@link #setTimeout(long)}의 시간 안에 완료되지 않으면 리스너의 {@link AsyncListener#onTimeout(AsyncContext)}이 호출되고,
+ * 리스너가 완료하지 않으면 커넥터가 {@code 500} 응답으로 완료합니다.
+ * <p>
+ * {@link #getInputStream()}과 {@link #getOutputStream()}은 {@link ReadListener}/{@link WriteListener} 기반의
+ * 비차단 I/O를 제공합니다. 업로드나 응답 생성 중에 느린 클라이언트를 기다리느라 워커 스레드가 대기하지 않습니다.
+ *
+ * @author jungbin97
+ * @see AsyncListener
+ * @see HttpRequest#startAsync()
+ */
+public interface AsyncContext {
+    long DEFAULT_TIMEOUT_MILLIS = 30_000;
+
+    HttpRequest getRequest();
+
+    HttpResponse getResponse();
+
+    /**
+     * 응답을 완료하고 커넥션으로 전송합니다. 두 번째 호출부터는 아무 일도 하지 않습니다.
+     */
+    void complete();
+
+    /**
+     * @return {@link #complete()}가 호출되었으면 {@code true}
+     */
+    boolean isCompleted();
+
+    /**
+     * 비동기 처리의 제한 시간을 설정합니다. 서블릿이 {@code service}에서 반환한 시점부터 측정합니다.
+     *
+     * @param timeoutMillis 제한 시간(밀리초). {@code 0} 이하면 제한 없음
+     */
+    void setTimeout(long timeoutMillis);
+
+    long getTimeout();
+
+    void addListener(AsyncListener listener);
+
+    /**
+     * 컨테이너의 워커 스레드 풀에서 작업을 실행합니다.
+     */
+    void start(Runnable task);
+
+    /**
+     * @return 요청 본문을 비차단 방식으로 읽는 스트림. 여러 번 호출해도 같은 스트림을 반환합니다.
+     */
+    AsyncInputStream getInputStream();
+
+    /**
+     * @return 응답 본문을 비차단 방식으로 쓰는 스트림. 여러 번 호출해도 같은 스트림을 반환합니다.
+     * @throws IllegalStateException 응답이 이미 블로킹 스트리밍으로 커밋된 경우
+     * @throws IOException            응답 헤더 전송에 실패한 경우
+     */
+    AsyncOutputStream getOutputStream() throws IOException;
+}
@@ -0,0 +1,32 @@
+package trunk.http11.async;
+
+import java.io.InputStream;
+
+/**
+ * 비차단 읽기를 지원하는 요청 본문 스트림입니다. {@link AsyncContext#getInputStream()}으로 얻습니다.
+ * <p>
+ * {@link #isReady()}가 {@code true}를 반환한 직후의 {@code read} 호출은 블로킹하지 않습니다.
+ * {@code false}를 반환하면 커넥터가 커넥션의 읽기 이벤트를 기다렸다가 {@link ReadListener#onDataAvailable()}을 호출합니다.
+ * 따라서 느린 업로드를 처리하는 동안에도 워커 스레드가 소켓에서 대기하지 않습니다.
+ *
+ * @author jungbin97
+ * @see ReadListener
+ */
+public abstract class AsyncInputStream extends InputStream {
+    /**
+     * @return 블로킹 없이 읽을 수 있으면 {@code true}. {@code false}를 반환했다면 데이터가 도착했을 때 리스너가 호출됩니다.
+     */
+    public abstract boolean isReady();
+
+    /**
+     * @return 본문을 끝까지 읽었으면 {@code true}
+     */
+    public abstract boolean isFinished();
+
+    /**
+     * 읽기 리스너를 등록하고 비차단 읽기를 시작합니다. 한 번만 등록할 수 있습니다.
+     *
+     * @throws IllegalStateException 이미 리스너가 등록된 경우
+     */
+    public abstract void setReadListener(ReadListener listener);
+}
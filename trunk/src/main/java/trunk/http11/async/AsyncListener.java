@@ -0,0 +1,23 @@
+package trunk.http11.async;
+
+/**
+ * 비동기 요청 처리의 완료, 타임아웃 이벤트를 받는 리스너입니다.
+ *
+ * @author jungbin97
+ * @see AsyncContext#addListener(AsyncListener)
+ */
+public interface AsyncListener {
+
+    /**
+     * 응답이 완료되어 전송되기 직전에 호출됩니다.
+     */
+    default void onComplete(AsyncContext context) {
+    }
+
+    /**
+     * 제한 시간 안에 완료되지 않았을 때 워커 스레드에서 호출됩니다. 리스너가 응답을 채우고 {@link AsyncContext#complete()}를
+     * 호출할 수 있습니다.
+     */
+    default void onTimeout(AsyncContext context) {
+    }
+}
@@ -0,0 +1,35 @@
+package trunk.http11.async;
+
+import java.io.OutputStream;
+
+/**
+ * 비차단 쓰기를 지원하는 응답 본문 스트림입니다. {@link AsyncContext#getOutputStream()}으로 얻습니다.
+ * <p>
+ * 처음 쓸 때 응답이 {@code Transfer-Encoding: chunked}로 커밋됩니다. {@link #isReady()}가 {@code true}를 반환한 직후의
+ * 쓰기는 커넥션의 송신 속도와 무관하게 즉시 반환합니다. {@code false}를 반환하면 아직 전송되지 않은 데이터가 빠질 때까지
+ * 기다렸다가 {@link WriteListener#onWritePossible()}이 호출됩니다.
+ *
+ * @author jungbin97
+ * @see WriteListener
+ */
+public abstract class AsyncOutputStream extends OutputStream {
+    /**
+     * @return 블로킹 없이 쓸 수 있으면 {@code true}. {@code false}를 반환했다면 쓸 수 있게 되었을 때 리스너가 호출됩니다.
+     */
+    public abstract boolean isReady();
+
+    /**
+     * 아직 커넥션으로 전송되지 않고 대기 중인 쓰기 작업 수를 반환합니다. {@link #isReady()}와 달리 리스너를 등록하지 않으므로,
+     * 기다리는 대신 한도를 넘은 클라이언트를 끊으려는 생산자가 자신의 한도로 확인할 때 사용합니다.
+     *
+     * @return 대기 중인 쓰기 작업 수
+     */
+    public abstract int getPendingWrites();
+
+    /**
+     * 쓰기 리스너를 등록하고 비차단 쓰기를 시작합니다. 한 번만 등록할 수 있습니다.
+     *
+     * @throws IllegalStateException 이미 리스너가 등록된 경우
+     */
+    public abstract void setWriteListener(WriteListener listener);
+}
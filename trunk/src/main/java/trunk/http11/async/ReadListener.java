@@ -0,0 +1,31 @@
+package trunk.http11.async;
+
+import java.io.IOException;
+
+/**
+ * 비차단 방식으로 요청 본문을 읽기 위한 콜백입니다.
+ * <p>
+ * {@link AsyncInputStream#setReadListener(ReadListener)}로 등록하면, 커넥션에 읽을 데이터가 도착할 때마다
+ * 워커 스레드에서 {@link #onDataAvailable()}이 호출됩니다. 콜백은 {@link AsyncInputStream#isReady()}가
+ * {@code true}인 동안만 읽어야 하며, {@code false}가 반환되면 즉시 반환해야 합니다. 다음 데이터가 도착하면 다시 호출됩니다.
+ *
+ * @author jungbin97
+ * @see AsyncInputStream
+ */
+public interface ReadListener {
+    /**
+     * 블로킹 없이 읽을 수 있는 데이터가 있을 때 호출됩니다.
+     */
+    void onDataAvailable() throws IOException;
+
+    /**
+     * 본문을 끝까지 읽었을 때 한 번 호출됩니다.
+     */
+    void onAllDataRead() throws IOException;
+
+    /**
+     * 읽기 중 오류가 발생하거나 커넥션이 닫혔을 때 호출됩니다. 이후 비동기 요청은 커넥터가 완료합니다.
+     */
+    default void onError(Throwable t) {
+    }
+}
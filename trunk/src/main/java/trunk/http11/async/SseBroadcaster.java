@@ -0,0 +1,51 @@
+package trunk.http11.async;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * 여러 {@link SseEmitter}에 같은 이벤트를 보내는 브로드캐스터입니다.
+ * <p>
+ * 이벤트는 한 번만 인코딩하여 모든 이미터에 같은 바이트를 씁니다. 쓰기는 각 이미터의 쓰기 큐에 등록만 하므로
+ * 느린 클라이언트가 있어도 다른 이미터로의 전송이 늦어지지 않습니다. 전송에 실패했거나, 수신을 따라오지 못했거나,
+ * 종료된 이미터는 자동으로 제거됩니다.
+ *
+ * @author jungbin97
+ * @see SseEmitter
+ */
+public class SseBroadcaster {
+    private final Set<SseEmitter> emitters = new CopyOnWriteArraySet<>();
+
+    /**
+     * 이미터를 등록합니다. 이미터의 스트림이 종료되면 자동으로 등록 해제됩니다.
+     */
+    public void register(SseEmitter emitter) {
+        emitters.add(emitter);
+        emitter.onClose(() -> emitters.remove(emitter));
+    }
+
+    /**
+     * 등록된 모든 이미터에 이벤트를 보냅니다.
+     *
+     * @param event 이벤트 이름. {@code null}이면 생략
+     * @param data  이벤트 데이터
+     */
+    public void broadcast(String event, String data) {
+        byte[] encoded = SseEmitter.encode(event, data);
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.write(encoded);
+            } catch (IOException e) {
+                emitters.remove(emitter);
+            }
+        }
+    }
+
+    /**
+     * @return 등록된 이미터 수
+     */
+    public int size() {
+        return emitters.size();
+    }
+}
@@ -0,0 +1,166 @@
+package trunk.http11.async;
+
+import trunk.http11.request.HttpRequest;
+import trunk.http11.response.HttpResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 비동기 요청 위에서 Server-Sent Events({@code text/event-stream}) 응답을 보내는 헬퍼입니다.
+ * <p>
+ * {@link #start(HttpRequest, HttpResponse, long)}로 비동기 처리를 시작하고 스트리밍 응답 헤더를 바로 전송합니다.
+ * 서블릿은 {@code service}에서 반환하고, 이후 어느 스레드에서든 {@link #send(String, String)}로 이벤트를 보낼 수 있습니다.
+ * 이벤트를 기다리는 동안에는 워커 스레드를 점유하지 않습니다.
+ * <p>
+ * 이벤트는 비차단 응답 스트림({@link AsyncContext#getOutputStream()})의 쓰기 큐에 등록만 하므로, 보내는 스레드는
+ * 클라이언트의 수신 속도를 기다리지 않습니다. 아직 전송되지 않은 이벤트가 {@value #MAX_PENDING_EVENTS}개에 이르면(느린 클라이언트)
+ * 큐를 계속 늘리는 대신 이미터를 닫습니다. 전송에 실패한 경우(클라이언트 연결 종료 등)에도 이미터는 닫히고 비동기 요청이 완료됩니다.
+ * 여러 클라이언트에게 같은 이벤트를 보낼 때는 {@link SseBroadcaster}를 사용합니다.
+ *
+ * @author jungbin97
+ * @see AsyncContext
+ * @see SseBroadcaster
+ */
+public class SseEmitter {
+    /**
+     * 클라이언트에게 아직 전송되지 않은 이벤트가 이 수에 이르면 이미터를 닫습니다.
+     * 잠깐 몰려서 보낸 이벤트는 견디면서, 수신하지 않는 클라이언트가 쌓을 수 있는 메모리를 제한합니다.
+     */
+    static final int MAX_PENDING_EVENTS = 64;
+
+    private final AsyncContext asyncContext;
+    private final AsyncOutputStream out;
+    private volatile boolean open = true;
+
+    SseEmitter(AsyncContext asyncContext, AsyncOutputStream out) {
+        this.asyncContext = asyncContext;
+        this.out = out;
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncContext ctx) {
+                open = false;
+            }
+        });
+    }
+
+    /**
+     * 비동기 처리를 시작하고 이벤트 스트림 응답 헤더를 전송합니다.
+     *
+     * @param request       SSE를 요청한 요청
+     * @param response      이벤트를 보낼 응답
+     * @param timeoutMillis 스트림을 유지할 최대 시간(밀리초). {@code 0} 이하면 제한 없음
+     * @return 이벤트를 보낼 이미터
+     * @throws IOException 응답 헤더 전송에 실패한 경우
+     */
+    public static SseEmitter start(HttpRequest request, HttpResponse response, long timeoutMillis) throws IOException {
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(timeoutMillis);
+
+        response.setStatusCode(200);
+        response.setHeader("Content-Type", "text/event-stream; charset=utf-8");
+        response.setHeader("Cache-Control", "no-cache");
+        return new SseEmitter(asyncContext, asyncContext.getOutputStream());
+    }
+
+    /**
+     * 이름 없는 이벤트({@code message})를 보냅니다.
+     */
+    public void send(String data) throws IOException {
+        send(null, data);
+    }
+
+    /**
+     * 이벤트를 보냅니다. 여러 줄의 데이터는 줄마다 {@code data:} 필드로 나뉘어 전송됩니다.
+     *
+     * @param event 이벤트 이름. {@code null}이면 생략
+     * @param data  이벤트 데이터
+     * @throws IOException              이미터가 닫혔거나, 클라이언트가 수신을 따라오지 못하거나, 전송에 실패한 경우
+     * @throws IllegalArgumentException 이벤트 이름에 줄바꿈 문자가 있는 경우
+     */
+    public void send(String event, String data) throws IOException {
+        write(encode(event, data));
+    }
+
+    /**
+     * 클라이언트가 무시하는 주석 줄을 보냅니다. 프록시의 유휴 타임아웃을 막는 하트비트로 사용합니다.
+     *
+     * @throws IllegalArgumentException 주석에 줄바꿈 문자가 있는 경우
+     */
+    public void comment(String comment) throws IOException {
+        write((": " + requireSingleLine(comment, "comment") + "\n\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 이미 인코딩된 이벤트를 보냅니다. {@link SseBroadcaster}가 이벤트를 한 번만 인코딩하기 위해 사용합니다.
+     * <p>
+     * 쓰기 큐가 한도를 넘었으면 기다리지 않고 이미터를 닫습니다. 느린 클라이언트 하나가 보내는 스레드를 붙잡으면
+     * 같은 이벤트를 기다리는 다른 클라이언트까지 늦어지기 때문입니다.
+     */
+    synchronized void write(byte[] encoded) throws IOException {
+        if (!open) {
+            throw new IOException("SSE emitter is closed");
+        }
+        if (out.getPendingWrites() >= MAX_PENDING_EVENTS) {
+            complete();
+            throw new IOException("SSE client is not keeping up with events");
+        }
+        try {
+            out.write(encoded);
+            out.flush();
+        } catch (IOException e) {
+            complete();
+            throw e;
+        }
+    }
+
+    /**
+     * 이벤트 스트림을 종료하고 비동기 요청을 완료합니다. 여러 번 호출해도 안전합니다.
+     */
+    public void complete() {
+        open = false;
+        asyncContext.complete();
+    }
+
+    /**
+     * @return 이벤트를 더 보낼 수 있으면 {@code true}
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * 스트림이 종료(완료, 타임아웃, 전송 실패)될 때 실행할 작업을 등록합니다.
+     */
+    public void onClose(Runnable callback) {
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncContext ctx) {
+                callback.run();
+            }
+        });
+    }
+
+    static byte[] encode(String event, String data) {
+        StringBuilder sb = new StringBuilder();
+        if (event != null) {
+            sb.append("event: ").append(requireSingleLine(event, "event")).append('\n');
+        }
+        // CR, LF, CRLF 모두 줄바꿈으로 취급한다
+        for (String line : data.split("\r\n|\r|\n", -1)) {
+            sb.append("data: ").append(line).append('\n');
+        }
+        sb.append('\n');
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 한 줄로 보내야 하는 필드에 줄바꿈이 있으면, 호출한 쪽이 다른 필드나 이벤트를 끼워 넣을 수 있으므로 거부합니다.
+     */
+    private static String requireSingleLine(String value, String field) {
+        if (value.indexOf('\r') >= 0 || value.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("SSE " + field + " must not contain CR or LF");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,26 @@
+package trunk.http11.async;
+
+import java.io.IOException;
+
+/**
+ * 비차단 방식으로 응답 본문을 쓰기 위한 콜백입니다.
+ * <p>
+ * {@link AsyncOutputStream#setWriteListener(WriteListener)}로 등록하면, 커넥션이 더 쓸 수 있는 상태가 될 때마다
+ * 워커 스레드에서 {@link #onWritePossible()}이 호출됩니다. 콜백은 {@link AsyncOutputStream#isReady()}가
+ * {@code true}인 동안만 써야 하며, {@code false}가 반환되면 즉시 반환해야 합니다.
+ *
+ * @author jungbin97
+ * @see AsyncOutputStream
+ */
+public interface WriteListener {
+    /**
+     * 블로킹 없이 쓸 수 있을 때 호출됩니다.
+     */
+    void onWritePossible() throws IOException;
+
+    /**
+     * 쓰기 중 오류가 발생하거나 커넥션이 닫혔을 때 호출됩니다. 이후 비동기 요청은 커넥터가 완료합니다.
+     */
+    default void onError(Throwable t) {
+    }
+}
@@ -0,0 +1,283 @@
+package trunk.http11.multipart;
+
+import trunk.http11.request.BodySpillBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@code multipart/form-data} 본문을 입력 스트림에서 순차적으로 읽어 {@link Part} 목록으로 분리하는 파서입니다.
+ * <p>
+ * 본문 전체를 메모리에 올리지 않고, 고정 크기({@value #BUFFER_SIZE} 바이트)의 버퍼로 스트림을 훑으며
+ * 경계 구분자({@code CRLF--boundary})를 찾습니다. 구분자 앞의 바이트는 즉시 현재 파트의 {@link BodySpillBuffer}로
+ * 넘기며, 구분자가 버퍼 경계에 걸칠 수 있으므로 구분자 길이 - 1 바이트만 버퍼에 남겨 다음 읽기와 이어 붙입니다.
+ * <p>
+ * 각 파트는 {@code memoryThreshold} 바이트까지만 메모리에 머물고, 그 이상은 수신되는 즉시 임시 파일에 기록됩니다.
+ * 따라서 업로드 크기와 무관하게 메모리 사용량은 버퍼 크기와 파트당 임계값으로 제한됩니다.
+ *
+ * <h2>예외 처리</h2>
+ * 다음과 같은 경우 {@link IOException}을 발생시키며, 그때까지 만든 파트의 임시 파일은 삭제됩니다.
+ * <ul>
+ *     <li>닫는 구분자({@code --boundary--}) 전에 스트림이 끝난 경우</li>
+ *     <li>파트 헤더 형식이 잘못되었거나 너무 큰 경우</li>
+ *     <li>파트 개수가 {@value #MAX_PARTS}개를 넘는 경우</li>
+ * </ul>
+ *
+ * @author jungbin97
+ * @see Part
+ * @see trunk.http11.request.HttpRequest#getParts()
+ */
+public final class MultipartParser {
+    static final int BUFFER_SIZE = 8192;
+    public static final int DEFAULT_MEMORY_THRESHOLD = 16 * 1024;
+    private static final int MAX_PARTS = 100;
+    private static final int MAX_HEADER_LINE = 1024;
+    private static final int MAX_HEADERS = 16;
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final int memoryThreshold;
+    private final byte[] buffer;
+    private int head = 0;
+    private int tail = 0;
+    private boolean eof = false;
+
+    private MultipartParser(InputStream in, String boundary, int memoryThreshold) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.memoryThreshold = memoryThreshold;
+        this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 2)];
+        // 첫 구분자는 CRLF 없이 본문 맨 앞에 올 수 있으므로, 가상의 CRLF를 앞에 붙여 같은 방식으로 찾는다
+        buffer[tail++] = '\r';
+        buffer[tail++] = '\n';
+    }
+
+    /**
+     * {@code Content-Type} 헤더에서 {@code boundary} 파라미터를 추출합니다.
+     *
+     * @return 경계 문자열. {@code multipart/form-data}가 아니거나 boundary가 없으면 {@code null}
+     */
+    public static String extractBoundary(String contentType) {
+        if (contentType == null || !contentType.regionMatches(true, 0, "multipart/form-data", 0, 19)) {
+            return null;
+        }
+        String boundary = parseParameters(contentType).get("boundary");
+        return (boundary == null || boundary.isEmpty()) ? null : boundary;
+    }
+
+    public static List<Part> parse(InputStream in, String boundary) throws IOException {
+        return parse(in, boundary, DEFAULT_MEMORY_THRESHOLD);
+    }
+
+    /**
+     * @param in              multipart 본문 스트림
+     * @param boundary        {@code Content-Type}의 boundary 파라미터
+     * @param memoryThreshold 파트 하나를 메모리에 보관할 최대 바이트 수
+     * @return 본문 순서대로의 파트 목록
+     */
+    public static List<Part> parse(InputStream in, String boundary, int memoryThreshold) throws IOException {
+        return new MultipartParser(in, boundary, memoryThreshold).parseParts();
+    }
+
+    private List<Part> parseParts() throws IOException {
+        List<Part> parts = new ArrayList<>();
+        try {
+            // preamble은 버린다
+            if (!readUntilDelimiter(OutputStream.nullOutputStream())) {
+                throw new IOException("Missing multipart boundary");
+            }
+            while (!isCloseDelimiter()) {
+                if (parts.size() >= MAX_PARTS) {
+                    throw new IOException("Too many multipart parts (max " + MAX_PARTS + ")");
+                }
+                parts.add(readPart());
+            }
+            return parts;
+        } catch (IOException e) {
+            for (Part part : parts) {
+                part.delete();
+            }
+            throw e;
+        }
+    }
+
+    private Part readPart() throws IOException {
+        Map<String, String> headers = readPartHeaders();
+        Map<String, String> disposition = parseParameters(headers.get("content-disposition"));
+
+        BodySpillBuffer content = new BodySpillBuffer(memoryThreshold);
+        try (BodySpillBuffer out = content) {
+            if (!readUntilDelimiter(out)) {
+                throw new IOException("Unexpected end of multipart body");
+            }
+        } catch (IOException e) {
+            content.delete();
+            throw e;
+        }
+        return new Part(headers, disposition.get("name"), disposition.get("filename"), content);
+    }
+
+    /**
+     * 구분자 직후의 나머지 줄을 읽어, 닫는 구분자({@code --})인지 다음 파트가 이어지는지 판단합니다.
+     */
+    private boolean isCloseDelimiter() throws IOException {
+        String rest = readLine();
+        if (rest == null) {
+            throw new IOException("Unexpected end of multipart body");
+        }
+        if (rest.startsWith("--")) {
+            return true;
+        }
+        if (!rest.isBlank()) {
+            throw new IOException("Invalid multipart boundary line");
+        }
+        return false;
+    }
+
+    private Map<String, String> readPartHeaders() throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        String line;
+        while ((line = readLine()) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                throw new IOException("Invalid multipart header: " + line);
+            }
+            if (headers.size() >= MAX_HEADERS) {
+                throw new IOException("Too many multipart headers");
+            }
+            headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+        }
+        if (line == null) {
+            throw new IOException("Unexpected end of multipart headers");
+        }
+        return headers;
+    }
+
+    /**
+     * 다음 구분자까지의 바이트를 {@code out}으로 흘려보내고, 구분자 바로 뒤로 위치를 옮깁니다.
+     *
+     * @return 구분자를 찾았으면 {@code true}, 찾기 전에 스트림이 끝났으면 {@code false}
+     */
+    private boolean readUntilDelimiter(OutputStream out) throws IOException {
+        while (true) {
+            int found = indexOfDelimiter();
+            if (found != -1) {
+                out.write(buffer, head, found - head);
+                head = found + delimiter.length;
+                return true;
+            }
+            if (eof) {
+                return false;
+            }
+            // 구분자가 버퍼 끝에 걸쳐 있을 수 있는 마지막 (구분자 길이 - 1) 바이트만 남기고 내보낸다
+            int safe = tail - (delimiter.length - 1);
+            if (safe > head) {
+                out.write(buffer, head, safe - head);
+                head = safe;
+            }
+            fill();
+        }
+    }
+
+    private int indexOfDelimiter() {
+        int last = tail - delimiter.length;
+        outer:
+        for (int i = head; i <= last; i++) {
+            for (int j = 0; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 버퍼에서 CRLF로 끝나는 한 줄을 읽습니다.
+     *
+     * @return 줄 끝 문자를 제외한 줄. 줄을 끝맺기 전에 스트림이 끝나면 {@code null}
+     */
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            while (head < tail) {
+                byte b = buffer[head++];
+                if (b == '\n') {
+                    int end = line.length() - 1;
+                    if (end >= 0 && line.charAt(end) == '\r') {
+                        line.setLength(end);
+                    }
+                    return line.toString();
+                }
+                if (line.length() >= MAX_HEADER_LINE) {
+                    throw new IOException("Multipart header line too long");
+                }
+                line.append((char) (b & 0xFF));
+            }
+            if (eof) {
+                return null;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * 소비한 앞부분을 버퍼에서 밀어내고, 스트림에서 빈 공간만큼 더 읽어옵니다.
+     */
+    private void fill() throws IOException {
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        int n = in.read(buffer, tail, buffer.length - tail);
+        if (n == -1) {
+            eof = true;
+        } else {
+            tail += n;
+        }
+    }
+
+    /**
+     * {@code value; key1=v1; key2="v 2"} 형식의 헤더 값에서 파라미터를 추출합니다. 키는 소문자로 변환됩니다.
+     */
+    static Map<String, String> parseParameters(String headerValue) {
+        Map<String, String> params = new HashMap<>();
+        if (headerValue == null) {
+            return params;
+        }
+        int i = headerValue.indexOf(';');
+        while (i != -1 && i < headerValue.length()) {
+            int eq = headerValue.indexOf('=', i + 1);
+            if (eq == -1) {
+                break;
+            }
+            String key = headerValue.substring(i + 1, eq).trim().toLowerCase(Locale.ROOT);
+            int start = eq + 1;
+            String value;
+            int next;
+            if (start < headerValue.length() && headerValue.charAt(start) == '"') {
+                int end = headerValue.indexOf('"', start + 1);
+                if (end == -1) {
+                    end = headerValue.length();
+                }
+                value = headerValue.substring(start + 1, end);
+                next = headerValue.indexOf(';', end);
+            } else {
+                next = headerValue.indexOf(';', start);
+                value = headerValue.substring(start, next == -1 ? headerValue.length() : next).trim();
+            }
+            params.put(key, value);
+            i = next;
+        }
+        return params;
+    }
+}
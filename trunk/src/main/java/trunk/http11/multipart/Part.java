@@ -0,0 +1,113 @@
+package trunk.http11.multipart;
+
+import trunk.http11.request.BodySpillBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@code multipart/form-data} 요청 본문의 한 파트(폼 필드 또는 업로드 파일)입니다.
+ * <p>
+ * 파트의 내용은 {@link BodySpillBuffer}에 보관되므로, 작은 필드는 메모리에 남고 큰 파일은 수신되는 동안
+ * 임시 파일에 기록됩니다. 임시 파일은 요청 처리가 끝나면 커넥터가 정리하며, 보존하려면 {@link #write(Path)}로
+ * 다른 위치에 옮겨야 합니다.
+ *
+ * @author jungbin97
+ * @see MultipartParser
+ */
+public class Part {
+    private final Map<String, String> headers;
+    private final String name;
+    private final String submittedFileName;
+    private final BodySpillBuffer content;
+
+    Part(Map<String, String> headers, String name, String submittedFileName, BodySpillBuffer content) {
+        this.headers = headers;
+        this.name = name;
+        this.submittedFileName = submittedFileName;
+        this.content = content;
+    }
+
+    /**
+     * @return {@code Content-Disposition}의 {@code name} 파라미터
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return {@code Content-Disposition}의 {@code filename} 파라미터. 파일이 아닌 폼 필드면 {@code null}
+     */
+    public String getSubmittedFileName() {
+        return submittedFileName;
+    }
+
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    /**
+     * @param name 대소문자를 구분하지 않는 헤더 이름
+     */
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    public long getSize() {
+        return content.size();
+    }
+
+    /**
+     * @return 내용이 임시 파일이 아닌 메모리에 있으면 {@code true}
+     */
+    public boolean isInMemory() {
+        return !content.isSpilled();
+    }
+
+    public InputStream getInputStream() throws IOException {
+        return content.openInputStream();
+    }
+
+    /**
+     * 파트 내용을 문자열로 반환합니다. 폼 필드처럼 작은 파트에 사용합니다.
+     */
+    public String getString(Charset charset) throws IOException {
+        return new String(content.toByteArray(), charset);
+    }
+
+    /**
+     * 파트 내용을 지정한 경로에 저장합니다. 임시 파일에 기록된 파트는 복사하지 않고 파일을 옮깁니다.
+     *
+     * @param target 저장할 경로. 이미 존재하면 덮어씁니다.
+     */
+    public void write(Path target) throws IOException {
+        if (content.isSpilled()) {
+            Files.move(content.getFile(), target, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.write(target, content.toByteArray());
+        }
+    }
+
+    /**
+     * 임시 파일이 있으면 삭제합니다.
+     */
+    public void delete() throws IOException {
+        content.delete();
+    }
+
+    @Override
+    public String toString() {
+        return "Part [name=" + name + ", filename=" + submittedFileName + ", size=" + getSize() + "]";
+    }
+}
@@ -0,0 +1,122 @@
+package trunk.http11.request;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 임계값까지는 메모리에 쌓다가, 임계값을 넘으면 임시 파일로 옮겨(spill) 계속 기록하는 출력 버퍼입니다.
+ * <p>
+ * 대용량 요청 본문을 통째로 힙에 올리지 않기 위해 사용합니다. 임시 파일은 {@link FileChannel}로 기록되며,
+ * 다 쓴 뒤에는 {@link #delete()}로 반드시 정리해야 합니다.
+ *
+ * @author jungbin97
+ * @see HttpRequestBody
+ */
+public class BodySpillBuffer extends OutputStream {
+    private static final String TEMP_FILE_PREFIX = "trunk-body-";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final int threshold;
+    private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+    private Path file;
+    private FileChannel channel;
+    private long size;
+
+    public BodySpillBuffer(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (channel == null && memory != null && memory.size() + len > threshold) {
+            spill();
+        }
+        if (channel != null) {
+            ByteBuffer src = ByteBuffer.wrap(b, off, len);
+            while (src.hasRemaining()) {
+                channel.write(src);
+            }
+        } else {
+            memory.write(b, off, len);
+        }
+        size += len;
+    }
+
+    /**
+     * 메모리에 쌓인 내용을 임시 파일로 옮기고, 이후 기록은 파일로 보냅니다.
+     */
+    private void spill() throws IOException {
+        file = Files.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        channel.write(ByteBuffer.wrap(memory.toByteArray()));
+        memory = null;
+    }
+
+    /**
+     * 기록을 마칩니다. 임시 파일은 닫히기만 하고 삭제되지 않습니다.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.close();
+        }
+    }
+
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return 임시 파일 경로. 메모리에만 기록된 경우 {@code null}
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 기록된 내용을 처음부터 읽는 새 입력 스트림을 반환합니다. {@link #close()} 이후에 호출해야 합니다.
+     */
+    public InputStream openInputStream() throws IOException {
+        if (file != null) {
+            return Files.newInputStream(file);
+        }
+        return new ByteArrayInputStream(memory.toByteArray());
+    }
+
+    /**
+     * 기록된 내용 전체를 배열로 반환합니다. 임시 파일로 옮겨진 경우 파일 전체를 메모리로 읽어들입니다.
+     */
+    public byte[] toByteArray() throws IOException {
+        if (file != null) {
+            return Files.readAllBytes(file);
+        }
+        return memory.toByteArray();
+    }
+
+    /**
+     * 임시 파일이 있으면 삭제합니다. 여러 번 호출해도 안전합니다.
+     */
+    public void delete() throws IOException {
+        close();
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package trunk.http11.request;
+
+import trunk.util.IOUtils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@code Transfer-Encoding: chunked}로 전송된 요청 본문을 디코딩하는 입력 스트림입니다.
+ * <p>
+ * 각 청크({@code 크기(16진수)[;확장] CRLF 데이터 CRLF})의 데이터 부분만 순서대로 반환하며,
+ * 마지막 청크({@code 0 CRLF})와 트레일러 헤더까지 읽은 뒤 {@code -1}을 반환합니다.
+ * 청크 헤더를 읽을 때를 제외하면 데이터를 복사하지 않고 호출자의 배열에 직접 읽어들입니다.
+ * 청크 크기의 합이 최대 본문 크기를 넘으면 그 청크의 데이터를 읽기 전에 {@link RequestRejectedException}을 발생시킵니다.
+ *
+ * @author jungbin97
+ * @see HttpRequestBody
+ */
+public class ChunkedInputStream extends InputStream {
+    private static final int MAX_CHUNK_LINE = 1024;
+    private static final int MAX_TRAILER_LINES = 100;
+
+    private final InputStream in;
+    private final long maxBodySize;
+    private long chunkRemaining = 0;
+    private long received = 0;
+    // 한도를 넘은 뒤에는 남은 바이트를 해석하지 않고 같은 예외를 다시 던진다
+    private RequestRejectedException rejection;
+    private boolean firstChunk = true;
+    private boolean eof = false;
+
+    public ChunkedInputStream(InputStream in) {
+        this(in, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param maxBodySize 디코딩한 본문의 최대 바이트 수
+     */
+    public ChunkedInputStream(InputStream in, long maxBodySize) {
+        this.in = in;
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int n = read(single, 0, 1);
+        return (n == -1) ? -1 : (single[0] & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (rejection != null) {
+            throw rejection;
+        }
+        if (eof) {
+            return -1;
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (chunkRemaining == 0) {
+            nextChunk();
+            if (eof) {
+                return -1;
+            }
+        }
+
+        int n = in.read(b, off, (int) Math.min(len, chunkRemaining));
+        if (n == -1) {
+            throw new EOFException("Unexpected end of stream inside chunk");
+        }
+        chunkRemaining -= n;
+        return n;
+    }
+
+    /**
+     * @return 마지막 청크와 트레일러까지 읽었으면 {@code true}
+     */
+    public boolean isFinished() {
+        return eof;
+    }
+
+    private void nextChunk() throws IOException {
+        if (!firstChunk) {
+            // 이전 청크 데이터 뒤의 CRLF
+            String crlf = IOUtils.readLine(in, MAX_CHUNK_LINE);
+            if (crlf == null || !crlf.isEmpty()) {
+                throw new IOException("Invalid chunked encoding: missing CRLF after chunk data");
+            }
+        }
+        firstChunk = false;
+
+        long size = parseChunkSize(IOUtils.readLine(in, MAX_CHUNK_LINE));
+        if (size > maxBodySize - received) {
+            rejection = new RequestRejectedException(RejectReason.BODY_TOO_LARGE,
+                    "Chunked request body too large (max " + maxBodySize + " bytes)");
+            throw rejection;
+        }
+        received += size;
+        chunkRemaining = size;
+        if (chunkRemaining == 0) {
+            skipTrailers();
+            eof = true;
+        }
+    }
+
+    private long parseChunkSize(String line) throws IOException {
+        if (line == null) {
+            throw new EOFException("Unexpected end of stream: missing chunk size");
+        }
+        int extension = line.indexOf(';');
+        String size = (extension == -1 ? line : line.substring(0, extension)).trim();
+        // Long.parseLong은 부호를 허용하므로, 16진수 숫자만 있는지 먼저 확인한다
+        if (size.isEmpty() || Character.digit(size.charAt(0), 16) < 0) {
+            throw new IOException("Invalid chunk size: " + line);
+        }
+        try {
+            long value = Long.parseLong(size, 16);
+            if (value < 0) {
+                throw new NumberFormatException();
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid chunk size: " + line);
+        }
+    }
+
+    private void skipTrailers() throws IOException {
+        for (int i = 0; i < MAX_TRAILER_LINES; i++) {
+            String trailer = IOUtils.readLine(in, MAX_CHUNK_LINE);
+            if (trailer == null || trailer.isEmpty()) {
+                return;
+            }
+        }
+        throw new IOException("Too many trailer headers");
+    }
+}
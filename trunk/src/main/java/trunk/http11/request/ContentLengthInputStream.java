@@ -0,0 +1,58 @@
+package trunk.http11.request;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 커넥션 입력 스트림에서 {@code Content-Length} 만큼의 본문만 읽도록 제한하는 입력 스트림입니다.
+ * <p>
+ * 본문의 끝에 도달하면 {@code -1}을 반환하여, 같은 커넥션의 다음 요청 바이트를 읽지 않도록 보장합니다.
+ *
+ * @author jungbin97
+ * @see HttpRequestBody
+ */
+public class ContentLengthInputStream extends InputStream {
+    private final InputStream in;
+    private long remaining;
+
+    public ContentLengthInputStream(InputStream in, long contentLength) {
+        this.in = in;
+        this.remaining = contentLength;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int n = read(single, 0, 1);
+        return (n == -1) ? -1 : (single[0] & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+        if (len == 0) {
+            return 0;
+        }
+        int n = in.read(b, off, (int) Math.min(len, remaining));
+        if (n == -1) {
+            throw new EOFException("Unexpected end of stream: " + remaining + " bytes of body missing");
+        }
+        remaining -= n;
+        return n;
+    }
+
+    /**
+     * @return 본문을 모두 읽어 다음 {@code read}가 커넥션을 읽지 않고 {@code -1}을 반환하면 {@code true}
+     */
+    public boolean isFinished() {
+        return remaining <= 0;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(in.available(), remaining);
+    }
+}
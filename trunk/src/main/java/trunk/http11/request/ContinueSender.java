@@ -0,0 +1,16 @@
+package trunk.http11.request;
+
+import java.io.IOException;
+
+/**
+ * {@code Expect: 100-continue} 요청에 대해 중간 응답({@code 100 Continue})을 전송하는 동작을 추상화하는 함수형 인터페이스입니다.
+ * <p>
+ * 전송 방식은 커넥터마다 다르므로(BIO는 출력 스트림에 직접, NIO는 쓰기 큐를 통해) 커넥터가 구현을 제공하고,
+ * {@link ExpectContinueInputStream}이 서블릿이 본문을 처음 읽는 시점에 호출합니다.
+ *
+ * @see ExpectContinueInputStream
+ */
+@FunctionalInterface
+public interface ContinueSender {
+    void sendContinue() throws IOException;
+}
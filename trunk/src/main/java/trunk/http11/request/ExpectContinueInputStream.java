@@ -0,0 +1,57 @@
+package trunk.http11.request;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@code Expect: 100-continue} 요청의 본문 스트림을 감싸, 서블릿이 본문을 실제로 읽기 시작할 때에만
+ * {@code 100 Continue}를 전송하는 입력 스트림입니다.
+ * <p>
+ * 서블릿이 본문을 읽지 않고 응답하면(예: 인증 실패, 용량 초과) 클라이언트는 본문을 보내지 않아도 되므로,
+ * 불필요한 대용량 업로드 전송을 막을 수 있습니다.
+ *
+ * @author jungbin97
+ * @see ContinueSender
+ */
+public class ExpectContinueInputStream extends FilterInputStream {
+    private final ContinueSender continueSender;
+    private boolean continueSent = false;
+
+    public ExpectContinueInputStream(InputStream in, ContinueSender continueSender) {
+        super(in);
+        this.continueSender = continueSender;
+    }
+
+    @Override
+    public int read() throws IOException {
+        sendContinueIfNeeded();
+        return super.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        sendContinueIfNeeded();
+        return super.read(b, off, len);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        sendContinueIfNeeded();
+        return super.skip(n);
+    }
+
+    /**
+     * @return {@code 100 Continue}를 이미 전송했으면 {@code true}
+     */
+    public boolean isContinueSent() {
+        return continueSent;
+    }
+
+    void sendContinueIfNeeded() throws IOException {
+        if (!continueSent) {
+            continueSent = true;
+            continueSender.sendContinue();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package trunk.http11.request;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * 서버가 미리 알고 있는 요청 헤더 이름의 목록입니다.
+ * <p>
+ * 파서는 헤더 이름을 읽는 즉시 바이트를 이 목록과 비교하여 상수의 순번(ordinal)을 기록하고,
+ * {@link RawRequestHead}는 순번마다 고정된 칸에 헤더 위치를 보관합니다. 따라서 알려진 헤더는 문자열을 만들거나
+ * 목록을 훑지 않고 바로 찾을 수 있으며, 이름은 대소문자와 관계없이 일치합니다. 목록에 없는 헤더는 대소문자를 무시하는 비교로 찾습니다.
+ * <p>
+ * 이름 문자열은 상수({@link #getName()})를 그대로 사용합니다. {@code Host}, {@code Accept}처럼 요청마다 같은 값이 반복되는 헤더는
+ * 최근에 만든 값 문자열을 보관해 두고, 바이트가 같으면 새로 만들지 않고 재사용합니다.
+ * 쿠키나 인증 정보처럼 요청마다 다르거나 민감한 값은 보관하지 않습니다.
+ *
+ * @author jungbin97
+ * @see RawRequestHead
+ * @see trunk.http11.HttpRequestHeadParser
+ */
+public enum HttpHeader {
+    HOST("Host", true),
+    CONNECTION("Connection", true),
+    CONTENT_LENGTH("Content-Length", false),
+    CONTENT_TYPE("Content-Type", true),
+    TRANSFER_ENCODING("Transfer-Encoding", true),
+    EXPECT("Expect", true),
+    UPGRADE("Upgrade", true),
+    COOKIE("Cookie", false),
+    AUTHORIZATION("Authorization", false),
+    ACCEPT("Accept", true),
+    ACCEPT_ENCODING("Accept-Encoding", true),
+    ACCEPT_LANGUAGE("Accept-Language", true),
+    USER_AGENT("User-Agent", true),
+    REFERER("Referer", false),
+    ORIGIN("Origin", true),
+    CACHE_CONTROL("Cache-Control", true),
+    PRAGMA("Pragma", true),
+    IF_NONE_MATCH("If-None-Match", false),
+    IF_MODIFIED_SINCE("If-Modified-Since", false),
+    IF_MATCH("If-Match", false),
+    IF_RANGE("If-Range", false),
+    RANGE("Range", false),
+    TE("Te", true),
+    DNT("Dnt", true),
+    UPGRADE_INSECURE_REQUESTS("Upgrade-Insecure-Requests", true),
+    SEC_FETCH_SITE("Sec-Fetch-Site", true),
+    SEC_FETCH_MODE("Sec-Fetch-Mode", true),
+    SEC_FETCH_DEST("Sec-Fetch-Dest", true),
+    SEC_FETCH_USER("Sec-Fetch-User", true),
+    SEC_CH_UA("Sec-Ch-Ua", true),
+    SEC_CH_UA_MOBILE("Sec-Ch-Ua-Mobile", true),
+    SEC_CH_UA_PLATFORM("Sec-Ch-Ua-Platform", true),
+    SEC_WEBSOCKET_KEY("Sec-Websocket-Key", false),
+    SEC_WEBSOCKET_VERSION("Sec-Websocket-Version", true),
+    HTTP2_SETTINGS("Http2-Settings", false);
+
+    private static final int VALUE_CACHE_SIZE = 8; // 2의 거듭제곱
+    private static final int MAX_CACHED_VALUE_LENGTH = 256;
+    private static final HttpHeader[][] BY_LENGTH;
+
+    static {
+        int maxLength = 0;
+        for (HttpHeader header : values()) {
+            maxLength = Math.max(maxLength, header.lowerCase.length);
+        }
+        BY_LENGTH = new HttpHeader[maxLength + 1][];
+        for (HttpHeader header : values()) {
+            HttpHeader[] bucket = BY_LENGTH[header.lowerCase.length];
+            int size = bucket == null ? 0 : bucket.length;
+            HttpHeader[] grown = new HttpHeader[size + 1];
+            if (bucket != null) {
+                System.arraycopy(bucket, 0, grown, 0, size);
+            }
+            grown[size] = header;
+            BY_LENGTH[header.lowerCase.length] = grown;
+        }
+    }
+
+    private final String name;
+    private final byte[] lowerCase;
+    // 여러 스레드가 동시에 갱신할 수 있지만, 문자열은 불변이므로 어긋나도 캐시를 놓칠 뿐이다
+    private final String[] valueCache;
+
+    HttpHeader(String name, boolean cacheValues) {
+        this.name = name;
+        this.lowerCase = name.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII);
+        this.valueCache = cacheValues ? new String[VALUE_CACHE_SIZE] : null;
+    }
+
+    /**
+     * @return {@code Content-Type}처럼 단어의 첫 글자만 대문자인 이름
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 버퍼의 {@code [start, end)} 바이트가 알려진 헤더 이름인지 대소문자를 무시하고 확인합니다.
+     *
+     * @return 일치하는 상수, 없으면 {@code null}
+     */
+    public static HttpHeader lookup(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (length >= BY_LENGTH.length || BY_LENGTH[length] == null) {
+            return null;
+        }
+        for (HttpHeader header : BY_LENGTH[length]) {
+            byte[] expected = header.lowerCase;
+            int i = 0;
+            while (i < length && toLowerCase(buffer.get(start + i)) == expected[i]) {
+                i++;
+            }
+            if (i == length) {
+                return header;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param name 헤더 이름 (대소문자 구분 없음)
+     * @return 일치하는 상수, 없으면 {@code null}
+     */
+    public static HttpHeader lookup(String name) {
+        int length = name.length();
+        if (length >= BY_LENGTH.length || BY_LENGTH[length] == null) {
+            return null;
+        }
+        for (HttpHeader header : BY_LENGTH[length]) {
+            byte[] expected = header.lowerCase;
+            int i = 0;
+            while (i < length && toLowerCase(name.charAt(i)) == expected[i]) {
+                i++;
+            }
+            if (i == length) {
+                return header;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 헤더 값을 문자열로 만듭니다. 값을 보관하는 헤더이면 최근에 만든 같은 값을 재사용합니다.
+     */
+    String value(byte[] bytes, int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return "";
+        }
+        if (valueCache == null || length > MAX_CACHED_VALUE_LENGTH) {
+            return new String(bytes, start, length, StandardCharsets.ISO_8859_1);
+        }
+        int slot = (length ^ bytes[start] ^ (bytes[end - 1] << 3)) & (VALUE_CACHE_SIZE - 1);
+        String cached = valueCache[slot];
+        if (cached != null && matches(cached, bytes, start, length)) {
+            return cached;
+        }
+        String value = new String(bytes, start, length, StandardCharsets.ISO_8859_1);
+        valueCache[slot] = value;
+        return value;
+    }
+
+    private static boolean matches(String value, byte[] bytes, int start, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != (bytes[start + i] & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int toLowerCase(int c) {
+        return (c >= 'A' && c <= 'Z') ? c + ('a' - 'A') : c;
+    }
+}
@@ -1,7 +1,15 @@
 package trunk.http11.request;
 
+/**
+ * 서버가 인식하는 HTTP 요청 메서드입니다.
+ * <p>
+ * 요청 디스패치에는 RFC 9110에 따라 대소문자를 구분하는 {@link #resolve(String)}를 사용합니다.
+ *
+ * @author jungbin97
+ * @see HttpRequestStartLine#getMethod()
+ */
 public enum HttpMethod {
-    GET, POST, PUT, DELETE;
+    GET, HEAD, POST, PUT, DELETE, OPTIONS;
 
     public static HttpMethod of(String method) {
         for (HttpMethod httpMethod : values()) {
@@ -11,4 +19,25 @@ public enum HttpMethod {
         }
         throw new IllegalArgumentException("Invalid HTTP Method : " + method);
     }
+
+    /**
+     * 요청 라인의 메서드 문자열에 해당하는 상수를 찾습니다. 요청마다 호출되므로 예외를 던지지 않습니다.
+     *
+     * @param method 요청 라인의 메서드 문자열
+     * @return 해당 상수. 알 수 없는 메서드면 {@code null}
+     */
+    public static HttpMethod resolve(String method) {
+        if (method == null) {
+            return null;
+        }
+        return switch (method) {
+            case "GET" -> GET;
+            case "HEAD" -> HEAD;
+            case "POST" -> POST;
+            case "PUT" -> PUT;
+            case "DELETE" -> DELETE;
+            case "OPTIONS" -> OPTIONS;
+            default -> null;
+        };
+    }
 }
@@ -1,47 +1,239 @@
 package trunk.http11.request;
 
+import trunk.http11.Recycling;
+import trunk.http11.async.AsyncContext;
+import trunk.http11.multipart.MultipartParser;
+import trunk.http11.multipart.Part;
 import trunk.http11.session.HttpSession;
 import trunk.http11.session.SessionManager;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
+/**
+ * 파싱된 HTTP 요청입니다. 쿼리/폼 파라미터, 쿠키, 세션은 처음 조회될 때 만들어집니다.
+ * <p>
+ * HTTP/1.1 커넥터는 요청 객체와 그 시작 줄, 헤더, 본문을 커넥션마다 하나씩 두고 재사용합니다. 파서는
+ * {@link #setHead(RawRequestHead)}와 {@link #getBody()}로 새 요청의 값을 채우고, 커넥터는 응답을 마친 뒤 {@link #recycle()}로
+ * 초기화합니다. 따라서 서블릿은 응답이 끝난 요청 객체를 보관해서는 안 됩니다.
+ *
+ * @author jungbin97
+ * @see Recycling
+ */
 public class HttpRequest {
+    private static final String X_WWW_FORM_URLENCODED = "application/x-www-form-urlencoded";
+    private static final String UPGRADE = "Upgrade";
+
     private final HttpRequestStartLine startLine;
     private final HttpRequestHeader headers;
     private final HttpRequestBody body;
-    private final Map<String, String> queryParameters;
 
+    // 아래 값은 처음 조회될 때 만들어진다
+    private Parameters parameters;
+    private Map<String, String> queryParameters;
     private HttpCookie cookies;
     private HttpSession session;
     private boolean isNewSession = false;
 
-    public HttpRequest(HttpRequestStartLine startLine, HttpRequestHeader headers, HttpRequestBody body, Map<String, String> queryParameters) {
+    private int maxParameterCount = RequestLimits.DEFAULT_MAX_PARAMETER_COUNT;
+    private Supplier<AsyncContext> asyncContextFactory;
+    private volatile AsyncContext asyncContext;
+    private boolean poisoned;
+
+    /**
+     * 커넥터가 재사용할 빈 요청을 생성합니다. 파서가 {@link #setHead(RawRequestHead)}로 채웁니다.
+     */
+    public HttpRequest() {
+        this(new HttpRequestStartLine(), new HttpRequestHeader(), new HttpRequestBody((byte[]) null));
+    }
+
+    public HttpRequest(HttpRequestStartLine startLine, HttpRequestHeader headers, HttpRequestBody body) {
         this.startLine = startLine;
         this.headers = headers;
         this.body = body;
-        this.queryParameters = queryParameters;
+    }
+
+    /**
+     * 파서가 새 요청의 시작 줄과 헤더를 채웁니다. 이전 요청에서 남은 상태는 모두 지웁니다.
+     * 본문은 {@link #getBody()}로 얻은 객체에 채웁니다.
+     *
+     * @param head 파서가 기록한 요청 head
+     */
+    public void setHead(RawRequestHead head) {
+        checkNotPoisoned();
+        reset();
+        startLine.set(head.getMethod(), head.getRequestTarget(), head.getHttpVersion());
+        headers.setHead(head);
+    }
+
+    /**
+     * 응답을 마친 요청을 초기화합니다. 커넥터가 본문을 {@link HttpRequestBody#release()}로 정리한 뒤에 호출합니다.
+     * <p>
+     * {@link Recycling#isPoisonEnabled()}이면 이 객체는 다시 쓸 수 없게 되며, 이후의 조회는 {@link IllegalStateException}으로 실패합니다.
+     */
+    public void recycle() {
+        reset();
+        startLine.recycle();
+        headers.recycle();
+        poisoned = Recycling.isPoisonEnabled();
+    }
+
+    /**
+     * @return {@link #recycle()} 이후 다시 쓸 수 없도록 표시되었으면 {@code true}
+     */
+    public boolean isPoisoned() {
+        return poisoned;
+    }
+
+    private void reset() {
+        body.recycle();
+        parameters = null;
+        queryParameters = null;
+        cookies = null;
+        session = null;
+        isNewSession = false;
+        maxParameterCount = RequestLimits.DEFAULT_MAX_PARAMETER_COUNT;
+        asyncContextFactory = null;
+        asyncContext = null;
+    }
+
+    private void checkNotPoisoned() {
+        if (poisoned) {
+            throw new IllegalStateException("Request has been recycled; it must not be used after the response is complete");
+        }
     }
 
     public HttpRequestStartLine getStartLine() {
+        checkNotPoisoned();
         return startLine;
     }
 
     public HttpRequestHeader getHeaders() {
+        checkNotPoisoned();
         return headers;
     }
 
     public HttpRequestBody getBody() {
+        checkNotPoisoned();
         return body;
     }
 
+    /**
+     * 본문을 바이트 스트림으로 반환합니다.
+     *
+     * @see HttpRequestBody#getInputStream()
+     */
+    public InputStream getInputStream() {
+        checkNotPoisoned();
+        return body.getInputStream();
+    }
+
+    /**
+     * {@code multipart/form-data} 요청의 파트 목록을 반환합니다. 처음 호출될 때 본문을 파싱합니다.
+     *
+     * @return 파트 목록. multipart 요청이 아니면 빈 목록
+     * @throws IOException 본문이 올바른 multipart 형식이 아닌 경우
+     */
+    public List<Part> getParts() throws IOException {
+        String boundary = MultipartParser.extractBoundary(getHeader(HttpHeader.CONTENT_TYPE));
+        if (boundary == null) {
+            return Collections.emptyList();
+        }
+        return body.getParts(boundary);
+    }
+
+    /**
+     * @param name 파트의 {@code name} 파라미터
+     * @return 이름이 일치하는 첫 번째 파트, 없으면 {@code null}
+     */
+    public Part getPart(String name) throws IOException {
+        for (Part part : getParts()) {
+            if (name.equals(part.getName())) {
+                return part;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 쿼리 스트링과 {@code application/x-www-form-urlencoded} 본문의 파라미터를 반환합니다.
+     * 같은 이름이 여러 번 나오면 첫 번째 값을 담으며, 모든 값은 {@link #getParameterValues(String)}로 조회합니다.
+     * <p>
+     * 처음 호출될 때 파싱하여 요청에 보관합니다. 스트리밍 본문이면 이때 본문을 읽습니다.
+     * 파라미터를 조회하지 않는 요청(정적 파일 등)은 파싱 비용을 내지 않습니다.
+     * 쿼리와 본문을 합해 {@link #setMaxParameterCount(int)}개를 넘는 파라미터는 버립니다.
+     */
     public Map<String, String> getQueryParameters() {
+        if (queryParameters == null) {
+            queryParameters = getParameters().toMap();
+        }
         return queryParameters;
     }
 
+    /**
+     * @param name 파라미터 이름
+     * @return 첫 번째 값, 없으면 {@code null}
+     */
+    public String getParameter(String name) {
+        return getParameters().get(name);
+    }
+
+    /**
+     * @param name 파라미터 이름
+     * @return 쿼리 스트링, 폼 본문 순서의 모든 값. 없으면 빈 배열
+     */
+    public String[] getParameterValues(String name) {
+        return getParameters().getValues(name);
+    }
+
+    private Parameters getParameters() {
+        checkNotPoisoned();
+        if (parameters == null) {
+            Parameters parsed = new Parameters(maxParameterCount);
+            String query = startLine.getRequestTarget().getQuery();
+            if (query != null) {
+                ParameterParser.parse(query, 0, query.length(), '&', parsed);
+            }
+            if (body != null && isFormUrlEncoded()) {
+                byte[] form = body.getBytes();
+                if (form != null) {
+                    ParameterParser.parse(form, 0, form.length, parsed);
+                }
+            }
+            if (parsed.isTruncated()) {
+                RejectReason.TOO_MANY_PARAMETERS.record();
+            }
+            parameters = parsed;
+        }
+        return parameters;
+    }
+
+    /**
+     * 파서가 커넥터의 {@link RequestLimits}에 맞춰 설정합니다.
+     *
+     * @param maxParameterCount 보관할 최대 파라미터 수
+     */
+    public void setMaxParameterCount(int maxParameterCount) {
+        this.maxParameterCount = maxParameterCount;
+    }
+
+    private boolean isFormUrlEncoded() {
+        String contentType = getHeader(HttpHeader.CONTENT_TYPE);
+        return contentType != null && contentType.equalsIgnoreCase(X_WWW_FORM_URLENCODED);
+    }
+
+    /**
+     * @return 요청의 쿠키. 처음 호출될 때 {@code Cookie} 헤더를 파싱합니다.
+     */
     public HttpCookie getCookies() {
+        checkNotPoisoned();
         if (cookies == null) {
-            cookies = new HttpCookie(getHeaders().getHeaders().get("Cookie"));
+            cookies = new HttpCookie(getHeader(HttpHeader.COOKIE));
         }
         return cookies;
     }
@@ -51,6 +243,7 @@ public class HttpRequest {
     }
 
     public HttpSession getSession(boolean create) {
+        checkNotPoisoned();
         if (session == null) {
             String sessionId = getCookies().getCookie("JSESSIONID");
             if (sessionId == null && !create) {
@@ -71,8 +264,107 @@ public class HttpRequest {
         return isNewSession;
     }
 
+    /**
+     * 이름의 대소문자를 구분하지 않고 헤더 값을 조회합니다.
+     *
+     * @param name 헤더 이름
+     * @return 헤더 값, 없으면 {@code null}
+     */
+    public String getHeader(String name) {
+        checkNotPoisoned();
+        return headers.getHeader(name);
+    }
+
+    /**
+     * 미리 등록된 헤더의 값을 이름 비교 없이 조회합니다.
+     *
+     * @param header 헤더 이름
+     * @return 헤더 값, 없으면 {@code null}
+     */
+    public String getHeader(HttpHeader header) {
+        checkNotPoisoned();
+        return headers.getHeader(header);
+    }
+
+    /**
+     * {@code Connection: Upgrade}와 함께 주어진 프로토콜로의 전환을 요청했는지 확인합니다.
+     *
+     * @param protocol {@code Upgrade} 헤더에서 찾을 프로토콜 토큰 (예: {@code h2c})
+     */
+    public boolean isUpgradeRequest(String protocol) {
+        return containsToken(getHeader(HttpHeader.CONNECTION), UPGRADE) && containsToken(getHeader(HttpHeader.UPGRADE), protocol);
+    }
+
+    /**
+     * HTTP/2 커넥션 프리페이스의 요청 줄({@code PRI * HTTP/2.0})인지 확인합니다.
+     */
+    public boolean isHttp2Preface() {
+        return "PRI".equals(startLine.getMethod())
+                && "*".equals(startLine.getRequestUri())
+                && "HTTP/2.0".equals(startLine.getHttpVersion());
+    }
+
+    private static boolean containsToken(String headerValue, String token) {
+        if (headerValue == null) {
+            return false;
+        }
+        for (String value : headerValue.split(",")) {
+            if (value.trim().equalsIgnoreCase(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 비동기 처리를 지원하는 커넥터가 서블릿 실행 전에 {@link AsyncContext}를 만드는 방법을 바인딩합니다.
+     */
+    public void setAsyncContextFactory(Supplier<AsyncContext> asyncContextFactory) {
+        this.asyncContextFactory = asyncContextFactory;
+    }
+
+    /**
+     * 이 요청을 비동기 처리로 전환합니다. 서블릿이 {@code service}에서 반환해도 응답은 전송되지 않으며,
+     * {@link AsyncContext#complete()}가 호출될 때 전송됩니다.
+     *
+     * @return 응답을 완료할 때 사용할 비동기 실행 맥락
+     * @throws IllegalStateException 커넥터가 비동기 처리를 지원하지 않거나 이미 시작된 경우
+     */
+    public AsyncContext startAsync() {
+        checkNotPoisoned();
+        if (asyncContextFactory == null) {
+            throw new IllegalStateException("Async processing is not supported by this connector");
+        }
+        if (asyncContext != null) {
+            throw new IllegalStateException("Async processing has already been started");
+        }
+        asyncContext = asyncContextFactory.get();
+        return asyncContext;
+    }
+
+    public boolean isAsyncStarted() {
+        return asyncContext != null;
+    }
+
+    /**
+     * @return 비동기 처리가 시작되었으면 그 실행 맥락, 아니면 {@code null}
+     */
+    public AsyncContext getAsyncContext() {
+        return asyncContext;
+    }
+
+    /**
+     * HTTP/1.0 클라이언트는 청크 전송을 해석할 수 없으므로(RFC 9112 6.1), 커넥터는 이 값이 {@code false}이면
+     * 응답을 스트리밍하지 않고 본문을 모아 {@code Content-Length}와 함께 보냅니다.
+     *
+     * @return 응답을 {@code Transfer-Encoding: chunked}로 보낼 수 있는 HTTP/1.1 요청이면 {@code true}
+     */
+    public boolean acceptsChunkedResponse() {
+        return "HTTP/1.1".equals(getStartLine().getHttpVersion());
+    }
+
     public boolean isKeepAlive() {
-        String connection = getHeaders().getHeaders().get("Connection");
+        String connection = getHeader(HttpHeader.CONNECTION);
         return connection != null && connection.equalsIgnoreCase("keep-alive");
     }
 
@@ -1,18 +1,278 @@
 package trunk.http11.request;
 
+import trunk.http11.multipart.MultipartParser;
+import trunk.http11.multipart.Part;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * HTTP 요청 본문입니다.
+ * <p>
+ * 본문은 두 가지 형태 중 하나로 존재합니다.
+ * <ul>
+ *     <li><b>버퍼링 본문</b>: 파서가 이미 모두 읽어 둔 작은 본문. 바이트 배열로 보관됩니다.</li>
+ *     <li><b>스트리밍 본문</b>: 크기가 큰 본문, {@code Transfer-Encoding: chunked} 본문,
+ *     {@code Expect: 100-continue} 요청의 본문. 커넥션에서 아직 읽지 않은 상태로 전달되며,
+ *     서블릿이 {@link #getInputStream()}으로 필요한 만큼 점진적으로 읽습니다.</li>
+ * </ul>
+ * 스트리밍 본문에 {@link #getBody()}처럼 전체 내용을 요구하는 API를 호출하면, 남은 본문을
+ * {@link BodySpillBuffer}에 모읍니다. 이때 {@value #SPILL_THRESHOLD} 바이트를 넘는 부분은 임시 파일에 기록됩니다.
+ * <p>
+ * {@code multipart/form-data} 본문은 {@link #getParts(String)}로 파트 단위로 나누어 읽을 수 있습니다.
+ * <p>
+ * 요청 처리가 끝나면 커넥터가 {@link #release()}를 호출하여 읽히지 않은 본문을 버리고 임시 파일(파트 포함)을 정리합니다.
+ * 커넥터가 재사용하는 요청의 본문은 {@link #setBytes(byte[])}나 {@link #setStreaming}으로 다음 요청의 본문을 받습니다.
+ *
+ * @author jungbin97
+ * @see ContentLengthInputStream
+ * @see ChunkedInputStream
+ * @see ExpectContinueInputStream
+ */
 public class HttpRequestBody {
-    private final String body;
+    static final int SPILL_THRESHOLD = 64 * 1024;
+    // 서블릿이 읽지 않은 본문을 keep-alive 유지를 위해 버려 줄 최대 크기. 넘으면 커넥션을 닫는다.
+    private static final long MAX_SWALLOW_SIZE = 2L * 1024 * 1024;
+
+    private byte[] bytes;
+    private InputStream stream;
+    private ExpectContinueInputStream expectation;
+    private BodySpillBuffer spill;
+    private List<Part> parts;
 
     public HttpRequestBody(String body) {
-        this.body = body;
+        this(body == null ? null : body.getBytes(StandardCharsets.ISO_8859_1));
     }
 
-    public String getBody() {
+    public HttpRequestBody(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * 커넥션 입력 스트림에서 아직 읽지 않은 본문을 나타내는 스트리밍 본문을 생성합니다.
+     *
+     * @param connectionInput 요청 헤더 직후부터 읽을 수 있는 커넥션 입력 스트림
+     * @param chunked         {@code Transfer-Encoding: chunked} 여부
+     * @param contentLength   {@code chunked}가 아닐 때의 본문 길이
+     * @param continueSender  {@code Expect: 100-continue} 요청이면 중간 응답 전송 방법, 아니면 {@code null}
+     */
+    public static HttpRequestBody streaming(InputStream connectionInput, boolean chunked, long contentLength,
+                                            ContinueSender continueSender) {
+        return streaming(connectionInput, chunked, contentLength, continueSender, Long.MAX_VALUE);
+    }
+
+    /**
+     * 본문 크기를 제한하는 스트리밍 본문을 생성합니다. {@code Content-Length}는 파서가 미리 확인하므로,
+     * 길이를 알 수 없는 chunked 본문만 읽는 도중에 확인합니다.
+     *
+     * @param maxBodySize chunked 본문의 최대 바이트 수. 넘으면 읽기가 {@link RequestRejectedException}으로 실패합니다.
+     * @see RequestLimits#getMaxBodySize()
+     */
+    public static HttpRequestBody streaming(InputStream connectionInput, boolean chunked, long contentLength,
+                                            ContinueSender continueSender, long maxBodySize) {
+        HttpRequestBody body = new HttpRequestBody((byte[]) null);
+        body.setStreaming(connectionInput, chunked, contentLength, continueSender, maxBodySize);
         return body;
     }
 
+    /**
+     * 이 본문을 파서가 모두 읽어 둔 버퍼링 본문으로 바꿉니다. 이전 요청의 상태는 지웁니다.
+     *
+     * @param bytes 본문 바이트, 본문이 없으면 {@code null}
+     */
+    public void setBytes(byte[] bytes) {
+        recycle();
+        this.bytes = bytes;
+    }
+
+    /**
+     * 이 본문을 커넥션에서 아직 읽지 않은 스트리밍 본문으로 바꿉니다. 이전 요청의 상태는 지웁니다.
+     *
+     * @see #streaming(InputStream, boolean, long, ContinueSender, long)
+     */
+    public void setStreaming(InputStream connectionInput, boolean chunked, long contentLength,
+                             ContinueSender continueSender, long maxBodySize) {
+        recycle();
+        InputStream in = connectionInput;
+        if (continueSender != null) {
+            expectation = new ExpectContinueInputStream(in, continueSender);
+            in = expectation;
+        }
+        stream = chunked ? new ChunkedInputStream(in, maxBodySize) : new ContentLengthInputStream(in, contentLength);
+    }
+
+    /**
+     * @return 본문이 아직 커넥션에 남아 있는 스트리밍 본문이면 {@code true}
+     */
+    public boolean isStreaming() {
+        return stream != null;
+    }
+
+    /**
+     * @return 스트리밍 본문을 커넥션에서 모두 읽었으면 {@code true}. 스트리밍 본문이 아니면 항상 {@code true}
+     */
+    public boolean isConsumed() {
+        if (stream instanceof ContentLengthInputStream) {
+            return ((ContentLengthInputStream) stream).isFinished();
+        }
+        if (stream instanceof ChunkedInputStream) {
+            return ((ChunkedInputStream) stream).isFinished();
+        }
+        return true;
+    }
+
+    /**
+     * {@code Expect: 100-continue} 요청이면 아직 보내지 않은 {@code 100 Continue}를 전송합니다.
+     * 본문 스트림을 거치지 않고 커넥션의 읽기 가능 여부를 기다리는 비차단 읽기가 시작 전에 호출합니다.
+     */
+    public void sendContinueIfNeeded() throws IOException {
+        if (expectation != null) {
+            expectation.sendContinueIfNeeded();
+        }
+    }
+
+    /**
+     * 본문을 바이트 스트림으로 반환합니다.
+     * <p>
+     * 스트리밍 본문은 커넥션에서 직접 읽는 1회용 스트림이며, 한 번 읽은 바이트는 다시 읽을 수 없습니다.
+     * 이미 {@link #getBody()} 등으로 버퍼링된 경우에는 버퍼링된 내용을 처음부터 읽는 스트림을 반환합니다.
+     */
+    public InputStream getInputStream() {
+        if (bytes != null) {
+            return new ByteArrayInputStream(bytes);
+        }
+        if (spill != null) {
+            try {
+                return spill.openInputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (stream != null) {
+            return stream;
+        }
+        return InputStream.nullInputStream();
+    }
+
+    /**
+     * 본문 전체를 ISO-8859-1 문자열로 반환합니다. 본문이 없으면 {@code null}을 반환합니다.
+     * <p>
+     * 스트리밍 본문이면 남은 본문을 모두 읽어 버퍼링하므로, 대용량 본문에는 {@link #getInputStream()}을 사용해야 합니다.
+     */
+    public String getBody() {
+        if (bytes != null) {
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+        if (stream == null) {
+            return null;
+        }
+        try {
+            return new String(bufferFully().toByteArray(), StandardCharsets.ISO_8859_1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 본문 전체를 바이트 배열로 반환합니다. 버퍼링 본문은 복사하지 않으므로 호출자는 배열을 수정해서는 안 됩니다.
+     *
+     * @return 본문 바이트, 본문이 없으면 {@code null}
+     * @see #getBody()
+     */
+    byte[] getBytes() {
+        if (bytes != null || stream == null) {
+            return bytes;
+        }
+        try {
+            return bufferFully().toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 본문을 {@code multipart/form-data} 파트 목록으로 파싱합니다. 결과는 캐시되어 두 번째 호출부터는 다시 파싱하지 않습니다.
+     *
+     * @param boundary {@code Content-Type}의 boundary 파라미터
+     * @throws IOException 본문이 올바른 multipart 형식이 아닌 경우
+     * @see MultipartParser
+     */
+    public List<Part> getParts(String boundary) throws IOException {
+        if (parts == null) {
+            parts = MultipartParser.parse(getInputStream(), boundary);
+        }
+        return parts;
+    }
+
+    private BodySpillBuffer bufferFully() throws IOException {
+        if (spill == null) {
+            spill = new BodySpillBuffer(SPILL_THRESHOLD);
+            try (BodySpillBuffer out = spill) {
+                stream.transferTo(out);
+            }
+        }
+        return spill;
+    }
+
+    /**
+     * 요청 처리가 끝난 뒤 커넥터가 호출합니다. 읽히지 않은 본문을 버리고 임시 파일을 삭제합니다.
+     *
+     * @return 같은 커넥션에서 다음 요청을 읽을 수 있으면 {@code true}. 남은 본문이 너무 크거나,
+     * {@code 100 Continue}를 보내지 않아 클라이언트가 본문을 보낼지 알 수 없으면 {@code false}
+     */
+    public boolean release() throws IOException {
+        if (parts != null) {
+            for (Part part : parts) {
+                part.delete();
+            }
+        }
+        if (spill != null) {
+            spill.delete();
+            return true;
+        }
+        if (stream == null) {
+            return true;
+        }
+        if (expectation != null && !expectation.isContinueSent()) {
+            return false;
+        }
+
+        byte[] discard = new byte[8192];
+        long swallowed = 0;
+        int n;
+        try {
+            while ((n = stream.read(discard)) != -1) {
+                swallowed += n;
+                if (swallowed > MAX_SWALLOW_SIZE) {
+                    return false;
+                }
+            }
+        } catch (RequestRejectedException e) {
+            return false; // 한도를 넘는 본문은 끝까지 읽지 않고 커넥션을 닫는다
+        }
+        return true;
+    }
+
+    /**
+     * 본문과 파트, 임시 파일에 대한 참조를 놓습니다. {@link #release()}로 정리한 뒤에 호출해야 합니다.
+     */
+    public void recycle() {
+        bytes = null;
+        stream = null;
+        expectation = null;
+        spill = null;
+        parts = null;
+    }
+
     @Override
     public String toString() {
-        return "HttpRequestBody [body=" + body + "]";
+        if (stream != null && spill == null) {
+            return "HttpRequestBody [streaming]";
+        }
+        return "HttpRequestBody [body=" + getBody() + "]";
     }
 }
@@ -1,20 +1,100 @@
 package trunk.http11.request;
 
 import java.util.Map;
+import java.util.TreeMap;
 
+/**
+ * 요청 헤더를 보관하는 클래스입니다.
+ * <p>
+ * HTTP/1.1 커넥터는 파싱된 원본 바이트({@link RawRequestHead})로 생성하며, 헤더 {@link Map}은
+ * {@link #getHeaders()}가 처음 호출될 때 만들어집니다. 이 맵은 이름의 대소문자를 구분하지 않습니다.
+ * {@link #getHeader(HttpHeader)}와 {@link #getHeader(String)}는 맵을 만들지 않고 조회합니다.
+ * <p>
+ * 커넥터가 재사용하는 요청의 헤더는 {@link #setHead(RawRequestHead)}로 새 요청의 head를 받습니다.
+ *
+ * @author jungbin97
+ * @see RawRequestHead
+ * @see HttpHeader
+ */
 public class HttpRequestHeader {
-    private final Map<String, String> headers;
+    private RawRequestHead head;
+    private Map<String, String> headers;
+
+    /**
+     * 커넥터가 재사용하는 요청을 위한 빈 헤더를 생성합니다.
+     */
+    public HttpRequestHeader() {
+    }
 
     public HttpRequestHeader(Map<String, String> headers) {
         this.headers = headers;
     }
 
+    /**
+     * @param head 파서가 기록한 요청 head. 헤더 문자열은 조회할 때 만들어집니다.
+     */
+    public HttpRequestHeader(RawRequestHead head) {
+        this.head = head;
+    }
+
+    /**
+     * 새 요청의 head로 바꿉니다. 이전 요청에서 만든 헤더 맵은 버립니다.
+     */
+    public void setHead(RawRequestHead head) {
+        this.head = head;
+        this.headers = null;
+    }
+
+    /**
+     * 이전 요청의 head와 헤더 맵을 놓습니다.
+     */
+    public void recycle() {
+        head = null;
+        headers = null;
+    }
+
     public Map<String, String> getHeaders() {
+        if (headers == null) {
+            Map<String, String> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < head.getHeaderCount(); i++) {
+                map.putIfAbsent(head.getHeaderName(i), head.getHeaderValue(i));
+            }
+            headers = map;
+        }
         return headers;
     }
 
+    /**
+     * @param header 미리 등록된 헤더 이름
+     * @return 헤더 값, 없으면 {@code null}
+     */
+    public String getHeader(HttpHeader header) {
+        if (head != null) {
+            return head.getHeader(header);
+        }
+        return getHeader(header.getName());
+    }
+
+    /**
+     * 이름의 대소문자를 구분하지 않고 헤더 값을 조회합니다.
+     *
+     * @param name 헤더 이름
+     * @return 헤더 값, 없으면 {@code null}
+     */
+    public String getHeader(String name) {
+        if (headers == null) {
+            return head.getHeader(name);
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
     @Override
     public String toString() {
-        return "RequestHeader [headers=" + headers + "]";
+        return "RequestHeader [headers=" + getHeaders() + "]";
     }
 }
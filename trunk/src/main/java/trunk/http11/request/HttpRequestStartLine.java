@@ -3,24 +3,59 @@ package trunk.http11.request;
 
 public class HttpRequestStartLine {
 
-    private final String method;
-    private final String requestUri;
-    private final String httpVersion;
+    private String method;
+    private String requestUri;
+    private String httpVersion;
+    private RequestTarget requestTarget;
+
+    /**
+     * 커넥터가 재사용하는 요청을 위한 빈 시작 줄을 생성합니다. {@link #set(String, String, String)}으로 채웁니다.
+     */
+    public HttpRequestStartLine() {
+    }
 
     public HttpRequestStartLine(String method, String requestUri, String httpVersion) {
+        set(method, requestUri, httpVersion);
+    }
+
+    /**
+     * 새 요청의 시작 줄로 값을 바꿉니다.
+     */
+    public void set(String method, String requestUri, String httpVersion) {
         this.method = method;
         this.httpVersion = httpVersion;
         this.requestUri = requestUri;
+        this.requestTarget = RequestTarget.parse(requestUri);
+    }
+
+    /**
+     * 이전 요청의 값을 지웁니다.
+     */
+    public void recycle() {
+        method = null;
+        requestUri = null;
+        httpVersion = null;
+        requestTarget = null;
     }
 
     public String getMethod() {
         return method;
     }
 
+    /**
+     * @return 요청 줄에 적힌 그대로의 request-target (쿼리 스트링 포함)
+     */
     public String getRequestUri() {
         return requestUri;
     }
 
+    /**
+     * @return 경로와 쿼리로 나누고 정규화한 request-target. 라우팅과 파일 조회는 이 값을 사용합니다.
+     */
+    public RequestTarget getRequestTarget() {
+        return requestTarget;
+    }
+
     public String getHttpVersion() {
         return httpVersion;
     }
@@ -0,0 +1,170 @@
+package trunk.http11.request;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@code name=value&name=value} 형식의 쿼리 스트링, 폼 본문, 쿠키를 한 번의 순회로 {@link Parameters}에 채우는 유틸리티 클래스입니다.
+ * <p>
+ * 정규식이나 중간 배열을 만들지 않고 구분자와 {@code =}의 위치만 찾으며, {@code %} 또는 {@code +}가 없는 토큰은
+ * 디코딩하지 않고 그대로 잘라 씁니다. {@code %XX}는 UTF-8 바이트로 해석하고, 형식이 잘못된 {@code %}는 그대로 둡니다.
+ * <ul>
+ *     <li>같은 이름이 여러 번 나오면 모두 보관합니다.</li>
+ *     <li>값은 첫 번째 {@code =} 다음부터이므로 값 안의 {@code =}도 유지됩니다 ({@code token=YWJj==}).</li>
+ *     <li>{@code name=}은 빈 값으로 보관하고, {@code =}가 없거나 이름이 빈 토큰은 무시합니다.</li>
+ *     <li>이름과 값의 앞뒤 공백은 제거합니다.</li>
+ *     <li>대상의 최대 개수를 넘으면 나머지는 읽지 않습니다 ({@link Parameters#isTruncated()}).</li>
+ * </ul>
+ *
+ * @author jungbin97
+ * @see Parameters
+ */
+public final class ParameterParser {
+
+    private ParameterParser() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 문자열의 {@code [from, to)} 구간을 파싱합니다.
+     *
+     * @param source    쿼리 스트링 또는 {@code Cookie} 헤더 값. {@code null}이면 아무것도 하지 않습니다.
+     * @param separator 파라미터 구분자 ({@code &} 또는 {@code ;})
+     * @param into      파싱 결과를 추가할 대상
+     */
+    public static void parse(String source, int from, int to, char separator, Parameters into) {
+        if (source == null) {
+            return;
+        }
+        int i = from;
+        while (i < to && !into.isTruncated()) {
+            int equals = -1;
+            boolean nameEncoded = false;
+            boolean valueEncoded = false;
+            int end = i;
+            for (; end < to; end++) {
+                char c = source.charAt(end);
+                if (c == separator) {
+                    break;
+                }
+                if (c == '=' && equals < 0) {
+                    equals = end;
+                } else if (c == '%' || c == '+') {
+                    if (equals < 0) {
+                        nameEncoded = true;
+                    } else {
+                        valueEncoded = true;
+                    }
+                }
+            }
+            if (equals > i) {
+                String name = decode(source, i, equals, nameEncoded).trim();
+                if (!name.isEmpty()) {
+                    into.add(name, decode(source, equals + 1, end, valueEncoded).trim());
+                }
+            }
+            i = end + 1;
+        }
+    }
+
+    /**
+     * {@code application/x-www-form-urlencoded} 본문을 문자열로 바꾸지 않고 바이트에서 바로 파싱합니다.
+     *
+     * @param source 본문 바이트. {@code null}이면 아무것도 하지 않습니다.
+     * @param into   파싱 결과를 추가할 대상
+     */
+    public static void parse(byte[] source, int from, int to, Parameters into) {
+        if (source == null) {
+            return;
+        }
+        int i = from;
+        while (i < to && !into.isTruncated()) {
+            int equals = -1;
+            boolean nameEncoded = false;
+            boolean valueEncoded = false;
+            int end = i;
+            for (; end < to; end++) {
+                byte b = source[end];
+                if (b == '&') {
+                    break;
+                }
+                if (b == '=' && equals < 0) {
+                    equals = end;
+                } else if (b == '%' || b == '+') {
+                    if (equals < 0) {
+                        nameEncoded = true;
+                    } else {
+                        valueEncoded = true;
+                    }
+                }
+            }
+            if (equals > i) {
+                String name = decode(source, i, equals, nameEncoded).trim();
+                if (!name.isEmpty()) {
+                    into.add(name, decode(source, equals + 1, end, valueEncoded).trim());
+                }
+            }
+            i = end + 1;
+        }
+    }
+
+    private static String decode(String source, int from, int to, boolean encoded) {
+        if (!encoded) {
+            return source.substring(from, to);
+        }
+        StringBuilder sb = new StringBuilder(to - from);
+        // 연속된 %XX는 모아서 한 번에 UTF-8로 해석한다 (멀티바이트 문자)
+        byte[] pending = null;
+        int pendingLength = 0;
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+            if (c == '%' && i + 2 < to && hex(source.charAt(i + 1)) >= 0 && hex(source.charAt(i + 2)) >= 0) {
+                if (pending == null) {
+                    pending = new byte[(to - i) / 3];
+                }
+                pending[pendingLength++] = (byte) (hex(source.charAt(i + 1)) << 4 | hex(source.charAt(i + 2)));
+                i += 2;
+                continue;
+            }
+            if (pendingLength > 0) {
+                sb.append(new String(pending, 0, pendingLength, StandardCharsets.UTF_8));
+                pendingLength = 0;
+            }
+            sb.append(c == '+' ? ' ' : c);
+        }
+        if (pendingLength > 0) {
+            sb.append(new String(pending, 0, pendingLength, StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+
+    private static String decode(byte[] source, int from, int to, boolean encoded) {
+        if (!encoded) {
+            return new String(source, from, to - from, StandardCharsets.UTF_8);
+        }
+        byte[] decoded = new byte[to - from];
+        int length = 0;
+        for (int i = from; i < to; i++) {
+            byte b = source[i];
+            if (b == '%' && i + 2 < to && hex(source[i + 1]) >= 0 && hex(source[i + 2]) >= 0) {
+                decoded[length++] = (byte) (hex(source[i + 1]) << 4 | hex(source[i + 2]));
+                i += 2;
+            } else {
+                decoded[length++] = b == '+' ? (byte) ' ' : b;
+            }
+        }
+        return new String(decoded, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static int hex(int c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,139 @@
+package trunk.http11.request;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 요청 파라미터를 도착한 순서대로 보관하는 구조입니다.
+ * <p>
+ * 이름과 값을 두 배열에 나란히 저장하므로 같은 이름이 여러 번 나와도 모두 보관되며({@code ?a=1&a=2}),
+ * 파라미터 수가 적은 일반적인 요청에서 해시 테이블보다 적게 할당합니다. 조회는 배열을 순서대로 비교합니다.
+ * <p>
+ * 최대 개수를 넘는 파라미터는 보관하지 않고 버리며, {@link #isTruncated()}로 확인할 수 있습니다.
+ *
+ * @author jungbin97
+ * @see ParameterParser
+ * @see HttpRequest#getParameter(String)
+ */
+public final class Parameters {
+    private static final String[] EMPTY = new String[0];
+
+    private final int maxCount;
+    private String[] names = new String[8];
+    private String[] values = new String[8];
+    private int size;
+    private boolean truncated;
+
+    public Parameters() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxCount 보관할 최대 파라미터 수
+     * @see RequestLimits#getMaxParameterCount()
+     */
+    public Parameters(int maxCount) {
+        this.maxCount = maxCount;
+    }
+
+    public void add(String name, String value) {
+        if (size == maxCount) {
+            truncated = true;
+            return;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        names[size] = name;
+        values[size] = value;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 최대 개수를 넘어 버린 파라미터가 있으면 {@code true}
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public String getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return 이름이 일치하는 첫 번째 값, 없으면 {@code null}
+     */
+    public String get(String name) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return 이름이 일치하는 모든 값 (도착 순서), 없으면 빈 배열
+     */
+    public String[] getValues(String name) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        String[] result = new String[count];
+        for (int i = 0, j = 0; j < count; i++) {
+            if (names[i].equals(name)) {
+                result[j++] = values[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return 중복을 제외한 파라미터 이름 (도착 순서)
+     */
+    public Set<String> getNames() {
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            result.add(names[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @return 이름마다 첫 번째 값을 담은 맵 (도착 순서)
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            result.putIfAbsent(names[i], values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Parameters [");
+        for (int i = 0; i < size; i++) {
+            sb.append(i == 0 ? "" : ", ").append(names[i]).append('=').append(values[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,284 @@
+package trunk.http11.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 파싱된 요청의 시작 줄과 헤더를 원본 바이트 그대로 보관하는 클래스입니다.
+ * <p>
+ * 파서는 문자열을 만들지 않고 각 토큰의 시작/끝 위치만 기록하며, 이 클래스는 요청 하나당 한 번 복사된
+ * head 바이트와 그 위치 정보를 함께 가집니다. 문자열은 서블릿이 실제로 값을 조회할 때 만들어집니다.
+ * 메서드와 HTTP 버전처럼 값의 종류가 정해진 토큰은 상수 문자열을 반환하여 요청마다 새로 만들지 않습니다.
+ * <p>
+ * 파서가 {@link HttpHeader}로 인식한 헤더는 상수마다 고정된 칸에 첫 번째 위치가 기록되어 바로 조회됩니다.
+ * 그 밖의 헤더는 이름을 ASCII 대소문자 구분 없이 비교하여 찾습니다. 헤더 값은 ISO-8859-1로 해석합니다.
+ *
+ * @author jungbin97
+ * @see trunk.http11.HttpRequestHeadParser
+ * @see HttpRequestHeader
+ * @see HttpHeader
+ */
+public final class RawRequestHead {
+    private static final String[] KNOWN_METHODS = {"GET", "POST", "HEAD", "PUT", "DELETE", "OPTIONS", "PATCH", "PRI"};
+    private static final String[] KNOWN_VERSIONS = {"HTTP/1.1", "HTTP/1.0", "HTTP/2.0"};
+    private static final HttpHeader[] KNOWN_HEADERS = HttpHeader.values();
+
+    /**
+     * 헤더 하나가 차지하는 위치 정보의 개수: (이름 시작, 이름 끝, 값 시작, 값 끝, {@link HttpHeader} 순번 또는 -1)
+     */
+    public static final int HEADER_FIELDS = 5;
+
+    private final byte[] bytes;
+    private final int methodEnd;
+    private final int targetStart;
+    private final int targetEnd;
+    private final int versionStart;
+    private final int versionEnd;
+    private final int[] headers;
+    private final int headerCount;
+    private final int[] knownHeaders; // HttpHeader 순번마다 첫 번째 헤더의 위치, 없으면 -1
+    private final boolean conflictingContentLength;
+
+    /**
+     * @param bytes       시작 줄부터 헤더 끝까지의 바이트
+     * @param requestLine 시작 줄의 위치 (메서드 끝, 대상 시작, 대상 끝, 버전 시작, 버전 끝)
+     * @param headers     헤더마다 {@value #HEADER_FIELDS}개의 위치 정보
+     * @param headerCount 헤더 개수
+     */
+    public RawRequestHead(byte[] bytes, int[] requestLine, int[] headers, int headerCount) {
+        this.bytes = bytes;
+        this.methodEnd = requestLine[0];
+        this.targetStart = requestLine[1];
+        this.targetEnd = requestLine[2];
+        this.versionStart = requestLine[3];
+        this.versionEnd = requestLine[4];
+        this.headers = headers;
+        this.headerCount = headerCount;
+        this.knownHeaders = new int[KNOWN_HEADERS.length];
+        Arrays.fill(knownHeaders, -1);
+        int contentLength = HttpHeader.CONTENT_LENGTH.ordinal();
+        boolean conflicting = false;
+        for (int h = headerCount - 1; h >= 0; h--) {
+            int known = headers[h * HEADER_FIELDS + 4];
+            if (known >= 0) {
+                // 뒤에서부터 채우므로, 이미 기록된 Content-Length는 같은 요청의 뒤쪽 헤더이다
+                if (known == contentLength && knownHeaders[known] >= 0 && !sameValue(h, knownHeaders[known])) {
+                    conflicting = true;
+                }
+                knownHeaders[known] = h;
+            }
+        }
+        this.conflictingContentLength = conflicting;
+    }
+
+    public String getMethod() {
+        return toKnownString(0, methodEnd, KNOWN_METHODS);
+    }
+
+    public String getRequestTarget() {
+        return new String(bytes, targetStart, targetEnd - targetStart, StandardCharsets.ISO_8859_1);
+    }
+
+    public String getHttpVersion() {
+        return toKnownString(versionStart, versionEnd, KNOWN_VERSIONS);
+    }
+
+    /**
+     * @return 시작 줄을 헤더 클래스에서 사용하는 형태로 변환한 객체
+     */
+    public HttpRequestStartLine toStartLine() {
+        return new HttpRequestStartLine(getMethod(), getRequestTarget(), getHttpVersion());
+    }
+
+    public int getHeaderCount() {
+        return headerCount;
+    }
+
+    /**
+     * @return 알려진 헤더이면 {@link HttpHeader#getName()}, 아니면 요청에 적힌 그대로의 이름
+     */
+    public String getHeaderName(int index) {
+        int i = index * HEADER_FIELDS;
+        HttpHeader known = knownHeader(i);
+        if (known != null) {
+            return known.getName();
+        }
+        return new String(bytes, headers[i], headers[i + 1] - headers[i], StandardCharsets.ISO_8859_1);
+    }
+
+    public String getHeaderValue(int index) {
+        int i = index * HEADER_FIELDS;
+        HttpHeader known = knownHeader(i);
+        if (known != null) {
+            return known.value(bytes, headers[i + 2], headers[i + 3]);
+        }
+        return new String(bytes, headers[i + 2], headers[i + 3] - headers[i + 2], StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @return 첫 번째 헤더의 위치, 없으면 {@code -1}
+     */
+    public int indexOfHeader(HttpHeader header) {
+        return knownHeaders[header.ordinal()];
+    }
+
+    /**
+     * 이름이 일치하는 첫 번째 헤더의 위치를 찾습니다. 문자열을 만들지 않고 바이트를 직접 비교합니다.
+     *
+     * @param name 헤더 이름 (대소문자 구분 없음)
+     * @return 헤더 위치, 없으면 {@code -1}
+     */
+    public int indexOfHeader(String name) {
+        HttpHeader known = HttpHeader.lookup(name);
+        if (known != null) {
+            return indexOfHeader(known);
+        }
+        for (int h = 0; h < headerCount; h++) {
+            int i = h * HEADER_FIELDS;
+            if (headers[i + 4] < 0 && equalsIgnoreCase(headers[i], headers[i + 1], name)) {
+                return h;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return 첫 번째 헤더의 값, 없으면 {@code null}
+     */
+    public String getHeader(HttpHeader header) {
+        int index = indexOfHeader(header);
+        return index < 0 ? null : getHeaderValue(index);
+    }
+
+    /**
+     * @param name 헤더 이름 (대소문자 구분 없음)
+     * @return 첫 번째 헤더의 값, 없으면 {@code null}
+     */
+    public String getHeader(String name) {
+        int index = indexOfHeader(name);
+        return index < 0 ? null : getHeaderValue(index);
+    }
+
+    /**
+     * {@code Content-Length} 헤더를 문자열로 만들지 않고 숫자로 읽습니다.
+     * <p>
+     * 헤더가 여러 번 오면 모든 값이 같을 때만 받아들입니다 (RFC 9112 6.3). 값이 다르면 중간 서버와 본문 길이를 다르게
+     * 해석하여 요청 스머글링에 이용될 수 있으므로 거부합니다.
+     *
+     * @return 본문 길이, 헤더가 없으면 {@code -1}
+     * @throws RequestRejectedException 값이 0 이상의 십진수가 아니거나, 여러 번 온 값이 서로 다른 경우
+     */
+    public long getContentLength() throws RequestRejectedException {
+        int index = indexOfHeader(HttpHeader.CONTENT_LENGTH);
+        if (index < 0) {
+            return -1;
+        }
+        if (conflictingContentLength) {
+            throw new RequestRejectedException(RejectReason.MALFORMED, "Conflicting Content-Length headers");
+        }
+        int start = headers[index * HEADER_FIELDS + 2];
+        int end = headers[index * HEADER_FIELDS + 3];
+        if (start == end || end - start > 18) { // 18자리까지는 long 범위를 넘지 않는다
+            throw new RequestRejectedException(RejectReason.MALFORMED, "Invalid Content-Length: " + getHeaderValue(index));
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new RequestRejectedException(RejectReason.MALFORMED, "Invalid Content-Length: " + getHeaderValue(index));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * 본문이 {@code Transfer-Encoding: chunked}로 전송되는지 확인합니다 (RFC 9112 6.1, 6.3).
+     * <p>
+     * 본문 길이를 다르게 해석하는 중간 서버를 이용한 요청 스머글링을 막기 위해, {@code Content-Length}와 함께 오거나
+     * 마지막 전송 코딩이 정확히 {@code chunked}가 아니면 본문의 끝을 알 수 없으므로 거부합니다.
+     * {@code Transfer-Encoding} 헤더가 여러 줄이면 마지막 줄의 마지막 코딩을 확인합니다.
+     *
+     * @return {@code Transfer-Encoding}이 있고 마지막 코딩이 {@code chunked}이면 {@code true}, 헤더가 없으면 {@code false}
+     * @throws RequestRejectedException {@code Content-Length}와 함께 오거나 마지막 코딩이 {@code chunked}가 아닌 경우
+     */
+    public boolean isChunked() throws RequestRejectedException {
+        int last = -1;
+        for (int h = indexOfHeader(HttpHeader.TRANSFER_ENCODING); h >= 0 && h < headerCount; h++) {
+            if (headers[h * HEADER_FIELDS + 4] == HttpHeader.TRANSFER_ENCODING.ordinal()) {
+                last = h;
+            }
+        }
+        if (last < 0) {
+            return false;
+        }
+        String transferEncoding = getHeaderValue(last);
+        if (indexOfHeader(HttpHeader.CONTENT_LENGTH) >= 0) {
+            throw new RequestRejectedException(RejectReason.MALFORMED,
+                    "Both Transfer-Encoding and Content-Length present: " + transferEncoding);
+        }
+        String coding = transferEncoding.substring(transferEncoding.lastIndexOf(',') + 1).trim();
+        if (!coding.equalsIgnoreCase("chunked")) {
+            throw new RequestRejectedException(RejectReason.MALFORMED,
+                    "Unsupported Transfer-Encoding: " + transferEncoding);
+        }
+        return true;
+    }
+
+    /**
+     * 두 헤더의 값 바이트가 같은지 비교합니다.
+     */
+    private boolean sameValue(int a, int b) {
+        int aStart = headers[a * HEADER_FIELDS + 2];
+        int bStart = headers[b * HEADER_FIELDS + 2];
+        int length = headers[a * HEADER_FIELDS + 3] - aStart;
+        return length == headers[b * HEADER_FIELDS + 3] - bStart
+                && Arrays.equals(bytes, aStart, aStart + length, bytes, bStart, bStart + length);
+    }
+
+    private HttpHeader knownHeader(int i) {
+        int known = headers[i + 4];
+        return known < 0 ? null : KNOWN_HEADERS[known];
+    }
+
+    private boolean equalsIgnoreCase(int start, int end, String name) {
+        if (end - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            int a = bytes[start + i];
+            int b = name.charAt(i);
+            // 헤더 이름은 ASCII이므로 영문자만 0x20 비트로 대소문자를 맞춘다
+            if (a != b && ((a | 0x20) != (b | 0x20) || (a | 0x20) < 'a' || (a | 0x20) > 'z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String toKnownString(int start, int end, String[] known) {
+        for (String candidate : known) {
+            if (equalsExact(start, end, candidate)) {
+                return candidate;
+            }
+        }
+        return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    private boolean equalsExact(int start, int end, String value) {
+        if (end - start != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (bytes[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, versionEnd, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,65 @@
+package trunk.http11.request;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청을 거부한 이유와 그 응답 상태 코드입니다.
+ * <p>
+ * 이유마다 지금까지 거부한 횟수를 셉니다({@link #getCount()}). 공격이나 잘못 설정된 클라이언트를 찾을 때 어느 한도에
+ * 걸리는지 확인하는 용도이며, 프로세스 전체의 커넥터가 같은 카운터를 공유합니다.
+ *
+ * @author jungbin97
+ * @see RequestRejectedException
+ * @see RequestLimits
+ */
+public enum RejectReason {
+    /**
+     * 시작 줄이나 헤더의 형식이 잘못됨
+     */
+    MALFORMED(400),
+    /**
+     * 시작 줄이 {@link RequestLimits#getMaxRequestLineSize()}를 넘음
+     */
+    REQUEST_LINE_TOO_LONG(414),
+    /**
+     * 헤더 수가 {@link RequestLimits#getMaxHeaderCount()}를 넘음
+     */
+    TOO_MANY_HEADERS(431),
+    /**
+     * 시작 줄과 헤더를 합한 크기가 {@link RequestLimits#getMaxHeadSize()}를 넘음
+     */
+    HEAD_TOO_LARGE(431),
+    /**
+     * 본문이 {@link RequestLimits#getMaxBodySize()}를 넘음
+     */
+    BODY_TOO_LARGE(413),
+    /**
+     * 파라미터 수가 {@link RequestLimits#getMaxParameterCount()}를 넘음. 요청은 처리하되 넘는 파라미터는 버립니다.
+     */
+    TOO_MANY_PARAMETERS(400);
+
+    private final int statusCode;
+    private final LongAdder count = new LongAdder();
+
+    RejectReason(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 거부 횟수를 하나 늘립니다.
+     */
+    public void record() {
+        count.increment();
+    }
+
+    /**
+     * @return 이 이유로 거부한 누적 횟수
+     */
+    public long getCount() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,82 @@
+package trunk.http11.request;
+
+/**
+ * 요청 하나가 차지할 수 있는 크기의 한도입니다.
+ * <p>
+ * 파서는 바이트를 읽는 도중에 한도를 확인하므로, 한도를 넘는 요청은 끝까지 읽거나 메모리에 모으기 전에 거부됩니다.
+ * <ul>
+ *     <li>시작 줄 길이: {@code 414 URI Too Long}</li>
+ *     <li>헤더 수, 시작 줄과 헤더를 합한 크기: {@code 431 Request Header Fields Too Large}</li>
+ *     <li>본문 크기: {@code 413 Content Too Large}. {@code Content-Length}는 헤더를 읽은 직후에,
+ *     chunked 본문은 읽는 도중에 확인합니다.</li>
+ *     <li>쿼리와 폼 파라미터 수: 한도를 넘는 파라미터는 버립니다. 같은 해시 값을 갖는 이름을 대량으로 보내
+ *     파라미터 맵을 느리게 만드는 공격을 막습니다.</li>
+ * </ul>
+ * 엔드포인트마다 하나의 인스턴스를 두며, 서버를 시작하기 전에 설정해야 합니다.
+ *
+ * @author jungbin97
+ * @see RejectReason
+ * @see trunk.http11.HttpRequestHeadParser
+ */
+public class RequestLimits {
+    public static final int DEFAULT_MAX_REQUEST_LINE_SIZE = 4096;
+    public static final int DEFAULT_MAX_HEADER_COUNT = 100;
+    public static final int DEFAULT_MAX_HEAD_SIZE = 8192;
+    public static final long DEFAULT_MAX_BODY_SIZE = 10L * 1024 * 1024;
+    public static final int DEFAULT_MAX_PARAMETER_COUNT = 1000;
+
+    private int maxRequestLineSize = DEFAULT_MAX_REQUEST_LINE_SIZE;
+    private int maxHeaderCount = DEFAULT_MAX_HEADER_COUNT;
+    private int maxHeadSize = DEFAULT_MAX_HEAD_SIZE;
+    private long maxBodySize = DEFAULT_MAX_BODY_SIZE;
+    private int maxParameterCount = DEFAULT_MAX_PARAMETER_COUNT;
+
+    /**
+     * @return 시작 줄(CRLF 제외)의 최대 바이트 수
+     */
+    public int getMaxRequestLineSize() {
+        return maxRequestLineSize;
+    }
+
+    public void setMaxRequestLineSize(int maxRequestLineSize) {
+        this.maxRequestLineSize = maxRequestLineSize;
+    }
+
+    public int getMaxHeaderCount() {
+        return maxHeaderCount;
+    }
+
+    public void setMaxHeaderCount(int maxHeaderCount) {
+        this.maxHeaderCount = maxHeaderCount;
+    }
+
+    /**
+     * @return 시작 줄과 헤더, 빈 줄까지 합한 최대 바이트 수. NIO 커넥터에서는 커넥션 읽기 버퍼 크기도 넘을 수 없습니다.
+     */
+    public int getMaxHeadSize() {
+        return maxHeadSize;
+    }
+
+    public void setMaxHeadSize(int maxHeadSize) {
+        this.maxHeadSize = maxHeadSize;
+    }
+
+    /**
+     * @return 본문의 최대 바이트 수. {@link Long#MAX_VALUE}이면 제한하지 않습니다.
+     */
+    public long getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(long maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public int getMaxParameterCount() {
+        return maxParameterCount;
+    }
+
+    public void setMaxParameterCount(int maxParameterCount) {
+        this.maxParameterCount = maxParameterCount;
+    }
+}
@@ -0,0 +1,27 @@
+package trunk.http11.request;
+
+import java.io.IOException;
+
+/**
+ * 요청이 형식에 맞지 않거나 {@link RequestLimits}의 한도를 넘어 처리하지 않고 거부해야 할 때 발생하는 예외입니다.
+ * <p>
+ * 소켓 읽기 실패와 같은 다른 {@link IOException}과 달리, 커넥터는 이 예외를 받으면 {@link #getReason()}의 상태 코드로
+ * 응답한 뒤 커넥션을 닫습니다.
+ *
+ * @author jungbin97
+ * @see RejectReason
+ */
+public class RequestRejectedException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final RejectReason reason;
+
+    public RequestRejectedException(RejectReason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public RejectReason getReason() {
+        return reason;
+    }
+}
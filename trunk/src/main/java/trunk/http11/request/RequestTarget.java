@@ -0,0 +1,225 @@
+package trunk.http11.request;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 요청 줄의 request-target을 경로와 쿼리로 나누고, 라우팅과 파일 조회에 쓸 경로를 한 번만 계산해 보관하는 클래스입니다.
+ * <p>
+ * 요청을 파싱할 때 {@link HttpRequestStartLine}이 만들며, 매퍼와 서블릿은 같은 결과를 공유합니다.
+ * <ul>
+ *     <li>{@link #getPath()}: {@code ?} 앞의 경로. 인코딩된 그대로입니다.</li>
+ *     <li>{@link #getQuery()}: {@code ?} 뒤의 쿼리 스트링. 디코딩하지 않습니다.</li>
+ *     <li>{@link #getDecodedPath()}: {@code %XX}를 UTF-8로 해석한 경로</li>
+ *     <li>{@link #getNormalizedPath()}: 디코딩한 경로에서 빈 세그먼트와 {@code .}, {@code ..}를 정리한 경로</li>
+ * </ul>
+ * 인코딩과 정리할 세그먼트가 없는 일반적인 경로는 원본 문자열을 그대로 사용하므로 추가로 할당하지 않습니다.
+ * {@code ..}가 루트 위로 올라가거나({@code /../etc/passwd}, {@code /%2e%2e/}), 인코딩이 잘못되었거나,
+ * NUL 문자가 들어 있으면 정규화된 경로는 {@code null}이며, 이 요청은 파일 시스템에 닿기 전에 거부해야 합니다.
+ *
+ * @author jungbin97
+ * @see HttpRequestStartLine#getRequestTarget()
+ * @see trunk.container.Mapper
+ */
+public final class RequestTarget {
+    private static final String ASTERISK = "*";
+
+    private final String raw;
+    private final String path;
+    private final String query;
+    private final String decodedPath;
+    private final String normalizedPath;
+
+    private RequestTarget(String raw, String path, String query, String decodedPath, String normalizedPath) {
+        this.raw = raw;
+        this.path = path;
+        this.query = query;
+        this.decodedPath = decodedPath;
+        this.normalizedPath = normalizedPath;
+    }
+
+    /**
+     * request-target을 분석합니다. {@code http://host/path} 형식(absolute-form)이면 호스트 부분을 제외한 경로를 사용합니다.
+     *
+     * @param raw 요청 줄에 적힌 그대로의 request-target
+     */
+    public static RequestTarget parse(String raw) {
+        int queryIndex = raw.indexOf('?');
+        String path = queryIndex < 0 ? raw : raw.substring(0, queryIndex);
+        String query = queryIndex < 0 ? null : raw.substring(queryIndex + 1);
+
+        int scheme = path.indexOf("://");
+        if (scheme > 0 && path.charAt(0) != '/') {
+            int slash = path.indexOf('/', scheme + 3);
+            path = slash < 0 ? "/" : path.substring(slash);
+        }
+
+        String decodedPath = decode(path);
+        String normalizedPath = decodedPath == null ? null : normalize(decodedPath);
+        return new RequestTarget(raw, path, query, decodedPath, normalizedPath);
+    }
+
+    /**
+     * 디코딩된 경로의 빈 세그먼트({@code //})와 {@code .}을 제거하고 {@code ..}를 앞 세그먼트와 함께 지웁니다.
+     * 마지막 {@code /}는 유지합니다.
+     *
+     * @param path {@code /}로 시작하는 경로
+     * @return 정리된 경로. 정리할 것이 없으면 인자 그대로, {@code /}로 시작하지 않거나 루트 위로 올라가면 {@code null}
+     */
+    public static String normalize(String path) {
+        if (ASTERISK.equals(path)) {
+            return path;
+        }
+        if (path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+        if (!needsNormalization(path)) {
+            return path;
+        }
+
+        int length = path.length();
+        char[] normalized = new char[length];
+        int written = 0;
+        int i = 0;
+        while (i < length) {
+            // path[i]는 항상 '/'
+            int end = path.indexOf('/', i + 1);
+            if (end < 0) {
+                end = length;
+            }
+            int segmentLength = end - i - 1;
+            boolean last = end == length;
+            if (segmentLength == 0 || (segmentLength == 1 && path.charAt(i + 1) == '.')) {
+                if (last) {
+                    normalized[written++] = '/';
+                }
+            } else if (segmentLength == 2 && path.charAt(i + 1) == '.' && path.charAt(i + 2) == '.') {
+                if (written == 0) {
+                    return null;
+                }
+                while (normalized[--written] != '/') {
+                    // 앞 세그먼트를 지운다
+                }
+                if (last) {
+                    normalized[written++] = '/';
+                }
+            } else {
+                path.getChars(i, end, normalized, written);
+                written += end - i;
+            }
+            i = end;
+        }
+        return written == 0 ? "/" : new String(normalized, 0, written);
+    }
+
+    private static boolean needsNormalization(String path) {
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            if (path.charAt(i) != '/') {
+                continue;
+            }
+            if (i + 1 == length) {
+                return false;
+            }
+            char next = path.charAt(i + 1);
+            if (next == '/') {
+                return true;
+            }
+            if (next == '.') {
+                if (i + 2 == length || path.charAt(i + 2) == '/') {
+                    return true;
+                }
+                if (path.charAt(i + 2) == '.' && (i + 3 == length || path.charAt(i + 3) == '/')) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String decode(String path) {
+        int length = path.length();
+        boolean plain = true;
+        for (int i = 0; i < length && plain; i++) {
+            char c = path.charAt(i);
+            plain = c != '%' && c != 0 && c < 0x80;
+        }
+        if (plain) {
+            return path;
+        }
+
+        // 요청 줄은 ISO-8859-1로 읽었으므로 문자 하나가 원래의 바이트 하나이다
+        byte[] bytes = new byte[length];
+        int written = 0;
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '%') {
+                if (i + 2 >= length) {
+                    return null;
+                }
+                int high = Character.digit(path.charAt(i + 1), 16);
+                int low = Character.digit(path.charAt(i + 2), 16);
+                if (high < 0 || low < 0) {
+                    return null;
+                }
+                c = (char) (high << 4 | low);
+                i += 2;
+            }
+            if (c == 0 || c > 0xFF) {
+                return null;
+            }
+            bytes[written++] = (byte) c;
+        }
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes, 0, written))
+                    .toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return {@code ?} 앞의 경로 (인코딩된 그대로)
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return {@code ?} 뒤의 쿼리 스트링, 없으면 {@code null}
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * @return {@code %XX}를 UTF-8로 해석한 경로, 인코딩이 잘못되었으면 {@code null}
+     */
+    public String getDecodedPath() {
+        return decodedPath;
+    }
+
+    /**
+     * @return 라우팅과 파일 조회에 사용할 경로. 루트를 벗어나거나 잘못된 경로이면 {@code null}
+     */
+    public String getNormalizedPath() {
+        return normalizedPath;
+    }
+
+    /**
+     * @return 정규화된 경로가 있어 요청을 처리할 수 있으면 {@code true}
+     */
+    public boolean isValid() {
+        return normalizedPath != null;
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+}
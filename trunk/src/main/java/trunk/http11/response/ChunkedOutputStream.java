@@ -0,0 +1,108 @@
+package trunk.http11.response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 본문을 {@code Transfer-Encoding: chunked} 형식으로 인코딩하여 {@link ResponseSink}로 내보내는 출력 스트림입니다.
+ * <p>
+ * 서블릿이 쓴 데이터는 내부 버퍼({@value #DEFAULT_CHUNK_SIZE} 바이트)에 모였다가, 버퍼가 가득 차거나
+ * {@link #flush()}가 호출될 때 하나의 청크({@code 크기(16진수) CRLF 데이터 CRLF})로 전송됩니다.
+ * 따라서 요청 하나가 점유하는 메모리는 본문 전체 크기와 무관하게 청크 크기 수준으로 제한됩니다.
+ * <p>
+ * {@link #close()} 시 남은 데이터와 함께 마지막 청크({@code 0 CRLF CRLF})를 보내 응답을 종료합니다.
+ *
+ * @author jungbin97
+ * @see ResponseSink
+ * @see HttpResponse#getChunkedOutputStream()
+ */
+public class ChunkedOutputStream extends OutputStream {
+    static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final ResponseSink sink;
+    private final byte[] buffer;
+    private int count;
+    private boolean closed;
+
+    public ChunkedOutputStream(ResponseSink sink) {
+        this(sink, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ChunkedOutputStream(ResponseSink sink, int chunkSize) {
+        this.sink = sink;
+        this.buffer = new byte[chunkSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (count == buffer.length) {
+            flushChunk();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (count == buffer.length) {
+                flushChunk();
+            }
+            int n = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * 버퍼에 모인 데이터를 즉시 하나의 청크로 전송합니다.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        flushChunk();
+    }
+
+    /**
+     * 남은 데이터와 마지막 청크를 전송하고 스트림을 닫습니다. 여러 번 호출해도 안전합니다.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        flushChunk();
+        closed = true;
+        sink.write(ByteBuffer.wrap(LAST_CHUNK));
+        sink.close();
+    }
+
+    private void flushChunk() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        byte[] size = Integer.toHexString(count).getBytes(StandardCharsets.ISO_8859_1);
+
+        // 버퍼는 재사용되므로, 청크 헤더/데이터/CRLF를 새 버퍼 하나에 담아 싱크로 넘긴다.
+        ByteBuffer chunk = ByteBuffer.allocate(size.length + CRLF.length + count + CRLF.length);
+        chunk.put(size).put(CRLF).put(buffer, 0, count).put(CRLF);
+        chunk.flip();
+        count = 0;
+
+        sink.write(chunk);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
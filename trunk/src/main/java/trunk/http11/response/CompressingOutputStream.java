@@ -0,0 +1,130 @@
+package trunk.http11.response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 스트리밍 본문을 {@code gzip}/{@code deflate}로 압축하여 하위 스트림({@link ChunkedOutputStream})으로 내보내는 출력 스트림입니다.
+ * <p>
+ * 전체 본문을 모으지 않고 쓰는 즉시 {@link Deflater}에 넘기므로, 압축해도 메모리 사용량은 청크 크기 수준으로 유지됩니다.
+ * {@link #flush()}는 {@link Deflater#SYNC_FLUSH}로 지금까지 쓴 데이터를 클라이언트가 풀 수 있는 경계까지 내보냅니다.
+ * <p>
+ * {@link Deflater}는 {@link ResponseCompression}이 스레드마다 보관하는 인스턴스를 빌려 쓰고, 닫을 때 돌려놓습니다.
+ *
+ * @author jungbin97
+ * @see HttpResponse#getChunkedOutputStream()
+ * @see ResponseCompression
+ */
+final class CompressingOutputStream extends OutputStream {
+    private final OutputStream out;
+    private final boolean gzip;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] buffer = new byte[ChunkedOutputStream.DEFAULT_CHUNK_SIZE];
+    private final byte[] single = new byte[1];
+    private long bytesIn;
+    private long bytesOut;
+    private long nanos;
+    private boolean closed;
+
+    CompressingOutputStream(OutputStream out, String encoding, int level) throws IOException {
+        this.out = out;
+        this.gzip = ResponseCompression.GZIP.equals(encoding);
+        this.deflater = ResponseCompression.borrow(gzip, level);
+        if (gzip) {
+            out.write(ResponseCompression.GZIP_HEADER);
+            bytesOut += ResponseCompression.GZIP_HEADER.length;
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        single[0] = (byte) b;
+        write(single, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (len == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (gzip) {
+            crc.update(b, off, len);
+        }
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            deflate(Deflater.NO_FLUSH);
+        }
+        bytesIn += len;
+        nanos += System.nanoTime() - start;
+    }
+
+    /**
+     * 지금까지 쓴 데이터를 압축 블록 경계까지 내보내고 하위 스트림을 flush합니다.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        long start = System.nanoTime();
+        int n;
+        do {
+            n = deflate(Deflater.SYNC_FLUSH);
+        } while (n == buffer.length);
+        nanos += System.nanoTime() - start;
+        out.flush();
+    }
+
+    /**
+     * 남은 데이터와 gzip 트레일러를 내보내고 하위 스트림을 닫습니다. 여러 번 호출해도 안전합니다.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            long start = System.nanoTime();
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+            if (gzip) {
+                writeIntLE((int) crc.getValue());
+                writeIntLE((int) bytesIn);
+                bytesOut += ResponseCompression.GZIP_TRAILER_SIZE;
+            }
+            nanos += System.nanoTime() - start;
+        } finally {
+            ResponseCompression.release(deflater, gzip);
+            ResponseCompression.record(bytesIn, bytesOut, nanos);
+        }
+        out.close();
+    }
+
+    private int deflate(int flush) throws IOException {
+        int n = deflater.deflate(buffer, 0, buffer.length, flush);
+        if (n > 0) {
+            out.write(buffer, 0, n);
+            bytesOut += n;
+        }
+        return n;
+    }
+
+    private void writeIntLE(int value) throws IOException {
+        out.write(value);
+        out.write(value >> 8);
+        out.write(value >> 16);
+        out.write(value >> 24);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
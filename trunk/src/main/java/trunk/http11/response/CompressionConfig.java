@@ -0,0 +1,83 @@
+package trunk.http11.response;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/**
+ * 응답 본문 압축 설정입니다.
+ * <p>
+ * 클라이언트가 {@code Accept-Encoding}으로 {@code gzip}이나 {@code deflate}를 받을 수 있다고 알렸고, 응답의 {@code Content-Type}이
+ * 압축 대상 MIME 타입이며, 본문이 최소 크기 이상이면 압축합니다. 길이를 미리 알 수 없는 스트리밍 본문은 크기와 관계없이 압축합니다.
+ * 이미 압축된 형식(이미지 등)은 압축해도 줄지 않고 CPU만 쓰므로 기본 목록에 넣지 않습니다.
+ * <p>
+ * 엔드포인트마다 하나의 인스턴스를 두며, 서버를 시작하기 전에 설정해야 합니다.
+ *
+ * @author jungbin97
+ * @see ResponseCompression
+ */
+public class CompressionConfig {
+    public static final int DEFAULT_MIN_SIZE = 1024;
+    public static final Set<String> DEFAULT_MIME_TYPES = Set.of(
+            "text/html", "text/plain", "text/css", "text/xml", "text/javascript",
+            "application/javascript", "application/json", "application/xml", "image/svg+xml");
+
+    private boolean enabled = true;
+    private int minSize = DEFAULT_MIN_SIZE;
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private Set<String> mimeTypes = DEFAULT_MIME_TYPES;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return 압축할 본문의 최소 바이트 수. 이보다 작은 본문은 압축 헤더와 CPU 비용이 이득보다 큽니다.
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+
+    /**
+     * @return {@link Deflater}의 압축 레벨 (0~9, 기본값 {@link Deflater#DEFAULT_COMPRESSION})
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    public Set<String> getMimeTypes() {
+        return mimeTypes;
+    }
+
+    /**
+     * @param mimeTypes 압축할 MIME 타입. {@code charset} 등의 파라미터는 제외하고 소문자로 적습니다.
+     */
+    public void setMimeTypes(Set<String> mimeTypes) {
+        this.mimeTypes = Set.copyOf(mimeTypes);
+    }
+
+    /**
+     * @param contentType 응답의 {@code Content-Type} 헤더 값
+     * @return 압축 대상 MIME 타입이면 {@code true}
+     */
+    public boolean isCompressible(String contentType) {
+        if (!enabled || contentType == null) {
+            return false;
+        }
+        int semicolon = contentType.indexOf(';');
+        String mimeType = (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).trim();
+        return mimeTypes.contains(mimeType.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,38 @@
+package trunk.http11.response;
+
+/**
+ * 파일 본문 중 전송할 한 구간입니다. 구간 앞에 보낼 바이트({@code prefix})를 함께 가질 수 있습니다.
+ * <p>
+ * {@code Range} 요청에 대한 {@code 206 Partial Content} 응답처럼 파일의 일부만 보내거나, {@code multipart/byteranges}처럼
+ * 여러 구간 사이에 파트 헤더를 끼워 보낼 때 사용합니다. 커넥터는 구간마다 {@code prefix}를 쓴 뒤 파일의
+ * {@code [offset, offset + length)}를 Zero-Copy로 전송하므로, 부분 응답도 파일을 메모리에 읽어 들이지 않습니다.
+ * 파일을 보내지 않고 {@code prefix}만 보내는 구간({@code length == 0})은 multipart 본문의 마지막 경계에 사용합니다.
+ *
+ * @param prefix 구간 앞에 보낼 바이트. 없으면 {@code null}
+ * @param offset 파일에서 전송을 시작할 위치
+ * @param length 전송할 파일 바이트 수
+ * @author jungbin97
+ * @see HttpResponse#setFileBody(java.nio.file.Path, java.util.List)
+ */
+public record FileRegion(byte[] prefix, long offset, long length) {
+
+    public FileRegion {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid file region: offset=" + offset + ", length=" + length);
+        }
+    }
+
+    /**
+     * @return 앞에 보낼 바이트 없이 파일의 {@code [offset, offset + length)}만 보내는 구간
+     */
+    public static FileRegion of(long offset, long length) {
+        return new FileRegion(null, offset, length);
+    }
+
+    /**
+     * @return {@code prefix}와 파일 구간을 합친 전송 바이트 수
+     */
+    public long size() {
+        return (prefix != null ? prefix.length : 0) + length;
+    }
+}
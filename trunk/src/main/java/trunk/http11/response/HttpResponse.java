@@ -1,19 +1,45 @@
 package trunk.http11.response;
 
+import trunk.http11.Recycling;
+import trunk.websocket.WebSocketEndpoint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
  * HTTP 응답을 생성하고 표현하는 클래스입니다.
  * <p>
- * 이 클래스는 응답 본문을 두가지 방시긍로 처리할 수 있도록 설계되었습니다:
+ * 이 클래스는 응답 본문을 세가지 방식으로 처리할 수 있도록 설계되었습니다:
  * <ol>
  * <li><b>메모리 기반 본문:</b> {@code byte[]} 배열을 사용하여 동적으로 생성된 콘텐츠(예: JSON, HTML 문자열)를 처리합니다.</li>
  * <li><b>파일 기반 본문:</b> {@link Path} 객체를 사용하여 디스크에 있는 정적 파일(예: HTML, CSS, 이미지)을 참조합니다.
  * 이 방식은 하위 I/O 계층에서 Zero-Copy 최적화를 가능하게 합니다.</li>
+ * <li><b>스트리밍 본문:</b> {@link #getChunkedOutputStream()}으로 얻은 스트림에 쓰는 즉시 {@code Transfer-Encoding: chunked}
+ * 형식으로 커넥션에 전송합니다. 길이를 미리 알 수 없는 큰 동적 응답의 첫 바이트 지연과 메모리 사용량을 줄입니다.</li>
  * </ol>
- * 응답 본문은 두 방식 중 하나만 가질 수 있으며, 한쪽을 설정하면 다른 쪽은 초기화됩니다.
+ * 메모리/파일 본문은 둘 중 하나만 가질 수 있으며, 한쪽을 설정하면 다른 쪽은 초기화됩니다.
+ * <p>
+ * 본문을 직접 배열로 만들지 않고 {@link #getOutputStream()}이나 {@link #getWriter()}로 쓸 수도 있습니다.
+ * 쓴 데이터는 풀에서 빌린 버퍼에 모였다가 서블릿 실행이 끝나면 복사 없이 전송되며, 크기가 커지면 스트리밍 본문으로 전환됩니다.
+ * <p>
+ * 커넥터가 {@link #setCompression(CompressionConfig, String)}으로 압축을 허용하면 메모리 본문과 모은 본문은
+ * {@link #compressBody()}에서, 스트리밍 본문은 쓰는 즉시 {@code gzip}/{@code deflate}로 압축됩니다. 파일 본문은 Zero-Copy를,
+ * 미리 인코딩한 응답은 공유 버퍼를 그대로 전송하기 위해 압축하지 않습니다.
+ * <p>
+ * HTTP/1.1 커넥터는 응답 객체를 커넥션마다 하나씩 두고, 응답을 전송할 버퍼를 만든 뒤 {@link #recycle()}로 초기화하여
+ * 다음 요청에 다시 사용합니다. 서블릿은 응답이 끝난 응답 객체나 그 출력 스트림을 보관해서는 안 됩니다.
  *
  * @author jungbin97
  * @see trunk.http11.request.HttpRequest
@@ -24,12 +50,28 @@ public class HttpResponse {
     private final Map<String, String> headers = new HashMap<>();
     private byte[] body;
     private Path fileBody;
+    private List<FileRegion> fileRegions;
+
+    private ResponseSink sink;
+    private Runnable commitListener;
+    private OutputStream streamingOutput;
+    private ResponseOutputStream bufferedOutput;
+    private PrintWriter writer;
+    private PreEncodedResponse preEncoded;
+    private CompressionConfig compressionConfig;
+    private String acceptedEncoding;
+    private boolean committed;
+    private boolean bodySuppressed;
+    private boolean contentLengthOmitted;
+    private WebSocketEndpoint webSocketEndpoint;
+    private boolean poisoned;
 
     /**
      * HTTP 응답 상태 코드를 설정합니다.
      * @param statusCode 설정할 HTTP 상태 코드
      */
     public void setStatusCode(int statusCode) {
+        checkNotPoisoned();
         this.statusCode = statusCode;
     }
 
@@ -39,6 +81,7 @@ public class HttpResponse {
      * @param value 헤더의 값
      */
     public void setHeader(String key, String value) {
+        checkNotPoisoned();
         headers.put(key, value);
     }
 
@@ -48,7 +91,10 @@ public class HttpResponse {
      * @param body 응답 본문을 구성하는 바이트 배열
      */
     public void setBody(byte[] body) {
+        checkNotPoisoned();
+        discardBufferedOutput();
         this.fileBody = null;
+        this.fileRegions = null;
         this.body = body;
     }
 
@@ -59,8 +105,22 @@ public class HttpResponse {
      * @param path 전송할 파일의 Path 객체
      */
     public void setFileBody(Path path) {
+        setFileBody(path, null);
+    }
+
+    /**
+     * 파일의 일부 구간들을 응답 본문으로 설정합니다. 구간들은 순서대로 Zero-Copy로 전송됩니다.
+     * {@code Range} 요청에 대한 {@code 206 Partial Content} 응답에 사용합니다.
+     *
+     * @param path    전송할 파일의 Path 객체
+     * @param regions 순서대로 전송할 구간. {@code null}이면 파일 전체를 전송합니다.
+     */
+    public void setFileBody(Path path, List<FileRegion> regions) {
+        checkNotPoisoned();
+        discardBufferedOutput();
         this.body = null;
         this.fileBody = path;
+        this.fileRegions = (regions != null) ? List.copyOf(regions) : null;
     }
 
     /**
@@ -71,6 +131,28 @@ public class HttpResponse {
         return fileBody;
     }
 
+    /**
+     * @return 전송할 파일 구간 목록. 파일 전체를 전송하면 {@code null}
+     */
+    public List<FileRegion> getFileRegions() {
+        return fileRegions;
+    }
+
+    /**
+     * @return 파일 본문으로 전송할 바이트 수. 구간이 설정되어 있으면 구간 앞의 바이트를 포함한 합계, 아니면 파일 크기
+     * @throws IOException 파일 크기를 얻는 중 오류가 발생할 경우
+     */
+    public long getFileBodyLength() throws IOException {
+        if (fileRegions == null) {
+            return Files.size(fileBody);
+        }
+        long length = 0;
+        for (FileRegion region : fileRegions) {
+            length += region.size();
+        }
+        return length;
+    }
+
     /**
      * 응답 본문이 파일(Path) 형태로 설정되었는지 여부를 확인합니다.
      * @return 파일 본문이 설정되어 있으면 true, 아니면 false
@@ -79,30 +161,53 @@ public class HttpResponse {
         return fileBody != null;
     }
 
+    /**
+     * 미리 인코딩한 공유 응답으로 이 응답을 설정합니다. 상태 코드, 공유 헤더, 본문이 함께 설정됩니다.
+     * <p>
+     * 이후에 서블릿이나 컨테이너가 추가한 헤더는 요청별 헤더로 함께 전송되며, 상태 코드나 공유 헤더의 값, 본문을 바꾸면
+     * 일반 응답으로 인코딩됩니다.
+     *
+     * @param preEncoded 상수로 만들어 둔 공유 응답
+     */
+    public void setPreEncodedResponse(PreEncodedResponse preEncoded) {
+        checkNotPoisoned();
+        discardBufferedOutput();
+        this.fileBody = null;
+        this.fileRegions = null;
+        this.statusCode = preEncoded.getStatusCode();
+        headers.putAll(preEncoded.getHeaders());
+        this.body = preEncoded.getBody();
+        this.preEncoded = preEncoded;
+    }
+
+    /**
+     * @return 설정한 공유 응답을 그대로 전송할 수 있으면 그 응답, 아니면 {@code null}
+     */
+    public PreEncodedResponse getPreEncodedResponse() {
+        return (preEncoded != null && preEncoded.matches(this)) ? preEncoded : null;
+    }
+
     /**
      * 302 Found 리다이렉트 응답을 설정하는 편의 메서드입니다.
      * @param location 리다이렉트할 URL
      */
     public void sendRedirect(String location) {
+        checkNotPoisoned();
         this.statusCode = 302;
         headers.put("Location", location);
         headers.put("Content-Length", "0");
     }
 
+    /**
+     * @return 상태 코드의 사유 문구. 등록되지 않은 코드이면 빈 문자열
+     * @see HttpStatus
+     */
     public String getStatusMessage() {
-        return switch (statusCode) {
-            case 200 -> "OK";
-            case 301 -> "Moved Permanently";
-            case 302 -> "Found";
-            case 307 -> "Temporary Redirect";
-            case 308 -> "Permanent Redirect";
-            case 404 -> "Not Found";
-            case 500 -> "Internal Server Error";
-            default -> "Unknown Status";
-        };
+        return HttpStatus.reasonPhrase(statusCode);
     }
 
     public void addHeader(String key, String value) {
+        checkNotPoisoned();
         headers.put(key, value);
     }
 
@@ -118,7 +223,394 @@ public class HttpResponse {
         return headers;
     }
 
+    /**
+     * 메모리 본문을 반환합니다. {@link #getOutputStream()}으로 모은 본문이 있으면 하나의 배열로 합쳐 메모리 본문으로 설정합니다.
+     * @return 응답 본문, 없으면 {@code null}
+     */
     public byte[] getBody() {
+        if (bufferedOutput != null && bufferedOutput.isBuffering()) {
+            flushWriter();
+            if (bufferedOutput.isBuffering()) {
+                body = bufferedOutput.toByteArray();
+            }
+        }
         return body;
     }
+
+    /**
+     * 본문을 모으는 출력 스트림을 반환합니다.
+     * <p>
+     * 쓴 데이터는 서블릿 실행이 끝난 뒤 {@code Content-Length}와 함께 전송됩니다. 모인 크기가 커지면 응답을 커밋하고
+     * {@link #getChunkedOutputStream()}과 같은 청크 전송으로 전환합니다.
+     *
+     * @return 본문 출력 스트림. 여러 번 호출해도 같은 스트림을 반환합니다.
+     * @throws IllegalStateException 이미 {@link #getWriter()}를 호출한 경우
+     */
+    public OutputStream getOutputStream() {
+        checkNotPoisoned();
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        return outputStream();
+    }
+
+    /**
+     * 본문을 문자로 쓰는 {@link PrintWriter}를 반환합니다. {@link #getOutputStream()}과 같은 버퍼에 씁니다.
+     * <p>
+     * 문자 인코딩은 {@code Content-Type} 헤더의 {@code charset}을 따르며, 없으면 UTF-8입니다.
+     * 따라서 {@code Content-Type}은 이 메서드를 호출하기 전에 설정해야 합니다.
+     *
+     * @return 본문 writer. 여러 번 호출해도 같은 writer를 반환합니다.
+     * @throws IllegalStateException 이미 {@link #getOutputStream()}을 호출한 경우
+     */
+    public PrintWriter getWriter() {
+        checkNotPoisoned();
+        if (writer == null) {
+            if (bufferedOutput != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(outputStream(), charset()));
+        }
+        return writer;
+    }
+
+    /**
+     * @return {@link #getOutputStream()}으로 모아 둔, 아직 전송하지 않은 본문이 있으면 {@code true}
+     */
+    public boolean hasBufferedBody() {
+        flushWriter();
+        return bufferedOutput != null && bufferedOutput.isBuffering();
+    }
+
+    /**
+     * 모아 둔 본문 버퍼를 넘기고 비웁니다. 버퍼를 전송한 뒤 {@link ResponseSender#release(ByteBuffer)}로 반납해야 합니다.
+     */
+    List<ByteBuffer> drainBufferedBody() {
+        flushWriter();
+        return bufferedOutput.drain();
+    }
+
+    /**
+     * 청크 전송으로 전환할 수 있는지, 즉 커넥션에 바인딩되어 있는지 여부를 반환합니다.
+     */
+    boolean canStream() {
+        return sink != null;
+    }
+
+    private ResponseOutputStream outputStream() {
+        if (bufferedOutput == null) {
+            bufferedOutput = new ResponseOutputStream(this);
+        }
+        return bufferedOutput;
+    }
+
+    private Charset charset() {
+        String contentType = headers.get("Content-Type");
+        if (contentType != null) {
+            int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+            if (index >= 0) {
+                String name = contentType.substring(index + "charset=".length()).trim();
+                int end = name.indexOf(';');
+                name = (end < 0 ? name : name.substring(0, end)).trim().replace("\"", "");
+                if (Charset.isSupported(name)) {
+                    return Charset.forName(name);
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private void flushWriter() {
+        if (writer != null) {
+            // 인코더에 남은 문자를 버퍼로 내보낸다. 닫힌 writer는 아무 일도 하지 않는다
+            writer.flush();
+        }
+    }
+
+    private void discardBufferedOutput() {
+        if (bufferedOutput != null) {
+            flushWriter();
+            bufferedOutput.discard();
+        }
+    }
+
+    /**
+     * 응답 본문 압축을 허용합니다. 커넥터가 서블릿 실행 전에 호출합니다.
+     *
+     * @param config         커넥터의 압축 설정. {@code null}이면 압축하지 않습니다.
+     * @param acceptEncoding 요청의 {@code Accept-Encoding} 헤더 값
+     * @see ResponseCompression#negotiate(String)
+     */
+    public void setCompression(CompressionConfig config, String acceptEncoding) {
+        this.compressionConfig = config;
+        this.acceptedEncoding = config == null ? null : ResponseCompression.negotiate(acceptEncoding);
+    }
+
+    CompressionConfig getCompressionConfig() {
+        return compressionConfig;
+    }
+
+    /**
+     * @return 클라이언트와 협상한 압축 인코딩, 없으면 {@code null}
+     */
+    String getAcceptedEncoding() {
+        return acceptedEncoding;
+    }
+
+    /**
+     * 아직 전송하지 않은 메모리 본문이나 모은 본문을 압축하고 {@code Content-Encoding}을 설정합니다.
+     * 커넥터가 {@link #finishStreaming()} 뒤, 응답을 인코딩하기 전에 호출합니다.
+     * <p>
+     * 압축 대상 타입이 아니거나, 본문이 최소 크기보다 작거나, 이미 {@code Content-Encoding}이 설정된 응답은 그대로 둡니다.
+     * 커밋된 스트리밍 응답, 파일 본문, 그대로 전송할 수 있는 미리 인코딩한 응답도 그대로 둡니다.
+     * <p>
+     * 본문을 보내지 않는 {@code HEAD} 응답은 압축하지 않고 GET 응답과 같은 {@code Vary}, {@code Content-Encoding}만 설정합니다.
+     * 압축된 길이는 압축해야만 알 수 있으므로 이때는 {@code Content-Length}를 보내지 않습니다.
+     */
+    public void compressBody() {
+        if (committed || compressionConfig == null || fileBody != null || getPreEncodedResponse() != null) {
+            return;
+        }
+        flushWriter();
+        if (bodySuppressed) {
+            long length = (bufferedOutput != null && bufferedOutput.isBuffering()) ? bufferedOutput.size()
+                    : (body != null ? body.length : 0);
+            String encoding = length > 0 ? ResponseCompression.select(this, length) : null;
+            if (encoding != null) {
+                setContentEncoding(encoding);
+                contentLengthOmitted = true;
+            }
+        } else if (bufferedOutput != null && bufferedOutput.isBuffering()) {
+            String encoding = ResponseCompression.select(this, bufferedOutput.size());
+            if (encoding != null) {
+                bufferedOutput.compress(encoding, compressionConfig.getLevel());
+                setContentEncoding(encoding);
+            }
+        } else if (body != null && body.length > 0) {
+            String encoding = ResponseCompression.select(this, body.length);
+            if (encoding != null) {
+                body = ResponseCompression.compress(body, encoding, compressionConfig.getLevel());
+                setContentEncoding(encoding);
+            }
+        }
+    }
+
+    private void setContentEncoding(String encoding) {
+        headers.put("Content-Encoding", encoding);
+        // 길이는 압축된 본문으로 커넥터가 다시 계산한다
+        headers.remove("Content-Length");
+    }
+
+    /**
+     * 스트리밍 응답을 전송할 커넥션 측 출구를 바인딩합니다. 커넥터가 서블릿 실행 전에 호출합니다.
+     * @param sink 응답 바이트를 커넥션으로 내보낼 {@link ResponseSink}
+     */
+    public void setResponseSink(ResponseSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * 상태 라인과 헤더가 커넥션으로 전송되기 직전에 한 번 실행할 작업을 등록합니다.
+     * 세션 쿠키처럼 서블릿 실행 결과에 따라 붙는 헤더를 커밋 전에 반영하기 위해 사용됩니다.
+     * @param listener 커밋 직전에 실행할 작업
+     */
+    public void setCommitListener(Runnable listener) {
+        this.commitListener = listener;
+    }
+
+    /**
+     * 본문을 청크 단위로 즉시 전송하는 스트리밍 출력 스트림을 반환합니다.
+     * <p>
+     * 최초 호출 시 응답이 커밋되어 {@code Content-Length} 대신 {@code Transfer-Encoding: chunked} 헤더와 함께
+     * 상태 라인/헤더가 먼저 전송되며, 이후에는 상태 코드와 헤더를 변경할 수 없습니다.
+     * 바인딩된 {@link ResponseSink}가 없는 경우(예: HTTP/1.0 요청, 단위 테스트)에는 스트림을 닫을 때 메모리 본문으로 설정되어
+     * {@code Content-Length}와 함께 전송됩니다. {@code HEAD} 응답도 이때는 같은 요청의 GET 응답과 같은 길이를 알리도록 본문을 모읍니다.
+     * 압축을 협상한 응답은 {@code Content-Encoding} 헤더와 함께 커밋되고, 쓴 데이터는 압축되어 청크로 전송됩니다.
+     *
+     * @return 청크 인코딩 출력 스트림. 다 쓴 후에는 반드시 닫아야 합니다.
+     * @throws IOException 헤더 전송 중 I/O 오류가 발생한 경우
+     */
+    public OutputStream getChunkedOutputStream() throws IOException {
+        checkNotPoisoned();
+        if (streamingOutput != null) {
+            return streamingOutput;
+        }
+
+        if (bodySuppressed && sink != null) {
+            // HEAD 응답: 서블릿이 쓰는 본문은 버리고, 헤더는 서블릿 실행 후 커넥터가 전송한다
+            headers.remove("Content-Length");
+            headers.put("Transfer-Encoding", "chunked");
+            String encoding = ResponseCompression.select(this, -1);
+            if (encoding != null) {
+                headers.put("Content-Encoding", encoding);
+            }
+            streamingOutput = OutputStream.nullOutputStream();
+            return streamingOutput;
+        }
+
+        if (sink == null) {
+            streamingOutput = new BufferedBodyOutputStream();
+            return streamingOutput;
+        }
+
+        if (commitListener != null) {
+            commitListener.run();
+        }
+        headers.remove("Content-Length");
+        headers.put("Transfer-Encoding", "chunked");
+        String encoding = ResponseCompression.select(this, -1);
+        if (encoding != null) {
+            headers.put("Content-Encoding", encoding);
+        }
+        committed = true;
+
+        sink.write(ResponseSender.createHeaderBuffer(this));
+        OutputStream chunked = new ChunkedOutputStream(sink);
+        streamingOutput = encoding == null ? chunked
+                : new CompressingOutputStream(chunked, encoding, compressionConfig.getLevel());
+        return streamingOutput;
+    }
+
+    /**
+     * 최종 응답에 앞서 {@code 103 Early Hints} 중간 응답을 보내, 클라이언트가 하위 리소스를 미리 불러오게 합니다.
+     * <p>
+     * 중간 응답은 커밋이 아니므로 이후에도 상태 코드와 헤더를 자유롭게 설정할 수 있습니다.
+     * 바인딩된 {@link ResponseSink}가 없거나(예: HTTP/2) 이미 커밋된 응답에서는 아무 일도 하지 않습니다.
+     *
+     * @param links {@code Link} 헤더 값 목록 (예: {@code </css/a.css>; rel=preload; as=style})
+     * @throws IOException 중간 응답 전송 중 I/O 오류가 발생한 경우
+     */
+    public void sendEarlyHints(List<String> links) throws IOException {
+        checkNotPoisoned();
+        if (sink == null || committed || links.isEmpty()) {
+            return;
+        }
+        sink.write(ResponseSender.createEarlyHintsBuffer(links));
+    }
+
+    /**
+     * 이 응답을 {@code 101 Switching Protocols}로 설정하여, 응답 전송 후 커넥션을 WebSocket으로 전환하도록 요청합니다.
+     * <p>
+     * 실제 전환은 커넥터가 응답을 보낸 뒤에 수행하며, 전환을 지원하지 않는 커넥터는 요청을 거절합니다.
+     * {@code Sec-WebSocket-Accept} 등 핸드셰이크 헤더는 호출자가 설정해야 합니다.
+     *
+     * @param endpoint 전환된 커넥션의 메시지를 받을 처리기
+     */
+    public void upgradeToWebSocket(WebSocketEndpoint endpoint) {
+        checkNotPoisoned();
+        this.statusCode = 101;
+        this.body = null;
+        this.fileBody = null;
+        this.fileRegions = null;
+        headers.put("Upgrade", "websocket");
+        headers.put("Connection", "Upgrade");
+        this.webSocketEndpoint = endpoint;
+    }
+
+    /**
+     * @return WebSocket 전환이 요청되었으면 그 처리기, 아니면 {@code null}
+     */
+    public WebSocketEndpoint getWebSocketEndpoint() {
+        return webSocketEndpoint;
+    }
+
+    /**
+     * 상태 라인과 헤더가 이미 커넥션으로 전송되었는지 여부를 반환합니다.
+     * @return 스트리밍 응답이 시작되었으면 {@code true}
+     */
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    /**
+     * 본문을 설정하되 전송하지 않도록 표시합니다. {@code HEAD} 요청의 응답에 사용됩니다.
+     * <p>
+     * 커넥터는 설정된 본문(메모리/파일)의 길이로 {@code Content-Length}를 계산해 헤더만 보내고, 본문 복사나
+     * 파일 전송은 하지 않습니다. 스트리밍 본문은 길이를 알 수 없으므로 {@code Content-Length} 없이 헤더만 보냅니다.
+     *
+     * @param bodySuppressed 본문을 생략하면 {@code true}
+     */
+    public void setBodySuppressed(boolean bodySuppressed) {
+        this.bodySuppressed = bodySuppressed;
+    }
+
+    /**
+     * @return 본문 없이 헤더만 전송해야 하면 {@code true}
+     */
+    public boolean isBodySuppressed() {
+        return bodySuppressed;
+    }
+
+    /**
+     * @return 압축을 생략한 {@code HEAD} 응답처럼 GET 응답의 본문 길이를 알 수 없어 {@code Content-Length}를 붙이지 않아야 하면 {@code true}
+     */
+    boolean isContentLengthOmitted() {
+        return contentLengthOmitted;
+    }
+
+    /**
+     * 서블릿이 닫지 않은 스트리밍 본문을 마무리합니다. 커넥터가 서블릿 실행이 끝난 후 호출합니다.
+     * <p>
+     * {@link #getWriter()}에 남은 문자를 버퍼로 내보내며, 청크 전송으로 전환되지 않은 본문은 그대로 두어 커넥터가 전송하게 합니다.
+     * @throws IOException 마지막 청크 전송 중 I/O 오류가 발생한 경우
+     */
+    public void finishStreaming() throws IOException {
+        flushWriter();
+        if (streamingOutput != null) {
+            streamingOutput.close();
+        }
+    }
+
+    /**
+     * 전송할 버퍼를 만든 응답을 초기화합니다. 헤더 맵은 비우기만 하여 다음 요청에서 다시 씁니다.
+     * 전송하지 않고 남은 본문 버퍼는 풀로 반납하며, 서블릿이 붙잡고 있던 출력 스트림과 writer는 더 이상 쓸 수 없습니다.
+     * <p>
+     * {@link Recycling#isPoisonEnabled()}이면 이 객체는 다시 쓸 수 없게 되며, 이후의 변경은 {@link IllegalStateException}으로 실패합니다.
+     */
+    public void recycle() {
+        if (bufferedOutput != null) {
+            bufferedOutput.recycle();
+        }
+        statusCode = 0;
+        headers.clear();
+        body = null;
+        fileBody = null;
+        fileRegions = null;
+        sink = null;
+        commitListener = null;
+        streamingOutput = null;
+        bufferedOutput = null;
+        writer = null;
+        preEncoded = null;
+        compressionConfig = null;
+        acceptedEncoding = null;
+        committed = false;
+        bodySuppressed = false;
+        contentLengthOmitted = false;
+        webSocketEndpoint = null;
+        poisoned = Recycling.isPoisonEnabled();
+    }
+
+    /**
+     * @return {@link #recycle()} 이후 다시 쓸 수 없도록 표시되었으면 {@code true}
+     */
+    public boolean isPoisoned() {
+        return poisoned;
+    }
+
+    private void checkNotPoisoned() {
+        if (poisoned) {
+            throw new IllegalStateException("Response has been recycled; it must not be used after the response is complete");
+        }
+    }
+
+    /**
+     * 커넥션에 바인딩되지 않은 응답에서 스트리밍 본문을 메모리에 모았다가, 닫힐 때 본문으로 설정합니다.
+     */
+    private class BufferedBodyOutputStream extends ByteArrayOutputStream {
+        @Override
+        public void close() {
+            setBody(toByteArray());
+        }
+    }
 }
\ No newline at end of file
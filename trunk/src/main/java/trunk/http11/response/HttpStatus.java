@@ -0,0 +1,140 @@
+package trunk.http11.response;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * IANA에 등록된 HTTP 상태 코드와 사유 문구(reason phrase)의 목록입니다.
+ * <p>
+ * 상수마다 {@code HTTP/1.1 200 OK\r\n} 형태의 상태 라인을 미리 바이트로 인코딩해 두므로,
+ * 응답을 직렬화할 때 숫자를 문자열로 바꾸거나 문자열을 이어 붙이지 않고 배열을 그대로 복사합니다.
+ * 상태 코드로 상수를 찾는 것은 배열 조회 한 번입니다.
+ *
+ * @author jungbin97
+ * @see HttpResponse#getStatusMessage()
+ * @see ResponseHeaderEncoder
+ */
+public enum HttpStatus {
+    CONTINUE(100, "Continue"),
+    SWITCHING_PROTOCOLS(101, "Switching Protocols"),
+    PROCESSING(102, "Processing"),
+    EARLY_HINTS(103, "Early Hints"),
+
+    OK(200, "OK"),
+    CREATED(201, "Created"),
+    ACCEPTED(202, "Accepted"),
+    NON_AUTHORITATIVE_INFORMATION(203, "Non-Authoritative Information"),
+    NO_CONTENT(204, "No Content"),
+    RESET_CONTENT(205, "Reset Content"),
+    PARTIAL_CONTENT(206, "Partial Content"),
+    MULTI_STATUS(207, "Multi-Status"),
+    ALREADY_REPORTED(208, "Already Reported"),
+    IM_USED(226, "IM Used"),
+
+    MULTIPLE_CHOICES(300, "Multiple Choices"),
+    MOVED_PERMANENTLY(301, "Moved Permanently"),
+    FOUND(302, "Found"),
+    SEE_OTHER(303, "See Other"),
+    NOT_MODIFIED(304, "Not Modified"),
+    USE_PROXY(305, "Use Proxy"),
+    TEMPORARY_REDIRECT(307, "Temporary Redirect"),
+    PERMANENT_REDIRECT(308, "Permanent Redirect"),
+
+    BAD_REQUEST(400, "Bad Request"),
+    UNAUTHORIZED(401, "Unauthorized"),
+    PAYMENT_REQUIRED(402, "Payment Required"),
+    FORBIDDEN(403, "Forbidden"),
+    NOT_FOUND(404, "Not Found"),
+    METHOD_NOT_ALLOWED(405, "Method Not Allowed"),
+    NOT_ACCEPTABLE(406, "Not Acceptable"),
+    PROXY_AUTHENTICATION_REQUIRED(407, "Proxy Authentication Required"),
+    REQUEST_TIMEOUT(408, "Request Timeout"),
+    CONFLICT(409, "Conflict"),
+    GONE(410, "Gone"),
+    LENGTH_REQUIRED(411, "Length Required"),
+    PRECONDITION_FAILED(412, "Precondition Failed"),
+    CONTENT_TOO_LARGE(413, "Content Too Large"),
+    URI_TOO_LONG(414, "URI Too Long"),
+    UNSUPPORTED_MEDIA_TYPE(415, "Unsupported Media Type"),
+    RANGE_NOT_SATISFIABLE(416, "Range Not Satisfiable"),
+    EXPECTATION_FAILED(417, "Expectation Failed"),
+    MISDIRECTED_REQUEST(421, "Misdirected Request"),
+    UNPROCESSABLE_CONTENT(422, "Unprocessable Content"),
+    LOCKED(423, "Locked"),
+    FAILED_DEPENDENCY(424, "Failed Dependency"),
+    TOO_EARLY(425, "Too Early"),
+    UPGRADE_REQUIRED(426, "Upgrade Required"),
+    PRECONDITION_REQUIRED(428, "Precondition Required"),
+    TOO_MANY_REQUESTS(429, "Too Many Requests"),
+    REQUEST_HEADER_FIELDS_TOO_LARGE(431, "Request Header Fields Too Large"),
+    UNAVAILABLE_FOR_LEGAL_REASONS(451, "Unavailable For Legal Reasons"),
+
+    INTERNAL_SERVER_ERROR(500, "Internal Server Error"),
+    NOT_IMPLEMENTED(501, "Not Implemented"),
+    BAD_GATEWAY(502, "Bad Gateway"),
+    SERVICE_UNAVAILABLE(503, "Service Unavailable"),
+    GATEWAY_TIMEOUT(504, "Gateway Timeout"),
+    HTTP_VERSION_NOT_SUPPORTED(505, "HTTP Version Not Supported"),
+    VARIANT_ALSO_NEGOTIATES(506, "Variant Also Negotiates"),
+    INSUFFICIENT_STORAGE(507, "Insufficient Storage"),
+    LOOP_DETECTED(508, "Loop Detected"),
+    NETWORK_AUTHENTICATION_REQUIRED(511, "Network Authentication Required");
+
+    private static final int MIN_CODE = 100;
+    private static final int MAX_CODE = 599;
+    private static final HttpStatus[] BY_CODE = new HttpStatus[MAX_CODE - MIN_CODE + 1];
+
+    static {
+        for (HttpStatus status : values()) {
+            BY_CODE[status.code - MIN_CODE] = status;
+        }
+    }
+
+    private final int code;
+    private final String reasonPhrase;
+    private final byte[] statusLine;
+
+    HttpStatus(int code, String reasonPhrase) {
+        this.code = code;
+        this.reasonPhrase = reasonPhrase;
+        this.statusLine = encodeStatusLine(code, reasonPhrase);
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getReasonPhrase() {
+        return reasonPhrase;
+    }
+
+    /**
+     * @return 등록된 상태 코드의 상수, 없으면 {@code null}
+     */
+    public static HttpStatus valueOf(int code) {
+        if (code < MIN_CODE || code > MAX_CODE) {
+            return null;
+        }
+        return BY_CODE[code - MIN_CODE];
+    }
+
+    /**
+     * @return 등록된 상태 코드의 사유 문구. 등록되지 않은 코드는 빈 문자열입니다 (RFC 9112는 사유 문구를 생략할 수 있게 허용합니다).
+     */
+    public static String reasonPhrase(int code) {
+        HttpStatus status = valueOf(code);
+        return status == null ? "" : status.reasonPhrase;
+    }
+
+    /**
+     * {@code HTTP/1.1 <code> <reason>\r\n} 형태의 상태 라인을 반환합니다. 반환한 배열을 수정해서는 안 됩니다.
+     * 등록된 코드는 미리 인코딩한 배열을 그대로, 등록되지 않은 코드는 새로 인코딩한 배열을 반환합니다.
+     */
+    static byte[] statusLine(int code) {
+        HttpStatus status = valueOf(code);
+        return status == null ? encodeStatusLine(code, "") : status.statusLine;
+    }
+
+    private static byte[] encodeStatusLine(int code, String reasonPhrase) {
+        return ("HTTP/1.1 " + code + " " + reasonPhrase + "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,121 @@
+package trunk.http11.response;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 상태 라인, 헤더, 본문을 미리 한 번만 인코딩해 두고 여러 요청이 공유하는 불변 응답입니다.
+ * <p>
+ * 404 페이지나 고정된 주소로의 리다이렉트처럼 요청마다 같은 바이트를 만드는 응답에 사용합니다. 서블릿은 상수로 만들어 둔
+ * 인스턴스를 {@link HttpResponse#setPreEncodedResponse(PreEncodedResponse)}로 돌려주기만 하면 됩니다.
+ * <p>
+ * 인코딩한 바이트는 읽기 전용 다이렉트 버퍼로 보관하며, NIO 커넥터는 요청마다 {@link ByteBuffer#duplicate()}한 뷰를
+ * 쓰기 큐에 넣으므로 바이트를 새로 만들거나 복사하지 않습니다. {@code Date}, 세션의 {@code Set-Cookie},
+ * 커넥터의 {@code Connection}처럼 요청마다 달라지는 헤더는 작은 버퍼 하나에 인코딩하여 공유 버퍼 사이에 끼워 넣고,
+ * 세 버퍼를 한 번의 gathering write로 전송합니다 ({@link ResponseSender#createPreEncodedResponse(HttpResponse, PreEncodedResponse)}).
+ * <p>
+ * 서블릿이 상태 코드, 공유 헤더의 값, 본문을 바꾸면 미리 인코딩한 바이트를 쓰지 않고 일반 응답으로 인코딩합니다.
+ *
+ * @author jungbin97
+ * @see HttpResponse#setPreEncodedResponse(PreEncodedResponse)
+ */
+public final class PreEncodedResponse {
+    private final int statusCode;
+    private final Map<String, String> headers;
+    private final byte[] body;
+    private final ByteBuffer head;
+    private final ByteBuffer bodyBuffer;
+
+    private PreEncodedResponse(int statusCode, Map<String, String> headers, byte[] body) {
+        this.statusCode = statusCode;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.body = body;
+
+        HttpResponse template = new HttpResponse();
+        template.setStatusCode(statusCode);
+        headers.forEach(template::setHeader);
+        this.head = readOnly(ResponseHeaderEncoder.encodeHead(template));
+        this.bodyBuffer = readOnly(body);
+    }
+
+    /**
+     * @param headers 모든 요청에 공통인 헤더. {@code Content-Length}는 본문 길이로 채웁니다.
+     * @param body    본문. 이후에 수정해서는 안 됩니다.
+     */
+    public static PreEncodedResponse of(int statusCode, Map<String, String> headers, byte[] body) {
+        Map<String, String> copy = new LinkedHashMap<>(headers);
+        copy.put("Content-Length", String.valueOf(body.length));
+        return new PreEncodedResponse(statusCode, copy, body);
+    }
+
+    /**
+     * {@code text/plain; charset=utf-8} 본문을 가진 응답을 만듭니다.
+     */
+    public static PreEncodedResponse text(int statusCode, String body) {
+        return of(statusCode, Map.of("Content-Type", "text/plain; charset=utf-8"), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * {@link HttpResponse#sendRedirect(String)}와 같은 {@code 302 Found} 응답을 만듭니다.
+     */
+    public static PreEncodedResponse redirect(String location) {
+        return of(302, Map.of("Location", location), new byte[0]);
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return 공유 헤더 (수정할 수 없음)
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return 공유 본문. 수정해서는 안 됩니다.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @return 서블릿이 이 응답을 돌려준 뒤 상태 코드, 공유 헤더, 본문을 바꾸지 않았으면 {@code true}
+     */
+    boolean matches(HttpResponse response) {
+        if (response.getStatusCode() != statusCode || response.hasFileBody() || response.hasBufferedBody()
+                || response.getBody() != body) {
+            return false;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (!header.getValue().equals(response.getHeader(header.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return 상태 라인과 공유 헤더를 담은 버퍼의 새 뷰
+     */
+    ByteBuffer head() {
+        return head.duplicate();
+    }
+
+    /**
+     * @return 본문을 담은 버퍼의 새 뷰
+     */
+    ByteBuffer body() {
+        return bodyBuffer.duplicate();
+    }
+
+    private static ByteBuffer readOnly(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+}
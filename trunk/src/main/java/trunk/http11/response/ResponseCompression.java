@@ -0,0 +1,271 @@
+package trunk.http11.response;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 응답 본문의 {@code gzip}/{@code deflate} 압축을 협상하고 수행하는 유틸리티 클래스입니다.
+ * <p>
+ * <ul>
+ *     <li>{@link #negotiate(String)}: 요청의 {@code Accept-Encoding}에서 사용할 인코딩을 고릅니다. {@code q} 값이 같으면 {@code gzip}을 우선합니다.</li>
+ *     <li>{@link #select(HttpResponse, long)}: 응답의 타입과 크기가 {@link CompressionConfig}에 맞는지 확인하고,
+ *     압축 대상 타입이면 클라이언트의 지원 여부와 관계없이 {@code Vary: Accept-Encoding}을 붙여 캐시가 인코딩별로 구분하게 합니다.</li>
+ *     <li>{@link #compress(List, String, int)}: 모아 둔 본문 버퍼를 풀 버퍼로 압축합니다. 입력 버퍼는 압축하는 즉시 반납하므로
+ *     원본과 압축본 전체를 동시에 들고 있지 않습니다.</li>
+ * </ul>
+ * {@link Deflater}는 네이티브 메모리를 할당하므로 요청마다 만들지 않고 스레드마다 인코딩별로 하나씩 보관해 재사용합니다.
+ * 사용 중인 인스턴스는 슬롯에서 꺼내 두므로, 비동기 응답처럼 다른 스레드에서 반납되어도 두 응답이 공유하지 않습니다.
+ * <p>
+ * 압축 전후의 바이트 수와 압축에 쓴 시간은 프로세스 전체에서 누적되며, 압축으로 아낀 대역폭과 CPU 비용을 비교하는 데 사용합니다.
+ *
+ * @author jungbin97
+ * @see CompressionConfig
+ * @see CompressingOutputStream
+ */
+public final class ResponseCompression {
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    /**
+     * 수정 시각과 추가 필드가 없는 gzip 헤더 ({@link java.util.zip.GZIPOutputStream}과 같음)
+     */
+    static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    static final int GZIP_TRAILER_SIZE = 8;
+
+    private static final ThreadLocal<Deflater> GZIP_DEFLATER = new ThreadLocal<>();
+    private static final ThreadLocal<Deflater> ZLIB_DEFLATER = new ThreadLocal<>();
+    private static final LongAdder BYTES_IN = new LongAdder();
+    private static final LongAdder BYTES_OUT = new LongAdder();
+    private static final LongAdder NANOS = new LongAdder();
+
+    private ResponseCompression() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param acceptEncoding 요청의 {@code Accept-Encoding} 헤더 값
+     * @return {@link #GZIP}, {@link #DEFLATE}, 또는 둘 다 받을 수 없으면 {@code null}
+     */
+    public static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        double gzip = 0;
+        double deflate = 0;
+        double any = 0;
+        for (String token : acceptEncoding.split(",")) {
+            int semicolon = token.indexOf(';');
+            String coding = (semicolon < 0 ? token : token.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+            double q = semicolon < 0 ? 1 : quality(token.substring(semicolon + 1));
+            switch (coding) {
+                case "gzip", "x-gzip" -> gzip = Math.max(gzip, q);
+                case "deflate" -> deflate = Math.max(deflate, q);
+                case "*" -> any = q;
+                default -> {
+                    // 지원하지 않는 인코딩
+                }
+            }
+        }
+        if (gzip == 0 && !acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip")) {
+            gzip = any;
+        }
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : null;
+    }
+
+    private static double quality(String parameter) {
+        String value = parameter.trim();
+        if (!value.startsWith("q=")) {
+            return 1;
+        }
+        try {
+            return Double.parseDouble(value.substring(2).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 응답을 압축할지 결정합니다. 압축 대상 타입이면 {@code Vary: Accept-Encoding}을 붙입니다.
+     * {@code 206} 응답의 구간은 원본 표현 기준이므로 압축하지 않습니다.
+     *
+     * @param length 본문 길이. 스트리밍 본문처럼 알 수 없으면 음수
+     * @return 사용할 인코딩, 압축하지 않으면 {@code null}
+     */
+    static String select(HttpResponse response, long length) {
+        CompressionConfig config = response.getCompressionConfig();
+        int status = response.getStatusCode();
+        if (config == null || response.getHeader("Content-Encoding") != null
+                || status < 200 || status == 204 || status == 206 || status == 304
+                || !config.isCompressible(response.getHeader("Content-Type"))) {
+            return null;
+        }
+        addVary(response);
+        String encoding = response.getAcceptedEncoding();
+        if (encoding == null || (length >= 0 && length < config.getMinSize())) {
+            return null;
+        }
+        return encoding;
+    }
+
+    private static void addVary(HttpResponse response) {
+        String vary = response.getHeader("Vary");
+        if (vary == null) {
+            response.setHeader("Vary", "Accept-Encoding");
+        } else if (!vary.toLowerCase(Locale.ROOT).contains("accept-encoding")) {
+            response.setHeader("Vary", vary + ", Accept-Encoding");
+        }
+    }
+
+    /**
+     * 읽기 준비된 버퍼들을 차례로 압축하여 풀에서 빌린 버퍼들에 씁니다. 입력 버퍼는 다 읽는 즉시 반납합니다.
+     *
+     * @return 압축된 바이트가 담긴 버퍼 목록. 각 버퍼는 쓴 위치까지 채워진 쓰기 모드 상태입니다.
+     */
+    static List<ByteBuffer> compress(List<ByteBuffer> input, String encoding, int level) {
+        long start = System.nanoTime();
+        boolean gzip = GZIP.equals(encoding);
+        CRC32 crc = gzip ? new CRC32() : null;
+        Deflater deflater = borrow(gzip, level);
+        List<ByteBuffer> output = new ArrayList<>();
+        ByteBuffer out = addBuffer(output);
+        long in = 0;
+        try {
+            if (gzip) {
+                out.put(GZIP_HEADER);
+            }
+            for (ByteBuffer buffer : input) {
+                in += buffer.remaining();
+                if (crc != null) {
+                    crc.update(buffer.duplicate());
+                }
+                deflater.setInput(buffer);
+                while (!deflater.needsInput()) {
+                    out = deflate(deflater, out, output);
+                }
+                ResponseSender.release(buffer);
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                out = deflate(deflater, out, output);
+            }
+            if (gzip) {
+                if (out.remaining() < GZIP_TRAILER_SIZE) {
+                    out = addBuffer(output);
+                }
+                putIntLE(out, (int) crc.getValue());
+                putIntLE(out, (int) in);
+            }
+        } finally {
+            release(deflater, gzip);
+        }
+        long written = 0;
+        for (ByteBuffer buffer : output) {
+            written += buffer.position();
+        }
+        record(in, written, System.nanoTime() - start);
+        return output;
+    }
+
+    /**
+     * 메모리 본문을 압축합니다.
+     */
+    static byte[] compress(byte[] body, String encoding, int level) {
+        List<ByteBuffer> output = compress(List.of(ByteBuffer.wrap(body)), encoding, level);
+        int length = 0;
+        for (ByteBuffer buffer : output) {
+            length += buffer.position();
+        }
+        byte[] compressed = new byte[length];
+        int position = 0;
+        for (ByteBuffer buffer : output) {
+            buffer.flip();
+            int n = buffer.remaining();
+            buffer.get(compressed, position, n);
+            position += n;
+            ResponseSender.release(buffer);
+        }
+        return compressed;
+    }
+
+    private static ByteBuffer deflate(Deflater deflater, ByteBuffer out, List<ByteBuffer> output) {
+        if (!out.hasRemaining()) {
+            out = addBuffer(output);
+        }
+        deflater.deflate(out);
+        return out;
+    }
+
+    private static ByteBuffer addBuffer(List<ByteBuffer> output) {
+        ByteBuffer buffer = ResponseSender.acquire(ResponseSender.POOLED_BUFFER_SIZE);
+        output.add(buffer);
+        return buffer;
+    }
+
+    static void putIntLE(ByteBuffer out, int value) {
+        out.put((byte) value).put((byte) (value >> 8)).put((byte) (value >> 16)).put((byte) (value >> 24));
+    }
+
+    /**
+     * 현재 스레드에 보관된 {@link Deflater}를 꺼냅니다. 없으면 새로 만듭니다.
+     *
+     * @param gzip {@code true}이면 gzip 본문에 쓰는 헤더 없는(raw) deflate, {@code false}이면 zlib 형식
+     */
+    static Deflater borrow(boolean gzip, int level) {
+        ThreadLocal<Deflater> slot = gzip ? GZIP_DEFLATER : ZLIB_DEFLATER;
+        Deflater deflater = slot.get();
+        if (deflater == null) {
+            return new Deflater(level, gzip);
+        }
+        slot.set(null);
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    /**
+     * 다 쓴 {@link Deflater}를 현재 스레드의 슬롯에 돌려놓습니다. 슬롯이 차 있으면 네이티브 메모리를 바로 해제합니다.
+     */
+    static void release(Deflater deflater, boolean gzip) {
+        ThreadLocal<Deflater> slot = gzip ? GZIP_DEFLATER : ZLIB_DEFLATER;
+        if (slot.get() == null) {
+            deflater.reset();
+            slot.set(deflater);
+        } else {
+            deflater.end();
+        }
+    }
+
+    static void record(long bytesIn, long bytesOut, long nanos) {
+        BYTES_IN.add(bytesIn);
+        BYTES_OUT.add(bytesOut);
+        NANOS.add(nanos);
+    }
+
+    /**
+     * @return 지금까지 압축한 원본 바이트 수
+     */
+    public static long getBytesIn() {
+        return BYTES_IN.sum();
+    }
+
+    /**
+     * @return 지금까지 압축해 내보낸 바이트 수
+     */
+    public static long getBytesOut() {
+        return BYTES_OUT.sum();
+    }
+
+    /**
+     * @return 지금까지 압축에 쓴 시간(나노초)
+     */
+    public static long getCompressionNanos() {
+        return NANOS.sum();
+    }
+}
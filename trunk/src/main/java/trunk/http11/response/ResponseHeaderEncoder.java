@@ -0,0 +1,213 @@
+package trunk.http11.response;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 응답의 상태 라인과 헤더를 중간 문자열 없이 {@link ByteBuffer}에 바로 쓰는 유틸리티 클래스입니다.
+ * <p>
+ * 상태 라인은 {@link HttpStatus}가 미리 인코딩한 배열을, 자주 쓰는 헤더 이름은 {@code "Content-Type: "}처럼
+ * 구분자까지 미리 인코딩한 배열을 복사합니다. 값은 ISO-8859-1로 한 글자씩 쓰며, 범위를 벗어난 문자는 {@code ?}로 바꿉니다.
+ * <p>
+ * 응답에 {@code Date}와 {@code Server} 헤더가 없으면 붙입니다. {@code Date} 줄은 초가 바뀔 때만 다시 만들고
+ * 같은 초 안의 응답은 같은 배열을 공유합니다.
+ * <p>
+ * 호출자는 {@link #encodedLength(HttpResponse, long)}로 필요한 크기를 먼저 구해 버퍼를 준비한 뒤
+ * {@link #encode(HttpResponse, long, ByteBuffer)}를 호출합니다.
+ *
+ * @author jungbin97
+ * @see ResponseSender
+ * @see HttpStatus
+ */
+final class ResponseHeaderEncoder {
+    static final String SERVER = "Elephant";
+
+    private static final String DATE = "Date";
+    private static final String SERVER_HEADER = "Server";
+    private static final String CONTENT_LENGTH = "Content-Length";
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] COLON_SPACE = {':', ' '};
+    private static final byte[] CONTENT_LENGTH_PREFIX = encode(CONTENT_LENGTH + ": ");
+    private static final byte[] SERVER_LINE = encode(SERVER_HEADER + ": " + SERVER + "\r\n");
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+    private static final Map<String, byte[]> NAMES = new HashMap<>();
+
+    static {
+        String[] names = {
+                "Content-Type", CONTENT_LENGTH, "Connection", "Transfer-Encoding", "Content-Encoding",
+                "Location", "Set-Cookie", "Cache-Control", "Last-Modified", "ETag", "Vary", "Allow",
+                "Upgrade", "Keep-Alive", "Accept-Ranges", "Content-Range", "Link", DATE, SERVER_HEADER
+        };
+        for (String name : names) {
+            NAMES.put(name, encode(name + ": "));
+        }
+    }
+
+    private static volatile CachedDate cachedDate = CachedDate.of(System.currentTimeMillis() / 1000);
+
+    private ResponseHeaderEncoder() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param contentLength 추가할 {@code Content-Length} 값. 음수이면 붙이지 않습니다.
+     * @return 상태 라인부터 헤더 끝의 빈 줄까지의 바이트 수
+     */
+    static int encodedLength(HttpResponse response, long contentLength) {
+        return encodedLength(response, contentLength, true);
+    }
+
+    private static int encodedLength(HttpResponse response, long contentLength, boolean complete) {
+        Map<String, String> headers = response.getHeaders();
+        int length = HttpStatus.statusLine(response.getStatusCode()).length;
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            length += headerLength(entry.getKey(), entry.getValue());
+        }
+        if (contentLength >= 0) {
+            length += CONTENT_LENGTH_PREFIX.length + digits(contentLength) + CRLF.length;
+        }
+        if (!headers.containsKey(SERVER_HEADER)) {
+            length += SERVER_LINE.length;
+        }
+        if (!complete) {
+            return length;
+        }
+        if (!headers.containsKey(DATE)) {
+            length += dateLine().length;
+        }
+        return length + CRLF.length;
+    }
+
+    /**
+     * 상태 라인과 헤더, 헤더 끝의 빈 줄을 {@code dst}의 현재 위치부터 씁니다.
+     *
+     * @param contentLength 추가할 {@code Content-Length} 값. 음수이면 붙이지 않습니다.
+     * @param dst           {@link #encodedLength(HttpResponse, long)} 이상의 공간이 남은 버퍼
+     */
+    static void encode(HttpResponse response, long contentLength, ByteBuffer dst) {
+        encode(response, contentLength, dst, true);
+    }
+
+    /**
+     * 요청마다 달라지는 {@code Date} 줄과 헤더 끝의 빈 줄을 뺀 나머지, 즉 상태 라인과 응답의 헤더를 인코딩합니다.
+     * 나머지는 {@link #encodeHeader(String, String, ByteBuffer)}와 {@link #dateLine()}으로 요청마다 이어 씁니다.
+     *
+     * @see PreEncodedResponse
+     */
+    static byte[] encodeHead(HttpResponse response) {
+        ByteBuffer head = ByteBuffer.allocate(encodedLength(response, -1, false));
+        encode(response, -1, head, false);
+        return head.array();
+    }
+
+    private static void encode(HttpResponse response, long contentLength, ByteBuffer dst, boolean complete) {
+        Map<String, String> headers = response.getHeaders();
+        dst.put(HttpStatus.statusLine(response.getStatusCode()));
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            encodeHeader(entry.getKey(), entry.getValue(), dst);
+        }
+        if (contentLength >= 0) {
+            dst.put(CONTENT_LENGTH_PREFIX);
+            putDigits(contentLength, dst);
+            dst.put(CRLF);
+        }
+        if (!headers.containsKey(SERVER_HEADER)) {
+            dst.put(SERVER_LINE);
+        }
+        if (!complete) {
+            return;
+        }
+        if (!headers.containsKey(DATE)) {
+            dst.put(dateLine());
+        }
+        dst.put(CRLF);
+    }
+
+    /**
+     * @return {@code name: value\r\n} 한 줄의 바이트 수
+     */
+    static int headerLength(String name, String value) {
+        byte[] encodedName = NAMES.get(name);
+        return (encodedName != null ? encodedName.length : name.length() + COLON_SPACE.length) + value.length() + CRLF.length;
+    }
+
+    /**
+     * {@code name: value\r\n} 한 줄을 씁니다.
+     */
+    static void encodeHeader(String name, String value, ByteBuffer dst) {
+        byte[] encodedName = NAMES.get(name);
+        if (encodedName != null) {
+            dst.put(encodedName);
+        } else {
+            putLatin1(name, dst);
+            dst.put(COLON_SPACE);
+        }
+        putLatin1(value, dst);
+        dst.put(CRLF);
+    }
+
+    /**
+     * 헤더 끝의 빈 줄을 씁니다.
+     */
+    static void endHead(ByteBuffer dst) {
+        dst.put(CRLF);
+    }
+
+    /**
+     * @return 현재 초의 {@code Date: ...\r\n} 줄. 반환한 배열을 수정해서는 안 됩니다.
+     */
+    static byte[] dateLine() {
+        long second = System.currentTimeMillis() / 1000;
+        CachedDate date = cachedDate;
+        if (date.second != second) {
+            // 여러 스레드가 동시에 갱신해도 같은 초의 같은 값이므로 잠그지 않는다
+            date = CachedDate.of(second);
+            cachedDate = date;
+        }
+        return date.line;
+    }
+
+    private static void putLatin1(String value, ByteBuffer dst) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            dst.put(c > 0xFF ? (byte) '?' : (byte) c);
+        }
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static void putDigits(long value, ByteBuffer dst) {
+        int end = dst.position() + digits(value);
+        for (int i = end - 1; i >= dst.position(); i--) {
+            dst.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        dst.position(end);
+    }
+
+    private static byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private record CachedDate(long second, byte[] line) {
+        static CachedDate of(long second) {
+            String date = DATE_FORMAT.format(Instant.ofEpochSecond(second));
+            return new CachedDate(second, encode(DATE + ": " + date + "\r\n"));
+        }
+    }
+}
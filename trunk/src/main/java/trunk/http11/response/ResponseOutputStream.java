@@ -0,0 +1,204 @@
+package trunk.http11.response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link HttpResponse#getOutputStream()}가 반환하는 출력 스트림으로, 서블릿이 쓴 본문을 풀에서 빌린 버퍼들에 이어서 모읍니다.
+ * <p>
+ * 서블릿 실행이 끝나면 NIO 커넥터는 모인 버퍼를 복사하지 않고 헤더 버퍼 뒤에 그대로 쓰기 큐에 넣으며
+ * ({@link ResponseSender#createBufferedResponse(HttpResponse)}), {@code Content-Length}는 모인 크기로 정해집니다.
+ * 전송이 끝난 버퍼는 풀로 돌아갑니다.
+ * <p>
+ * 모인 크기가 {@value #STREAMING_THRESHOLD}바이트를 넘으면 응답을 커밋하고 {@link ChunkedOutputStream}으로 전환하여,
+ * 이미 모은 데이터와 이후의 데이터를 청크로 바로 전송합니다. 따라서 요청 하나가 잡고 있는 메모리는 본문 크기와 관계없이
+ * 임계값 수준으로 제한됩니다. 커넥션에 바인딩되지 않은 응답(예: HTTP/2, 단위 테스트)은 전환하지 않고 끝까지 모읍니다.
+ * <p>
+ * 전환 전의 {@link #flush()}는 아무 일도 하지 않습니다. 응답을 즉시 보내야 하면 {@link HttpResponse#getChunkedOutputStream()}을 사용합니다.
+ *
+ * @author jungbin97
+ * @see HttpResponse#getOutputStream()
+ * @see HttpResponse#getWriter()
+ */
+final class ResponseOutputStream extends OutputStream {
+    static final int STREAMING_THRESHOLD = 64 * 1024;
+
+    private final HttpResponse response;
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+    private ByteBuffer current;
+    private long size;
+    private OutputStream streaming;
+    private boolean closed;
+
+    ResponseOutputStream(HttpResponse response) {
+        this.response = response;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (streaming == null && size + 1 > STREAMING_THRESHOLD && response.canStream()) {
+            switchToStreaming();
+        }
+        if (streaming != null) {
+            streaming.write(b);
+            return;
+        }
+        if (current == null || !current.hasRemaining()) {
+            addBuffer();
+        }
+        current.put((byte) b);
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (streaming == null && size + len > STREAMING_THRESHOLD && response.canStream()) {
+            switchToStreaming();
+        }
+        if (streaming != null) {
+            streaming.write(b, off, len);
+            return;
+        }
+        while (len > 0) {
+            if (current == null || !current.hasRemaining()) {
+                addBuffer();
+            }
+            int n = Math.min(len, current.remaining());
+            current.put(b, off, n);
+            off += n;
+            len -= n;
+            size += n;
+        }
+    }
+
+    /**
+     * 청크 전송으로 전환한 뒤에만 모인 데이터를 청크로 내보냅니다.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (streaming != null) {
+            streaming.flush();
+        }
+    }
+
+    /**
+     * 스트림을 닫습니다. 모은 본문은 서블릿 실행이 끝난 뒤 커넥터가 전송하며, 청크 전송 중이면 마지막 청크를 보냅니다.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (streaming != null) {
+            streaming.close();
+        }
+    }
+
+    /**
+     * @return 청크로 전환하지 않고 모아 둔 본문이 있으면 {@code true}
+     */
+    boolean isBuffering() {
+        return streaming == null && !buffers.isEmpty();
+    }
+
+    /**
+     * @return 청크로 전환하지 않고 모아 둔 바이트 수
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * 모아 둔 본문을 압축한 버퍼들로 바꿉니다. 원본 버퍼는 압축하는 대로 반납됩니다.
+     */
+    void compress(String encoding, int level) {
+        List<ByteBuffer> compressed = ResponseCompression.compress(drain(), encoding, level);
+        buffers.addAll(compressed);
+        for (ByteBuffer buffer : compressed) {
+            size += buffer.position();
+        }
+        current = compressed.get(compressed.size() - 1);
+    }
+
+    /**
+     * 모아 둔 버퍼를 읽기 준비(flip)된 상태로 넘기고 비웁니다. 버퍼를 반납할 책임은 호출자에게 넘어갑니다.
+     */
+    List<ByteBuffer> drain() {
+        List<ByteBuffer> drained = new ArrayList<>(buffers);
+        for (ByteBuffer buffer : drained) {
+            buffer.flip();
+        }
+        clear();
+        return drained;
+    }
+
+    /**
+     * 모아 둔 본문을 하나의 배열로 복사하고 버퍼를 반납합니다.
+     */
+    byte[] toByteArray() {
+        byte[] bytes = new byte[(int) size];
+        int position = 0;
+        for (ByteBuffer buffer : drain()) {
+            int length = buffer.remaining();
+            buffer.get(bytes, position, length);
+            position += length;
+            ResponseSender.release(buffer);
+        }
+        return bytes;
+    }
+
+    /**
+     * 모아 둔 본문을 버립니다. 서블릿이 본문을 {@link HttpResponse#setBody(byte[])} 등으로 다시 설정한 경우에 사용합니다.
+     */
+    void discard() {
+        for (ByteBuffer buffer : buffers) {
+            ResponseSender.release(buffer);
+        }
+        clear();
+    }
+
+    /**
+     * 응답 객체를 재사용하기 전에 남은 버퍼를 반납하고 스트림을 닫아, 붙잡고 있던 서블릿이 더 쓰지 못하게 합니다.
+     */
+    void recycle() {
+        discard();
+        closed = true;
+    }
+
+    private void addBuffer() {
+        current = ResponseSender.acquire(ResponseSender.POOLED_BUFFER_SIZE);
+        buffers.add(current);
+    }
+
+    private void clear() {
+        buffers.clear();
+        current = null;
+        size = 0;
+    }
+
+    private void switchToStreaming() throws IOException {
+        streaming = response.getChunkedOutputStream();
+        // 다이렉트 버퍼는 배열이 없으므로 한 번 복사해 청크 스트림에 넘긴다
+        byte[] chunk = new byte[ResponseSender.POOLED_BUFFER_SIZE];
+        for (ByteBuffer buffer : drain()) {
+            while (buffer.hasRemaining()) {
+                int n = Math.min(chunk.length, buffer.remaining());
+                buffer.get(chunk, 0, n);
+                streaming.write(chunk, 0, n);
+            }
+            ResponseSender.release(buffer);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package trunk.http11.response;
 
+import trunk.util.ByteBufferPool;
+
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -12,11 +19,19 @@ import java.util.Map;
  * <p>
  * 이 클래스는 상태를 가지지 않는(stateless) 메서드들로만 구성되어 있어 스레드에 안전합니다.
  * BIO(Blocking I/O)와 NIO(Non-blocking I/O) 방식의 응답 전송을 모두 지원합니다.
+ * <p>
+ * 상태 라인과 헤더는 {@link ResponseHeaderEncoder}가 버퍼에 바로 씁니다. NIO 응답이 {@value #POOLED_BUFFER_SIZE}바이트
+ * 이하이면 풀에서 빌린 다이렉트 버퍼를 사용하며, 전송을 마친 쪽에서 {@link #release(ByteBuffer)}로 반납합니다.
  *
  * @author jungbin97
  * @see HttpResponse
+ * @see ResponseHeaderEncoder
  */
 public class ResponseSender {
+    static final int POOLED_BUFFER_SIZE = 8192;
+    private static final int MAX_POOLED_BUFFERS = 256;
+    private static final ByteBufferPool BUFFER_POOL = new ByteBufferPool(POOLED_BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private static final byte[] CONTINUE_RESPONSE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
 
     /**
      * 이 클래스는 인스턴스화할 수 없습니다.
@@ -27,73 +42,179 @@ public class ResponseSender {
 
     /**
      * BIO(Blocking I/O) 방식으로 HttpResponse의 내용을 주어진 {@link DataOutputStream}에 씁니다.
-     * 상태 라인, 헤더, 본문을 순서대로 전송합니다.
+     * 상태 라인, 헤더, 본문을 순서대로 전송합니다. 파일 본문은 {@link FileChannel#transferTo}로 설정된 구간만 전송합니다.
      *
      * @param response 전송할 {@code HttpResponse} 객체
      * @param dos      데이터를 쓸 대상 출력 스트림
      * @throws IOException 스트림에 쓰는 도중 I/O 오류가 발생할 경우
      */
     public static void sendResponseBIO(HttpResponse response, DataOutputStream dos) throws IOException {
-        byte[] body = response.getBody();
-        // Content-Length
-        int length = (body != null) ? body.length : 0;
-
-        Map<String, String> headers = new HashMap<>(response.getHeaders());
-        headers.putIfAbsent("Content-Length", String.valueOf(length));
+        byte[] body = response.isBodySuppressed() ? null : response.getBody();
+        long contentLength = contentLengthToAdd(response);
 
-        dos.writeBytes("HTTP/1.1 " + response.getStatusCode() + " " + response.getStatusMessage() + "\r\n");
-        for (Map.Entry<String, String> entry : headers.entrySet()) {
-            dos.writeBytes(entry.getKey() + ": " + entry.getValue() + "\r\n");
-        }
-        dos.writeBytes("\r\n");
+        ByteBuffer header = ByteBuffer.allocate(ResponseHeaderEncoder.encodedLength(response, contentLength));
+        ResponseHeaderEncoder.encode(response, contentLength, header);
+        dos.write(header.array(), 0, header.position());
 
         if (body != null && body.length > 0) {
             dos.write(body);
+        } else if (response.hasFileBody() && !response.isBodySuppressed()) {
+            writeFileBody(response, dos);
         }
         dos.flush();
     }
 
+    private static void writeFileBody(HttpResponse response, DataOutputStream dos) throws IOException {
+        WritableByteChannel target = Channels.newChannel(dos);
+        try (FileChannel channel = FileChannel.open(response.getFileBody())) {
+            List<FileRegion> regions = response.getFileRegions();
+            if (regions == null) {
+                transfer(channel, 0, channel.size(), target);
+                return;
+            }
+            for (FileRegion region : regions) {
+                if (region.prefix() != null) {
+                    dos.write(region.prefix());
+                }
+                transfer(channel, region.offset(), region.length(), target);
+            }
+        }
+    }
+
+    private static void transfer(FileChannel channel, long position, long length, WritableByteChannel target)
+            throws IOException {
+        long end = position + length;
+        while (position < end) {
+            long written = channel.transferTo(position, end - position, target);
+            if (written <= 0) {
+                throw new EOFException("File truncated during transfer");
+            }
+            position += written;
+        }
+    }
+
     /**
      * NIO(Non-blocking I/O) 방식으로 HttpResponse의 내용을 하나의 {@link ByteBuffer}로 변환합니다.
      * 이 메서드는 주로 메모리 기반의 동적 콘텐츠를 전송할 때 사용됩니다.
+     * {@link HttpResponse#isBodySuppressed()}이면 본문 없이 상태 라인과 헤더만 담습니다.
      *
      * @param response 변환할 {@code HttpResponse} 객체
      * @return 상태 라인, 헤더, 본문이 모두 포함된 단일 {@code ByteBuffer}. 버퍼는 읽기 쉽도록 flip()된 상태입니다.
      */
     public static ByteBuffer sendResponseNIO(HttpResponse response) throws IOException {
-        byte[] body = response.getBody();
-        int length = (body != null) ? body.length : 0;
+        byte[] body = response.isBodySuppressed() ? null : response.getBody();
+        long contentLength = contentLengthToAdd(response);
 
-        Map<String, String> headers = new HashMap<>(response.getHeaders());
-        headers.putIfAbsent("Content-Length", String.valueOf(length));
+        int headerLength = ResponseHeaderEncoder.encodedLength(response, contentLength);
+        ByteBuffer buffer = acquire(headerLength + ((body != null) ? body.length : 0));
+        ResponseHeaderEncoder.encode(response, contentLength, buffer);
+
+        if (body != null) {
+            buffer.put(body);
+        }
 
-        StringBuilder responseBuilder = new StringBuilder();
+        buffer.flip();
+        return buffer;
+    }
 
-        // Status line
-        responseBuilder
-                .append("HTTP/1.1 ")
-                .append(response.getStatusCode()).append(" ")
-                .append(response.getStatusMessage())
-                .append("\r\n");
+    /**
+     * 응답 헤더에 {@code Content-Length}가 없을 때 붙일 본문 길이를 반환합니다.
+     * <p>
+     * 본문을 생략하는 {@code HEAD} 응답도 같은 요청의 GET 응답과 같은 길이를 알려야 하므로, 전송하지 않을 본문의 길이를 사용합니다.
+     * 파일 본문은 파일 크기를 사용하고, 길이를 알 수 없는 스트리밍 본문({@code Transfer-Encoding})과 압축을 생략한 {@code HEAD} 응답,
+     * 본문이 없는 상태 코드({@code 1xx}, {@code 204}, {@code 304})에는 붙이지 않습니다.
+     *
+     * @return 붙일 {@code Content-Length} 값, 붙이지 않아야 하면 {@code -1}
+     */
+    private static long contentLengthToAdd(HttpResponse response) throws IOException {
+        Map<String, String> headers = response.getHeaders();
+        if (headers.containsKey("Content-Length") || headers.containsKey("Transfer-Encoding")
+                || response.isContentLengthOmitted()) {
+            return -1;
+        }
+        int status = response.getStatusCode();
+        if ((status >= 100 && status < 200) || status == 204 || status == 304) {
+            // 본문이 없는 응답에 0을 붙이면 304를 받은 캐시가 저장된 표현의 길이로 오해할 수 있다
+            return -1;
+        }
+        if (response.hasFileBody()) {
+            return response.getFileBodyLength();
+        }
+        byte[] body = response.getBody();
+        return (body != null) ? body.length : 0;
+    }
 
-        // Headers
-        headers.forEach((key, value) ->
-                responseBuilder.append(key).append(": ").append(value).append("\r\n"));
+    /**
+     * {@link HttpResponse#getOutputStream()}으로 모은 본문을 복사하지 않고 전송할 버퍼 목록을 만듭니다.
+     * <p>
+     * 첫 버퍼는 모은 크기를 {@code Content-Length}로 담은 헤더이고, 나머지는 본문을 모은 풀 버퍼 그대로입니다.
+     * {@link HttpResponse#isBodySuppressed()}이면 본문 버퍼는 바로 반납하고 헤더만 반환합니다.
+     *
+     * @param response {@link HttpResponse#hasBufferedBody()}가 {@code true}인 응답
+     * @return 순서대로 전송할 읽기 준비된 버퍼 목록. 전송 후 {@link #release(ByteBuffer)}로 반납해야 합니다.
+     */
+    public static List<ByteBuffer> createBufferedResponse(HttpResponse response) {
+        List<ByteBuffer> body = response.drainBufferedBody();
+        long length = 0;
+        for (ByteBuffer buffer : body) {
+            length += buffer.remaining();
+        }
+        Map<String, String> headers = response.getHeaders();
+        long contentLength = headers.containsKey("Content-Length") || headers.containsKey("Transfer-Encoding")
+                || response.isContentLengthOmitted() ? -1 : length;
 
-        responseBuilder.append("\r\n");
+        ByteBuffer header = acquire(ResponseHeaderEncoder.encodedLength(response, contentLength));
+        ResponseHeaderEncoder.encode(response, contentLength, header);
+        header.flip();
 
-        byte[] headerBytes = responseBuilder.toString().getBytes(StandardCharsets.ISO_8859_1);
-        int totalLength = headerBytes.length + ((body != null) ? body.length : 0);
-        ByteBuffer buffer = ByteBuffer.allocateDirect(totalLength);
+        List<ByteBuffer> buffers = new ArrayList<>(body.size() + 1);
+        buffers.add(header);
+        if (response.isBodySuppressed()) {
+            body.forEach(ResponseSender::release);
+        } else {
+            buffers.addAll(body);
+        }
+        return buffers;
+    }
 
-        buffer.put(headerBytes);
+    /**
+     * 미리 인코딩한 응답을 복사 없이 전송할 버퍼 배열을 만듭니다. 배열은 한 번의 gathering write로 전송합니다.
+     * <p>
+     * 공유 헤더 버퍼와 본문 버퍼의 뷰 사이에, 공유 헤더에 없는 요청별 헤더({@code Set-Cookie}, {@code Connection} 등)와
+     * {@code Date}, 헤더 끝의 빈 줄을 담은 작은 버퍼를 끼워 넣습니다.
+     * {@link HttpResponse#isBodySuppressed()}이면 본문 버퍼는 넣지 않습니다.
+     *
+     * @param response   {@link HttpResponse#getPreEncodedResponse()}가 {@code preEncoded}를 반환한 응답
+     * @param preEncoded 미리 인코딩한 응답
+     * @return 순서대로 전송할 읽기 준비된 버퍼 배열. 전송 후 각 버퍼를 {@link #release(ByteBuffer)}로 반납해야 합니다.
+     */
+    public static ByteBuffer[] createPreEncodedResponse(HttpResponse response, PreEncodedResponse preEncoded) {
+        Map<String, String> shared = preEncoded.getHeaders();
+        Map<String, String> headers = response.getHeaders();
+        byte[] dateLine = headers.containsKey("Date") ? null : ResponseHeaderEncoder.dateLine();
 
-        if (body != null) {
-            buffer.put(body);
+        int length = (dateLine != null ? dateLine.length : 0) + 2;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (!shared.containsKey(header.getKey())) {
+                length += ResponseHeaderEncoder.headerLength(header.getKey(), header.getValue());
+            }
         }
+        ByteBuffer perRequest = acquire(length);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (!shared.containsKey(header.getKey())) {
+                ResponseHeaderEncoder.encodeHeader(header.getKey(), header.getValue(), perRequest);
+            }
+        }
+        if (dateLine != null) {
+            perRequest.put(dateLine);
+        }
+        ResponseHeaderEncoder.endHead(perRequest);
+        perRequest.flip();
 
-        buffer.flip();
-        return buffer;
+        if (response.isBodySuppressed()) {
+            return new ByteBuffer[]{preEncoded.head(), perRequest};
+        }
+        return new ByteBuffer[]{preEncoded.head(), perRequest, preEncoded.body()};
     }
 
     /**
@@ -104,22 +225,46 @@ public class ResponseSender {
      * @return 헤더 정보가 담긴 ByteBuffer. 버퍼는 읽기 쉽도록 flip()된 상태입니다.
      */
     public static ByteBuffer createHeaderBuffer(HttpResponse response) {
-        StringBuilder headerBuilder = new StringBuilder();
-
-        // Status line
-        headerBuilder
-                .append("HTTP/1.1 ")
-                .append(response.getStatusCode()).append(" ")
-                .append(response.getStatusMessage())
-                .append("\r\n");
+        ByteBuffer buffer = acquire(ResponseHeaderEncoder.encodedLength(response, -1));
+        ResponseHeaderEncoder.encode(response, -1, buffer);
+        buffer.flip();
+        return buffer;
+    }
 
-        // Headers
-        response.getHeaders().forEach((key, value) ->
-                headerBuilder.append(key).append(": ").append(value).append("\r\n"));
+    /**
+     * 미리 불러올 리소스를 알리는 중간 응답({@code 103 Early Hints})을 담은 ByteBuffer를 생성합니다.
+     *
+     * @param links {@code Link} 헤더 값 목록. 하나의 {@code Link} 헤더에 쉼표로 이어 붙입니다.
+     * @return 읽기 준비된 새 ByteBuffer
+     */
+    public static ByteBuffer createEarlyHintsBuffer(List<String> links) {
+        String response = "HTTP/1.1 103 Early Hints\r\nLink: " + String.join(", ", links) + "\r\n\r\n";
+        return ByteBuffer.wrap(response.getBytes(StandardCharsets.ISO_8859_1));
+    }
 
-        headerBuilder.append("\r\n");
+    /**
+     * {@code Expect: 100-continue} 요청에 보낼 중간 응답({@code 100 Continue})을 담은 ByteBuffer를 생성합니다.
+     *
+     * @return 읽기 준비된 새 ByteBuffer
+     */
+    public static ByteBuffer createContinueBuffer() {
+        return ByteBuffer.wrap(CONTINUE_RESPONSE.clone());
+    }
 
-        return ByteBuffer.wrap(headerBuilder.toString().getBytes(StandardCharsets.ISO_8859_1));
+    /**
+     * 전송을 마친 버퍼를 풀에 반납합니다. 풀에서 빌린 버퍼가 아니면 아무 일도 하지 않습니다.
+     * 반납한 버퍼는 더 이상 사용해서는 안 됩니다.
+     *
+     * @param buffer {@link #sendResponseNIO(HttpResponse)} 등이 반환한 버퍼
+     */
+    public static void release(ByteBuffer buffer) {
+        // 읽기 전용 버퍼는 공유 응답의 뷰이므로 반납하지 않는다
+        if (buffer.isDirect() && !buffer.isReadOnly()) {
+            BUFFER_POOL.release(buffer);
+        }
     }
 
+    static ByteBuffer acquire(int length) {
+        return length <= POOLED_BUFFER_SIZE ? BUFFER_POOL.acquire() : ByteBuffer.allocateDirect(length);
+    }
 }
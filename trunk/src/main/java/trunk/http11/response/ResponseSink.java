@@ -0,0 +1,37 @@
+package trunk.http11.response;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 응답 바이트를 실제 커넥션으로 흘려보내는 출구를 추상화한 인터페이스입니다.
+ * <p>
+ * 스트리밍 응답({@link HttpResponse#getChunkedOutputStream()})은 본문 전체가 만들어지기 전에
+ * 상태 라인과 헤더, 그리고 본문 조각들을 순서대로 내보내야 합니다. 각 커넥터(BIO/NIO)는 자신의
+ * 쓰기 방식에 맞는 구현체를 {@link HttpResponse#setResponseSink(ResponseSink)}로 바인딩합니다.
+ * <p>
+ * 구현체는 소켓이 느려 아직 전송되지 않은 데이터가 쌓이면 {@link #write(ByteBuffer)} 호출을
+ * 블로킹하여 생산자(서블릿)의 속도를 늦추는 역압(backpressure)을 제공해야 합니다.
+ *
+ * @author jungbin97
+ * @see HttpResponse
+ * @see ChunkedOutputStream
+ */
+public interface ResponseSink {
+    /**
+     * 버퍼의 내용을 커넥션으로 내보냅니다.
+     * <p>
+     * 호출이 반환된 후 호출자는 버퍼를 재사용해서는 안 됩니다.
+     *
+     * @param buffer 전송할 데이터가 담긴, 읽기 준비(flip)된 버퍼
+     * @throws IOException 커넥션이 닫혔거나 쓰기 대기 시간이 초과된 경우
+     */
+    void write(ByteBuffer buffer) throws IOException;
+
+    /**
+     * 응답 전송이 모두 끝났음을 알립니다.
+     *
+     * @throws IOException 남은 데이터를 내보내는 중 I/O 오류가 발생한 경우
+     */
+    void close() throws IOException;
+}
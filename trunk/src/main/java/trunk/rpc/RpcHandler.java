@@ -0,0 +1,23 @@
+package trunk.rpc;
+
+/**
+ * 바이너리 RPC 프로토콜의 메서드 하나를 처리하는 핸들러입니다.
+ * <p>
+ * {@link trunk.container.StandardContext#addRpcHandler(int, RpcHandler)}로 메서드 ID에 등록하면,
+ * RPC 커넥터가 같은 메서드 ID의 요청 프레임을 받을 때마다 워커 스레드에서 {@link #handle(byte[])}을 호출합니다.
+ * 한 커넥션의 여러 요청이 동시에 처리될 수 있으므로 구현체는 스레드 안전해야 합니다.
+ *
+ * @author jungbin97
+ * @see trunk.connector.rpc.RpcNioProtocol
+ */
+@FunctionalInterface
+public interface RpcHandler {
+    /**
+     * 요청 페이로드를 처리하여 응답 페이로드를 반환합니다.
+     *
+     * @param payload 요청 프레임의 페이로드
+     * @return 응답 페이로드. {@code null}이면 빈 페이로드로 응답
+     * @throws Exception 처리에 실패한 경우. 예외 메시지가 오류 응답의 페이로드로 전송됩니다.
+     */
+    byte[] handle(byte[] payload) throws Exception;
+}
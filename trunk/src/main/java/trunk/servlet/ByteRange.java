@@ -0,0 +1,117 @@
+package trunk.servlet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code Range} 요청 헤더의 바이트 구간 하나입니다 (RFC 9110 14.1.2). 끝 위치를 포함합니다.
+ * <p>
+ * {@link #parse(String, long)}는 헤더를 파일 크기에 맞춰 해석합니다.
+ * <ul>
+ *     <li>{@code bytes=0-499}, {@code bytes=500-}, {@code bytes=-500} 형식을 지원하며, 파일 끝을 넘는 끝 위치는 파일 끝으로 줄입니다.</li>
+ *     <li>형식이 잘못되었거나 {@code bytes} 이외의 단위이면 헤더를 무시하고 전체 응답을 보내도록 {@code null}을 반환합니다.</li>
+ *     <li>구간이 {@value #MAX_RANGES}개를 넘거나 구간 길이의 합이 파일보다 크면(겹치는 구간으로 같은 바이트를 여러 번 요청하면)
+ *     작은 요청으로 큰 응답을 만들게 하는 요청이므로 마찬가지로 무시합니다.</li>
+ *     <li>만족할 수 있는 구간이 하나도 없으면 {@code 416 Range Not Satisfiable}로 응답하도록 빈 목록을 반환합니다.</li>
+ * </ul>
+ *
+ * @param start 첫 바이트의 위치
+ * @param end   마지막 바이트의 위치 (포함)
+ * @author jungbin97
+ * @see DefaultServlet
+ */
+record ByteRange(long start, long end) {
+    static final int MAX_RANGES = 16;
+
+    /**
+     * @param header {@code Range} 헤더 값
+     * @param length 파일 크기
+     * @return 요청 순서대로의 구간 목록. 헤더를 무시해야 하면 {@code null}, 만족할 수 있는 구간이 없으면 빈 목록
+     */
+    static List<ByteRange> parse(String header, long length) {
+        if (header == null) {
+            return null;
+        }
+        int equals = header.indexOf('=');
+        if (equals < 0 || !header.substring(0, equals).trim().equalsIgnoreCase("bytes")) {
+            return null;
+        }
+        String[] specs = header.substring(equals + 1).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+
+        List<ByteRange> ranges = new ArrayList<>();
+        boolean found = false;
+        long total = 0;
+        for (String spec : specs) {
+            String value = spec.trim();
+            if (value.isEmpty()) {
+                continue; // 목록의 빈 원소는 허용된다
+            }
+            found = true;
+            int dash = value.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            ByteRange range;
+            if (dash == 0) {
+                // 마지막 N 바이트
+                long suffix = digits(value.substring(1));
+                if (suffix < 0) {
+                    return null;
+                }
+                if (suffix == 0 || length == 0) {
+                    continue;
+                }
+                range = new ByteRange(Math.max(0, length - suffix), length - 1);
+            } else {
+                long first = digits(value.substring(0, dash));
+                String lastValue = value.substring(dash + 1);
+                long last = lastValue.isEmpty() ? Long.MAX_VALUE : digits(lastValue);
+                if (first < 0 || last < 0 || last < first) {
+                    return null;
+                }
+                if (first >= length) {
+                    continue;
+                }
+                range = new ByteRange(first, Math.min(last, length - 1));
+            }
+            ranges.add(range);
+            total += range.length();
+        }
+        if (!found || total > length) {
+            return null;
+        }
+        return ranges;
+    }
+
+    /**
+     * @return 10진수 숫자로만 된 값이면 그 값, 아니면 {@code -1}
+     */
+    private static long digits(String value) {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 18) {
+            return -1;
+        }
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        return Long.parseLong(trimmed);
+    }
+
+    long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * @param total 파일 크기
+     * @return {@code Content-Range} 헤더 값 (예: {@code bytes 0-499/1234})
+     */
+    String toContentRange(long total) {
+        return "bytes " + start + "-" + end + "/" + total;
+    }
+}
@@ -2,33 +2,66 @@ package trunk.servlet;
 
 import trunk.container.ServletContextAware;
 import trunk.container.StandardContext;
+import trunk.http11.request.HttpHeader;
 import trunk.http11.request.HttpRequest;
+import trunk.http11.response.FileRegion;
 import trunk.http11.response.HttpResponse;
+import trunk.http11.response.PreEncodedResponse;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * {@code DefaultServlet}는 정적 리소스를 요청을 처리하는 서블릿입니다. <br>
  * 파일을 직접 읽어 메모리에 올리는 대신, 파일의 경로(Path)와 메타데이터만 HttpResponse에 설정하여
  * 하위 Connector 계층에서 Zero-Copy를 수행할 수 있도록 책임을 위임합니다.
+ * <p>
+ * 작은 파일은 {@link StaticResourceCache}가 미리 인코딩한 응답으로 보관하여 디스크를 읽지 않고 전송하며, 큰 파일만 위처럼 경로를 넘깁니다.
+ * 모든 응답에 {@code ETag}와 {@code Last-Modified}를 붙이고, 조건부 요청({@code If-None-Match}, {@code If-Modified-Since})의
+ * 사본이 최신이면 본문 없이 {@code 304 Not Modified}로 응답합니다.
+ * <p>
+ * {@code GET} 요청의 {@code Range}(와 {@code If-Range})를 처리하여 요청된 구간만 {@code 206 Partial Content}로 보냅니다.
+ * 여러 구간은 {@code multipart/byteranges}로 묶으며, 큰 파일은 구간별로 Zero-Copy 전송합니다.
+ * <p>
+ * HTML 문서를 요청받으면, 문서가 참조하는 스타일시트와 스크립트를 {@code 103 Early Hints}로 먼저 알려
+ * 브라우저가 문서를 받는 동안 하위 리소스를 미리 불러오게 합니다. 문서 분석 결과는 {@link EarlyHintsCache}가 보관합니다.
  *
  * @see HttpServlet
  * @author jungbin97
  */
 public class DefaultServlet extends HttpServlet implements ServletContextAware {
+    private static final PreEncodedResponse NOT_FOUND = PreEncodedResponse.text(404, "Not Found");
+
+    private final StaticResourceCache resources = new StaticResourceCache();
     private StandardContext context;
+    private EarlyHintsCache earlyHints;
 
     @Override
     public void setServletContext(StandardContext context) {
         this.context = context;
     }
 
+    /**
+     * docBase의 HTML 문서를 미리 분석하여 Early Hints 캐시를 채웁니다.
+     */
+    @Override
+    public void init() {
+        String docBase = (context != null) ? context.getRealPath("/") : null;
+        if (docBase != null) {
+            earlyHints = new EarlyHintsCache(Paths.get(docBase));
+            earlyHints.scan();
+        }
+    }
+
     @Override
     public void service(HttpRequest request, HttpResponse response) throws IOException {
-        String requestPath = request.getStartLine().getRequestUri();
+        // 정규화된 경로는 루트를 벗어날 수 없다. 잘못된 경로는 파일 시스템을 조회하지 않고 거부한다
+        String requestPath = request.getStartLine().getRequestTarget().getNormalizedPath();
         String realPathStr = context.getRealPath(requestPath);
 
         if (realPathStr == null) {
@@ -37,25 +70,136 @@ public class DefaultServlet extends HttpServlet implements ServletContextAware {
         }
 
         Path filePath = Paths.get(realPathStr);
-        if (!Files.isRegularFile(filePath)) {
+        StaticResourceCache.Resource resource = resources.get(filePath, getMimeType(requestPath));
+        if (resource == null) {
             sendNotFound(response);
             return;
         }
 
-        long contentLength = Files.size(filePath);
-        String mimeType = getMimeType(requestPath);
+        if (isConditional(request) && resource.isNotModified(
+                request.getHeader(HttpHeader.IF_NONE_MATCH), request.getHeader(HttpHeader.IF_MODIFIED_SINCE))) {
+            // 클라이언트의 사본을 그대로 쓰게 하므로 본문도, 파일 조회도 필요 없다
+            response.setStatusCode(304);
+            response.setHeader("ETag", resource.getETag());
+            response.setHeader("Last-Modified", resource.getLastModified());
+            return;
+        }
+
+        String range = "GET".equals(request.getStartLine().getMethod()) ? request.getHeader(HttpHeader.RANGE) : null;
+        if (range != null && resource.matchesIfRange(request.getHeader(HttpHeader.IF_RANGE))) {
+            List<ByteRange> ranges = ByteRange.parse(range, resource.getLength());
+            if (ranges != null) {
+                sendPartialContent(response, resource, ranges);
+                return;
+            }
+        }
+
+        sendEarlyHints(request, response, filePath);
+
+        if (resource.getResponse() != null) {
+            // 메모리에 보관한 작은 파일은 미리 인코딩한 공유 버퍼로 전송
+            response.setPreEncodedResponse(resource.getResponse());
+            return;
+        }
 
         response.setStatusCode(200);
-        response.setHeader("Content-Type", mimeType);
+        response.setHeader("Content-Type", resource.getMimeType());
+        response.setHeader("Content-Length", String.valueOf(resource.getLength()));
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", resource.getETag());
+        response.setHeader("Last-Modified", resource.getLastModified());
+        // 큰 파일은 직접 읽지 않고, Path 객체를 응답 본문으로 설정
+        response.setFileBody(resource.getFile());
+    }
+
+    /**
+     * 요청된 구간만 {@code 206 Partial Content}로 보냅니다. 만족할 수 있는 구간이 없으면 {@code 416 Range Not Satisfiable}로 응답합니다.
+     * <p>
+     * 구간이 하나이면 {@code Content-Range}와 함께 그 구간만, 여러 개이면 구간마다 파트 헤더를 붙인 {@code multipart/byteranges}로 보냅니다.
+     * 메모리에 보관한 파일은 보관한 내용에서 잘라 보내고, 큰 파일은 구간을 {@link FileRegion}으로 넘겨 Zero-Copy로 전송합니다.
+     */
+    private void sendPartialContent(HttpResponse response, StaticResourceCache.Resource resource, List<ByteRange> ranges) {
+        long length = resource.getLength();
+        if (ranges.isEmpty()) {
+            response.setStatusCode(416);
+            response.setHeader("Content-Range", "bytes */" + length);
+            return;
+        }
+
+        List<FileRegion> regions = new ArrayList<>();
+        String contentType;
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            response.setHeader("Content-Range", range.toContentRange(length));
+            regions.add(FileRegion.of(range.start(), range.length()));
+            contentType = resource.getMimeType();
+        } else {
+            String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+            for (ByteRange range : ranges) {
+                String partHeader = "\r\n--" + boundary + "\r\n"
+                        + "Content-Type: " + resource.getMimeType() + "\r\n"
+                        + "Content-Range: " + range.toContentRange(length) + "\r\n\r\n";
+                regions.add(new FileRegion(partHeader.getBytes(StandardCharsets.ISO_8859_1), range.start(), range.length()));
+            }
+            regions.add(new FileRegion(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1), 0, 0));
+            contentType = "multipart/byteranges; boundary=" + boundary;
+        }
+
+        long contentLength = 0;
+        for (FileRegion region : regions) {
+            contentLength += region.size();
+        }
+        response.setStatusCode(206);
+        response.setHeader("Content-Type", contentType);
         response.setHeader("Content-Length", String.valueOf(contentLength));
-        // 파일을 직접 읽지 않고, Path 객체를 응답 본문으로 설정
-        response.setFileBody(filePath);
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", resource.getETag());
+        response.setHeader("Last-Modified", resource.getLastModified());
+
+        PreEncodedResponse cached = resource.getResponse();
+        if (cached == null) {
+            response.setFileBody(resource.getFile(), regions);
+            return;
+        }
+        byte[] content = cached.getBody();
+        byte[] body = new byte[(int) contentLength];
+        int position = 0;
+        for (FileRegion region : regions) {
+            if (region.prefix() != null) {
+                System.arraycopy(region.prefix(), 0, body, position, region.prefix().length);
+                position += region.prefix().length;
+            }
+            System.arraycopy(content, (int) region.offset(), body, position, (int) region.length());
+            position += (int) region.length();
         }
+        response.setBody(body);
+    }
+
+    /**
+     * 조건부 헤더는 본문을 그대로 돌려주는 {@code GET}과 {@code HEAD} 요청에만 적용합니다.
+     */
+    private boolean isConditional(HttpRequest request) {
+        String method = request.getStartLine().getMethod();
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    /**
+     * HTML 문서 요청이면 최종 응답 전에 {@code 103 Early Hints}를 보냅니다.
+     * 1xx 응답을 이해하지 못할 수 있는 HTTP/1.0 클라이언트와, 본문을 받지 않는 {@code HEAD} 요청에는 보내지 않습니다.
+     */
+    private void sendEarlyHints(HttpRequest request, HttpResponse response, Path filePath) throws IOException {
+        if (earlyHints == null || response.isBodySuppressed()
+                || !"HTTP/1.1".equals(request.getStartLine().getHttpVersion())) {
+            return;
+        }
+        List<String> links = earlyHints.getLinks(filePath);
+        if (!links.isEmpty()) {
+            response.sendEarlyHints(links);
+        }
+    }
 
     private void sendNotFound(HttpResponse response) {
-        response.setStatusCode(404);
-        response.setHeader("Content-Type", "text/plain; charset=utf-8");
-        response.setBody("Not Found".getBytes());
+        response.setPreEncodedResponse(NOT_FOUND);
     }
 
     public static String getMimeType(String requestUri) {
@@ -0,0 +1,183 @@
+package trunk.servlet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * docBase의 HTML 문서에서 스타일시트와 스크립트 링크를 추출해 {@code 103 Early Hints}의 {@code Link} 값으로 보관하는 캐시입니다.
+ * <p>
+ * 시작 시 {@link #scan()}으로 모든 HTML 문서를 한 번 분석하고, 이후 요청에서는 파일의 수정 시각이 바뀐 경우에만 다시 분석합니다.
+ * 따라서 요청 처리 비용은 HTML 문서에 대한 수정 시각 조회 한 번입니다.
+ * <p>
+ * 추출 대상은 같은 출처(origin)의 {@code <link rel="stylesheet" href>}와 {@code <script src>}이며,
+ * 상대 경로는 문서의 URI를 기준으로 절대 경로로 바꿉니다. 주석 안의 태그와 다른 호스트의 리소스는 제외합니다.
+ *
+ * @author jungbin97
+ * @see DefaultServlet
+ * @see trunk.http11.response.HttpResponse#sendEarlyHints(List)
+ */
+final class EarlyHintsCache {
+    private static final Logger log = LoggerFactory.getLogger(EarlyHintsCache.class);
+
+    static final int MAX_LINKS = 32;
+
+    private static final Pattern COMMENT = Pattern.compile("<!--.*?-->", Pattern.DOTALL);
+    private static final Pattern TAG = Pattern.compile("<(link|script)\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ATTRIBUTE =
+            Pattern.compile("([a-zA-Z-]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))");
+
+    private final Path docBase;
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    EarlyHintsCache(Path docBase) {
+        this.docBase = docBase.toAbsolutePath().normalize();
+    }
+
+    /**
+     * docBase 아래의 모든 HTML 문서를 분석하여 캐시를 채웁니다.
+     */
+    void scan() {
+        if (!Files.isDirectory(docBase)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(docBase)) {
+            files.filter(EarlyHintsCache::isHtml).filter(Files::isRegularFile).forEach(this::getLinks);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to scan {} for early hints: {}", docBase, e.getMessage());
+        }
+        log.info("Scanned {} HTML documents for early hints", entries.size());
+    }
+
+    /**
+     * 문서의 {@code Link} 헤더 값들을 반환합니다. 캐시에 없거나 문서가 바뀌었으면 다시 분석합니다.
+     *
+     * @param file 요청된 파일의 경로
+     * @return {@code </css/a.css>; rel=preload; as=style} 형식의 값 목록. HTML 문서가 아니거나 링크가 없으면 빈 목록
+     */
+    List<String> getLinks(Path file) {
+        if (!isHtml(file)) {
+            return List.of();
+        }
+        Path path = file.toAbsolutePath().normalize();
+        try {
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            Entry entry = entries.get(path);
+            if (entry == null || entry.lastModified != lastModified) {
+                entry = new Entry(lastModified, parse(Files.readString(path, StandardCharsets.UTF_8), documentUri(path)));
+                entries.put(path, entry);
+            }
+            return entry.links;
+        } catch (IOException | RuntimeException e) {
+            // 힌트는 최적화일 뿐이므로, 분석에 실패해도 최종 응답은 그대로 보낸다
+            entries.remove(path);
+            return List.of();
+        }
+    }
+
+    /**
+     * HTML 문서에서 미리 불러올 리소스를 추출합니다.
+     *
+     * @param html        문서 내용
+     * @param documentUri 상대 경로의 기준이 되는 문서의 URI (예: {@code /user/form.html})
+     * @return {@code Link} 헤더 값 목록 (중복 제거, 문서 순서 유지)
+     */
+    static List<String> parse(String html, String documentUri) {
+        Set<String> links = new LinkedHashSet<>();
+        URI base = URI.create(documentUri);
+        Matcher tag = TAG.matcher(COMMENT.matcher(html).replaceAll(""));
+        while (tag.find() && links.size() < MAX_LINKS) {
+            Map<String, String> attributes = attributes(tag.group(2));
+            String link;
+            if (tag.group(1).equalsIgnoreCase("link")) {
+                if (!hasToken(attributes.get("rel"), "stylesheet")) {
+                    continue;
+                }
+                link = preload(base, attributes.get("href"), "style");
+            } else {
+                link = preload(base, attributes.get("src"), "script");
+            }
+            if (link != null) {
+                links.add(link);
+            }
+        }
+        return List.copyOf(links);
+    }
+
+    private static Map<String, String> attributes(String source) {
+        Map<String, String> attributes = new HashMap<>();
+        Matcher m = ATTRIBUTE.matcher(source);
+        while (m.find()) {
+            String value = m.group(2) != null ? m.group(2) : (m.group(3) != null ? m.group(3) : m.group(4));
+            attributes.putIfAbsent(m.group(1).toLowerCase(Locale.ROOT), value.trim());
+        }
+        return attributes;
+    }
+
+    private static boolean hasToken(String value, String token) {
+        if (value == null) {
+            return false;
+        }
+        for (String t : value.trim().split("\\s+")) {
+            if (t.equalsIgnoreCase(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 같은 출처의 리소스이면 {@code Link} 헤더 값, 아니면 {@code null}
+     */
+    private static String preload(URI base, String reference, String as) {
+        if (reference == null || reference.isEmpty() || reference.startsWith("//")) {
+            return null;
+        }
+        try {
+            URI resolved = base.resolve(reference);
+            if (resolved.getScheme() != null || resolved.getRawPath() == null || !resolved.getRawPath().startsWith("/")) {
+                return null; // 다른 호스트, data: URI 등
+            }
+            String target = resolved.getRawQuery() == null ? resolved.getRawPath() : resolved.getRawPath() + "?" + resolved.getRawQuery();
+            // 헤더 값을 깨뜨릴 수 있는 문자가 있으면 제외
+            if (target.indexOf('>') >= 0 || target.indexOf(',') >= 0 || target.chars().anyMatch(c -> c < 0x21 || c > 0x7E)) {
+                return null;
+            }
+            return "<" + target + ">; rel=preload; as=" + as;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private String documentUri(Path file) {
+        List<String> segments = new ArrayList<>();
+        for (Path segment : docBase.relativize(file)) {
+            segments.add(segment.toString());
+        }
+        return "/" + String.join("/", segments);
+    }
+
+    private static boolean isHtml(Path file) {
+        String name = file.getFileName() == null ? "" : file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".html") || name.endsWith(".htm");
+    }
+
+    private record Entry(long lastModified, List<String> links) {
+    }
+}
@@ -1,9 +1,11 @@
 package trunk.servlet;
 
+import trunk.http11.request.HttpMethod;
 import trunk.http11.request.HttpRequest;
 import trunk.http11.response.HttpResponse;
 
 import java.io.IOException;
+import java.util.StringJoiner;
 
 /**
  * HTTP 프로토콜을 처리하는 서블릿을 쉽게 구현할 수 있도록 돕는 추상 클래스입니다.
@@ -15,11 +17,17 @@ import java.io.IOException;
  * <p>
  * 따라서 이 클래스를 상속받는 개발자는 {@code service} 메서드를 직접 오버라이드할 필요 없이,
  * 처리하고자 하는 특정 HTTP 메서드에 해당하는 {@code doXxx()} 메서드만 구현하면 됩니다.
+ * <ul>
+ * <li>{@code HEAD}는 {@link #doGet}을 그대로 실행합니다. 본문은 커넥터가 보내지 않고 {@code Content-Length}만 남깁니다.</li>
+ * <li>{@code OPTIONS}는 하위 클래스가 오버라이드한 {@code doXxx()} 메서드로부터 {@code Allow} 헤더를 만들어 자동으로 응답합니다.</li>
+ * </ul>
  *
  * @author jungbin97
  * @see Servlet
+ * @see HttpMethod
  */
 public abstract class HttpServlet implements Servlet {
+    private volatile String allowedMethods;
 
     @Override
     public void init() {
@@ -36,7 +44,7 @@ public abstract class HttpServlet implements Servlet {
      * <p>
      * 요청 객체에서 HTTP 메서드를 추출하여, 해당하는 {@code doXxx()} 메서드로 요청을 전달합니다.
      * 예를 들어, GET 요청은 {@link #doGet(HttpRequest, HttpResponse)}으로 전달됩니다.
-     * 지원하지 않는 HTTP 메서드로 요청이 들어오면 405 Method Not Allowed 응답을 보냅니다.
+     * 서버가 알지 못하는 HTTP 메서드로 요청이 들어오면 501 Not Implemented 응답을 보냅니다.
      *
      * @param request  클라이언트의 요청 객체
      * @param response 클라이언트에게 보낼 응답 객체
@@ -44,28 +52,97 @@ public abstract class HttpServlet implements Servlet {
      */
     @Override
     public void service(HttpRequest request, HttpResponse response) throws IOException {
-        String method = request.getStartLine().getMethod();
+        HttpMethod method = HttpMethod.resolve(request.getStartLine().getMethod());
+        if (method == null) {
+            response.setStatusCode(501);
+            response.setHeader("Content-Type", "text/plain");
+            response.setBody("Not Implemented".getBytes());
+            return;
+        }
 
         switch (method) {
-            case "GET" -> doGet(request, response);
-            case "POST" -> doPost(request, response);
-            default -> {
-                response.setStatusCode(405);
-                response.setHeader("Content-Type", "text/plain");
-                response.setBody("Method Not Allowed".getBytes());
-            }
+            case GET -> doGet(request, response);
+            case HEAD -> doHead(request, response);
+            case POST -> doPost(request, response);
+            case PUT -> doPut(request, response);
+            case DELETE -> doDelete(request, response);
+            case OPTIONS -> doOptions(request, response);
         }
     }
 
     protected void doGet(HttpRequest request, HttpResponse response) throws IOException {
-        response.setStatusCode(405);
-        response.setHeader("Content-Type", "text/plain");
-        response.setBody("GET Allowed".getBytes());
+        sendMethodNotAllowed(response);
+    }
+
+    /**
+     * {@code HEAD} 요청을 {@link #doGet}으로 처리합니다.
+     * <p>
+     * 응답 헤더는 GET과 같아야 하므로 본문도 GET과 똑같이 설정하고, 전송 단계에서만 생략합니다
+     * ({@link HttpResponse#isBodySuppressed()}). 따라서 {@code Content-Length}는 GET 응답과 일치합니다.
+     */
+    protected void doHead(HttpRequest request, HttpResponse response) throws IOException {
+        response.setBodySuppressed(true);
+        doGet(request, response);
     }
 
     protected void doPost(HttpRequest request, HttpResponse response) throws IOException {
+        sendMethodNotAllowed(response);
+    }
+
+    protected void doPut(HttpRequest request, HttpResponse response) throws IOException {
+        sendMethodNotAllowed(response);
+    }
+
+    protected void doDelete(HttpRequest request, HttpResponse response) throws IOException {
+        sendMethodNotAllowed(response);
+    }
+
+    /**
+     * 이 서블릿이 처리하는 메서드 목록을 {@code Allow} 헤더로 응답합니다.
+     */
+    protected void doOptions(HttpRequest request, HttpResponse response) throws IOException {
+        response.setStatusCode(200);
+        response.setHeader("Allow", getAllowedMethods());
+        response.setHeader("Content-Length", "0");
+    }
+
+    private void sendMethodNotAllowed(HttpResponse response) {
         response.setStatusCode(405);
+        response.setHeader("Allow", getAllowedMethods());
         response.setHeader("Content-Type", "text/plain");
-        response.setBody("POST Not Allowed".getBytes());
+        response.setBody("Method Not Allowed".getBytes());
+    }
+
+    /**
+     * 하위 클래스가 오버라이드한 {@code doXxx()} 메서드로부터 허용 메서드 목록을 만듭니다.
+     * 서블릿 클래스마다 한 번만 리플렉션으로 계산하고 이후에는 캐시된 값을 사용합니다.
+     *
+     * @return {@code Allow} 헤더 값 (예: {@code "GET, HEAD, OPTIONS"})
+     */
+    String getAllowedMethods() {
+        String allowed = allowedMethods;
+        if (allowed == null) {
+            StringJoiner joiner = new StringJoiner(", ");
+            if (isOverridden("doGet")) joiner.add("GET").add("HEAD");
+            if (isOverridden("doPost")) joiner.add("POST");
+            if (isOverridden("doPut")) joiner.add("PUT");
+            if (isOverridden("doDelete")) joiner.add("DELETE");
+            joiner.add("OPTIONS");
+            allowed = joiner.toString();
+            allowedMethods = allowed;
+        }
+        return allowed;
+    }
+
+    private boolean isOverridden(String name) {
+        for (Class<?> c = getClass(); c != HttpServlet.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, HttpRequest.class, HttpResponse.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // 상위 클래스에서 계속 찾는다
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,289 @@
+package trunk.servlet;
+
+import trunk.http11.response.PreEncodedResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 정적 파일의 메타데이터와 작은 파일의 내용을 메모리에 보관하는 LRU 캐시입니다.
+ * <p>
+ * {@link #DEFAULT_MAX_FILE_SIZE} 이하의 파일은 내용을 읽어 상태 라인과 헤더까지 미리 인코딩한 {@link PreEncodedResponse}로 보관하므로,
+ * 이후의 요청은 파일 시스템을 조회하지 않고 공유 버퍼를 그대로 전송합니다. 더 큰 파일은 크기, 수정 시각, {@code ETag}만 보관하고
+ * 본문은 기존처럼 Zero-Copy로 전송합니다.
+ * <p>
+ * 항목은 {@link #DEFAULT_REVALIDATE_MILLIS} 동안 파일 시스템을 다시 확인하지 않고 사용합니다. 기간이 지나면 크기와 수정 시각을 한 번
+ * 조회하여, 바뀌었으면 다시 읽고 그대로이면 기간만 연장합니다. 따라서 파일을 고친 뒤 최대 그 기간 동안은 이전 내용이 전송될 수 있습니다.
+ * <p>
+ * 보관한 본문의 총 크기가 한도를 넘으면 가장 오래 사용하지 않은 항목부터 제거합니다.
+ *
+ * @author jungbin97
+ * @see DefaultServlet
+ */
+final class StaticResourceCache {
+    static final long DEFAULT_MAX_SIZE = 16 * 1024 * 1024;
+    static final int DEFAULT_MAX_FILE_SIZE = 256 * 1024;
+    static final long DEFAULT_REVALIDATE_MILLIS = 5_000;
+
+    /**
+     * 본문이 없는 항목도 한도에 반영하기 위한 항목당 대략적인 크기
+     */
+    private static final int ENTRY_OVERHEAD = 256;
+    private static final DateTimeFormatter HTTP_DATE =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    private final long maxSize;
+    private final int maxFileSize;
+    private final long revalidateMillis;
+    private final Map<Path, Resource> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long size;
+
+    StaticResourceCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_MAX_FILE_SIZE, DEFAULT_REVALIDATE_MILLIS);
+    }
+
+    /**
+     * @param maxSize          보관할 본문의 최대 총 바이트 수
+     * @param maxFileSize      내용까지 보관할 파일의 최대 크기. 더 큰 파일은 메타데이터만 보관합니다.
+     * @param revalidateMillis 파일 시스템을 다시 확인하지 않고 항목을 사용하는 기간
+     */
+    StaticResourceCache(long maxSize, int maxFileSize, long revalidateMillis) {
+        this.maxSize = maxSize;
+        this.maxFileSize = maxFileSize;
+        this.revalidateMillis = revalidateMillis;
+    }
+
+    /**
+     * 파일의 캐시 항목을 반환합니다. 없거나 확인 기간이 지났으면 파일 시스템을 조회합니다.
+     *
+     * @param file     요청된 파일의 경로
+     * @param mimeType 응답의 {@code Content-Type}
+     * @return 캐시 항목. 파일이 없거나 일반 파일이 아니면 {@code null}
+     */
+    Resource get(Path file, String mimeType) throws IOException {
+        long now = System.currentTimeMillis();
+        Resource cached;
+        synchronized (this) {
+            cached = entries.get(file);
+        }
+        if (cached != null && now - cached.validatedAt < revalidateMillis) {
+            return cached;
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            remove(file);
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            remove(file);
+            return null;
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if (cached != null && cached.lastModified == lastModified && cached.length == attributes.size()) {
+            cached.validatedAt = now;
+            return cached;
+        }
+
+        Resource loaded = load(file, mimeType, attributes.size(), lastModified, now);
+        put(file, loaded);
+        return loaded;
+    }
+
+    private Resource load(Path file, String mimeType, long length, long lastModified, long now) throws IOException {
+        String lastModifiedHeader = HTTP_DATE.format(Instant.ofEpochMilli(lastModified));
+        if (length > maxFileSize) {
+            // 큰 파일은 내용을 읽지 않으므로, 크기와 수정 시각으로 ETag를 만든다
+            String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+            return new Resource(file, mimeType, length, lastModified, etag, lastModifiedHeader, null, now);
+        }
+
+        // 작은 파일은 내용으로 ETag를 만들어, 같은 바이트에만 같은 값이 붙도록 한다
+        byte[] content = Files.readAllBytes(file);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        String etag = "\"" + Integer.toHexString(content.length) + "-" + Long.toHexString(crc.getValue()) + "\"";
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", mimeType);
+        headers.put("Accept-Ranges", "bytes");
+        headers.put("ETag", etag);
+        headers.put("Last-Modified", lastModifiedHeader);
+        PreEncodedResponse response = PreEncodedResponse.of(200, headers, content);
+        return new Resource(file, mimeType, content.length, lastModified, etag, lastModifiedHeader, response, now);
+    }
+
+    private synchronized void put(Path file, Resource resource) {
+        Resource previous = entries.put(file, resource);
+        if (previous != null) {
+            size -= previous.weight();
+        }
+        size += resource.weight();
+
+        Iterator<Resource> eldest = entries.values().iterator();
+        while (size > maxSize && eldest.hasNext()) {
+            Resource evicted = eldest.next();
+            if (evicted == resource) {
+                continue;
+            }
+            eldest.remove();
+            size -= evicted.weight();
+        }
+    }
+
+    private synchronized void remove(Path file) {
+        Resource removed = entries.remove(file);
+        if (removed != null) {
+            size -= removed.weight();
+        }
+    }
+
+    /**
+     * @return 보관 중인 항목 수
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return 보관 중인 본문과 항목의 총 바이트 수
+     */
+    synchronized long weight() {
+        return size;
+    }
+
+    /**
+     * 캐시에 보관된 정적 파일 하나입니다.
+     */
+    static final class Resource {
+        private final Path file;
+        private final String mimeType;
+        private final long length;
+        private final long lastModified;
+        private final String etag;
+        private final String lastModifiedHeader;
+        private final PreEncodedResponse response;
+        private volatile long validatedAt;
+
+        private Resource(Path file, String mimeType, long length, long lastModified, String etag,
+                         String lastModifiedHeader, PreEncodedResponse response, long validatedAt) {
+            this.file = file;
+            this.mimeType = mimeType;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.etag = etag;
+            this.lastModifiedHeader = lastModifiedHeader;
+            this.response = response;
+            this.validatedAt = validatedAt;
+        }
+
+        Path getFile() {
+            return file;
+        }
+
+        String getMimeType() {
+            return mimeType;
+        }
+
+        long getLength() {
+            return length;
+        }
+
+        String getETag() {
+            return etag;
+        }
+
+        String getLastModified() {
+            return lastModifiedHeader;
+        }
+
+        /**
+         * @return 미리 인코딩한 {@code 200} 응답. 내용을 보관하지 않는 큰 파일이면 {@code null}
+         */
+        PreEncodedResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * 요청의 조건부 헤더를 평가합니다 (RFC 9110 13.2.2). {@code If-None-Match}가 있으면 {@code If-Modified-Since}는 무시합니다.
+         *
+         * @param ifNoneMatch     {@code If-None-Match} 헤더 값
+         * @param ifModifiedSince {@code If-Modified-Since} 헤더 값
+         * @return 클라이언트가 가진 사본이 최신이어서 {@code 304 Not Modified}로 응답할 수 있으면 {@code true}
+         */
+        boolean isNotModified(String ifNoneMatch, String ifModifiedSince) {
+            if (ifNoneMatch != null) {
+                return matchesETag(ifNoneMatch);
+            }
+            if (ifModifiedSince == null) {
+                return false;
+            }
+            try {
+                long since = Instant.from(DateTimeFormatter.RFC_1123_DATE_TIME.parse(ifModifiedSince.trim())).getEpochSecond();
+                // HTTP 날짜는 초 단위이므로 밀리초를 버리고 비교한다
+                return lastModified / 1000 <= since;
+            } catch (RuntimeException e) {
+                return false; // 형식이 잘못된 날짜는 무시한다
+            }
+        }
+
+        /**
+         * {@code If-Range}를 평가합니다 (RFC 9110 13.1.5). 엔티티 태그는 강한 비교를, 날짜는 {@code Last-Modified}와의 정확한 일치를 요구합니다.
+         *
+         * @param ifRange {@code If-Range} 헤더 값
+         * @return 헤더가 없거나 클라이언트가 가진 일부가 현재 파일과 같아서 {@code Range}를 적용할 수 있으면 {@code true}
+         */
+        boolean matchesIfRange(String ifRange) {
+            if (ifRange == null) {
+                return true;
+            }
+            String validator = ifRange.trim();
+            if (validator.startsWith("W/")) {
+                return false; // 약한 태그로는 일부를 이어 붙일 수 없다
+            }
+            if (validator.startsWith("\"")) {
+                return validator.equals(etag);
+            }
+            return validator.equals(lastModifiedHeader);
+        }
+
+        /**
+         * {@code If-None-Match}는 약한 비교를 사용하므로 {@code W/} 접두사는 무시합니다.
+         */
+        private boolean matchesETag(String ifNoneMatch) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.equals("*")) {
+                    return true;
+                }
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 미리 인코딩한 본문은 힙 배열과 다이렉트 버퍼에 한 벌씩 있으므로 두 번 셉니다.
+         */
+        private long weight() {
+            return ENTRY_OVERHEAD + (response != null ? 2 * length : 0);
+        }
+    }
+}
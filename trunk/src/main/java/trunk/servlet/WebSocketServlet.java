@@ -0,0 +1,99 @@
+package trunk.servlet;
+
+import trunk.http11.request.HttpRequest;
+import trunk.http11.response.HttpResponse;
+import trunk.websocket.WebSocketEndpoint;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * WebSocket 핸드셰이크(RFC 6455 4.2절)를 처리하는 추상 서블릿입니다.
+ * <p>
+ * {@code GET} 요청의 {@code Upgrade: websocket}, {@code Sec-WebSocket-Key}, {@code Sec-WebSocket-Version: 13}을
+ * 검증한 뒤 {@link #createEndpoint(HttpRequest)}가 반환한 처리기로 커넥션을 전환합니다.
+ * 이 클래스를 상속받는 개발자는 {@code createEndpoint}만 구현하면 되며, 요청을 거절하려면 {@code null}을 반환합니다.
+ * <p>
+ * 주기적인 폴링을 서버 푸시로 대체하면 클라이언트마다 매초 발생하던 요청이 사라지며, 커넥터는 메시지를 기다리는
+ * 커넥션에 워커 스레드를 배정하지 않습니다.
+ *
+ * @author jungbin97
+ * @see WebSocketEndpoint
+ * @see trunk.connector.websocket.WebSocketConnection
+ */
+public abstract class WebSocketServlet extends HttpServlet {
+    private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final String SUPPORTED_VERSION = "13";
+
+    @Override
+    protected void doGet(HttpRequest request, HttpResponse response) throws IOException {
+        if (!request.isUpgradeRequest("websocket")) {
+            reject(response, 426, "WebSocket upgrade required");
+            response.setHeader("Upgrade", "websocket");
+            response.setHeader("Connection", "Upgrade");
+            return;
+        }
+        if (!SUPPORTED_VERSION.equals(request.getHeader("Sec-WebSocket-Version"))) {
+            reject(response, 426, "Unsupported WebSocket version");
+            response.setHeader("Sec-WebSocket-Version", SUPPORTED_VERSION);
+            return;
+        }
+        String key = request.getHeader("Sec-WebSocket-Key");
+        if (!isValidKey(key)) {
+            reject(response, 400, "Invalid Sec-WebSocket-Key");
+            return;
+        }
+
+        WebSocketEndpoint endpoint = createEndpoint(request);
+        if (endpoint == null) {
+            reject(response, 403, "Forbidden");
+            return;
+        }
+        response.setHeader("Sec-WebSocket-Accept", acceptKey(key.trim()));
+        response.upgradeToWebSocket(endpoint);
+    }
+
+    /**
+     * 핸드셰이크 요청에 대한 처리기를 생성합니다. 요청마다 호출됩니다.
+     *
+     * @param request 핸드셰이크 요청 (세션, 쿼리 파라미터 등을 참조할 수 있습니다)
+     * @return 커넥션의 메시지를 받을 처리기. 전환을 거절하려면 {@code null}
+     */
+    protected abstract WebSocketEndpoint createEndpoint(HttpRequest request);
+
+    /**
+     * {@code Sec-WebSocket-Key}에 대한 {@code Sec-WebSocket-Accept} 값을 계산합니다.
+     */
+    static String acceptKey(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest((key + ACCEPT_GUID).getBytes(StandardCharsets.ISO_8859_1));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    /**
+     * 키는 16바이트 난수를 Base64로 인코딩한 값이어야 합니다.
+     */
+    private static boolean isValidKey(String key) {
+        if (key == null) {
+            return false;
+        }
+        try {
+            return Base64.getDecoder().decode(key.trim()).length == 16;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void reject(HttpResponse response, int statusCode, String message) {
+        response.setStatusCode(statusCode);
+        response.setHeader("Content-Type", "text/plain");
+        response.setBody(message.getBytes());
+    }
+}
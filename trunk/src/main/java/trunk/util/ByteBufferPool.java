@@ -0,0 +1,72 @@
+package trunk.util;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 같은 크기의 다이렉트 {@link ByteBuffer}를 재사용하는 스레드 안전한 풀입니다.
+ * <p>
+ * TLS 커넥션은 암호화된 레코드를 담을 네트워크 버퍼(약 16KB)를 읽기/쓰기 방향마다 필요로 합니다.
+ * 이를 커넥션마다 할당해 유지하면 유휴 keep-alive 커넥션 수에 비례해 메모리를 차지하고, 다이렉트 버퍼의
+ * 할당/해제 비용도 큽니다. {@link trunk.connector.nio.SecureNioChannel}은 실제로 데이터를 다루는 동안에만 버퍼를 빌리고,
+ * 버퍼가 비면 즉시 이 풀에 반납합니다. 응답 인코딩({@link trunk.http11.response.ResponseSender})도 같은 방식으로 버퍼를
+ * 빌리므로, 특정 커넥터에 속하지 않는 이 패키지에 둡니다.
+ * <p>
+ * 풀에 보관하는 버퍼 수는 {@code maxPooled}로 제한되며, 넘는 버퍼는 반납되지 않고 GC에 맡깁니다.
+ *
+ * @author jungbin97
+ * @see trunk.connector.nio.SecureNioChannel
+ * @see trunk.http11.response.ResponseSender
+ */
+public class ByteBufferPool {
+    private final int bufferSize;
+    private final int maxPooled;
+    private final Queue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    /**
+     * @param bufferSize 버퍼 하나의 크기(바이트)
+     * @param maxPooled  풀에 보관할 최대 버퍼 수
+     */
+    public ByteBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * @return 비어 있는(쓰기 모드) 버퍼. 풀이 비었으면 새로 할당합니다.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = pool.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooled.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * 버퍼를 풀에 반납합니다. 반납한 버퍼는 더 이상 사용해서는 안 됩니다.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferSize) {
+            return;
+        }
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+        pool.offer(buffer);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    int pooledCount() {
+        return pooled.get();
+    }
+}
@@ -1,13 +1,13 @@
 package trunk.util;
 
 import com.google.common.base.Strings;
-import com.google.common.collect.Maps;
+import trunk.http11.request.ParameterParser;
+import trunk.http11.request.Parameters;
 
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public final class HttpRequestUtils {
 
@@ -17,10 +17,11 @@ public final class HttpRequestUtils {
 
     /**
      * @param queryString URL에서 ? 이후에 전달되는 field1=value1&amp;field2=value2 형식임
-     * @return 파싱된 키-값 쌍을 담은 Map
+     * @return 파싱된 키-값 쌍을 담은 Map. 같은 이름이 여러 번 나오면 첫 번째 값
+     * @see ParameterParser
      */
     public static Map<String, String> parseQueryString(String queryString) {
-        return parseValues(queryString, "&");
+        return parseValues(queryString, '&');
     }
 
     /**
@@ -28,17 +29,16 @@ public final class HttpRequestUtils {
      * @return 파싱된 쿠키의 키-값 쌍을 담은 Map
      */
     public static Map<String, String> parseCookies(String cookies) {
-        return parseValues(cookies, ";");
+        return parseValues(cookies, ';');
     }
 
-    private static Map<String, String> parseValues(String values, String separator) {
+    private static Map<String, String> parseValues(String values, char separator) {
         if (Strings.isNullOrEmpty(values)) {
-            return Maps.newHashMap();
+            return new HashMap<>();
         }
-
-        String[] tokens = values.split(separator);
-        return Arrays.stream(tokens).map(t -> getKeyValue(t, "=")).filter(p -> p != null)
-                .collect(Collectors.toMap(p -> p.getKey(), p -> p.getValue()));
+        Parameters parameters = new Parameters();
+        ParameterParser.parse(values, 0, values.length(), separator, parameters);
+        return parameters.toMap();
     }
 
     public static Pair getKeyValue(String keyValue, String regex) {
@@ -1,12 +1,61 @@
 package trunk.util;
 
 import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 
 public final class IOUtils {
+    private IOUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param br            본문을 읽을 reader
+     * @param contentLength 읽을 문자 수
+     * @return 읽은 본문. 스트림이 먼저 끝나면 그때까지 읽은 내용만 반환합니다.
+     */
     public static String readData(BufferedReader br, int contentLength) throws IOException {
         char[] body = new char[contentLength];
-        br.read(body, 0, contentLength);
-        return String.copyValueOf(body);
+        // read 한 번으로 요청한 길이가 모두 채워진다는 보장이 없으므로 끝까지 반복
+        int total = 0;
+        while (total < contentLength) {
+            int n = br.read(body, total, contentLength - total);
+            if (n == -1) {
+                break;
+            }
+            total += n;
+        }
+        return String.copyValueOf(body, 0, total);
+    }
+
+    /**
+     * 입력 스트림에서 CRLF(또는 LF)로 끝나는 한 줄을 ISO-8859-1 문자열로 읽습니다. 줄 끝 문자는 포함하지 않습니다.
+     *
+     * @param in        읽을 입력 스트림
+     * @param maxLength 허용할 최대 줄 길이(바이트)
+     * @return 읽은 줄. 아무것도 읽기 전에 스트림이 끝나면 {@code null}
+     * @throws IOException 줄이 최대 길이를 넘거나, 줄 중간에 스트림이 끝난 경우
+     */
+    public static String readLine(InputStream in, int maxLength) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                int last = line.length() - 1;
+                if (last >= 0 && line.charAt(last) == '\r') {
+                    line.setLength(last);
+                }
+                return line.toString();
+            }
+            if (line.length() >= maxLength) {
+                throw new IOException("Line too long (max " + maxLength + " bytes)");
+            }
+            line.append((char) b);
+        }
+        if (line.length() == 0) {
+            return null;
+        }
+        throw new EOFException("Unexpected end of stream while reading line");
     }
 }
@@ -0,0 +1,46 @@
+package trunk.websocket;
+
+/**
+ * WebSocket 커넥션의 이벤트를 받는 애플리케이션 측 처리기입니다.
+ * <p>
+ * {@link trunk.servlet.WebSocketServlet}이 핸드셰이크 요청마다 하나씩 생성합니다. 콜백은 메시지가 도착했을 때만
+ * 워커 스레드에서 호출되며, 한 커넥션의 콜백이 동시에 호출되지는 않습니다. 메시지를 기다리는 동안에는 어떤 스레드도
+ * 점유하지 않으므로, 콜백 안에서 오래 블로킹하면 그만큼 워커 스레드를 잡아두게 됩니다.
+ *
+ * @author jungbin97
+ * @see WebSocketSession
+ * @see trunk.servlet.WebSocketServlet
+ */
+public interface WebSocketEndpoint {
+
+    /**
+     * 핸드셰이크가 끝나 커넥션이 WebSocket으로 전환된 직후 호출됩니다.
+     */
+    default void onOpen(WebSocketSession session) {
+    }
+
+    /**
+     * 텍스트 메시지(조각난 경우 모두 이어붙인 전체)를 받았을 때 호출됩니다.
+     */
+    default void onText(WebSocketSession session, String text) {
+    }
+
+    /**
+     * 바이너리 메시지(조각난 경우 모두 이어붙인 전체)를 받았을 때 호출됩니다.
+     */
+    default void onBinary(WebSocketSession session, byte[] data) {
+    }
+
+    /**
+     * 커넥션이 닫혔을 때 한 번 호출됩니다. 닫기 핸드셰이크 없이 소켓이 끊기면 {@code code}는
+     * {@link WebSocketSession#CLOSED_ABNORMALLY}입니다.
+     */
+    default void onClose(WebSocketSession session, int code, String reason) {
+    }
+
+    /**
+     * 콜백에서 예외가 발생했을 때 호출됩니다. 호출 후 커넥션은 {@link WebSocketSession#INTERNAL_ERROR}로 닫힙니다.
+     */
+    default void onError(WebSocketSession session, Throwable cause) {
+    }
+}
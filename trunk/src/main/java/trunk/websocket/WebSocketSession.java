@@ -0,0 +1,68 @@
+package trunk.websocket;
+
+import java.io.IOException;
+
+/**
+ * 하나의 WebSocket 커넥션을 나타내며, 애플리케이션이 클라이언트에게 메시지를 보내는 창구입니다. (RFC 6455)
+ * <p>
+ * 전송 메서드는 어느 스레드에서 호출해도 안전하며, 프레임은 호출 순서대로 커넥션의 쓰기 큐에 들어갑니다.
+ * 클라이언트가 읽는 속도보다 빠르게 보내면 쓰기 큐가 줄어들 때까지 호출 스레드가 대기합니다(역압).
+ *
+ * @author jungbin97
+ * @see WebSocketEndpoint
+ */
+public interface WebSocketSession {
+    int NORMAL_CLOSURE = 1000;
+    int GOING_AWAY = 1001;
+    int PROTOCOL_ERROR = 1002;
+    int UNSUPPORTED_DATA = 1003;
+    int NO_STATUS_RECEIVED = 1005;
+    int CLOSED_ABNORMALLY = 1006;
+    int INVALID_PAYLOAD = 1007;
+    int POLICY_VIOLATION = 1008;
+    int MESSAGE_TOO_BIG = 1009;
+    int INTERNAL_ERROR = 1011;
+
+    /**
+     * 텍스트 메시지를 보냅니다.
+     *
+     * @throws IOException 커넥션이 닫혔거나, 클라이언트가 제한 시간 안에 쓰기 큐를 비우지 못한 경우
+     */
+    void sendText(String text) throws IOException;
+
+    /**
+     * 바이너리 메시지를 보냅니다.
+     *
+     * @throws IOException 커넥션이 닫혔거나, 클라이언트가 제한 시간 안에 쓰기 큐를 비우지 못한 경우
+     */
+    void sendBinary(byte[] data) throws IOException;
+
+    /**
+     * Ping 프레임을 보냅니다. 클라이언트는 같은 페이로드의 Pong으로 응답해야 합니다.
+     *
+     * @param payload 125바이트 이하의 페이로드
+     */
+    void sendPing(byte[] payload) throws IOException;
+
+    /**
+     * Close 프레임을 보내 닫기 핸드셰이크를 시작합니다. 클라이언트의 Close 프레임을 받으면 커넥션이 닫힙니다.
+     *
+     * @param code   닫는 이유를 나타내는 상태 코드
+     * @param reason 123바이트(UTF-8) 이하의 사유
+     */
+    void close(int code, String reason) throws IOException;
+
+    default void close() throws IOException {
+        close(NORMAL_CLOSURE, "");
+    }
+
+    /**
+     * @return 닫기 핸드셰이크가 시작되지 않았고 소켓이 열려 있으면 {@code true}
+     */
+    boolean isOpen();
+
+    /**
+     * @return 핸드셰이크 요청의 URI
+     */
+    String getRequestUri();
+}
@@ -0,0 +1,131 @@
+package trunk.connector.http2;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import trunk.connector.nio.NioEndpoint;
+import trunk.connector.nio.NioSocketWrapper;
+import trunk.connector.nio.Poller;
+import trunk.container.StandardContext;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class Http2ConnectionTest {
+    SocketChannel channel = mock(SocketChannel.class);
+    SelectionKey key = mock(SelectionKey.class);
+    Poller poller = mock(Poller.class);
+    ExecutorService executor = mock(ExecutorService.class);
+    StandardContext context = mock(StandardContext.class);
+    NioSocketWrapper wrapper = spy(new NioSocketWrapper(channel, mock(NioEndpoint.class), poller));
+
+    private static byte[] frame(int type, int flags, int streamId, byte[] payload) {
+        return Http2Frame.allocate(payload.length, type, flags, streamId).put(payload).array();
+    }
+
+    private Http2Connection connect(byte[]... input) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (byte[] b : input) {
+            bytes.write(b);
+        }
+        byte[] data = bytes.toByteArray();
+        when(channel.read(any(ByteBuffer.class))).thenAnswer(inv -> {
+            inv.<ByteBuffer>getArgument(0).put(data);
+            return data.length;
+        }).thenReturn(0);
+
+        Http2Connection connection = new Http2Connection(wrapper, key, poller, executor, context);
+        wrapper.upgrade(connection);
+        connection.onReadable();
+        return connection;
+    }
+
+    private List<ByteBuffer> writtenFrames() {
+        ArgumentCaptor<ByteBuffer> captor = ArgumentCaptor.forClass(ByteBuffer.class);
+        verify(wrapper, atLeastOnce()).offerWrite(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static int type(ByteBuffer frame) {
+        return frame.get(3) & 0xFF;
+    }
+
+    private static int flags(ByteBuffer frame) {
+        return frame.get(4) & 0xFF;
+    }
+
+    @Test
+    @DisplayName("프리페이스와 SETTINGS, PING을 받으면 SETTINGS ACK과 PING ACK을 보내고 다음 읽기를 요청해야 한다.")
+    void acknowledgeSettingsAndPing() throws Exception {
+        // given
+        byte[] ping = frame(Http2Frame.PING, 0, 0, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+        // when
+        connect(Http2Frame.CLIENT_PREFACE, frame(Http2Frame.SETTINGS, 0, 0, new byte[0]), ping);
+
+        // then
+        List<ByteBuffer> frames = writtenFrames();
+        assertThat(frames).hasSize(2);
+        assertThat(type(frames.get(0))).isEqualTo(Http2Frame.SETTINGS);
+        assertThat(flags(frames.get(0))).isEqualTo(Http2Frame.FLAG_ACK);
+        assertThat(type(frames.get(1))).isEqualTo(Http2Frame.PING);
+        assertThat(flags(frames.get(1))).isEqualTo(Http2Frame.FLAG_ACK);
+        assertThat(frames.get(1).getLong(Http2Frame.HEADER_LENGTH)).isEqualTo(0x0102030405060708L);
+        verify(poller).requestSwitchToRead(key);
+    }
+
+    @Test
+    @DisplayName("잘못된 프리페이스를 받으면 GOAWAY(PROTOCOL_ERROR)를 보내고 커넥션을 닫도록 표시해야 한다.")
+    void invalidPreface() throws Exception {
+        // when
+        connect("GET / HTTP/1.1\r\n\r\nxxxxxxxx".getBytes(StandardCharsets.ISO_8859_1));
+
+        // then
+        List<ByteBuffer> frames = writtenFrames();
+        ByteBuffer goAway = frames.get(frames.size() - 1);
+        assertThat(type(goAway)).isEqualTo(Http2Frame.GOAWAY);
+        assertThat(goAway.getInt(Http2Frame.HEADER_LENGTH + 4)).isEqualTo(Http2Error.PROTOCOL_ERROR.getCode());
+        verify(wrapper).closeAfterWrite();
+        verify(poller, never()).requestSwitchToRead(key);
+    }
+
+    @Test
+    @DisplayName("END_STREAM이 있는 HEADERS를 받으면 스트림을 워커 풀에 제출해야 한다.")
+    void dispatchCompleteRequest() throws Exception {
+        // given: :method GET, :scheme http, :path /, :authority localhost
+        byte[] block = {(byte) 0x82, (byte) 0x86, (byte) 0x84, 0x41, 0x09,
+                'l', 'o', 'c', 'a', 'l', 'h', 'o', 's', 't'};
+        int flags = Http2Frame.FLAG_END_HEADERS | Http2Frame.FLAG_END_STREAM;
+
+        // when
+        connect(Http2Frame.CLIENT_PREFACE, frame(Http2Frame.SETTINGS, 0, 0, new byte[0]),
+                frame(Http2Frame.HEADERS, flags, 1, block));
+
+        // then
+        verify(executor).submit(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("짝수 스트림 ID로 요청을 시작하면 커넥션 오류로 처리해야 한다.")
+    void rejectEvenStreamId() throws Exception {
+        // given
+        byte[] block = {(byte) 0x82, (byte) 0x86, (byte) 0x84};
+
+        // when
+        connect(Http2Frame.CLIENT_PREFACE, frame(Http2Frame.SETTINGS, 0, 0, new byte[0]),
+                frame(Http2Frame.HEADERS, Http2Frame.FLAG_END_HEADERS | Http2Frame.FLAG_END_STREAM, 2, block));
+
+        // then
+        List<ByteBuffer> frames = writtenFrames();
+        assertThat(type(frames.get(frames.size() - 1))).isEqualTo(Http2Frame.GOAWAY);
+        verify(executor, never()).submit(any(Runnable.class));
+    }
+}
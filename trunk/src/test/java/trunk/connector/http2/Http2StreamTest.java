@@ -0,0 +1,78 @@
+package trunk.connector.http2;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import trunk.connector.http2.hpack.HeaderField;
+import trunk.http11.request.HttpRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Http2StreamTest {
+
+    @Test
+    @DisplayName("의사 헤더는 시작 줄로, 일반 헤더는 HTTP/1.1 형태의 이름으로 옮겨 요청을 만들어야 한다.")
+    void toHttpRequest() throws IOException {
+        // given
+        Http2Stream stream = new Http2Stream(1, 65535);
+        stream.setHeaders(List.of(
+                new HeaderField(":method", "POST"),
+                new HeaderField(":scheme", "http"),
+                new HeaderField(":path", "/user/create?from=h2"),
+                new HeaderField(":authority", "localhost:8080"),
+                new HeaderField("content-type", "application/x-www-form-urlencoded"),
+                new HeaderField("cookie", "a=1"),
+                new HeaderField("cookie", "JSESSIONID=abc")));
+        byte[] body = "userId=javajigi".getBytes(StandardCharsets.ISO_8859_1);
+        stream.appendData(body, 0, body.length, 1024);
+
+        // when
+        HttpRequest request = stream.toHttpRequest();
+
+        // then
+        assertThat(request.getStartLine().getMethod()).isEqualTo("POST");
+        assertThat(request.getStartLine().getRequestUri()).isEqualTo("/user/create?from=h2");
+        assertThat(request.getStartLine().getHttpVersion()).isEqualTo("HTTP/2.0");
+        assertThat(request.getHeaders().getHeaders())
+                .containsEntry("Host", "localhost:8080")
+                .containsEntry("Content-Type", "application/x-www-form-urlencoded")
+                .containsEntry("Cookie", "a=1; JSESSIONID=abc");
+        assertThat(request.getQueryParameters())
+                .containsEntry("from", "h2")
+                .containsEntry("userId", "javajigi");
+    }
+
+    @Test
+    @DisplayName(":path가 없는 요청은 스트림 오류로 거부해야 한다.")
+    void missingPath() {
+        // given
+        Http2Stream stream = new Http2Stream(3, 65535);
+        stream.setHeaders(List.of(new HeaderField(":method", "GET")));
+
+        // when & then
+        assertThatThrownBy(stream::toHttpRequest)
+                .isInstanceOf(Http2Exception.class)
+                .satisfies(e -> assertThat(((Http2Exception) e).getStreamId()).isEqualTo(3));
+    }
+
+    @Test
+    @DisplayName("수신 윈도우의 절반 이상을 소비하면 WINDOW_UPDATE 증가량을 돌려주고, 윈도우를 넘으면 예외가 발생해야 한다.")
+    void receiveWindow() throws Http2Exception {
+        // given
+        Http2Stream stream = new Http2Stream(1, 65535);
+
+        // when
+        int first = stream.consumeReceiveWindow(16384);
+        int second = stream.consumeReceiveWindow(16384);
+
+        // then
+        assertThat(first).isZero();
+        assertThat(second).isEqualTo(32768);
+        assertThatThrownBy(() -> stream.consumeReceiveWindow(65536))
+                .isInstanceOf(Http2Exception.class);
+    }
+}
@@ -0,0 +1,83 @@
+package trunk.connector.http2.hpack;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HpackDecoderTest {
+
+    private static ByteBuffer hex(String hex) {
+        String s = hex.replace(" ", "");
+        byte[] bytes = new byte[s.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(s.substring(i * 2, i * 2 + 2), 16);
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    @Test
+    @DisplayName("RFC 7541 C.4의 허프만 인코딩 요청들을 동적 테이블을 공유하며 순서대로 디코딩해야 한다.")
+    void decodeRfcRequestsWithHuffman() throws HpackException {
+        // given
+        HpackDecoder decoder = new HpackDecoder(4096, 16384);
+
+        // when
+        List<HeaderField> first = decoder.decode(hex("8286 8441 8cf1 e3c2 e5f2 3a6b a0ab 90f4 ff"));
+        List<HeaderField> second = decoder.decode(hex("8286 84be 5886 a8eb 1064 9cbf"));
+        List<HeaderField> third = decoder.decode(hex("8287 85bf 4088 25a8 49e9 5ba9 7d7f 8925 a849 e95b b8e8 b4bf"));
+
+        // then
+        assertThat(first).containsExactly(
+                new HeaderField(":method", "GET"),
+                new HeaderField(":scheme", "http"),
+                new HeaderField(":path", "/"),
+                new HeaderField(":authority", "www.example.com"));
+        assertThat(second).contains(new HeaderField(":authority", "www.example.com"),
+                new HeaderField("cache-control", "no-cache"));
+        assertThat(third).containsExactly(
+                new HeaderField(":method", "GET"),
+                new HeaderField(":scheme", "https"),
+                new HeaderField(":path", "/index.html"),
+                new HeaderField(":authority", "www.example.com"),
+                new HeaderField("custom-key", "custom-value"));
+    }
+
+    @Test
+    @DisplayName("테이블에 없는 인덱스를 참조하면 예외가 발생해야 한다.")
+    void indexOutOfRange() {
+        // given
+        HpackDecoder decoder = new HpackDecoder(4096, 16384);
+
+        // when & then
+        assertThatThrownBy(() -> decoder.decode(hex("be")))
+                .isInstanceOf(HpackException.class);
+    }
+
+    @Test
+    @DisplayName("헤더 필드 뒤에 오는 동적 테이블 크기 갱신은 거부해야 한다.")
+    void sizeUpdateAfterField() {
+        // given
+        HpackDecoder decoder = new HpackDecoder(4096, 16384);
+
+        // when & then
+        assertThatThrownBy(() -> decoder.decode(hex("82 20")))
+                .isInstanceOf(HpackException.class);
+    }
+
+    @Test
+    @DisplayName("헤더 목록이 최대 크기를 넘으면 예외가 발생해야 한다.")
+    void headerListTooLarge() {
+        // given
+        HpackDecoder decoder = new HpackDecoder(4096, 40);
+
+        // when & then
+        assertThatThrownBy(() -> decoder.decode(hex("8286")))
+                .isInstanceOf(HpackException.class)
+                .hasMessageContaining("too large");
+    }
+}
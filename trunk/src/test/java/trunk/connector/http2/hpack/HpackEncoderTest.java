@@ -0,0 +1,71 @@
+package trunk.connector.http2.hpack;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HpackEncoderTest {
+
+    @Test
+    @DisplayName("정적 테이블에 있는 필드는 인덱스로, 나머지는 허프만 리터럴로 인코딩해야 한다. (RFC 7541 C.4.1)")
+    void encodeRfcRequest() {
+        // given
+        HpackEncoder encoder = new HpackEncoder(4096);
+        List<HeaderField> fields = List.of(
+                new HeaderField(":method", "GET"),
+                new HeaderField(":scheme", "http"),
+                new HeaderField(":path", "/"),
+                new HeaderField(":authority", "www.example.com"));
+
+        // when
+        byte[] block = encoder.encode(fields);
+
+        // then
+        assertThat(block).containsExactly(0x82, 0x86, 0x84, 0x41, 0x8c, 0xf1, 0xe3, 0xc2, 0xe5, 0xf2, 0x3a, 0x6b,
+                0xa0, 0xab, 0x90, 0xf4, 0xff);
+    }
+
+    @Test
+    @DisplayName("반복되는 응답 헤더는 동적 테이블 인덱스로 줄어들고, 디코더가 같은 목록으로 복원해야 한다.")
+    void reuseDynamicTable() throws HpackException {
+        // given
+        HpackEncoder encoder = new HpackEncoder(4096);
+        HpackDecoder decoder = new HpackDecoder(4096, 16384);
+        List<HeaderField> fields = List.of(
+                new HeaderField(":status", "200"),
+                new HeaderField("content-type", "text/html;charset=utf-8"),
+                new HeaderField("set-cookie", "JSESSIONID=abc"),
+                new HeaderField("content-length", "1234"));
+
+        // when
+        byte[] first = encoder.encode(fields);
+        byte[] second = encoder.encode(fields);
+
+        // then
+        assertThat(decoder.decode(ByteBuffer.wrap(first))).isEqualTo(fields);
+        assertThat(decoder.decode(ByteBuffer.wrap(second))).isEqualTo(fields);
+        assertThat(second.length).isLessThan(first.length);
+    }
+
+    @Test
+    @DisplayName("테이블 크기가 바뀌면 다음 헤더 블록 맨 앞에 크기 갱신을 보내야 한다.")
+    void emitTableSizeUpdate() throws HpackException {
+        // given
+        HpackEncoder encoder = new HpackEncoder(4096);
+        HpackDecoder decoder = new HpackDecoder(4096, 16384);
+        List<HeaderField> fields = List.of(new HeaderField("x-custom", "value"));
+        decoder.decode(ByteBuffer.wrap(encoder.encode(fields)));
+
+        // when
+        encoder.setMaxTableSize(0);
+        byte[] block = encoder.encode(fields);
+
+        // then
+        assertThat(block[0]).isEqualTo((byte) 0x20);
+        assertThat(decoder.decode(ByteBuffer.wrap(block))).isEqualTo(fields);
+    }
+}
@@ -13,6 +13,7 @@ import trunk.http11.response.ResponseSender;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
 
@@ -118,4 +119,50 @@ class Http11NioProcessorTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("HTTP/1.0 요청에는 큰 응답도 청크로 전송하지 않고 모아서 Content-Length와 함께 보낸다")
+    void http10ResponseIsNotChunked() throws Exception {
+        // given
+        SocketChannel channel = mock(SocketChannel.class);
+        NioEndpoint endpoint = mock(NioEndpoint.class);
+        NioSocketWrapper wrapper = spy(new NioSocketWrapper(channel, endpoint, poller));
+        ByteBuffer raw = ByteBuffer.allocate(256);
+        raw.put("GET /user/list HTTP/1.0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+        HttpRequest request = new NioHttpRequestParser().parse(raw);
+        String body = "a".repeat(100 * 1024);
+
+        try (
+            MockedConstruction<NioHttpRequestParser> ctorParser =
+                 mockConstruction(NioHttpRequestParser.class,
+                         (inst, ctx2) -> when(inst.parse(any(ByteBuffer.class))).thenReturn(request));
+             // 응답 버퍼의 자동 청크 전환 크기보다 큰 본문을 writer로 쓴다
+             MockedConstruction<Http11Processor> ctorProc =
+                     mockConstruction(Http11Processor.class,
+                             (inst, ctx2) -> doAnswer(invocation -> {
+                                 HttpResponse response = invocation.getArgument(1);
+                                 response.setStatusCode(200);
+                                 response.getWriter().write(body);
+                                 return null;
+                             }).when(inst).process(any(), any()))) {
+
+            Http11NioProcessor processor = new Http11NioProcessor(wrapper, ctx, key, poller);
+            // when
+            processor.run();
+
+            // then
+            StringBuilder sent = new StringBuilder();
+            for (Object event : wrapper.writeQueue) {
+                ByteBuffer buffer = ((ByteBuffer) event).duplicate();
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                sent.append(new String(bytes, StandardCharsets.ISO_8859_1));
+            }
+            assertThat(sent.toString())
+                    .startsWith("HTTP/1.1 200")
+                    .contains("Content-Length: " + body.length() + "\r\n")
+                    .doesNotContain("Transfer-Encoding")
+                    .endsWith(body);
+            verify(poller).requestSwitchToWrite(key);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package trunk.connector.nio;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import trunk.container.StandardContext;
+import trunk.http11.async.AsyncContext;
+import trunk.http11.async.AsyncListener;
+import trunk.http11.request.HttpRequest;
+import trunk.http11.response.HttpResponse;
+
+import java.nio.channels.SelectionKey;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NioAsyncContextTest {
+    HttpRequest request = mock(HttpRequest.class);
+    HttpResponse response = new HttpResponse();
+    Runnable completion = mock(Runnable.class);
+    NioSocketWrapper wrapper = mock(NioSocketWrapper.class);
+    SelectionKey key = mock(SelectionKey.class);
+
+    private Poller poller() throws Exception {
+        return spy(new Poller(mock(ExecutorService.class), mock(StandardContext.class), mock(NioEndpoint.class)));
+    }
+
+    private Runnable scheduledTimeout(Poller poller, long delayMillis) {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(poller).schedule(captor.capture(), eq(delayMillis));
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("서블릿이 반환하기 전에 완료되면, 반환 시점에 응답을 한 번만 마무리해야 한다.")
+    void completeBeforeDispatchReturned() throws Exception {
+        // given
+        Poller poller = poller();
+        NioAsyncContext ctx = new NioAsyncContext(request, response, wrapper, key, poller, completion);
+
+        // when
+        ctx.complete();
+        verify(completion, never()).run();
+        ctx.dispatchReturned();
+
+        // then
+        verify(completion, times(1)).run();
+        verify(poller, never()).schedule(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("서블릿이 반환한 뒤 완료되면, complete()를 호출한 시점에 응답을 마무리하고 리스너에 알려야 한다.")
+    void completeAfterDispatchReturned() throws Exception {
+        // given
+        Poller poller = poller();
+        NioAsyncContext ctx = new NioAsyncContext(request, response, wrapper, key, poller, completion);
+        AsyncListener listener = mock(AsyncListener.class);
+        ctx.addListener(listener);
+        ctx.dispatchReturned();
+
+        // when
+        ctx.complete();
+        ctx.complete();
+
+        // then
+        verify(completion, times(1)).run();
+        verify(listener, times(1)).onComplete(ctx);
+        verify(wrapper).clearCallbacks();
+        assertThat(ctx.isCompleted()).isTrue();
+        scheduledTimeout(poller, AsyncContext.DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    @Test
+    @DisplayName("타임아웃 리스너가 완료하지 않으면 500 응답으로 완료해야 한다.")
+    void timeoutWithoutListenerCompletion() throws Exception {
+        // given
+        Poller poller = poller();
+        NioAsyncContext ctx = new NioAsyncContext(request, response, wrapper, key, poller, completion);
+        AsyncListener listener = mock(AsyncListener.class);
+        ctx.addListener(listener);
+        ctx.setTimeout(1000);
+        ctx.dispatchReturned();
+
+        // when
+        scheduledTimeout(poller, 1000).run();
+
+        // then
+        verify(listener).onTimeout(ctx);
+        assertThat(response.getStatusCode()).isEqualTo(500);
+        verify(completion, times(1)).run();
+    }
+
+    @Test
+    @DisplayName("타임아웃 리스너가 직접 응답을 완료하면 그 응답을 그대로 보내야 한다.")
+    void timeoutCompletedByListener() throws Exception {
+        // given
+        Poller poller = poller();
+        NioAsyncContext ctx = new NioAsyncContext(request, response, wrapper, key, poller, completion);
+        ctx.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncContext c) {
+                c.getResponse().setStatusCode(204);
+                c.complete();
+            }
+        });
+        ctx.setTimeout(1000);
+        ctx.dispatchReturned();
+
+        // when
+        scheduledTimeout(poller, 1000).run();
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(204);
+        verify(completion, times(1)).run();
+    }
+
+    @Test
+    @DisplayName("타임아웃이 0 이하이면 타임아웃을 예약하지 않아야 한다.")
+    void noTimeout() throws Exception {
+        // given
+        Poller poller = poller();
+        NioAsyncContext ctx = new NioAsyncContext(request, response, wrapper, key, poller, completion);
+        ctx.setTimeout(0);
+
+        // when
+        ctx.dispatchReturned();
+
+        // then
+        verify(poller, never()).schedule(any(), anyLong());
+        verify(completion, never()).run();
+    }
+}
@@ -0,0 +1,122 @@
+package trunk.connector.nio;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import trunk.http11.async.ReadListener;
+import trunk.http11.request.HttpRequestBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class NioAsyncInputStreamTest {
+    SocketChannel channel = mock(SocketChannel.class);
+    SelectionKey key = mock(SelectionKey.class);
+    Poller poller = mock(Poller.class);
+    NioAsyncContext asyncContext = mock(NioAsyncContext.class);
+    NioSocketWrapper wrapper = spy(new NioSocketWrapper(channel, mock(NioEndpoint.class), poller));
+
+    NioAsyncInputStreamTest() {
+        when(channel.isOpen()).thenReturn(true);
+        // 리스너 호출을 워커 풀 대신 호출 스레드에서 바로 실행
+        doAnswer(inv -> {
+            inv.<Runnable>getArgument(0).run();
+            return null;
+        }).when(asyncContext).start(any(Runnable.class));
+    }
+
+    private NioAsyncInputStream stream(long contentLength) {
+        HttpRequestBody body = HttpRequestBody.streaming(new NioInputStream(wrapper, key), false, contentLength, null);
+        return new NioAsyncInputStream(wrapper, key, asyncContext, body);
+    }
+
+    private static class CollectingListener implements ReadListener {
+        final NioAsyncInputStream in;
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        int dataAvailableCalls = 0;
+        boolean allDataRead = false;
+        Throwable error;
+
+        CollectingListener(NioAsyncInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            dataAvailableCalls++;
+            byte[] buf = new byte[4];
+            int n;
+            while (in.isReady() && (n = in.read(buf)) != -1) {
+                received.write(buf, 0, n);
+            }
+        }
+
+        @Override
+        public void onAllDataRead() {
+            allDataRead = true;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+    }
+
+    @Test
+    @DisplayName("읽을 데이터가 없으면 리스너를 호출하지 않고 읽기 이벤트를 등록해야 하며, 데이터가 도착하면 끝까지 읽고 onAllDataRead를 호출해야 한다.")
+    void readWhenDataArrives() throws Exception {
+        // given
+        NioAsyncInputStream in = stream(10);
+        CollectingListener listener = new CollectingListener(in);
+        when(channel.read(any(ByteBuffer.class))).thenReturn(0);
+
+        // when
+        in.setReadListener(listener);
+
+        // then
+        ArgumentCaptor<Runnable> callback = ArgumentCaptor.forClass(Runnable.class);
+        verify(wrapper).notifyWhenReadable(eq(key), callback.capture());
+        assertThat(listener.dataAvailableCalls).isZero();
+
+        // when: 본문 전체가 도착
+        when(channel.read(any(ByteBuffer.class))).thenAnswer(inv -> {
+            inv.<ByteBuffer>getArgument(0).put("0123456789".getBytes(StandardCharsets.US_ASCII));
+            return 10;
+        }).thenReturn(0);
+        callback.getValue().run();
+
+        // then
+        assertThat(listener.received.toString(StandardCharsets.US_ASCII)).isEqualTo("0123456789");
+        assertThat(listener.allDataRead).isTrue();
+        assertThat(in.isFinished()).isTrue();
+        verify(asyncContext, never()).completeWithError();
+    }
+
+    @Test
+    @DisplayName("본문 도중 클라이언트가 연결을 끊으면 onError를 호출하고 요청을 오류로 완료해야 한다.")
+    void errorOnPrematureEof() throws Exception {
+        // given
+        NioAsyncInputStream in = stream(10);
+        CollectingListener listener = new CollectingListener(in);
+        when(channel.read(any(ByteBuffer.class))).thenAnswer(inv -> {
+            inv.<ByteBuffer>getArgument(0).put("01234".getBytes(StandardCharsets.US_ASCII));
+            return 5;
+        }).thenReturn(-1);
+
+        // when
+        in.setReadListener(listener);
+
+        // then
+        assertThat(listener.received.size()).isEqualTo(5);
+        assertThat(listener.error).isInstanceOf(IOException.class);
+        assertThat(listener.allDataRead).isFalse();
+        verify(asyncContext).completeWithError();
+    }
+}
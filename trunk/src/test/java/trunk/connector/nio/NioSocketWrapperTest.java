@@ -7,8 +7,10 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutorService;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 class NioSocketWrapperTest {
@@ -109,4 +111,90 @@ class NioSocketWrapperTest {
         verify(key).interestOps(SelectionKey.OP_WRITE);
         verify(poller, never()).requestSwitchToRead(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("응답을 생산 중(processing)일 때는 큐가 비워져도 읽기 모드로 전환하지 않아야 한다.")
+    void flushWhileProcessing_doesNotSwitchToRead() {
+        // given
+        Poller poller = mock(Poller.class);
+        NioSocketWrapper wrapper = new NioSocketWrapper(mock(SocketChannel.class), mock(NioEndpoint.class), poller);
+        wrapper.setProcessing(true);
+        SelectionKey key = mock(SelectionKey.class);
+        when(key.interestOps()).thenReturn(SelectionKey.OP_WRITE);
+
+        // when
+        wrapper.processWriteQueue(key);
+
+        // then
+        verify(key).interestOps(0);
+        verify(poller, never()).requestSwitchToRead(any());
+    }
+
+    @Test
+    @DisplayName("쓰기 큐가 비워지지 않으면 역압 대기는 시간 초과 예외를 발생시켜야 한다.")
+    void awaitWriteQueueBelow_timeout() {
+        // given
+        SocketChannel channel = mock(SocketChannel.class);
+        when(channel.isOpen()).thenReturn(true);
+        NioSocketWrapper wrapper = new NioSocketWrapper(channel, mock(NioEndpoint.class), mock(Poller.class));
+        wrapper.writeQueue.offer(ByteBuffer.allocate(1));
+        wrapper.writeQueue.offer(ByteBuffer.allocate(1));
+
+        // when & then
+        assertThatThrownBy(() -> wrapper.awaitWriteQueueBelow(1, 10))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("읽기 콜백이 등록되어 있으면 읽기 이벤트를 콜백으로 넘기고, 한 번만 실행해야 한다.")
+    void readCallback_submittedOnceOnReadable() {
+        // given
+        Poller poller = mock(Poller.class);
+        ExecutorService workerPool = mock(ExecutorService.class);
+        when(poller.getWorkerPool()).thenReturn(workerPool);
+        NioSocketWrapper wrapper = new NioSocketWrapper(mock(SocketChannel.class), mock(NioEndpoint.class), poller);
+        SelectionKey key = mock(SelectionKey.class);
+        Runnable callback = mock(Runnable.class);
+
+        // when
+        wrapper.notifyWhenReadable(key, callback);
+        boolean first = wrapper.signalReadable();
+        boolean second = wrapper.signalReadable();
+
+        // then
+        verify(poller).requestSwitchToRead(key);
+        verify(workerPool, times(1)).submit(callback);
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+    }
+
+    @Test
+    @DisplayName("쓰기 큐가 한도를 넘으면 콜백을 등록하고, 큐가 한도 이하로 줄어들면 콜백을 실행해야 한다.")
+    void writeCallback_submittedWhenQueueDrains() throws IOException {
+        // given
+        SocketChannel channel = mock(SocketChannel.class);
+        when(channel.isOpen()).thenReturn(true);
+        when(channel.write(any(ByteBuffer.class))).thenAnswer(inv -> {
+            ByteBuffer b = inv.getArgument(0);
+            int n = b.remaining();
+            b.position(b.limit());
+            return n;
+        });
+        Poller poller = mock(Poller.class);
+        ExecutorService workerPool = mock(ExecutorService.class);
+        when(poller.getWorkerPool()).thenReturn(workerPool);
+        NioSocketWrapper wrapper = new NioSocketWrapper(channel, mock(NioEndpoint.class), poller);
+        wrapper.writeQueue.offer(ByteBuffer.allocate(1));
+        wrapper.writeQueue.offer(ByteBuffer.allocate(1));
+        Runnable callback = mock(Runnable.class);
+
+        // when
+        boolean writable = wrapper.isWritable(1, callback);
+        wrapper.processWriteQueue(mock(SelectionKey.class));
+
+        // then
+        assertThat(writable).isFalse();
+        verify(workerPool, times(1)).submit(callback);
+        assertThat(wrapper.isWritable(1, callback)).isTrue();
+    }
+}
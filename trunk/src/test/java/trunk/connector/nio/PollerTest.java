@@ -81,6 +81,77 @@ class PollerTest {
         }
     }
 
+    @Test
+    @DisplayName("요청 본문을 기다리는 워커가 있으면 읽기 이벤트 시 새 프로세서 대신 대기 중인 워커를 깨운다")
+    void dispatchReadableToWaitingWorker() throws Exception {
+        // given
+        Selector selector = mock(Selector.class);
+        try (MockedStatic<Selector> selectorMock = mockStatic(Selector.class)) {
+            selectorMock.when(Selector::open).thenReturn(selector);
+            Poller poller = new Poller(pool, context, endpoint);
+
+            when(selector.select()).thenAnswer(inv -> {
+                poller.stop();
+                return 0;
+            });
+            SelectionKey key = mock(SelectionKey.class);
+            when(selector.selectedKeys()).thenReturn(new HashSet<>(Set.of(key)));
+
+            when(key.isValid()).thenReturn(true);
+            when(key.isReadable()).thenReturn(true);
+            when(key.isWritable()).thenReturn(false);
+            when(key.interestOps()).thenReturn(SelectionKey.OP_READ);
+            NioSocketWrapper wrapper = mock(NioSocketWrapper.class);
+            when(wrapper.signalReadable()).thenReturn(true);
+            when(key.attachment()).thenReturn(wrapper);
+
+            // when
+            poller.run();
+
+            // then
+            verify(wrapper).signalReadable();
+            verify(pool, never()).submit(any(Http11NioProcessor.class));
+        }
+    }
+
+    @Test
+    @DisplayName("프로토콜이 전환된 커넥션의 읽기 이벤트는 Http11NioProcessor 대신 UpgradeHandler로 전달한다")
+    void dispatchReadableToUpgradeHandler() throws Exception {
+        // given
+        Selector selector = mock(Selector.class);
+        try (MockedStatic<Selector> selectorMock = mockStatic(Selector.class)) {
+            selectorMock.when(Selector::open).thenReturn(selector);
+            Poller poller = new Poller(pool, context, endpoint);
+
+            when(selector.select()).thenAnswer(inv -> {
+                poller.stop();
+                return 0;
+            });
+            SelectionKey key = mock(SelectionKey.class);
+            when(selector.selectedKeys()).thenReturn(new HashSet<>(Set.of(key)));
+
+            when(key.isValid()).thenReturn(true);
+            when(key.isReadable()).thenReturn(true);
+            when(key.isWritable()).thenReturn(false);
+            when(key.interestOps()).thenReturn(SelectionKey.OP_READ);
+            NioSocketWrapper wrapper = mock(NioSocketWrapper.class);
+            UpgradeHandler handler = mock(UpgradeHandler.class);
+            when(wrapper.getUpgradeHandler()).thenReturn(handler);
+            when(key.attachment()).thenReturn(wrapper);
+            when(pool.submit(any(Runnable.class))).thenAnswer(inv -> {
+                inv.<Runnable>getArgument(0).run();
+                return null;
+            });
+
+            // when
+            poller.run();
+
+            // then
+            verify(handler).onReadable();
+            verify(pool, never()).submit(any(Http11NioProcessor.class));
+        }
+    }
+
     @Test
     @DisplayName("쓰기 이벤트 시 NioSocketWrapper의 flushWriteBuffer 메서드를 호출한다")
     void dispatchWritable() throws Exception {
@@ -0,0 +1,232 @@
+package trunk.connector.nio;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import trunk.container.StandardContext;
+import trunk.util.ByteBufferPool;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecureNioChannelTest {
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    private SslConfig sslConfig;
+    private SSLContext clientContext;
+    private ByteBufferPool pool;
+    private ServerSocketChannel server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // 자체 서명 인증서를 서버 키와 클라이언트 신뢰 저장소로 함께 사용
+        Path keyStore = Path.of(getClass().getResource("/ssl/test-keystore.p12").toURI());
+        sslConfig = SslConfig.fromKeyStore(keyStore, PASSWORD);
+
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init(KeyStore.getInstance(keyStore.toFile(), PASSWORD));
+        clientContext = SSLContext.getInstance("TLS");
+        clientContext.init(null, tmf.getTrustManagers(), null);
+
+        pool = new ByteBufferPool(32 * 1024, 8);
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.close();
+    }
+
+    /**
+     * 클라이언트 소켓으로 {@code request}를 보내고 {@code response} 배열을 채울 만큼 응답을 받습니다.
+     */
+    private CompletableFuture<SSLSession> client(String protocol, String request, byte[] response) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (SSLSocket socket = (SSLSocket) clientContext.getSocketFactory()
+                    .createSocket(InetAddress.getLoopbackAddress(), server.socket().getLocalPort())) {
+                socket.setEnabledProtocols(new String[]{protocol});
+                socket.getOutputStream().write(request.getBytes(StandardCharsets.ISO_8859_1));
+                socket.getOutputStream().flush();
+                InputStream in = socket.getInputStream();
+                int read = 0;
+                while (read < response.length) {
+                    int n = in.read(response, read, response.length - read);
+                    if (n == -1) {
+                        break;
+                    }
+                    read += n;
+                }
+                return socket.getSession();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /**
+     * 논블로킹 서버 채널로 핸드셰이크를 마치고 {@code expected} 길이의 평문을 읽은 뒤 {@code response}를 보냅니다.
+     */
+    private String serve(int expected, ByteBuffer response) throws Exception {
+        SocketChannel accepted = server.accept();
+        accepted.configureBlocking(false);
+        SecureNioChannel channel = new SecureNioChannel(accepted, sslConfig.createEngine(), pool);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (channel.handshake() != 0) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+
+        ByteBuffer received = ByteBuffer.allocate(expected);
+        while (received.hasRemaining()) {
+            assertThat(channel.read(received)).isNotNegative();
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+        }
+        while (response.hasRemaining() || !channel.flush()) {
+            channel.write(response);
+        }
+        channel.close();
+        return new String(received.array(), StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    @DisplayName("핸드셰이크 후 복호화된 요청을 읽고, 여러 TLS 레코드에 걸친 응답을 암호화하여 보내야 한다.")
+    void handshakeReadAndWrite() throws Exception {
+        // given
+        byte[] payload = new byte[100_000];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) i;
+        }
+        byte[] received = new byte[payload.length];
+        CompletableFuture<SSLSession> client = client("TLSv1.3", "GET / HTTP/1.1\r\n\r\n", received);
+
+        // when
+        String request = serve(18, ByteBuffer.wrap(payload));
+        client.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(request).isEqualTo("GET / HTTP/1.1\r\n\r\n");
+        assertThat(received).isEqualTo(payload);
+    }
+
+    @Test
+    @DisplayName("같은 클라이언트가 다시 접속하면 캐시된 세션으로 재개되어야 한다.")
+    void resumeCachedSession() throws Exception {
+        // given
+        CompletableFuture<SSLSession> first = client("TLSv1.2", "a", new byte[1]);
+        serve(1, ByteBuffer.wrap(new byte[1]));
+        SSLSession firstSession = first.get(5, TimeUnit.SECONDS);
+
+        // when
+        CompletableFuture<SSLSession> second = client("TLSv1.2", "b", new byte[1]);
+        serve(1, ByteBuffer.wrap(new byte[1]));
+        SSLSession secondSession = second.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(secondSession.getId()).isEqualTo(firstSession.getId());
+    }
+
+    @Test
+    @DisplayName("한 번의 소켓 읽기로 도착한 여러 TLS 레코드는 Poller의 읽기 이벤트를 기다리지 않고 모두 처리해야 한다.")
+    void coalescedRecordsThroughPoller() throws Exception {
+        // given
+        StandardContext context = new StandardContext();
+        context.loadOnStartup();
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        Poller poller = new Poller(workers, context, new NioEndpoint(sslConfig));
+        Thread pollerThread = new Thread(poller);
+        pollerThread.start();
+
+        HoldingSocket socket = new HoldingSocket();
+        socket.connect(server.getLocalAddress());
+        SocketChannel accepted = server.accept();
+        accepted.configureBlocking(false);
+        poller.register(accepted);
+
+        try (SSLSocket client = (SSLSocket) clientContext.getSocketFactory()
+                .createSocket(socket, "localhost", server.socket().getLocalPort(), true)) {
+            client.setSoTimeout(5000);
+            client.startHandshake();
+
+            // when
+            // 시작 줄과 헤더를 각각 하나의 TLS 레코드로 만들어, 두 레코드를 한 번의 TCP 쓰기로 보낸다
+            socket.hold();
+            OutputStream out = client.getOutputStream();
+            out.write("GET /missing HTTP/1.1\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            out.write("Host: localhost\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            socket.release();
+
+            // then
+            BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.ISO_8859_1));
+            assertThat(in.readLine()).isEqualTo("HTTP/1.1 404 Not Found");
+        } finally {
+            poller.stop();
+            pollerThread.join(5000);
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * {@link #hold()}와 {@link #release()} 사이에 쓴 바이트를 모아 한 번에 보내는 소켓입니다.
+     * 그 위에 올린 {@link SSLSocket}이 레코드마다 따로 쓰더라도 서버에는 하나의 TCP 세그먼트로 도착합니다.
+     */
+    private static class HoldingSocket extends Socket {
+        private final ByteArrayOutputStream held = new ByteArrayOutputStream();
+        private boolean holding = false;
+
+        void hold() {
+            holding = true;
+        }
+
+        void release() throws IOException {
+            holding = false;
+            super.getOutputStream().write(held.toByteArray());
+            held.reset();
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            OutputStream out = super.getOutputStream();
+            return new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    if (holding) {
+                        held.write(b, off, len);
+                    } else {
+                        out.write(b, off, len);
+                    }
+                }
+            };
+        }
+    }
+}
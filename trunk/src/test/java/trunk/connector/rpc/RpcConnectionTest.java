@@ -0,0 +1,179 @@
+package trunk.connector.rpc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import trunk.connector.nio.NioEndpoint;
+import trunk.connector.nio.NioSocketWrapper;
+import trunk.connector.nio.Poller;
+import trunk.container.StandardContext;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class RpcConnectionTest {
+    SocketChannel channel = mock(SocketChannel.class);
+    SelectionKey key = mock(SelectionKey.class);
+    Poller poller = mock(Poller.class);
+    ExecutorService executor = mock(ExecutorService.class);
+    StandardContext context = new StandardContext();
+    NioSocketWrapper wrapper = spy(new NioSocketWrapper(channel, mock(NioEndpoint.class), poller));
+
+    private static byte[] bytes(ByteBuffer buf) {
+        byte[] b = new byte[buf.remaining()];
+        buf.duplicate().get(b);
+        return b;
+    }
+
+    private RpcConnection connect(byte[]... reads) throws Exception {
+        var stub = when(channel.read(any(ByteBuffer.class)));
+        for (byte[] data : reads) {
+            stub = stub.thenAnswer(inv -> {
+                inv.<ByteBuffer>getArgument(0).put(data);
+                return data.length;
+            });
+        }
+        stub.thenReturn(0);
+
+        RpcConnection connection = new RpcConnection(wrapper, key, poller, executor, context);
+        wrapper.upgrade(connection);
+        connection.onReadable();
+        return connection;
+    }
+
+    private List<Runnable> submittedTasks(int count) {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor, times(count)).submit(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private List<ByteBuffer> writtenFrames() {
+        ArgumentCaptor<ByteBuffer> captor = ArgumentCaptor.forClass(ByteBuffer.class);
+        verify(wrapper, atLeastOnce()).offerWrite(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    @DisplayName("한 번에 도착한 여러 요청을 각각 워커에 제출하고, 처리가 끝난 순서대로 같은 요청 ID로 응답해야 한다.")
+    void multiplexedOutOfOrderResponses() throws Exception {
+        // given
+        context.addRpcHandler(1, payload -> payload);
+        ByteArrayOutputStream input = new ByteArrayOutputStream();
+        input.write(bytes(RpcFrame.request(7, 1, "first".getBytes(StandardCharsets.UTF_8))));
+        input.write(bytes(RpcFrame.request(8, 1, "second".getBytes(StandardCharsets.UTF_8))));
+
+        // when
+        connect(input.toByteArray());
+        List<Runnable> tasks = submittedTasks(2);
+        tasks.get(1).run();
+        tasks.get(0).run();
+
+        // then
+        List<ByteBuffer> frames = writtenFrames();
+        assertThat(frames.get(0).getInt(RpcFrame.LENGTH_FIELD_SIZE)).isEqualTo(8);
+        assertThat(frames.get(1).getInt(RpcFrame.LENGTH_FIELD_SIZE)).isEqualTo(7);
+        assertThat(bytes(frames.get(0))).isEqualTo(bytes(RpcFrame.response(8, RpcFrame.STATUS_OK,
+                "second".getBytes(StandardCharsets.UTF_8))));
+        verify(poller).requestSwitchToRead(key);
+    }
+
+    @Test
+    @DisplayName("여러 번의 읽기에 나뉘어 도착한 페이로드를 모아 하나의 요청으로 처리해야 한다.")
+    void payloadSplitAcrossReads() throws Exception {
+        // given
+        context.addRpcHandler(1, payload -> new byte[]{(byte) payload.length});
+        byte[] frame = bytes(RpcFrame.request(1, 1, new byte[20_000]));
+        byte[] first = new byte[5_000];
+        byte[] rest = new byte[frame.length - first.length];
+        System.arraycopy(frame, 0, first, 0, first.length);
+        System.arraycopy(frame, first.length, rest, 0, rest.length);
+        int[] restOffset = {0};
+
+        // when
+        RpcConnection connection = connect(first);
+        verify(executor, never()).submit(any(Runnable.class));
+        reset(channel);
+        when(channel.read(any(ByteBuffer.class))).thenAnswer(inv -> {
+            ByteBuffer dst = inv.getArgument(0);
+            int n = Math.min(dst.remaining(), rest.length - restOffset[0]);
+            dst.put(rest, restOffset[0], n);
+            restOffset[0] += n;
+            return n;
+        });
+        connection.onReadable();
+        submittedTasks(1).get(0).run();
+
+        // then
+        ByteBuffer response = writtenFrames().get(0);
+        assertThat(response.get(RpcFrame.LENGTH_FIELD_SIZE + 4)).isEqualTo((byte) RpcFrame.STATUS_OK);
+        assertThat(response.get(RpcFrame.LENGTH_FIELD_SIZE + RpcFrame.RESPONSE_HEADER_SIZE)).isEqualTo((byte) (20_000 & 0xFF));
+    }
+
+    @Test
+    @DisplayName("등록되지 않은 메서드와 핸들러 예외는 오류 상태로 응답하고 커넥션은 유지해야 한다.")
+    void errorStatuses() throws Exception {
+        // given
+        context.addRpcHandler(2, payload -> {
+            throw new IllegalStateException("boom");
+        });
+        ByteArrayOutputStream input = new ByteArrayOutputStream();
+        input.write(bytes(RpcFrame.request(1, 99, new byte[0])));
+        input.write(bytes(RpcFrame.request(2, 2, new byte[0])));
+
+        // when
+        connect(input.toByteArray());
+        submittedTasks(2).forEach(Runnable::run);
+
+        // then
+        List<ByteBuffer> frames = writtenFrames();
+        assertThat(frames.get(0).get(RpcFrame.LENGTH_FIELD_SIZE + 4)).isEqualTo((byte) RpcFrame.STATUS_UNKNOWN_METHOD);
+        assertThat(frames.get(1).get(RpcFrame.LENGTH_FIELD_SIZE + 4)).isEqualTo((byte) RpcFrame.STATUS_HANDLER_ERROR);
+        verify(wrapper, never()).closeChannel();
+    }
+
+    @Test
+    @DisplayName("워커 풀이 요청을 거부하면 그 요청에 BUSY 상태로 응답하고, 처리 중 요청 수를 되돌려 계속 읽어야 한다.")
+    void rejectedDispatchRespondsBusy() throws Exception {
+        // given
+        context.addRpcHandler(1, payload -> payload);
+        when(executor.submit(any(Runnable.class))).thenThrow(new RejectedExecutionException("saturated"));
+        ByteArrayOutputStream input = new ByteArrayOutputStream();
+        for (int id = 0; id <= RpcConnection.MAX_IN_FLIGHT; id++) {
+            input.write(bytes(RpcFrame.request(id, 1, new byte[0])));
+        }
+
+        // when
+        connect(input.toByteArray());
+
+        // then
+        List<ByteBuffer> frames = writtenFrames();
+        assertThat(frames).hasSize(RpcConnection.MAX_IN_FLIGHT + 1);
+        ByteBuffer last = frames.get(RpcConnection.MAX_IN_FLIGHT);
+        assertThat(last.getInt(RpcFrame.LENGTH_FIELD_SIZE)).isEqualTo(RpcConnection.MAX_IN_FLIGHT);
+        assertThat(last.get(RpcFrame.LENGTH_FIELD_SIZE + 4)).isEqualTo((byte) RpcFrame.STATUS_BUSY);
+        verify(wrapper, never()).closeChannel();
+    }
+
+    @Test
+    @DisplayName("프레임 길이가 최대 크기를 넘으면 커넥션을 닫아야 한다.")
+    void rejectOversizedFrame() throws Exception {
+        // given
+        ByteBuffer header = ByteBuffer.allocate(10).putInt(RpcFrame.DEFAULT_MAX_FRAME_SIZE + 1).putInt(1).putShort((short) 1);
+
+        // when
+        connect(header.array());
+
+        // then
+        verify(wrapper).closeChannel();
+        verify(executor, never()).submit(any(Runnable.class));
+    }
+}
@@ -0,0 +1,118 @@
+package trunk.connector.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import trunk.connector.nio.NioEndpoint;
+import trunk.connector.nio.NioSocketWrapper;
+import trunk.connector.nio.Poller;
+import trunk.websocket.WebSocketEndpoint;
+import trunk.websocket.WebSocketSession;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class WebSocketConnectionTest {
+    private static final byte[] MASK = {0x12, 0x34, 0x56, 0x78};
+
+    SocketChannel channel = mock(SocketChannel.class);
+    SelectionKey key = mock(SelectionKey.class);
+    Poller poller = mock(Poller.class);
+    WebSocketEndpoint endpoint = mock(WebSocketEndpoint.class);
+    NioSocketWrapper wrapper = spy(new NioSocketWrapper(channel, mock(NioEndpoint.class), poller));
+
+    /**
+     * 클라이언트가 보내는 것처럼 마스킹된 프레임을 만듭니다.
+     */
+    private static byte[] clientFrame(int firstByte, byte[] payload) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(firstByte);
+        out.write(0x80 | payload.length);
+        out.writeBytes(MASK);
+        for (int i = 0; i < payload.length; i++) {
+            out.write(payload[i] ^ MASK[i % 4]);
+        }
+        return out.toByteArray();
+    }
+
+    private WebSocketConnection receive(byte[]... frames) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (byte[] frame : frames) {
+            bytes.write(frame);
+        }
+        byte[] data = bytes.toByteArray();
+        when(channel.isOpen()).thenReturn(true);
+        when(channel.read(any(ByteBuffer.class))).thenAnswer(inv -> {
+            inv.<ByteBuffer>getArgument(0).put(data);
+            return data.length;
+        }).thenReturn(0);
+
+        WebSocketConnection connection = new WebSocketConnection(wrapper, key, poller, endpoint, "/ws");
+        connection.start();
+        connection.onReadable();
+        return connection;
+    }
+
+    private List<ByteBuffer> writtenFrames() {
+        ArgumentCaptor<ByteBuffer> captor = ArgumentCaptor.forClass(ByteBuffer.class);
+        verify(wrapper, atLeastOnce()).offerWrite(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    @DisplayName("조각난 텍스트 메시지 사이의 Ping에 Pong으로 응답하고, 이어붙인 메시지를 전달한 뒤 다음 읽기를 요청해야 한다.")
+    void reassembleFragmentsAndAnswerPing() throws Exception {
+        // when
+        WebSocketConnection connection = receive(
+                clientFrame(WebSocketFrame.TEXT, "Hel".getBytes(StandardCharsets.UTF_8)),
+                clientFrame(0x80 | WebSocketFrame.PING, new byte[]{7}),
+                clientFrame(0x80 | WebSocketFrame.CONTINUATION, "lo".getBytes(StandardCharsets.UTF_8)));
+
+        // then
+        verify(endpoint).onOpen(connection);
+        verify(endpoint).onText(connection, "Hello");
+        ByteBuffer pong = writtenFrames().get(0);
+        assertThat(pong.get(0) & 0xFF).isEqualTo(0x80 | WebSocketFrame.PONG);
+        assertThat(pong.get(2)).isEqualTo((byte) 7);
+        verify(poller, atLeastOnce()).requestSwitchToRead(key);
+    }
+
+    @Test
+    @DisplayName("마스킹되지 않은 클라이언트 프레임을 받으면 1002로 닫아야 한다.")
+    void rejectUnmaskedFrame() throws Exception {
+        // when
+        WebSocketConnection connection = receive(new byte[]{(byte) 0x81, 0x01, 'a'});
+
+        // then
+        ByteBuffer close = writtenFrames().get(0);
+        assertThat(close.get(0) & 0xFF).isEqualTo(0x80 | WebSocketFrame.CLOSE);
+        assertThat(close.getShort(2)).isEqualTo((short) WebSocketSession.PROTOCOL_ERROR);
+        verify(wrapper).closeAfterWrite();
+        verify(endpoint).onClose(connection, WebSocketSession.PROTOCOL_ERROR, "Client frame is not masked");
+        verify(endpoint, never()).onText(any(), any());
+    }
+
+    @Test
+    @DisplayName("Close 프레임을 받으면 같은 상태 코드로 응답하고 전송 후 커넥션을 닫아야 한다.")
+    void echoCloseFrame() throws Exception {
+        // given
+        byte[] payload = ByteBuffer.allocate(4).putShort((short) 1000).put("ok".getBytes(StandardCharsets.UTF_8)).array();
+
+        // when
+        WebSocketConnection connection = receive(clientFrame(0x80 | WebSocketFrame.CLOSE, payload));
+
+        // then
+        ByteBuffer close = writtenFrames().get(0);
+        assertThat(close.getShort(2)).isEqualTo((short) 1000);
+        verify(wrapper).closeAfterWrite();
+        verify(endpoint).onClose(connection, 1000, "ok");
+        assertThat(connection.isOpen()).isFalse();
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
+import trunk.rpc.RpcHandler;
 import trunk.servlet.Servlet;
 
 import java.io.File;
@@ -91,4 +92,39 @@ class ContextConfigTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Failed to parse web.xml");
     }
+
+    public static class EchoRpcHandler implements RpcHandler {
+        @Override
+        public byte[] handle(byte[] payload) {
+            return payload;
+        }
+    }
+
+    @Test
+    @DisplayName("web.xml의 rpc-handler를 파싱하여 메서드 ID에 핸들러를 등록한다.")
+    void parseRpcHandler() throws IOException {
+        // given
+        File xmlFile = tempDir.resolve("web.xml").toFile();
+        try (FileWriter fileWriter = new FileWriter(xmlFile)) {
+            fileWriter.write(
+                    """
+                    <web-app>
+                        <rpc-handler>
+                            <method-id>7</method-id>
+                            <handler-class>trunk.container.ContextConfigTest$EchoRpcHandler</handler-class>
+                        </rpc-handler>
+                    </web-app>
+                    """);
+        }
+
+        StandardContext context = new StandardContext();
+        ContextConfig config = new ContextConfig(context);
+
+        // when
+        config.parseWebXml(xmlFile.getPath());
+
+        // then
+        assertThat(context.getRpcHandler(7)).isInstanceOf(EchoRpcHandler.class);
+        assertThat(context.getRpcHandler(8)).isNull();
+    }
 }
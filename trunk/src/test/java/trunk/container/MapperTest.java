@@ -99,4 +99,17 @@ class MapperTest {
         // then
         assertThat(result).isSameAs(userWildcardWrapperLong);
     }
+
+    @Test
+    @DisplayName("Extension match(확장자 매칭)은 마지막 세그먼트의 확장자만 비교한다.")
+    void extensionOnlyInLastSegment() {
+        // given
+        String uri = "/docs.jsp/readme";
+
+        // when
+        StandardWrapper result = mapper.getStandardWrapper(uri);
+
+        // then
+        assertThat(result).isSameAs(defaultWrapper);
+    }
 }
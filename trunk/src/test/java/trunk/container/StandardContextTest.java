@@ -5,7 +5,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import trunk.servlet.DummyServlet;
 
+import java.io.File;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class StandardContextTest {
     private StandardContext standardContext;
@@ -56,4 +59,28 @@ class StandardContextTest {
         // then
         assertThat(DummyServlet.destroyed).isTrue();
     }
+
+    @Test
+    @DisplayName("RPC 메서드 ID는 0 ~ 65535 범위만 등록할 수 있다.")
+    void addRpcHandlerRange() {
+        // given & when
+        standardContext.addRpcHandler(65535, payload -> payload);
+
+        // then
+        assertThat(standardContext.getRpcHandler(65535)).isNotNull();
+        assertThatThrownBy(() -> standardContext.addRpcHandler(65536, payload -> payload))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("getRealPath는 경로를 정리하여 docBase 아래의 경로를 반환하고, docBase를 벗어나면 null을 반환한다.")
+    void getRealPathRejectsTraversal() {
+        // given
+        standardContext.setDocBase("/srv/webapp");
+
+        // when & then
+        assertThat(standardContext.getRealPath("/css/../index.html")).isEqualTo(new File("/srv/webapp", "/index.html").getAbsolutePath());
+        assertThat(standardContext.getRealPath("/../../etc/passwd")).isNull();
+        assertThat(standardContext.getRealPath("/css/../../etc/passwd")).isNull();
+    }
 }
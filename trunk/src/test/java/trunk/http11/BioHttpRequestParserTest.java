@@ -3,6 +3,8 @@ package trunk.http11;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import trunk.http11.request.HttpRequest;
+import trunk.http11.request.RejectReason;
+import trunk.http11.request.RequestRejectedException;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -144,4 +146,50 @@ class BioHttpRequestParserTest {
         assertThat(httpRequest.getQueryParameters()).containsEntry("age", "20");
     }
 
+    @Test
+    @DisplayName("Expect: 100-continue 요청은 본문을 처음 읽을 때 중간 응답을 보내고, 다음 요청을 이어서 읽을 수 있어야 한다.")
+    void parseExpectContinue() throws IOException {
+        // given
+        String rawRequest = "PUT /upload HTTP/1.1\r\n" +
+                "Expect: 100-continue\r\n" +
+                "Content-Length: 4\r\n" +
+                "\r\n" +
+                "abcd" +
+                "GET /next HTTP/1.1\r\n" +
+                "\r\n";
+        ByteArrayInputStream inputstream = new ByteArrayInputStream(rawRequest.getBytes());
+        int[] continueSent = {0};
+
+        // when
+        HttpRequest httpRequest = BioHttpRequestParser.parse(inputstream, () -> continueSent[0]++);
+
+        // then
+        assertThat(continueSent[0]).isZero();
+        assertThat(httpRequest.getInputStream().readAllBytes()).isEqualTo("abcd".getBytes());
+        assertThat(continueSent[0]).isEqualTo(1);
+        assertThat(BioHttpRequestParser.parse(inputstream).getStartLine().getRequestUri()).isEqualTo("/next");
+    }
+
+    @Test
+    @DisplayName("Transfer-Encoding과 Content-Length가 함께 오거나 마지막 전송 코딩이 chunked가 아니면 거부해야 한다.")
+    void rejectAmbiguousFraming() {
+        // given
+        String bothHeaders = "POST /upload HTTP/1.1\r\n" +
+                "Transfer-Encoding: chunked\r\n" +
+                "Content-Length: 4\r\n" +
+                "\r\n";
+        String notChunked = "POST /upload HTTP/1.1\r\n" +
+                "Transfer-Encoding: chunked, identity\r\n" +
+                "\r\n";
+
+        // then
+        assertThatThrownBy(() -> BioHttpRequestParser.parse(new ByteArrayInputStream(bothHeaders.getBytes())))
+                .isInstanceOf(RequestRejectedException.class)
+                .extracting(e -> ((RequestRejectedException) e).getReason())
+                .isEqualTo(RejectReason.MALFORMED);
+        assertThatThrownBy(() -> BioHttpRequestParser.parse(new ByteArrayInputStream(notChunked.getBytes())))
+                .isInstanceOf(RequestRejectedException.class)
+                .extracting(e -> ((RequestRejectedException) e).getReason())
+                .isEqualTo(RejectReason.MALFORMED);
+    }
 }
@@ -0,0 +1,232 @@
+package trunk.http11;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import trunk.http11.request.RawRequestHead;
+import trunk.http11.request.RejectReason;
+import trunk.http11.request.RequestLimits;
+import trunk.http11.request.RequestRejectedException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpRequestHeadParserTest {
+
+    @Test
+    @DisplayName("시작 줄과 헤더의 위치를 기록하고, head 다음 바이트로 position을 옮겨야 한다.")
+    void parseHead() throws IOException {
+        // given
+        ByteBuffer buffer = readMode("GET /index.html?a=1 HTTP/1.1\r\nHost: localhost:8080\r\nContent-Length: 3\r\n\r\nabc");
+        HttpRequestHeadParser parser = new HttpRequestHeadParser();
+
+        // when
+        RawRequestHead head = parser.parse(buffer);
+
+        // then
+        assertThat(head.getMethod()).isSameAs("GET");
+        assertThat(head.getRequestTarget()).isEqualTo("/index.html?a=1");
+        assertThat(head.getHttpVersion()).isSameAs("HTTP/1.1");
+        assertThat(head.getHeaderCount()).isEqualTo(2);
+        assertThat(head.getHeader("host")).isEqualTo("localhost:8080");
+        assertThat(head.getContentLength()).isEqualTo(3);
+        assertThat(buffer.remaining()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("head가 1바이트씩 나뉘어 도착해도 완성될 때까지 position을 유지하고 같은 결과를 만들어야 한다.")
+    void parseSplitHead() throws IOException {
+        // given
+        byte[] raw = "\r\nPOST /login HTTP/1.0\r\nA:  b \r\nEmpty:\r\nLf-Only: v\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        HttpRequestHeadParser parser = new HttpRequestHeadParser();
+        RawRequestHead head = null;
+
+        // when
+        for (byte b : raw) {
+            buffer.put(b).flip();
+            head = parser.parse(buffer);
+            if (head == null) {
+                assertThat(buffer.position()).isZero();
+            }
+            buffer.compact();
+        }
+
+        // then
+        assertThat(head).isNotNull();
+        assertThat(head.getMethod()).isEqualTo("POST");
+        assertThat(head.getHttpVersion()).isEqualTo("HTTP/1.0");
+        assertThat(head.getHeader("a")).isEqualTo("b");
+        assertThat(head.getHeader("EMPTY")).isEmpty();
+        assertThat(head.getHeader("lf-only")).isEqualTo("v");
+        assertThat(head.getContentLength()).isEqualTo(-1);
+        assertThat(buffer.position()).isZero();
+    }
+
+    @Test
+    @DisplayName("구분자가 8바이트 단위의 어느 위치에 있어도 같은 결과를 만들어야 한다.")
+    void parseDelimitersAtEveryWordOffset() throws IOException {
+        for (int length = 1; length <= 17; length++) {
+            // given
+            String name = "N".repeat(length);
+            String value = "v".repeat(length);
+            String target = "/" + "t".repeat(length);
+            ByteBuffer buffer = readMode("GET " + target + " HTTP/1.1\r\n" + name + ": " + value + "\r\nX:" + value + "\r\n\r\n");
+
+            // when
+            RawRequestHead head = new HttpRequestHeadParser().parse(buffer);
+
+            // then
+            assertThat(head.getRequestTarget()).isEqualTo(target);
+            assertThat(head.getHeaderName(0)).isEqualTo(name);
+            assertThat(head.getHeaderValue(0)).isEqualTo(value);
+            assertThat(head.getHeader("x")).isEqualTo(value);
+            assertThat(buffer.hasRemaining()).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("8바이트 단위로 검색할 때도 헤더 이름 중간의 허용되지 않는 바이트를 찾아야 한다.")
+    void rejectInvalidByteInsideWord() {
+        for (String invalid : new String[]{" ", "\t", "\u0000", "\u007f", "é"}) {
+            // given
+            ByteBuffer buffer = readMode("GET / HTTP/1.1\r\nX-Forwarded" + invalid + "For-Header: a\r\n\r\n");
+
+            // when & then
+            assertThatThrownBy(() -> new HttpRequestHeadParser().parse(buffer))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("Invalid header name");
+        }
+    }
+
+    @Test
+    @DisplayName("리틀 엔디언 버퍼도 메모리 순서대로 구분자를 찾아야 한다.")
+    void parseLittleEndianBuffer() throws IOException {
+        // given
+        ByteBuffer buffer = readMode("GET /index.html HTTP/1.1\r\nAccept-Language: ko-KR,ko;q=0.9\r\n\r\n")
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        // when
+        RawRequestHead head = new HttpRequestHeadParser().parse(buffer);
+
+        // then
+        assertThat(head.getRequestTarget()).isEqualTo("/index.html");
+        assertThat(head.getHeader("Accept-Language")).isEqualTo("ko-KR,ko;q=0.9");
+    }
+
+    @Test
+    @DisplayName("바이트 마스크는 조건을 만족하는 바이트의 최상위 비트만 켜야 한다.")
+    void byteMasks() {
+        // given
+        long word = 0x41_3A_00_20_7F_80_0A_21L; // 'A' ':' NUL SP DEL 0x80 LF '!'
+
+        // when & then
+        assertThat(HttpRequestHeadParser.equalTo(word, ':')).isEqualTo(0x00_80_00_00_00_00_00_00L);
+        assertThat(HttpRequestHeadParser.equalTo(word, '\n')).isEqualTo(0x00_00_00_00_00_00_80_00L);
+        assertThat(HttpRequestHeadParser.lessThan(word, 0x21)).isEqualTo(0x00_00_80_80_00_00_80_00L);
+    }
+
+    @Test
+    @DisplayName("이름과 콜론 사이의 공백이나 줄 접기(obs-fold)가 있으면 예외를 던져야 한다.")
+    void rejectInvalidHeaderName() {
+        // given
+        HttpRequestHeadParser parser = new HttpRequestHeadParser();
+
+        // when & then
+        assertThatThrownBy(() -> parser.parse(readMode("GET / HTTP/1.1\r\nHost : x\r\n\r\n")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid header name");
+        parser.reset();
+        assertThatThrownBy(() -> parser.parse(readMode("GET / HTTP/1.1\r\nA: b\r\n folded\r\n\r\n")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid header name");
+    }
+
+    @Test
+    @DisplayName("버전이 HTTP/x.y 형식이 아니면 예외를 던져야 한다.")
+    void rejectInvalidVersion() {
+        // given
+        HttpRequestHeadParser parser = new HttpRequestHeadParser();
+
+        // when & then
+        assertThatThrownBy(() -> parser.parse(readMode("GET / HTTX/1.1\r\n\r\n")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid request start line");
+    }
+
+    @Test
+    @DisplayName("Content-Length가 십진수가 아니면 예외를 던져야 한다.")
+    void rejectInvalidContentLength() throws IOException {
+        // given
+        RawRequestHead head = new HttpRequestHeadParser().parse(readMode("POST / HTTP/1.1\r\nContent-Length: 1x\r\n\r\n"));
+
+        // when & then
+        assertThatThrownBy(head::getContentLength)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid Content-Length");
+    }
+
+    @Test
+    @DisplayName("Content-Length가 여러 번 오면 값이 모두 같을 때만 받아들이고, 다르면 400 이유로 거부해야 한다.")
+    void rejectConflictingContentLength() throws IOException {
+        // given
+        RawRequestHead same = new HttpRequestHeadParser().parse(
+                readMode("POST / HTTP/1.1\r\nContent-Length: 5\r\nHost: a\r\nContent-Length: 5\r\n\r\n"));
+        RawRequestHead conflicting = new HttpRequestHeadParser().parse(
+                readMode("POST / HTTP/1.1\r\nContent-Length: 5\r\nHost: a\r\nContent-Length: 50\r\n\r\n"));
+
+        // when & then
+        assertThat(same.getContentLength()).isEqualTo(5);
+        assertThatThrownBy(conflicting::getContentLength)
+                .isInstanceOf(RequestRejectedException.class)
+                .extracting(e -> ((RequestRejectedException) e).getReason())
+                .isEqualTo(RejectReason.MALFORMED);
+    }
+
+    @Test
+    @DisplayName("시작 줄이 한도를 넘으면 줄이 끝나기 전에 414 이유로 거부해야 한다.")
+    void rejectLongRequestLine() {
+        // given
+        RequestLimits limits = new RequestLimits();
+        limits.setMaxRequestLineSize(32);
+        HttpRequestHeadParser parser = new HttpRequestHeadParser(limits);
+
+        // when & then
+        assertThatThrownBy(() -> parser.parse(readMode("GET /" + "a".repeat(40))))
+                .isInstanceOf(RequestRejectedException.class)
+                .extracting(e -> ((RequestRejectedException) e).getReason())
+                .isEqualTo(RejectReason.REQUEST_LINE_TOO_LONG);
+        assertThat(RejectReason.REQUEST_LINE_TOO_LONG.getStatusCode()).isEqualTo(414);
+    }
+
+    @Test
+    @DisplayName("헤더 수나 head 크기가 한도를 넘으면 431 이유로 거부해야 한다.")
+    void rejectTooManyHeadersAndLargeHead() {
+        // given
+        RequestLimits limits = new RequestLimits();
+        limits.setMaxHeaderCount(2);
+        limits.setMaxHeadSize(64);
+        HttpRequestHeadParser parser = new HttpRequestHeadParser(limits);
+
+        // when & then
+        assertThatThrownBy(() -> parser.parse(readMode("GET / HTTP/1.1\r\nA: 1\r\nB: 2\r\nC: 3\r\n\r\n")))
+                .isInstanceOf(RequestRejectedException.class)
+                .extracting(e -> ((RequestRejectedException) e).getReason())
+                .isEqualTo(RejectReason.TOO_MANY_HEADERS);
+
+        parser.reset();
+        // head가 끝나지 않았어도 한도를 넘는 즉시 거부한다
+        assertThatThrownBy(() -> parser.parse(readMode("GET / HTTP/1.1\r\nCookie: " + "a".repeat(64))))
+                .isInstanceOf(RequestRejectedException.class)
+                .extracting(e -> ((RequestRejectedException) e).getReason())
+                .isEqualTo(RejectReason.HEAD_TOO_LARGE);
+    }
+
+    private static ByteBuffer readMode(String raw) {
+        return ByteBuffer.wrap(raw.getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
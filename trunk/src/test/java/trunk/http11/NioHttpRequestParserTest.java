@@ -3,8 +3,12 @@ package trunk.http11;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import trunk.http11.request.HttpRequest;
+import trunk.http11.request.RequestLimits;
+import trunk.http11.request.RequestRejectedException;
+import trunk.http11.response.HttpResponse;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
@@ -118,4 +122,198 @@ class NioHttpRequestParserTest {
                 .isInstanceOf(IOException.class)
                 .hasMessageContaining("Invalid request start line");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("head가 끝나기 전에 버퍼가 가득 차면 예외를 발생시킨다.")
+    void headerTooLarge() {
+        // given
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.put(("GET / HTTP/1.1\r\nCookie: " + "a".repeat(64)).getBytes(StandardCharsets.ISO_8859_1), 0, 64);
+
+        // when
+        NioHttpRequestParser parser = new NioHttpRequestParser();
+
+        // then
+        assertThatThrownBy(() -> parser.parse(buffer))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Request header too large");
+    }
+
+    @Test
+    @DisplayName("Content-Length가 본문 한도를 넘으면 본문을 읽기 전에 413 이유로 거부해야 한다.")
+    void bodyTooLarge() {
+        // given
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        buffer.put("POST /upload HTTP/1.1\r\nContent-Length: 1025\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+        RequestLimits limits = new RequestLimits();
+        limits.setMaxBodySize(1024);
+
+        // when
+        NioHttpRequestParser parser = new NioHttpRequestParser(null, null, limits);
+
+        // then
+        assertThatThrownBy(() -> parser.parse(buffer))
+                .isInstanceOf(RequestRejectedException.class)
+                .extracting(e -> ((RequestRejectedException) e).getReason().getStatusCode())
+                .isEqualTo(413);
+    }
+
+    @Test
+    @DisplayName("요청 하나를 반환한 뒤에는 같은 파서로 다음 요청을 이어서 파싱해야 한다.")
+    void parsePipelinedRequests() throws IOException {
+        // given
+        String rawRequest =
+                "POST /a HTTP/1.1\r\n" +
+                "Content-Length: 3\r\n" +
+                "\r\n" +
+                "abc" +
+                "GET /b HTTP/1.1\r\n" +
+                "\r\n";
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        buffer.put(rawRequest.getBytes(StandardCharsets.ISO_8859_1));
+        NioHttpRequestParser parser = new NioHttpRequestParser();
+
+        // when
+        HttpRequest first = parser.parse(buffer);
+        HttpRequest second = parser.parse(buffer);
+
+        // then
+        assertThat(first.getBody().getBody()).isEqualTo("abc");
+        assertThat(second.getStartLine().getRequestUri()).isEqualTo("/b");
+    }
+
+    @Test
+    @DisplayName("chunked 본문은 헤더 직후 요청을 반환하고, 커넥션 입력 스트림에서 디코딩하여 읽어야 한다.")
+    void parseChunkedStreamingBody() throws IOException {
+        // given
+        String rawRequest =
+                "POST /upload HTTP/1.1\r\n" +
+                "Transfer-Encoding: chunked\r\n" +
+                "\r\n" +
+                "4\r\nWiki\r\n5\r\npedia\r\n0\r\n\r\n";
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        buffer.put(rawRequest.getBytes(StandardCharsets.ISO_8859_1));
+
+        // 파서가 남긴 버퍼의 바이트를 읽는 커넥션 입력 스트림
+        InputStream connectionInput = new InputStream() {
+            @Override
+            public int read() {
+                if (buffer.position() == 0) {
+                    return -1;
+                }
+                buffer.flip();
+                int b = buffer.get() & 0xFF;
+                buffer.compact();
+                return b;
+            }
+        };
+        NioHttpRequestParser parser = new NioHttpRequestParser(connectionInput, () -> { });
+
+        // when
+        HttpRequest httpRequest = parser.parse(buffer);
+
+        // then
+        assertThat(httpRequest.getBody().isStreaming()).isTrue();
+        assertThat(new String(httpRequest.getInputStream().readAllBytes(), StandardCharsets.ISO_8859_1))
+                .isEqualTo("Wikipedia");
+    }
+
+    @Test
+    @DisplayName("Transfer-Encoding과 Content-Length가 함께 오면 본문 길이가 모호하므로 400 이유로 거부해야 한다.")
+    void rejectTransferEncodingWithContentLength() {
+        // given
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        buffer.put(("POST /upload HTTP/1.1\r\n" +
+                "Content-Length: 4\r\n" +
+                "Transfer-Encoding: chunked\r\n" +
+                "\r\n" +
+                "0\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        NioHttpRequestParser parser = new NioHttpRequestParser();
+
+        // then
+        assertThatThrownBy(() -> parser.parse(buffer))
+                .isInstanceOf(RequestRejectedException.class)
+                .extracting(e -> ((RequestRejectedException) e).getReason().getStatusCode())
+                .isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("마지막 전송 코딩이 정확히 chunked가 아니면 400 이유로 거부해야 한다.")
+    void rejectUnsupportedTransferEncoding() {
+        for (String transferEncoding : new String[]{"xchunked", "chunked, gzip", "gzip", "chunked;q=1"}) {
+            // given
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            buffer.put(("POST /upload HTTP/1.1\r\n" +
+                    "Transfer-Encoding: " + transferEncoding + "\r\n" +
+                    "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            NioHttpRequestParser parser = new NioHttpRequestParser();
+
+            // then
+            assertThatThrownBy(() -> parser.parse(buffer))
+                    .as(transferEncoding)
+                    .isInstanceOf(RequestRejectedException.class)
+                    .extracting(e -> ((RequestRejectedException) e).getReason().getStatusCode())
+                    .isEqualTo(400);
+        }
+    }
+
+    @Test
+    @DisplayName("응답을 마친 요청을 돌려받으면 같은 객체에 다음 요청을 채우고, 이전 요청의 값은 남지 않아야 한다.")
+    void reuseRecycledRequest() throws IOException {
+        // given
+        NioHttpRequestParser parser = new NioHttpRequestParser();
+        HttpRequest first = parser.parse(buffer(
+                "GET /a?name=alice HTTP/1.1\r\n" +
+                "Host: localhost:8080\r\n" +
+                "Cookie: id=1\r\n" +
+                "\r\n"));
+        assertThat(first.getParameter("name")).isEqualTo("alice");
+        assertThat(first.getCookies().getCookie("id")).isEqualTo("1");
+
+        // when
+        parser.recycle(first);
+        HttpRequest second = parser.parse(buffer(
+                "GET /b HTTP/1.1\r\n" +
+                "Host: localhost:9090\r\n" +
+                "\r\n"));
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(second.getStartLine().getRequestUri()).isEqualTo("/b");
+        assertThat(second.getHeader("Host")).isEqualTo("localhost:9090");
+        assertThat(second.getHeader("Cookie")).isNull();
+        assertThat(second.getParameter("name")).isNull();
+        assertThat(second.getBody().getBody()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("오염 모드에서는 재사용한 요청/응답을 다시 쓰지 않고, 이후의 사용은 예외로 실패해야 한다.")
+    void poisonRecycledObjects() throws IOException {
+        // given
+        Recycling.setPoisonEnabled(true);
+        try {
+            NioHttpRequestParser parser = new NioHttpRequestParser();
+            HttpRequest first = parser.parse(buffer("GET /a HTTP/1.1\r\nHost: localhost\r\n\r\n"));
+            HttpResponse response = new HttpResponse();
+
+            // when
+            parser.recycle(first);
+            response.recycle();
+            HttpRequest second = parser.parse(buffer("GET /b HTTP/1.1\r\nHost: localhost\r\n\r\n"));
+
+            // then
+            assertThat(second).isNotSameAs(first);
+            assertThat(first.isPoisoned()).isTrue();
+            assertThatThrownBy(() -> first.getHeader("Host")).isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> response.setStatusCode(200)).isInstanceOf(IllegalStateException.class);
+        } finally {
+            Recycling.setPoisonEnabled(false);
+        }
+    }
+
+    private static ByteBuffer buffer(String rawRequest) {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        buffer.put(rawRequest.getBytes(StandardCharsets.ISO_8859_1));
+        return buffer;
+    }
+}
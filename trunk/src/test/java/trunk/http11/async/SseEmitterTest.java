@@ -0,0 +1,147 @@
+package trunk.http11.async;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SseEmitterTest {
+    AsyncContext asyncContext = mock(AsyncContext.class);
+
+    @Test
+    @DisplayName("이벤트 이름과 여러 줄의 데이터를 text/event-stream 형식으로 보내야 한다.")
+    void sendEvent() throws Exception {
+        // given
+        BufferedAsyncOutputStream out = new BufferedAsyncOutputStream();
+        SseEmitter emitter = new SseEmitter(asyncContext, out);
+
+        // when
+        emitter.send("update", "line1\nline2");
+        emitter.send("plain");
+
+        // then
+        assertThat(out.toString())
+                .isEqualTo("event: update\ndata: line1\ndata: line2\n\ndata: plain\n\n");
+    }
+
+    @Test
+    @DisplayName("이벤트 이름이나 주석에 줄바꿈이 있으면 다른 필드를 끼워 넣을 수 없도록 아무것도 보내지 않고 거부해야 한다.")
+    void rejectLineBreakInEventAndComment() {
+        // given
+        BufferedAsyncOutputStream out = new BufferedAsyncOutputStream();
+        SseEmitter emitter = new SseEmitter(asyncContext, out);
+
+        // when & then
+        assertThatThrownBy(() -> emitter.send("update\ndata: forged", "x"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> emitter.send("update\r", "x"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> emitter.comment("ping\n\nevent: forged"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(out.toString()).isEmpty();
+        assertThat(emitter.isOpen()).isTrue();
+    }
+
+    @Test
+    @DisplayName("전송에 실패하면 이미터를 닫고 비동기 요청을 완료해야 한다.")
+    void completeOnWriteFailure() throws Exception {
+        // given
+        AsyncOutputStream out = mock(AsyncOutputStream.class);
+        doThrow(new IOException("broken pipe")).when(out).write(any(byte[].class));
+        SseEmitter emitter = new SseEmitter(asyncContext, out);
+
+        // when & then
+        assertThatThrownBy(() -> emitter.send("x")).isInstanceOf(IOException.class);
+        assertThat(emitter.isOpen()).isFalse();
+        verify(asyncContext).complete();
+        assertThatThrownBy(() -> emitter.send("y")).hasMessageContaining("closed");
+    }
+
+    @Test
+    @DisplayName("브로드캐스트는 실패한 이미터를 제거하고 나머지에 이벤트를 보내야 한다.")
+    void broadcastRemovesFailedEmitter() throws Exception {
+        // given
+        BufferedAsyncOutputStream healthy = new BufferedAsyncOutputStream();
+        AsyncOutputStream broken = mock(AsyncOutputStream.class);
+        doThrow(new IOException("broken pipe")).when(broken).write(any(byte[].class));
+        SseBroadcaster broadcaster = new SseBroadcaster();
+        broadcaster.register(new SseEmitter(asyncContext, healthy));
+        broadcaster.register(new SseEmitter(mock(AsyncContext.class), broken));
+
+        // when
+        broadcaster.broadcast("tick", "1");
+
+        // then
+        assertThat(healthy.toString()).isEqualTo("event: tick\ndata: 1\n\n");
+        assertThat(broadcaster.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("수신을 따라오지 못하는 이미터는 기다리지 않고 닫아, 다른 이미터가 바로 이벤트를 받아야 한다.")
+    void broadcastDropsStalledEmitter() throws Exception {
+        // given
+        CountDownLatch blocked = new CountDownLatch(1);
+        AsyncOutputStream stalled = mock(AsyncOutputStream.class);
+        when(stalled.getPendingWrites()).thenReturn(SseEmitter.MAX_PENDING_EVENTS);
+        doAnswer(inv -> {
+            blocked.await(); // 쓰기를 시도하면 브로드캐스트가 멈춘다
+            return null;
+        }).when(stalled).write(any(byte[].class));
+        AsyncContext stalledContext = mock(AsyncContext.class);
+        BufferedAsyncOutputStream healthy = new BufferedAsyncOutputStream();
+        SseBroadcaster broadcaster = new SseBroadcaster();
+        broadcaster.register(new SseEmitter(stalledContext, stalled));
+        broadcaster.register(new SseEmitter(asyncContext, healthy));
+
+        // when
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> broadcaster.broadcast("tick", "1"));
+
+        // then
+        assertThat(healthy.toString()).isEqualTo("event: tick\ndata: 1\n\n");
+        assertThat(broadcaster.size()).isEqualTo(1);
+        verify(stalled, never()).write(any(byte[].class));
+        verify(stalledContext).complete();
+    }
+
+    /**
+     * 쓴 바이트를 메모리에 모으고, 대기 중인 쓰기가 없는 것으로 보고하는 비차단 스트림입니다.
+     */
+    private static class BufferedAsyncOutputStream extends AsyncOutputStream {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public int getPendingWrites() {
+            return 0;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(int b) {
+            out.write(b);
+        }
+
+        @Override
+        public String toString() {
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
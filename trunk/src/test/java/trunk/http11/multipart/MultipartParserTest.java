@@ -0,0 +1,122 @@
+package trunk.http11.multipart;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MultipartParserTest {
+    private static final String BOUNDARY = "----WebKitFormBoundary7MA4YWxkTrZu0gW";
+
+    @Test
+    @DisplayName("폼 필드와 파일 파트를 순서대로 분리하고, 임계값을 넘는 파일은 디스크에 기록해야 한다.")
+    void parseFieldAndFile() throws IOException {
+        // given
+        byte[] file = new byte[MultipartParser.DEFAULT_MEMORY_THRESHOLD * 4];
+        new Random(1).nextBytes(file);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + BOUNDARY + "\r\n" +
+                "Content-Disposition: form-data; name=\"title\"\r\n" +
+                "\r\n" +
+                "hello\r\n" +
+                "--" + BOUNDARY + "\r\n" +
+                "Content-Disposition: form-data; name=\"upload\"; filename=\"data.bin\"\r\n" +
+                "Content-Type: application/octet-stream\r\n" +
+                "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        body.write(file);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+
+        // when
+        List<Part> parts = MultipartParser.parse(new ByteArrayInputStream(body.toByteArray()), BOUNDARY);
+
+        // then
+        assertThat(parts).hasSize(2);
+        assertThat(parts.get(0).getName()).isEqualTo("title");
+        assertThat(parts.get(0).getString(StandardCharsets.UTF_8)).isEqualTo("hello");
+        assertThat(parts.get(0).isInMemory()).isTrue();
+
+        Part upload = parts.get(1);
+        assertThat(upload.getSubmittedFileName()).isEqualTo("data.bin");
+        assertThat(upload.getContentType()).isEqualTo("application/octet-stream");
+        assertThat(upload.isInMemory()).isFalse();
+        try (InputStream in = upload.getInputStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(file);
+        }
+        upload.delete();
+    }
+
+    @Test
+    @DisplayName("구분자가 읽기 단위 경계에 걸쳐 들어와도 정확히 찾아야 한다.")
+    void delimiterAcrossReads() throws IOException {
+        // given
+        byte[] raw = ("--" + BOUNDARY + "\r\n" +
+                "Content-Disposition: form-data; name=\"a\"\r\n" +
+                "\r\n" +
+                "value-a\r\n" +
+                "--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        // 한 번에 3바이트씩만 내어주는 스트림
+        InputStream slow = new ByteArrayInputStream(raw) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+
+        // when
+        List<Part> parts = MultipartParser.parse(slow, BOUNDARY);
+
+        // then
+        assertThat(parts).hasSize(1);
+        assertThat(parts.get(0).getString(StandardCharsets.UTF_8)).isEqualTo("value-a");
+    }
+
+    @Test
+    @DisplayName("닫는 구분자 전에 본문이 끝나면 예외가 발생해야 한다.")
+    void truncatedBody() {
+        // given
+        byte[] raw = ("--" + BOUNDARY + "\r\n" +
+                "Content-Disposition: form-data; name=\"a\"\r\n" +
+                "\r\n" +
+                "value").getBytes(StandardCharsets.ISO_8859_1);
+
+        // then
+        assertThatThrownBy(() -> MultipartParser.parse(new ByteArrayInputStream(raw), BOUNDARY))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Unexpected end");
+    }
+
+    @Test
+    @DisplayName("Content-Type에서 따옴표로 감싼 boundary도 추출해야 한다.")
+    void extractBoundary() {
+        assertThat(MultipartParser.extractBoundary("multipart/form-data; boundary=\"abc def\"")).isEqualTo("abc def");
+        assertThat(MultipartParser.extractBoundary("multipart/form-data; boundary=xyz")).isEqualTo("xyz");
+        assertThat(MultipartParser.extractBoundary("application/json")).isNull();
+    }
+
+    @Test
+    @DisplayName("기본 로케일이 터키어여도 대문자로 쓴 타입과 파라미터 이름을 인식해야 한다.")
+    void extractBoundaryInTurkishLocale() {
+        // given
+        Locale original = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            // when
+            String boundary = MultipartParser.extractBoundary("MULTIPART/FORM-DATA; BOUNDARY=xyz");
+
+            // then
+            assertThat(boundary).isEqualTo("xyz");
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package trunk.http11.request;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChunkedInputStreamTest {
+
+    private static InputStream stream(String raw) {
+        return new ByteArrayInputStream(raw.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    @DisplayName("청크 데이터만 이어붙여 반환하고, 청크 확장과 트레일러는 무시해야 한다.")
+    void decodeChunks() throws IOException {
+        // given
+        InputStream in = stream("5;name=value\r\nhello\r\n6\r\n world\r\n0\r\nX-Trailer: t\r\n\r\n");
+
+        // when
+        byte[] decoded = new ChunkedInputStream(in).readAllBytes();
+
+        // then
+        assertThat(new String(decoded, StandardCharsets.ISO_8859_1)).isEqualTo("hello world");
+    }
+
+    @Test
+    @DisplayName("마지막 청크 뒤의 바이트는 읽지 않고 원본 스트림에 남겨야 한다.")
+    void stopAtLastChunk() throws IOException {
+        // given
+        InputStream in = stream("3\r\nabc\r\n0\r\n\r\nGET / HTTP/1.1\r\n");
+
+        // when
+        new ChunkedInputStream(in).readAllBytes();
+
+        // then
+        assertThat(new String(in.readAllBytes(), StandardCharsets.ISO_8859_1)).isEqualTo("GET / HTTP/1.1\r\n");
+    }
+
+    @Test
+    @DisplayName("청크 크기가 16진수가 아니면 예외가 발생해야 한다.")
+    void invalidChunkSize() {
+        // given
+        ChunkedInputStream in = new ChunkedInputStream(stream("zz\r\nabc\r\n"));
+
+        // then
+        assertThatThrownBy(in::read)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid chunk size");
+    }
+
+    @Test
+    @DisplayName("청크 크기에 부호가 붙어 있으면 예외가 발생해야 한다.")
+    void signedChunkSize() {
+        // given
+        ChunkedInputStream plus = new ChunkedInputStream(stream("+3\r\nabc\r\n0\r\n\r\n"));
+        ChunkedInputStream minus = new ChunkedInputStream(stream("-0\r\n\r\n"));
+
+        // then
+        assertThatThrownBy(plus::read)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid chunk size");
+        assertThatThrownBy(minus::read)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid chunk size");
+    }
+
+    @Test
+    @DisplayName("청크 중간에 스트림이 끝나면 예외가 발생해야 한다.")
+    void truncatedChunk() {
+        // given
+        ChunkedInputStream in = new ChunkedInputStream(stream("a\r\nabc"));
+
+        // then
+        assertThatThrownBy(in::readAllBytes).isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    @DisplayName("청크 크기의 합이 최대 본문 크기를 넘으면 데이터를 읽기 전에 거부하고, 이후 읽기도 계속 실패해야 한다.")
+    void rejectBodyTooLarge() throws IOException {
+        // given
+        ChunkedInputStream in = new ChunkedInputStream(stream("4\r\nabcd\r\n8\r\nefghijkl\r\n0\r\n\r\n"), 10);
+        byte[] first = new byte[4];
+
+        // when
+        int n = in.read(first, 0, 4);
+
+        // then
+        assertThat(n).isEqualTo(4);
+        assertThatThrownBy(in::read)
+                .isInstanceOf(RequestRejectedException.class)
+                .hasMessageContaining("too large");
+        assertThatThrownBy(in::read).isInstanceOf(RequestRejectedException.class);
+    }
+}
@@ -0,0 +1,68 @@
+package trunk.http11.request;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import trunk.http11.HttpRequestHeadParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpHeaderTest {
+
+    @Test
+    @DisplayName("알려진 헤더 이름은 대소문자와 관계없이 찾고, 목록에 없는 이름은 null을 반환해야 한다.")
+    void lookup() {
+        // given
+        ByteBuffer buffer = ByteBuffer.wrap("xxCONTENT-length".getBytes(StandardCharsets.ISO_8859_1));
+
+        // when & then
+        assertThat(HttpHeader.lookup(buffer, 2, buffer.limit())).isEqualTo(HttpHeader.CONTENT_LENGTH);
+        assertThat(HttpHeader.lookup("cookie")).isEqualTo(HttpHeader.COOKIE);
+        assertThat(HttpHeader.lookup("Sec-CH-UA")).isEqualTo(HttpHeader.SEC_CH_UA);
+        assertThat(HttpHeader.lookup("Cookie2")).isNull();
+        assertThat(HttpHeader.lookup("X-Request-Id")).isNull();
+    }
+
+    @Test
+    @DisplayName("파싱된 요청에서 알려진 헤더와 모르는 헤더를 모두 대소문자 구분 없이 조회해야 한다.")
+    void findHeadersIgnoringCase() throws IOException {
+        // given
+        RawRequestHead head = parse("GET / HTTP/1.1\r\n"
+                + "host: localhost:8080\r\n"
+                + "x-request-id: 42\r\n"
+                + "HOST: ignored\r\n"
+                + "\r\n");
+        HttpRequestHeader headers = new HttpRequestHeader(head);
+
+        // when & then
+        assertThat(head.getHeader(HttpHeader.HOST)).isEqualTo("localhost:8080");
+        assertThat(head.getHeader("Host")).isEqualTo("localhost:8080");
+        assertThat(head.getHeader("X-Request-ID")).isEqualTo("42");
+        assertThat(head.getHeaderName(0)).isEqualTo("Host");
+        assertThat(head.getHeaderName(1)).isEqualTo("x-request-id");
+        assertThat(headers.getHeaders().get("HOST")).isEqualTo("localhost:8080");
+        assertThat(headers.getHeaders().get("X-Request-Id")).isEqualTo("42");
+    }
+
+    @Test
+    @DisplayName("요청마다 반복되는 헤더 값은 같은 문자열 객체를 재사용해야 한다.")
+    void reuseCommonValues() throws IOException {
+        // given
+        String raw = "GET / HTTP/1.1\r\nAccept-Encoding: gzip, deflate, br\r\nCookie: id=1\r\n\r\n";
+
+        // when
+        RawRequestHead first = parse(raw);
+        RawRequestHead second = parse(raw);
+
+        // then
+        assertThat(second.getHeader(HttpHeader.ACCEPT_ENCODING)).isSameAs(first.getHeader(HttpHeader.ACCEPT_ENCODING));
+        assertThat(second.getHeader(HttpHeader.COOKIE)).isNotSameAs(first.getHeader(HttpHeader.COOKIE));
+    }
+
+    private static RawRequestHead parse(String raw) throws IOException {
+        return new HttpRequestHeadParser().parse(ByteBuffer.wrap(raw.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+}
@@ -0,0 +1,76 @@
+package trunk.http11.request;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpRequestBodyTest {
+
+    @Test
+    @DisplayName("100-continue 본문은 처음 읽을 때 한 번만 중간 응답을 보내야 한다.")
+    void sendContinueOnFirstRead() throws IOException {
+        // given
+        int[] sent = {0};
+        InputStream connection = new ByteArrayInputStream("abcd".getBytes(StandardCharsets.ISO_8859_1));
+        HttpRequestBody body = HttpRequestBody.streaming(connection, false, 4, () -> sent[0]++);
+
+        // when
+        assertThat(sent[0]).isZero();
+        byte[] read = body.getInputStream().readAllBytes();
+
+        // then
+        assertThat(new String(read, StandardCharsets.ISO_8859_1)).isEqualTo("abcd");
+        assertThat(sent[0]).isEqualTo(1);
+        assertThat(body.release()).isTrue();
+    }
+
+    @Test
+    @DisplayName("100 Continue를 보내지 않은 본문은 커넥션을 재사용할 수 없어야 한다.")
+    void notReusableWithoutContinue() throws IOException {
+        // given
+        InputStream connection = new ByteArrayInputStream("abcd".getBytes(StandardCharsets.ISO_8859_1));
+        HttpRequestBody body = HttpRequestBody.streaming(connection, false, 4, () -> { });
+
+        // then
+        assertThat(body.release()).isFalse();
+    }
+
+    @Test
+    @DisplayName("임계값을 넘는 스트리밍 본문은 임시 파일에 버퍼링되고, release 시 삭제되어야 한다.")
+    void spillLargeBodyToDisk() throws IOException {
+        // given
+        byte[] data = new byte[HttpRequestBody.SPILL_THRESHOLD * 2];
+        Arrays.fill(data, (byte) 'a');
+        HttpRequestBody body = HttpRequestBody.streaming(new ByteArrayInputStream(data), false, data.length, null);
+
+        // when
+        String whole = body.getBody();
+
+        // then
+        assertThat(whole).hasSize(data.length);
+        assertThat(body.getInputStream().readAllBytes()).isEqualTo(data);
+        assertThat(body.release()).isTrue();
+    }
+
+    @Test
+    @DisplayName("읽지 않은 본문은 release 시 버려져 다음 요청 위치까지 소비되어야 한다.")
+    void releaseSwallowsUnreadBody() throws IOException {
+        // given
+        InputStream connection = new ByteArrayInputStream("abcdNEXT".getBytes(StandardCharsets.ISO_8859_1));
+        HttpRequestBody body = HttpRequestBody.streaming(connection, false, 4, null);
+
+        // when
+        boolean reusable = body.release();
+
+        // then
+        assertThat(reusable).isTrue();
+        assertThat(new String(connection.readAllBytes(), StandardCharsets.ISO_8859_1)).isEqualTo("NEXT");
+    }
+}
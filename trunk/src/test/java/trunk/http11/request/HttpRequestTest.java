@@ -0,0 +1,72 @@
+package trunk.http11.request;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import trunk.http11.HttpRequestHeadParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpRequestTest {
+
+    @Test
+    @DisplayName("쿼리와 폼 파라미터는 처음 조회할 때 파싱하고, 이후에는 같은 결과를 재사용해야 한다.")
+    void parseParametersOnFirstAccess() throws IOException {
+        // given
+        HttpRequest request = request("POST /login?next=%2Fhome HTTP/1.1\r\n"
+                + "content-type: application/x-www-form-urlencoded\r\n"
+                + "Content-Length: 19\r\n"
+                + "\r\n", "userId=a&password=b");
+
+        // when
+        Map<String, String> parameters = request.getQueryParameters();
+
+        // then
+        assertThat(parameters)
+                .containsEntry("next", "/home")
+                .containsEntry("userId", "a")
+                .containsEntry("password", "b");
+        assertThat(request.getQueryParameters()).isSameAs(parameters);
+    }
+
+    @Test
+    @DisplayName("쿠키와 Connection 헤더는 이름의 대소문자와 관계없이 조회해야 한다.")
+    void readHeadersIgnoringCase() throws IOException {
+        // given
+        HttpRequest request = request("GET /index.html HTTP/1.1\r\n"
+                + "cookie: JSESSIONID=abc; theme=dark\r\n"
+                + "connection: Keep-Alive\r\n"
+                + "\r\n", null);
+
+        // when & then
+        assertThat(request.getCookies().getCookie("JSESSIONID")).isEqualTo("abc");
+        assertThat(request.getCookies()).isSameAs(request.getCookies());
+        assertThat(request.isKeepAlive()).isTrue();
+    }
+
+    @Test
+    @DisplayName("파라미터 수가 한도를 넘으면 넘는 파라미터는 버리고 거부 횟수를 기록해야 한다.")
+    void dropParametersOverLimit() throws IOException {
+        // given
+        HttpRequest request = request("GET /search?a=1&b=2&c=3&d=4 HTTP/1.1\r\n\r\n", null);
+        request.setMaxParameterCount(2);
+        long before = RejectReason.TOO_MANY_PARAMETERS.getCount();
+
+        // when
+        Map<String, String> parameters = request.getQueryParameters();
+
+        // then
+        assertThat(parameters).containsOnlyKeys("a", "b");
+        assertThat(RejectReason.TOO_MANY_PARAMETERS.getCount()).isEqualTo(before + 1);
+    }
+
+    private static HttpRequest request(String head, String body) throws IOException {
+        RawRequestHead raw = new HttpRequestHeadParser().parse(ByteBuffer.wrap(head.getBytes(StandardCharsets.ISO_8859_1)));
+        HttpRequestBody requestBody = new HttpRequestBody(body);
+        return new HttpRequest(raw.toStartLine(), new HttpRequestHeader(raw), requestBody);
+    }
+}
@@ -0,0 +1,81 @@
+package trunk.http11.request;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParameterParserTest {
+
+    @Test
+    @DisplayName("같은 이름의 파라미터는 모든 값을 순서대로 보관하고, 빈 값과 값 안의 '='을 유지해야 한다.")
+    void parseMultiValuedParameters() {
+        // given
+        String query = "a=1&a=2&&b=&=x&c&token=YWJj==";
+        Parameters parameters = new Parameters();
+
+        // when
+        ParameterParser.parse(query, 0, query.length(), '&', parameters);
+
+        // then
+        assertThat(parameters.getValues("a")).containsExactly("1", "2");
+        assertThat(parameters.get("a")).isEqualTo("1");
+        assertThat(parameters.get("b")).isEmpty();
+        assertThat(parameters.get("c")).isNull();
+        assertThat(parameters.get("token")).isEqualTo("YWJj==");
+        assertThat(parameters.getNames()).containsExactly("a", "b", "token");
+        assertThat(parameters.toMap()).containsEntry("a", "1").hasSize(3);
+    }
+
+    @Test
+    @DisplayName("%XX는 UTF-8로, '+'는 공백으로 디코딩하고, 잘못된 %는 그대로 두어야 한다.")
+    void decodePercentEncoding() {
+        // given
+        String query = "name=%ED%99%8D+%EA%B8%B8%EB%8F%99&sum=1%2B1&rate=100%&bad=%zz";
+        Parameters parameters = new Parameters();
+
+        // when
+        ParameterParser.parse(query, 0, query.length(), '&', parameters);
+
+        // then
+        assertThat(parameters.get("name")).isEqualTo("홍 길동");
+        assertThat(parameters.get("sum")).isEqualTo("1+1");
+        assertThat(parameters.get("rate")).isEqualTo("100%");
+        assertThat(parameters.get("bad")).isEqualTo("%zz");
+    }
+
+    @Test
+    @DisplayName("폼 본문은 바이트에서 바로 UTF-8로 디코딩해야 한다.")
+    void parseFormBytes() {
+        // given
+        byte[] form = "userId=%EC%9E%90%EB%B0%94&name=자바지기&empty=".getBytes(StandardCharsets.UTF_8);
+        Parameters parameters = new Parameters();
+
+        // when
+        ParameterParser.parse(form, 0, form.length, parameters);
+
+        // then
+        assertThat(parameters.get("userId")).isEqualTo("자바");
+        assertThat(parameters.get("name")).isEqualTo("자바지기");
+        assertThat(parameters.get("empty")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("쿠키는 ';'로 나누고 이름과 값의 앞뒤 공백을 제거해야 한다.")
+    void parseCookies() {
+        // given
+        String cookie = "JSESSIONID=abc;  theme = dark ;logined=true";
+        Parameters parameters = new Parameters();
+
+        // when
+        ParameterParser.parse(cookie, 0, cookie.length(), ';', parameters);
+
+        // then
+        assertThat(parameters.toMap())
+                .containsEntry("JSESSIONID", "abc")
+                .containsEntry("theme", "dark")
+                .containsEntry("logined", "true");
+    }
+}
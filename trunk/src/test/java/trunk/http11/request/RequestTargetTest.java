@@ -0,0 +1,55 @@
+package trunk.http11.request;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestTargetTest {
+
+    @Test
+    @DisplayName("경로와 쿼리를 나누고, 정리할 것이 없는 경로는 같은 문자열을 그대로 사용해야 한다.")
+    void splitPathAndQuery() {
+        // given
+        String raw = "/user/create?userId=java&name=%EC%9E%90%EB%B0%94";
+
+        // when
+        RequestTarget target = RequestTarget.parse(raw);
+
+        // then
+        assertThat(target.getPath()).isEqualTo("/user/create");
+        assertThat(target.getQuery()).isEqualTo("userId=java&name=%EC%9E%90%EB%B0%94");
+        assertThat(target.getNormalizedPath()).isSameAs(target.getPath());
+        assertThat(target.toString()).isEqualTo(raw);
+        assertThat(RequestTarget.parse("/index.html").getQuery()).isNull();
+    }
+
+    @Test
+    @DisplayName("%XX를 UTF-8로 디코딩한 뒤 빈 세그먼트와 '.', '..'를 정리해야 한다.")
+    void decodeAndNormalize() {
+        // given
+        RequestTarget target = RequestTarget.parse("/static//css/./../%EC%9D%B4%EB%AF%B8%EC%A7%80/a%20b.png");
+
+        // when & then
+        assertThat(target.getDecodedPath()).isEqualTo("/static//css/./../이미지/a b.png");
+        assertThat(target.getNormalizedPath()).isEqualTo("/static/이미지/a b.png");
+        assertThat(RequestTarget.parse("/a/b/..").getNormalizedPath()).isEqualTo("/a/");
+        assertThat(RequestTarget.parse("/a/..").getNormalizedPath()).isEqualTo("/");
+        assertThat(RequestTarget.parse("http://localhost:8080/index.html?x=1").getNormalizedPath()).isEqualTo("/index.html");
+    }
+
+    @Test
+    @DisplayName("루트 위로 올라가거나 인코딩이 잘못된 경로는 정규화된 경로가 없어야 한다.")
+    void rejectTraversal() {
+        // when & then
+        assertThat(RequestTarget.parse("/../etc/passwd").isValid()).isFalse();
+        assertThat(RequestTarget.parse("/a/../../etc/passwd").isValid()).isFalse();
+        assertThat(RequestTarget.parse("/%2e%2e/%2e%2e/etc/passwd").isValid()).isFalse();
+        assertThat(RequestTarget.parse("/a%2F..%2F..%2Fetc").isValid()).isFalse();
+        assertThat(RequestTarget.parse("/a%00.html").isValid()).isFalse();
+        assertThat(RequestTarget.parse("/a%zz").isValid()).isFalse();
+        assertThat(RequestTarget.parse("/%C0%AE%C0%AE/").isValid()).isFalse();
+        assertThat(RequestTarget.parse("relative").isValid()).isFalse();
+        assertThat(RequestTarget.parse("/..a/b..").getNormalizedPath()).isEqualTo("/..a/b..");
+    }
+}
@@ -0,0 +1,128 @@
+package trunk.http11.response;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChunkedOutputStreamTest {
+
+    static class RecordingSink implements ResponseSink {
+        final List<String> writes = new ArrayList<>();
+        boolean closed = false;
+
+        @Override
+        public void write(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            writes.add(new String(bytes, StandardCharsets.ISO_8859_1));
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        String all() {
+            return String.join("", writes);
+        }
+    }
+
+    @Test
+    @DisplayName("flush 시 버퍼의 데이터를 하나의 청크로 인코딩하여 전송해야 한다.")
+    void flushWritesChunk() throws IOException {
+        // given
+        RecordingSink sink = new RecordingSink();
+        ChunkedOutputStream out = new ChunkedOutputStream(sink);
+
+        // when
+        out.write("hello world".getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+
+        // then
+        assertThat(sink.writes).containsExactly("b\r\nhello world\r\n");
+    }
+
+    @Test
+    @DisplayName("청크 크기를 넘는 데이터는 여러 청크로 나누어 전송해야 한다.")
+    void splitByChunkSize() throws IOException {
+        // given
+        RecordingSink sink = new RecordingSink();
+        ChunkedOutputStream out = new ChunkedOutputStream(sink, 4);
+
+        // when
+        out.write("abcdefghij".getBytes(StandardCharsets.ISO_8859_1));
+        out.close();
+
+        // then
+        assertThat(sink.all()).isEqualTo("4\r\nabcd\r\n4\r\nefgh\r\n2\r\nij\r\n0\r\n\r\n");
+        assertThat(sink.closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("close는 마지막 청크를 한 번만 전송하고, 이후 쓰기는 예외가 발생해야 한다.")
+    void closeIsIdempotent() throws IOException {
+        // given
+        RecordingSink sink = new RecordingSink();
+        ChunkedOutputStream out = new ChunkedOutputStream(sink);
+
+        // when
+        out.close();
+        out.close();
+
+        // then
+        assertThat(sink.writes).containsExactly("0\r\n\r\n");
+        assertThatThrownBy(() -> out.write(1)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("싱크가 바인딩된 응답은 헤더를 먼저 커밋하고 chunked 헤더를 설정해야 한다.")
+    void responseCommitsHeadersOnStreaming() throws IOException {
+        // given
+        RecordingSink sink = new RecordingSink();
+        HttpResponse response = new HttpResponse();
+        response.setResponseSink(sink);
+        response.setStatusCode(200);
+        response.setHeader("Content-Length", "100");
+        boolean[] listenerCalled = {false};
+        response.setCommitListener(() -> listenerCalled[0] = true);
+
+        // when
+        OutputStream out = response.getChunkedOutputStream();
+        out.write("hi".getBytes(StandardCharsets.ISO_8859_1));
+        out.close();
+
+        // then
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(listenerCalled[0]).isTrue();
+        assertThat(sink.writes.get(0))
+                .startsWith("HTTP/1.1 200 OK\r\n")
+                .contains("Transfer-Encoding: chunked\r\n")
+                .doesNotContain("Content-Length");
+        assertThat(sink.all()).endsWith("\r\n\r\n2\r\nhi\r\n0\r\n\r\n");
+    }
+
+    @Test
+    @DisplayName("싱크가 바인딩되지 않은 응답은 스트림을 닫을 때 메모리 본문으로 설정되어야 한다.")
+    void unboundResponseBuffersBody() throws IOException {
+        // given
+        HttpResponse response = new HttpResponse();
+
+        // when
+        try (OutputStream out = response.getChunkedOutputStream()) {
+            out.write("hello".getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        // then
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getBody()).isEqualTo("hello".getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
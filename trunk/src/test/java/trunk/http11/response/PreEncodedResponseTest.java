@@ -0,0 +1,94 @@
+package trunk.http11.response;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PreEncodedResponseTest {
+    private static final PreEncodedResponse NOT_FOUND = PreEncodedResponse.text(404, "Not Found");
+
+    @Test
+    @DisplayName("공유 응답은 읽기 전용 뷰로 전송하고, 요청별 헤더와 Date는 사이에 끼워 넣어야 한다.")
+    void spliceRequestHeaders() {
+        // given
+        HttpResponse response = new HttpResponse();
+        response.setPreEncodedResponse(NOT_FOUND);
+        response.addHeader("Set-Cookie", "JSESSIONID=abc; Path=/; HttpOnly");
+
+        // when
+        PreEncodedResponse preEncoded = response.getPreEncodedResponse();
+        ByteBuffer[] buffers = ResponseSender.createPreEncodedResponse(response, preEncoded);
+
+        // then
+        assertThat(preEncoded).isSameAs(NOT_FOUND);
+        assertThat(buffers).hasSize(3);
+        assertThat(buffers[0].isReadOnly()).isTrue();
+        assertThat(buffers[2].isReadOnly()).isTrue();
+        assertThat(toString(buffers))
+                .startsWith("HTTP/1.1 404 Not Found\r\n")
+                .contains("Content-Type: text/plain; charset=utf-8\r\n")
+                .contains("Content-Length: 9\r\n")
+                .contains("Set-Cookie: JSESSIONID=abc; Path=/; HttpOnly\r\n")
+                .containsOnlyOnce("Date: ")
+                .endsWith("\r\n\r\nNot Found");
+    }
+
+    @Test
+    @DisplayName("여러 요청이 같은 공유 버퍼를 전송해도 서로의 위치에 영향을 주지 않아야 한다.")
+    void independentViews() {
+        // given
+        HttpResponse first = new HttpResponse();
+        HttpResponse second = new HttpResponse();
+        first.setPreEncodedResponse(NOT_FOUND);
+        second.setPreEncodedResponse(NOT_FOUND);
+
+        // when
+        String firstRaw = toString(ResponseSender.createPreEncodedResponse(first, NOT_FOUND));
+        String secondRaw = toString(ResponseSender.createPreEncodedResponse(second, NOT_FOUND));
+
+        // then
+        assertThat(secondRaw.replaceAll("Date: .*\r\n", ""))
+                .isEqualTo(firstRaw.replaceAll("Date: .*\r\n", ""))
+                .endsWith("Not Found");
+    }
+
+    @Test
+    @DisplayName("HEAD 응답은 본문 버퍼를 빼고, 본문이나 상태 코드를 바꾼 응답은 공유 응답을 쓰지 않아야 한다.")
+    void fallbackWhenChanged() {
+        // given
+        HttpResponse head = new HttpResponse();
+        head.setBodySuppressed(true);
+        head.setPreEncodedResponse(NOT_FOUND);
+        HttpResponse changedBody = new HttpResponse();
+        changedBody.setPreEncodedResponse(NOT_FOUND);
+        changedBody.setBody("Gone".getBytes(StandardCharsets.UTF_8));
+        HttpResponse changedStatus = new HttpResponse();
+        changedStatus.setPreEncodedResponse(PreEncodedResponse.redirect("/index.html"));
+        changedStatus.setStatusCode(301);
+
+        // when
+        ByteBuffer[] headBuffers = ResponseSender.createPreEncodedResponse(head, head.getPreEncodedResponse());
+
+        // then
+        assertThat(headBuffers).hasSize(2);
+        assertThat(toString(headBuffers)).contains("Content-Length: 9\r\n").endsWith("\r\n\r\n");
+        assertThat(changedBody.getPreEncodedResponse()).isNull();
+        assertThat(changedStatus.getPreEncodedResponse()).isNull();
+        assertThat(changedStatus.getHeader("Location")).isEqualTo("/index.html");
+    }
+
+    private static String toString(ByteBuffer[] buffers) {
+        StringBuilder sb = new StringBuilder();
+        for (ByteBuffer buffer : buffers) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            ResponseSender.release(buffer);
+            sb.append(new String(bytes, StandardCharsets.ISO_8859_1));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,200 @@
+package trunk.http11.response;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCompressionTest {
+    private static final String TEXT = "<p>elephant</p>\n".repeat(500);
+
+    @Test
+    @DisplayName("Accept-Encoding의 q 값에 따라 인코딩을 고르고, 같으면 gzip을 우선해야 한다.")
+    void negotiate() {
+        assertThat(ResponseCompression.negotiate("gzip, deflate, br")).isEqualTo("gzip");
+        assertThat(ResponseCompression.negotiate("deflate, gzip;q=0.5")).isEqualTo("deflate");
+        assertThat(ResponseCompression.negotiate("gzip;q=0, deflate")).isEqualTo("deflate");
+        assertThat(ResponseCompression.negotiate("*")).isEqualTo("gzip");
+        assertThat(ResponseCompression.negotiate("br, identity")).isNull();
+        assertThat(ResponseCompression.negotiate(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("압축 대상 메모리 본문은 gzip으로 압축하고 Content-Encoding과 Vary를 설정해야 한다.")
+    void compressMemoryBody() throws IOException {
+        // given
+        HttpResponse response = textResponse("gzip");
+        response.setBody(TEXT.getBytes(StandardCharsets.UTF_8));
+        response.setHeader("Content-Length", String.valueOf(TEXT.length()));
+
+        // when
+        response.compressBody();
+
+        // then
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(response.getHeader("Content-Length")).isNull();
+        assertThat(response.getBody().length).isLessThan(TEXT.length() / 10);
+        assertThat(gunzip(response.getBody())).isEqualTo(TEXT);
+    }
+
+    @Test
+    @DisplayName("writer로 모은 본문은 풀 버퍼 그대로 deflate로 압축되어 전송되어야 한다.")
+    void compressBufferedBody() throws IOException {
+        // given
+        HttpResponse response = textResponse("deflate");
+        response.setResponseSink(new ChunkedOutputStreamTest.RecordingSink());
+        PrintWriter writer = response.getWriter();
+        writer.print(TEXT);
+
+        // when
+        response.finishStreaming();
+        response.compressBody();
+        List<ByteBuffer> buffers = ResponseSender.createBufferedResponse(response);
+
+        // then
+        String head = toString(buffers.get(0));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : buffers.subList(1, buffers.size())) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            body.write(bytes);
+            ResponseSender.release(buffer);
+        }
+        assertThat(head).contains("Content-Encoding: deflate\r\n")
+                .contains("Content-Length: " + body.size() + "\r\n");
+        assertThat(inflate(new InflaterInputStream(new ByteArrayInputStream(body.toByteArray())))).isEqualTo(TEXT);
+    }
+
+    @Test
+    @DisplayName("최소 크기보다 작거나 압축 대상이 아닌 본문, 지원하지 않는 클라이언트의 응답은 압축하지 않아야 한다.")
+    void skipCompression() {
+        // given
+        HttpResponse small = textResponse("gzip");
+        small.setBody("tiny".getBytes(StandardCharsets.UTF_8));
+        HttpResponse image = textResponse("gzip");
+        image.setHeader("Content-Type", "image/png");
+        image.setBody(TEXT.getBytes(StandardCharsets.UTF_8));
+        HttpResponse identity = textResponse(null);
+        identity.setBody(TEXT.getBytes(StandardCharsets.UTF_8));
+
+        // when
+        small.compressBody();
+        image.compressBody();
+        identity.compressBody();
+
+        // then
+        assertThat(small.getHeader("Content-Encoding")).isNull();
+        assertThat(image.getHeader("Content-Encoding")).isNull();
+        assertThat(image.getHeader("Vary")).isNull();
+        assertThat(identity.getHeader("Content-Encoding")).isNull();
+        assertThat(identity.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(identity.getBody()).hasSize(TEXT.length());
+    }
+
+    @Test
+    @DisplayName("HEAD 응답은 본문을 압축하지 않고 GET과 같은 Vary, Content-Encoding만 보내며 Content-Length는 생략해야 한다.")
+    void skipCompressionForHead() throws IOException {
+        // given
+        HttpResponse memory = textResponse("gzip");
+        memory.setBodySuppressed(true);
+        memory.setBody(TEXT.getBytes(StandardCharsets.UTF_8));
+        HttpResponse buffered = textResponse("deflate");
+        buffered.setBodySuppressed(true);
+        buffered.getWriter().print(TEXT);
+
+        // when
+        memory.compressBody();
+        buffered.finishStreaming();
+        buffered.compressBody();
+        List<ByteBuffer> buffers = ResponseSender.createBufferedResponse(buffered);
+
+        // then
+        assertThat(memory.getBody()).hasSize(TEXT.length());
+        assertThat(toString(ResponseSender.sendResponseNIO(memory)))
+                .contains("Content-Encoding: gzip\r\n")
+                .contains("Vary: Accept-Encoding\r\n")
+                .doesNotContain("Content-Length")
+                .endsWith("\r\n\r\n");
+        assertThat(buffers).hasSize(1);
+        assertThat(toString(buffers.get(0)))
+                .contains("Content-Encoding: deflate\r\n")
+                .doesNotContain("Content-Length");
+    }
+
+    @Test
+    @DisplayName("스트리밍 본문은 청크마다 압축되어 전송되고, flush한 데이터는 바로 풀 수 있어야 한다.")
+    void compressStreamingBody() throws IOException {
+        // given
+        ChunkedOutputStreamTest.RecordingSink sink = new ChunkedOutputStreamTest.RecordingSink();
+        HttpResponse response = textResponse("gzip");
+        response.setResponseSink(sink);
+
+        // when
+        OutputStream out = response.getChunkedOutputStream();
+        out.write(TEXT.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        int flushedWrites = sink.writes.size();
+        out.write(TEXT.getBytes(StandardCharsets.UTF_8));
+        out.close();
+
+        // then
+        String raw = sink.all();
+        assertThat(flushedWrites).isGreaterThan(1);
+        assertThat(raw).contains("Content-Encoding: gzip\r\n").contains("Transfer-Encoding: chunked\r\n");
+        assertThat(sink.closed).isTrue();
+        assertThat(gunzip(dechunk(raw.substring(raw.indexOf("\r\n\r\n") + 4)))).isEqualTo(TEXT + TEXT);
+    }
+
+    private static HttpResponse textResponse(String acceptEncoding) {
+        HttpResponse response = new HttpResponse();
+        response.setStatusCode(200);
+        response.setHeader("Content-Type", "text/html; charset=utf-8");
+        response.setCompression(new CompressionConfig(), acceptEncoding);
+        return response;
+    }
+
+    private static byte[] dechunk(String chunked) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int position = 0;
+        while (true) {
+            int lineEnd = chunked.indexOf("\r\n", position);
+            int size = Integer.parseInt(chunked.substring(position, lineEnd), 16);
+            if (size == 0) {
+                return out.toByteArray();
+            }
+            byte[] data = chunked.substring(lineEnd + 2, lineEnd + 2 + size).getBytes(StandardCharsets.ISO_8859_1);
+            out.write(data, 0, data.length);
+            position = lineEnd + 2 + size + 2;
+        }
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        return inflate(new GZIPInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    private static String inflate(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String toString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        ResponseSender.release(buffer);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
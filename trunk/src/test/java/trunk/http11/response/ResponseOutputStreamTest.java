@@ -0,0 +1,106 @@
+package trunk.http11.response;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResponseOutputStreamTest {
+
+    @Test
+    @DisplayName("writer로 쓴 본문은 풀 버퍼에 모였다가 Content-Length 헤더 뒤에 그대로 전송되어야 한다.")
+    void bufferedWriterBody() throws IOException {
+        // given
+        ChunkedOutputStreamTest.RecordingSink sink = new ChunkedOutputStreamTest.RecordingSink();
+        HttpResponse response = new HttpResponse();
+        response.setResponseSink(sink);
+        response.setStatusCode(200);
+        response.setHeader("Content-Type", "text/plain; charset=utf-8");
+
+        // when
+        PrintWriter writer = response.getWriter();
+        writer.print("안녕");
+        response.finishStreaming();
+        List<ByteBuffer> buffers = ResponseSender.createBufferedResponse(response);
+
+        // then
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(sink.writes).isEmpty();
+        assertThat(buffers).hasSize(2);
+        assertThat(toString(buffers.get(0), StandardCharsets.ISO_8859_1)).contains("Content-Length: 6\r\n");
+        assertThat(toString(buffers.get(1), StandardCharsets.UTF_8)).isEqualTo("안녕");
+    }
+
+    @Test
+    @DisplayName("모인 본문이 임계값을 넘으면 응답을 커밋하고 청크 전송으로 전환해야 한다.")
+    void switchToChunkedOverThreshold() throws IOException {
+        // given
+        ChunkedOutputStreamTest.RecordingSink sink = new ChunkedOutputStreamTest.RecordingSink();
+        HttpResponse response = new HttpResponse();
+        response.setResponseSink(sink);
+        response.setStatusCode(200);
+        byte[] data = new byte[ResponseOutputStream.STREAMING_THRESHOLD / 2];
+
+        // when
+        OutputStream out = response.getOutputStream();
+        out.write(data);
+        boolean committedBeforeThreshold = response.isCommitted();
+        out.write(data);
+        out.write('x');
+        out.close();
+
+        // then
+        assertThat(committedBeforeThreshold).isFalse();
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.hasBufferedBody()).isFalse();
+        assertThat(sink.writes.get(0)).contains("Transfer-Encoding: chunked\r\n");
+        assertThat(sink.all()).endsWith("x\r\n0\r\n\r\n");
+    }
+
+    @Test
+    @DisplayName("바인딩되지 않은 응답은 모은 본문을 메모리 본문으로 합치고, setBody는 모은 본문을 버려야 한다.")
+    void bodyFromBufferedOutput() throws IOException {
+        // given
+        HttpResponse response = new HttpResponse();
+        HttpResponse replaced = new HttpResponse();
+
+        // when
+        response.getOutputStream().write("hello".getBytes(StandardCharsets.ISO_8859_1));
+        replaced.getWriter().print("discarded");
+        replaced.setBody("error".getBytes(StandardCharsets.ISO_8859_1));
+
+        // then
+        assertThat(response.getBody()).isEqualTo("hello".getBytes(StandardCharsets.ISO_8859_1));
+        assertThat(replaced.hasBufferedBody()).isFalse();
+        assertThat(replaced.getBody()).isEqualTo("error".getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    @DisplayName("getWriter와 getOutputStream은 함께 사용할 수 없다.")
+    void writerAndStreamAreExclusive() {
+        // given
+        HttpResponse response = new HttpResponse();
+
+        // when
+        response.getWriter();
+
+        // then
+        assertThatThrownBy(response::getOutputStream).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static String toString(ByteBuffer buffer, Charset charset) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        ResponseSender.release(buffer);
+        return new String(bytes, charset);
+    }
+}
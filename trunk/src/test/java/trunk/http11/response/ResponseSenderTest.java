@@ -0,0 +1,102 @@
+package trunk.http11.response;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseSenderTest {
+
+    @Test
+    @DisplayName("응답은 상태 라인, 헤더, Content-Length, Date, Server, 본문 순으로 직렬화되어야 한다.")
+    void encodeResponse() throws IOException {
+        // given
+        HttpResponse response = new HttpResponse();
+        response.setStatusCode(200);
+        response.setHeader("Content-Type", "text/plain");
+        response.setHeader("X-Name", "홍");
+        response.setBody("hello".getBytes(StandardCharsets.ISO_8859_1));
+
+        // when
+        String raw = toString(ResponseSender.sendResponseNIO(response));
+
+        // then
+        assertThat(raw)
+                .startsWith("HTTP/1.1 200 OK\r\n")
+                .contains("Content-Type: text/plain\r\n")
+                .contains("X-Name: ?\r\n")
+                .contains("Content-Length: 5\r\n")
+                .containsPattern("Date: [A-Z][a-z]{2}, \\d{2} [A-Z][a-z]{2} \\d{4} \\d{2}:\\d{2}:\\d{2} GMT\r\n")
+                .contains("Server: " + ResponseHeaderEncoder.SERVER + "\r\n")
+                .endsWith("\r\n\r\nhello");
+    }
+
+    @Test
+    @DisplayName("직접 설정한 Date와 Content-Length는 덮어쓰지 않고, BIO와 NIO의 헤더는 같아야 한다.")
+    void keepExplicitHeaders() throws IOException {
+        // given
+        HttpResponse response = new HttpResponse();
+        response.setStatusCode(404);
+        response.setHeader("Date", "Thu, 01 Jan 1970 00:00:00 GMT");
+        response.setHeader("Content-Length", "0");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        String nio = toString(ResponseSender.sendResponseNIO(response));
+        ResponseSender.sendResponseBIO(response, new DataOutputStream(out));
+
+        // then
+        assertThat(nio)
+                .startsWith("HTTP/1.1 404 Not Found\r\n")
+                .contains("Date: Thu, 01 Jan 1970 00:00:00 GMT\r\n")
+                .containsOnlyOnce("Date: ")
+                .containsOnlyOnce("Content-Length: ");
+        assertThat(out.toString(StandardCharsets.ISO_8859_1)).isEqualTo(nio);
+    }
+
+    @Test
+    @DisplayName("등록된 상태 코드는 사유 문구를, 등록되지 않은 코드는 빈 사유 문구를 사용해야 한다.")
+    void statusRegistry() throws IOException {
+        // given
+        HttpResponse response = new HttpResponse();
+        response.setStatusCode(599);
+
+        // when
+        String raw = toString(ResponseSender.createHeaderBuffer(response));
+
+        // then
+        assertThat(raw).startsWith("HTTP/1.1 599 \r\n");
+        assertThat(HttpStatus.reasonPhrase(416)).isEqualTo("Range Not Satisfiable");
+        assertThat(HttpStatus.valueOf(304)).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(HttpStatus.valueOf(99)).isNull();
+    }
+
+    @Test
+    @DisplayName("풀 크기를 넘는 응답은 필요한 만큼 버퍼를 할당해야 한다.")
+    void largeResponse() throws IOException {
+        // given
+        HttpResponse response = new HttpResponse();
+        response.setStatusCode(200);
+        response.setBody(new byte[ResponseSender.POOLED_BUFFER_SIZE * 2]);
+
+        // when
+        ByteBuffer buffer = ResponseSender.sendResponseNIO(response);
+
+        // then
+        assertThat(buffer.remaining()).isGreaterThan(ResponseSender.POOLED_BUFFER_SIZE * 2);
+        assertThat(toString(buffer)).contains("Content-Length: " + ResponseSender.POOLED_BUFFER_SIZE * 2 + "\r\n");
+    }
+
+    private static String toString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        ResponseSender.release(buffer);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
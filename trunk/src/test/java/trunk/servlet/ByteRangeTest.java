@@ -0,0 +1,46 @@
+package trunk.servlet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ByteRangeTest {
+
+    @Test
+    @DisplayName("처음-끝, 시작 위치만, 마지막 N 바이트 형식을 파일 크기에 맞춰 해석해야 한다.")
+    void parseRanges() {
+        // when
+        List<ByteRange> ranges = ByteRange.parse("bytes=0-99, 900-, -50", 1000);
+
+        // then
+        assertThat(ranges).containsExactly(
+                new ByteRange(0, 99),
+                new ByteRange(900, 999),
+                new ByteRange(950, 999));
+    }
+
+    @Test
+    @DisplayName("파일 끝을 넘는 끝 위치는 줄이고, 파일 밖의 구간만 있으면 빈 목록을 반환해야 한다.")
+    void clampAndUnsatisfiable() {
+        assertThat(ByteRange.parse("bytes=500-5000", 1000)).containsExactly(new ByteRange(500, 999));
+        assertThat(ByteRange.parse("bytes=-5000", 1000)).containsExactly(new ByteRange(0, 999));
+        assertThat(ByteRange.parse("bytes=1000-", 1000)).isEmpty();
+        assertThat(ByteRange.parse("bytes=-0", 1000)).isEmpty();
+        assertThat(new ByteRange(500, 999).toContentRange(1000)).isEqualTo("bytes 500-999/1000");
+    }
+
+    @Test
+    @DisplayName("형식이 잘못되었거나, 다른 단위이거나, 구간 합이 파일보다 크면 헤더를 무시해야 한다.")
+    void ignoreInvalid() {
+        assertThat(ByteRange.parse("bytes=abc", 1000)).isNull();
+        assertThat(ByteRange.parse("bytes=5-1", 1000)).isNull();
+        assertThat(ByteRange.parse("bytes=+1-5", 1000)).isNull();
+        assertThat(ByteRange.parse("bytes=", 1000)).isNull();
+        assertThat(ByteRange.parse("items=0-5", 1000)).isNull();
+        assertThat(ByteRange.parse("bytes=0-999,0-999", 1000)).isNull();
+        assertThat(ByteRange.parse("bytes=" + "0-0,".repeat(ByteRange.MAX_RANGES + 1), 1000)).isNull();
+    }
+}
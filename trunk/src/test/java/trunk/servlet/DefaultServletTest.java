@@ -4,14 +4,19 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import trunk.container.StandardContext;
+import trunk.http11.request.HttpHeader;
 import trunk.http11.request.HttpRequest;
 import trunk.http11.request.HttpRequestStartLine;
+import trunk.http11.request.RequestTarget;
+import trunk.http11.response.FileRegion;
 import trunk.http11.response.HttpResponse;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -23,28 +28,29 @@ class DefaultServletTest {
     private static final String TEST_FILE_NAME = "/test.html";
     private static final Path TEST_FILE_PATH = Paths.get(TEST_DIR + TEST_FILE_NAME);
     private static final String TEST_CONTENT = "<html>test</html>";
+    private static final String LARGE_FILE_NAME = "/large.js";
+    private static final Path LARGE_FILE_PATH = Paths.get(TEST_DIR + LARGE_FILE_NAME);
 
     @BeforeEach
     void setUp() throws IOException {
         Files.createDirectories(TEST_FILE_PATH.getParent());
         Files.write(TEST_FILE_PATH, TEST_CONTENT.getBytes());
+        StandardContext context = new StandardContext();
+        context.setDocBase(TEST_DIR);
+        defaultServlet.setServletContext(context);
     }
 
     @AfterEach
     void tearDown() throws IOException {
         Files.deleteIfExists(TEST_FILE_PATH);
+        Files.deleteIfExists(LARGE_FILE_PATH);
     }
 
     @Test
-    @DisplayName("정적 리소스가 존재 하는 경우, 응답 객체에 파일 메타데이터를 정확히 설정해야 한다.")
+    @DisplayName("작은 정적 리소스는 메모리에 보관한 미리 인코딩된 응답으로 ETag, Last-Modified와 함께 설정해야 한다.")
     void testService_200() throws IOException {
         // given
-        HttpRequest mockRequest = mock(HttpRequest.class);
-        HttpRequestStartLine mockStartLine = mock(HttpRequestStartLine.class);
-
-        when(mockRequest.getStartLine()).thenReturn(mockStartLine);
-        when(mockRequest.getStartLine().getRequestUri()).thenReturn(TEST_FILE_NAME);
-
+        HttpRequest mockRequest = mockRequest(TEST_FILE_NAME);
         HttpResponse response = new HttpResponse();
 
         // when
@@ -54,19 +60,134 @@ class DefaultServletTest {
         assertThat(response.getStatusCode()).isEqualTo(200);
         assertThat(response.getHeader("Content-Type")).isEqualTo("text/html");
         assertThat(response.getHeader("Content-Length")).isEqualTo(String.valueOf(TEST_CONTENT.length()));
+        assertThat(response.getHeader("ETag")).startsWith("\"").endsWith("\"");
+        assertThat(response.getHeader("Last-Modified")).endsWith(" GMT");
+        assertThat(response.hasFileBody()).isFalse();
+        assertThat(response.getPreEncodedResponse()).isNotNull();
+        assertThat(new String(response.getBody())).isEqualTo(TEST_CONTENT);
+    }
+
+    @Test
+    @DisplayName("큰 정적 리소스는 메모리에 올리지 않고 파일 경로를 응답 본문으로 설정해야 한다.")
+    void testService_largeFile() throws IOException {
+        // given
+        byte[] content = new byte[StaticResourceCache.DEFAULT_MAX_FILE_SIZE + 1];
+        Files.write(LARGE_FILE_PATH, content);
+        HttpRequest mockRequest = mockRequest(LARGE_FILE_NAME);
+        HttpResponse response = new HttpResponse();
+
+        // when
+        defaultServlet.service(mockRequest, response);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getHeader("Content-Type")).isEqualTo("application/javascript");
+        assertThat(response.getHeader("Content-Length")).isEqualTo(String.valueOf(content.length));
+        assertThat(response.getHeader("ETag")).isNotNull();
         assertThat(response.hasFileBody()).isTrue();
-        assertThat(response.getFileBody()).isEqualTo(TEST_FILE_PATH.toAbsolutePath().normalize());
+        assertThat(response.getFileBody().normalize()).isEqualTo(LARGE_FILE_PATH.toAbsolutePath().normalize());
         assertThat(response.getBody()).isNull();
     }
 
+    @Test
+    @DisplayName("If-None-Match가 현재 ETag와 같거나 If-Modified-Since 이후 수정되지 않았으면 본문 없이 304로 응답해야 한다.")
+    void testService_304() throws IOException {
+        // given
+        HttpResponse first = new HttpResponse();
+        defaultServlet.service(mockRequest(TEST_FILE_NAME), first);
+        String etag = first.getHeader("ETag");
+        String lastModified = first.getHeader("Last-Modified");
+
+        HttpRequest byETag = mockRequest(TEST_FILE_NAME);
+        when(byETag.getHeader(HttpHeader.IF_NONE_MATCH)).thenReturn("\"other\", W/" + etag);
+        HttpRequest byDate = mockRequest(TEST_FILE_NAME);
+        when(byDate.getHeader(HttpHeader.IF_MODIFIED_SINCE)).thenReturn(lastModified);
+        HttpRequest staleETag = mockRequest(TEST_FILE_NAME);
+        when(staleETag.getHeader(HttpHeader.IF_NONE_MATCH)).thenReturn("\"other\"");
+        when(staleETag.getHeader(HttpHeader.IF_MODIFIED_SINCE)).thenReturn(lastModified);
+
+        HttpResponse notModifiedByETag = new HttpResponse();
+        HttpResponse notModifiedByDate = new HttpResponse();
+        HttpResponse modified = new HttpResponse();
+
+        // when
+        defaultServlet.service(byETag, notModifiedByETag);
+        defaultServlet.service(byDate, notModifiedByDate);
+        defaultServlet.service(staleETag, modified);
+
+        // then
+        assertThat(notModifiedByETag.getStatusCode()).isEqualTo(304);
+        assertThat(notModifiedByETag.getHeader("ETag")).isEqualTo(etag);
+        assertThat(notModifiedByETag.getBody()).isNull();
+        assertThat(notModifiedByDate.getStatusCode()).isEqualTo(304);
+        // If-None-Match가 있으면 If-Modified-Since는 무시한다
+        assertThat(modified.getStatusCode()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Range 요청에는 요청한 구간만 206으로 응답하고, 만족할 수 없으면 416으로 응답해야 한다.")
+    void testService_206() throws IOException {
+        // given
+        HttpRequest single = mockRequest(TEST_FILE_NAME);
+        when(single.getHeader(HttpHeader.RANGE)).thenReturn("bytes=6-9");
+        HttpRequest unsatisfiable = mockRequest(TEST_FILE_NAME);
+        when(unsatisfiable.getHeader(HttpHeader.RANGE)).thenReturn("bytes=100-");
+        HttpRequest staleIfRange = mockRequest(TEST_FILE_NAME);
+        when(staleIfRange.getHeader(HttpHeader.RANGE)).thenReturn("bytes=6-9");
+        when(staleIfRange.getHeader(HttpHeader.IF_RANGE)).thenReturn("\"stale\"");
+
+        HttpResponse partial = new HttpResponse();
+        HttpResponse notSatisfiable = new HttpResponse();
+        HttpResponse full = new HttpResponse();
+
+        // when
+        defaultServlet.service(single, partial);
+        defaultServlet.service(unsatisfiable, notSatisfiable);
+        defaultServlet.service(staleIfRange, full);
+
+        // then
+        assertThat(partial.getStatusCode()).isEqualTo(206);
+        assertThat(partial.getHeader("Content-Range")).isEqualTo("bytes 6-9/" + TEST_CONTENT.length());
+        assertThat(partial.getHeader("Content-Length")).isEqualTo("4");
+        assertThat(new String(partial.getBody())).isEqualTo("test");
+        assertThat(notSatisfiable.getStatusCode()).isEqualTo(416);
+        assertThat(notSatisfiable.getHeader("Content-Range")).isEqualTo("bytes */" + TEST_CONTENT.length());
+        // If-Range가 현재 파일과 다르면 Range를 무시하고 전체를 보낸다
+        assertThat(full.getStatusCode()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("큰 파일의 여러 구간은 파트 헤더가 붙은 파일 구간으로 설정하여 multipart/byteranges로 응답해야 한다.")
+    void testService_multipartRanges() throws IOException {
+        // given
+        byte[] content = new byte[StaticResourceCache.DEFAULT_MAX_FILE_SIZE + 1];
+        Files.write(LARGE_FILE_PATH, content);
+        HttpRequest mockRequest = mockRequest(LARGE_FILE_NAME);
+        when(mockRequest.getHeader(HttpHeader.RANGE)).thenReturn("bytes=0-9,-10");
+        HttpResponse response = new HttpResponse();
+
+        // when
+        defaultServlet.service(mockRequest, response);
+
+        // then
+        List<FileRegion> regions = response.getFileRegions();
+        assertThat(response.getStatusCode()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Type")).startsWith("multipart/byteranges; boundary=");
+        assertThat(response.hasFileBody()).isTrue();
+        assertThat(regions).hasSize(3);
+        assertThat(regions.get(0).offset()).isZero();
+        assertThat(regions.get(1).offset()).isEqualTo(content.length - 10);
+        assertThat(new String(regions.get(1).prefix()))
+                .contains("Content-Range: bytes " + (content.length - 10) + "-" + (content.length - 1) + "/" + content.length);
+        assertThat(regions.get(2).length()).isZero();
+        assertThat(response.getHeader("Content-Length")).isEqualTo(String.valueOf(response.getFileBodyLength()));
+    }
+
     @Test
     @DisplayName("정적 리소스가 존재하지 않는 경우 404 응답을 반환해야한다.")
     void testService_404() throws Exception {
         // given
-        HttpRequest mockRequest = mock(HttpRequest.class);
-        HttpRequestStartLine mockStartLine = mock(HttpRequestStartLine.class);
-        when(mockRequest.getStartLine()).thenReturn(mockStartLine);
-        when(mockRequest.getStartLine().getRequestUri()).thenReturn("/non-existent-file.html");
+        HttpRequest mockRequest = mockRequest("/non-existent-file.html");
 
         HttpResponse response = new HttpResponse();
         // when
@@ -77,4 +198,13 @@ class DefaultServletTest {
         assertThat(response.hasFileBody()).isFalse();
         assertThat(response.getBody()).isNotNull();
     }
+
+    private static HttpRequest mockRequest(String path) {
+        HttpRequest mockRequest = mock(HttpRequest.class);
+        HttpRequestStartLine mockStartLine = mock(HttpRequestStartLine.class);
+        when(mockRequest.getStartLine()).thenReturn(mockStartLine);
+        when(mockStartLine.getMethod()).thenReturn("GET");
+        when(mockStartLine.getRequestTarget()).thenReturn(RequestTarget.parse(path));
+        return mockRequest;
+    }
 }
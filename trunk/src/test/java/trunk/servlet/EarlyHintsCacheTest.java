@@ -0,0 +1,64 @@
+package trunk.servlet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EarlyHintsCacheTest {
+    @TempDir
+    Path docBase;
+
+    @Test
+    @DisplayName("스타일시트와 스크립트 링크를 문서 기준 절대 경로의 preload 값으로 추출해야 한다.")
+    void parseStylesheetsAndScripts() {
+        // given
+        String html = """
+                <link href="css/bootstrap.min.css" rel="stylesheet">
+                <link rel="icon" href="/favicon.ico">
+                <!--[if lt IE 9]><script src="js/ie.js"></script><![endif]-->
+                <script src='../js/app.js?v=2'></script>
+                <script src="//cdn.example.com/lib.js"></script>
+                <script src="https://cdn.example.com/lib.js"></script>
+                <LINK REL="alternate stylesheet" HREF="/css/dark.css">
+                <script src="../js/app.js?v=2"></script>
+                """;
+
+        // when
+        List<String> links = EarlyHintsCache.parse(html, "/user/form.html");
+
+        // then
+        assertThat(links).containsExactly(
+                "</user/css/bootstrap.min.css>; rel=preload; as=style",
+                "</js/app.js?v=2>; rel=preload; as=script",
+                "</css/dark.css>; rel=preload; as=style");
+    }
+
+    @Test
+    @DisplayName("시작 시 분석한 결과를 재사용하고, 문서가 바뀌면 다시 분석해야 한다.")
+    void rescanOnChange() throws Exception {
+        // given
+        Path index = docBase.resolve("index.html");
+        Files.writeString(index, "<script src=\"js/a.js\"></script>");
+        Files.setLastModifiedTime(index, FileTime.fromMillis(1_000_000L));
+        EarlyHintsCache cache = new EarlyHintsCache(docBase);
+        cache.scan();
+
+        // when
+        List<String> before = cache.getLinks(index);
+        Files.writeString(index, "<script src=\"js/b.js\"></script>");
+        Files.setLastModifiedTime(index, FileTime.fromMillis(2_000_000L));
+        List<String> after = cache.getLinks(index);
+
+        // then
+        assertThat(before).containsExactly("</js/a.js>; rel=preload; as=script");
+        assertThat(after).containsExactly("</js/b.js>; rel=preload; as=script");
+        assertThat(cache.getLinks(docBase.resolve("app.css"))).isEmpty();
+    }
+}
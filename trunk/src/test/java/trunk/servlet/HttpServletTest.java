@@ -0,0 +1,102 @@
+package trunk.servlet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import trunk.http11.request.HttpRequest;
+import trunk.http11.request.HttpRequestStartLine;
+import trunk.http11.response.HttpResponse;
+import trunk.http11.response.ResponseSender;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HttpServletTest {
+    private static final byte[] BODY = "hello world".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServlet getOnlyServlet = new HttpServlet() {
+        @Override
+        protected void doGet(HttpRequest request, HttpResponse response) {
+            response.setStatusCode(200);
+            response.setHeader("Content-Type", "text/plain");
+            response.setBody(BODY);
+        }
+    };
+
+    private static HttpRequest request(String method) {
+        HttpRequest request = mock(HttpRequest.class);
+        HttpRequestStartLine startLine = mock(HttpRequestStartLine.class);
+        when(request.getStartLine()).thenReturn(startLine);
+        when(startLine.getMethod()).thenReturn(method);
+        return request;
+    }
+
+    @Test
+    @DisplayName("HEAD 요청은 doGet을 실행하고 본문을 생략하도록 표시해야 한다.")
+    void headRunsGet() throws IOException {
+        // given
+        HttpResponse response = new HttpResponse();
+
+        // when
+        getOnlyServlet.service(request("HEAD"), response);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getBody()).isEqualTo(BODY);
+        assertThat(response.isBodySuppressed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("본문을 생략한 응답은 GET과 같은 Content-Length로 헤더만 직렬화해야 한다.")
+    void headResponseHasNoBody() throws IOException {
+        // given
+        HttpResponse response = new HttpResponse();
+        getOnlyServlet.service(request("HEAD"), response);
+
+        // when
+        ByteBuffer buffer = ResponseSender.sendResponseNIO(response);
+
+        // then
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        String raw = new String(bytes, StandardCharsets.ISO_8859_1);
+        assertThat(raw).contains("Content-Length: " + BODY.length + "\r\n");
+        assertThat(raw).endsWith("\r\n\r\n");
+    }
+
+    @Test
+    @DisplayName("OPTIONS 요청은 오버라이드한 메서드로 Allow 헤더를 만들어 응답해야 한다.")
+    void optionsFromOverriddenMethods() throws IOException {
+        // given
+        HttpResponse response = new HttpResponse();
+
+        // when
+        getOnlyServlet.service(request("OPTIONS"), response);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getHeader("Allow")).isEqualTo("GET, HEAD, OPTIONS");
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    @DisplayName("구현하지 않은 메서드는 Allow 헤더와 함께 405, 알 수 없는 메서드는 501로 응답해야 한다.")
+    void unsupportedMethods() throws IOException {
+        // given
+        HttpResponse notAllowed = new HttpResponse();
+        HttpResponse notImplemented = new HttpResponse();
+
+        // when
+        getOnlyServlet.service(request("POST"), notAllowed);
+        getOnlyServlet.service(request("PATCH"), notImplemented);
+
+        // then
+        assertThat(notAllowed.getStatusCode()).isEqualTo(405);
+        assertThat(notAllowed.getHeader("Allow")).isEqualTo("GET, HEAD, OPTIONS");
+        assertThat(notImplemented.getStatusCode()).isEqualTo(501);
+    }
+}
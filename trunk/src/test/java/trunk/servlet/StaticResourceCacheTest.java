@@ -0,0 +1,90 @@
+package trunk.servlet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaticResourceCacheTest {
+    @TempDir
+    Path docBase;
+
+    @Test
+    @DisplayName("확인 기간 안에는 파일이 바뀌어도 보관한 항목을 그대로 반환해야 한다.")
+    void reuseWithinRevalidatePeriod() throws Exception {
+        // given
+        Path file = docBase.resolve("app.css");
+        Files.writeString(file, "a{}");
+        StaticResourceCache cache = new StaticResourceCache(1024 * 1024, 1024, 60_000);
+        StaticResourceCache.Resource first = cache.get(file, "text/css");
+
+        // when
+        Files.delete(file);
+        StaticResourceCache.Resource second = cache.get(file, "text/css");
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(new String(second.getResponse().getBody())).isEqualTo("a{}");
+    }
+
+    @Test
+    @DisplayName("확인 기간이 지나면 파일이 바뀐 경우에만 다시 읽고, ETag도 새 내용으로 바뀌어야 한다.")
+    void reloadWhenModified() throws Exception {
+        // given
+        Path file = docBase.resolve("app.css");
+        Files.writeString(file, "a{}");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000L));
+        StaticResourceCache cache = new StaticResourceCache(1024 * 1024, 1024, 0);
+        StaticResourceCache.Resource first = cache.get(file, "text/css");
+
+        // when
+        StaticResourceCache.Resource unchanged = cache.get(file, "text/css");
+        Files.writeString(file, "b{}");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000L));
+        StaticResourceCache.Resource changed = cache.get(file, "text/css");
+        Files.delete(file);
+        StaticResourceCache.Resource deleted = cache.get(file, "text/css");
+
+        // then
+        assertThat(unchanged).isSameAs(first);
+        assertThat(changed).isNotSameAs(first);
+        assertThat(changed.getETag()).isNotEqualTo(first.getETag());
+        assertThat(new String(changed.getResponse().getBody())).isEqualTo("b{}");
+        assertThat(deleted).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("총 크기가 한도를 넘으면 가장 오래 사용하지 않은 항목부터 제거하고, 큰 파일은 내용을 보관하지 않아야 한다.")
+    void evictLeastRecentlyUsed() throws Exception {
+        // given
+        Path a = docBase.resolve("a.js");
+        Path b = docBase.resolve("b.js");
+        Path c = docBase.resolve("c.js");
+        Path large = docBase.resolve("large.js");
+        Files.write(a, new byte[400]);
+        Files.write(b, new byte[400]);
+        Files.write(c, new byte[400]);
+        Files.write(large, new byte[4096]);
+        StaticResourceCache cache = new StaticResourceCache(3000, 1024, 60_000);
+
+        // when
+        StaticResourceCache.Resource cachedA = cache.get(a, "application/javascript");
+        cache.get(b, "application/javascript");
+        cache.get(a, "application/javascript");
+        cache.get(c, "application/javascript");
+        StaticResourceCache.Resource cachedLarge = cache.get(large, "application/javascript");
+
+        // then
+        assertThat(cache.weight()).isLessThanOrEqualTo(3000);
+        assertThat(cache.get(a, "application/javascript")).isSameAs(cachedA);
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cachedLarge.getResponse()).isNull();
+        assertThat(cachedLarge.getLength()).isEqualTo(4096);
+    }
+}
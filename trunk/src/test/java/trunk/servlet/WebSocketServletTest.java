@@ -0,0 +1,67 @@
+package trunk.servlet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import trunk.http11.request.HttpRequest;
+import trunk.http11.request.HttpRequestStartLine;
+import trunk.http11.response.HttpResponse;
+import trunk.websocket.WebSocketEndpoint;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WebSocketServletTest {
+    private final WebSocketEndpoint endpoint = new WebSocketEndpoint() {
+    };
+    private final WebSocketServlet servlet = new WebSocketServlet() {
+        @Override
+        protected WebSocketEndpoint createEndpoint(HttpRequest request) {
+            return endpoint;
+        }
+    };
+
+    private static HttpRequest handshake(String version) {
+        HttpRequest request = mock(HttpRequest.class);
+        HttpRequestStartLine startLine = mock(HttpRequestStartLine.class);
+        when(request.getStartLine()).thenReturn(startLine);
+        when(startLine.getMethod()).thenReturn("GET");
+        when(request.isUpgradeRequest("websocket")).thenReturn(true);
+        when(request.getHeader("Sec-WebSocket-Key")).thenReturn("dGhlIHNhbXBsZSBub25jZQ==");
+        when(request.getHeader("Sec-WebSocket-Version")).thenReturn(version);
+        return request;
+    }
+
+    @Test
+    @DisplayName("올바른 핸드셰이크 요청이면 101 응답과 RFC 6455의 Sec-WebSocket-Accept 값을 설정해야 한다.")
+    void acceptHandshake() throws IOException {
+        // given
+        HttpResponse response = new HttpResponse();
+
+        // when
+        servlet.service(handshake("13"), response);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(101);
+        assertThat(response.getHeader("Upgrade")).isEqualTo("websocket");
+        assertThat(response.getHeader("Sec-WebSocket-Accept")).isEqualTo("s3pPLMBiTxaQ9kYGzHZdRbgvOzo=");
+        assertThat(response.getWebSocketEndpoint()).isSameAs(endpoint);
+    }
+
+    @Test
+    @DisplayName("지원하지 않는 버전이면 426 응답과 지원 버전을 알려야 한다.")
+    void rejectUnsupportedVersion() throws IOException {
+        // given
+        HttpResponse response = new HttpResponse();
+
+        // when
+        servlet.service(handshake("8"), response);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(426);
+        assertThat(response.getHeader("Sec-WebSocket-Version")).isEqualTo("13");
+        assertThat(response.getWebSocketEndpoint()).isNull();
+    }
+}
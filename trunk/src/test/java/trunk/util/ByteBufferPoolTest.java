@@ -0,0 +1,44 @@
+package trunk.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ByteBufferPoolTest {
+
+    @Test
+    @DisplayName("반납한 버퍼는 비워진 상태로 다시 대여되어야 한다.")
+    void reuseReleasedBuffer() {
+        // given
+        ByteBufferPool pool = new ByteBufferPool(16, 4);
+        ByteBuffer buffer = pool.acquire();
+        buffer.put((byte) 1);
+
+        // when
+        pool.release(buffer);
+        ByteBuffer reused = pool.acquire();
+
+        // then
+        assertThat(reused).isSameAs(buffer);
+        assertThat(reused.position()).isZero();
+        assertThat(reused.remaining()).isEqualTo(16);
+    }
+
+    @Test
+    @DisplayName("최대 보관 수를 넘거나 크기가 다른 버퍼는 풀에 보관하지 않아야 한다.")
+    void boundPooledBuffers() {
+        // given
+        ByteBufferPool pool = new ByteBufferPool(16, 1);
+
+        // when
+        pool.release(pool.acquire());
+        pool.release(ByteBuffer.allocateDirect(16));
+        pool.release(ByteBuffer.allocateDirect(32));
+
+        // then
+        assertThat(pool.pooledCount()).isEqualTo(1);
+    }
+}